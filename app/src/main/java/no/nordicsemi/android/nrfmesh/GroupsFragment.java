@@ -125,8 +125,7 @@ public class GroupsFragment extends Fragment implements
         final int position = viewHolder.getAdapterPosition();
         final MeshNetwork network = mViewModel.getNetworkLiveData().getMeshNetwork();
         final Group group = network.getGroups().get(position);
-        if (network.getModels(group).size() == 0) {
-            network.removeGroup(group);
+        if (network.removeGroup(group)) {
             displaySnackBar(group);
         }
     }
@@ -54,6 +54,7 @@ public class SharedViewModel extends BaseViewModel implements NetworkExportUtils
     @Override
     protected void onCleared() {
         super.onCleared();
+        mNrfMeshRepository.getMeshManagerApi().flushMeshNetwork();
         mNrfMeshRepository.disconnect();
         mScannerRepository.unregisterBroadcastReceivers();
     }
@@ -0,0 +1,14 @@
+package android.content;
+
+import android.os.Looper;
+
+/**
+ * Plain Java version of the framework class for running the benchmarks on the JVM.
+ */
+@SuppressWarnings("unused")
+public class Context {
+
+    public Looper getMainLooper() {
+        return Looper.getMainLooper();
+    }
+}
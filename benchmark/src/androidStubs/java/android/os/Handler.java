@@ -0,0 +1,105 @@
+package android.os;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain Java version of the framework class for running the benchmarks on the JVM.
+ * <p>
+ * Posted runnables are dropped unless the looper has been prepared, see {@link Looper#prepareMainLooper()}, so that the benchmarks
+ * measure the work done on the calling thread and the timers of the transport layers never expire.
+ * </p>
+ */
+@SuppressWarnings("unused")
+public class Handler {
+
+    private final Looper mLooper;
+    private final Map<Runnable, List<PendingRunnable>> mPending = new IdentityHashMap<>();
+
+    public Handler() {
+        this(Looper.getMainLooper());
+    }
+
+    public Handler(final Looper looper) {
+        mLooper = looper;
+    }
+
+    public final Looper getLooper() {
+        return mLooper;
+    }
+
+    public final boolean post(final Runnable r) {
+        return postDelayed(r, 0);
+    }
+
+    public final boolean postDelayed(final Runnable r, final long delayMillis) {
+        final ScheduledExecutorService executor = mLooper.getExecutor();
+        if (executor == null)
+            return true;
+        final PendingRunnable pending = new PendingRunnable(r);
+        synchronized (mPending) {
+            List<PendingRunnable> list = mPending.get(r);
+            if (list == null) {
+                list = new ArrayList<>(1);
+                mPending.put(r, list);
+            }
+            list.add(pending);
+            pending.future = executor.schedule(pending, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    public final void removeCallbacks(final Runnable r) {
+        final List<PendingRunnable> list;
+        synchronized (mPending) {
+            list = mPending.remove(r);
+        }
+        if (list != null) {
+            for (PendingRunnable pending : list) {
+                pending.future.cancel(false);
+            }
+        }
+    }
+
+    public final void removeCallbacksAndMessages(final Object token) {
+        final List<List<PendingRunnable>> lists;
+        synchronized (mPending) {
+            lists = new ArrayList<>(mPending.values());
+            mPending.clear();
+        }
+        for (List<PendingRunnable> list : lists) {
+            for (PendingRunnable pending : list) {
+                pending.future.cancel(false);
+            }
+        }
+    }
+
+    private final class PendingRunnable implements Runnable {
+
+        private final Runnable callback;
+        private ScheduledFuture<?> future;
+
+        PendingRunnable(final Runnable callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            synchronized (mPending) {
+                final List<PendingRunnable> list = mPending.get(callback);
+                //The runnable has been removed while it was waiting to run
+                if (list == null || !list.remove(this))
+                    return;
+                if (list.isEmpty()) {
+                    mPending.remove(callback);
+                }
+            }
+            callback.run();
+        }
+    }
+}
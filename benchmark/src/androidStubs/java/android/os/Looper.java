@@ -0,0 +1,51 @@
+package android.os;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Plain Java version of the framework class for running the benchmarks on the JVM.
+ * <p>
+ * There is no message loop unless {@link #prepareMainLooper()} is called, which starts a daemon thread running the runnables posted
+ * to the main looper. Only the load benchmarks need it, the transport timers never expire in the other benchmarks.
+ * </p>
+ */
+@SuppressWarnings("unused")
+public final class Looper {
+
+    private static final Looper MAIN_LOOPER = new Looper();
+
+    private volatile ScheduledExecutorService executor;
+    private volatile Thread thread;
+
+    private Looper() {
+    }
+
+    /**
+     * Starts the thread of the main looper, unlike the framework method the calling thread does not become the looper thread.
+     */
+    public static void prepareMainLooper() {
+        synchronized (MAIN_LOOPER) {
+            if (MAIN_LOOPER.executor == null) {
+                MAIN_LOOPER.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "main");
+                    thread.setDaemon(true);
+                    MAIN_LOOPER.thread = thread;
+                    return thread;
+                });
+            }
+        }
+    }
+
+    public static Looper getMainLooper() {
+        return MAIN_LOOPER;
+    }
+
+    public boolean isCurrentThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+}
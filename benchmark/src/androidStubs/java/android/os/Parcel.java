@@ -0,0 +1,10 @@
+package android.os;
+
+/**
+ * Placeholder of the framework class for running the benchmarks on the JVM, nothing is parcelled.
+ */
+public final class Parcel {
+
+    private Parcel() {
+    }
+}
@@ -0,0 +1,24 @@
+package android.os;
+
+/**
+ * Plain Java version of the framework interface for running the benchmarks on the JVM, nothing is parcelled.
+ */
+@SuppressWarnings("unused")
+public interface Parcelable {
+
+    int describeContents();
+
+    void writeToParcel(Parcel dest, int flags);
+
+    interface Creator<T> {
+
+        T createFromParcel(Parcel source);
+
+        T[] newArray(int size);
+    }
+
+    interface ClassLoaderCreator<T> extends Creator<T> {
+
+        T createFromParcel(Parcel source, ClassLoader loader);
+    }
+}
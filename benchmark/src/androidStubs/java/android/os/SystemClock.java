@@ -0,0 +1,21 @@
+package android.os;
+
+/**
+ * Plain Java version of the framework class for running the benchmarks on the JVM.
+ */
+@SuppressWarnings("unused")
+public final class SystemClock {
+
+    private static final long START = System.nanoTime();
+
+    private SystemClock() {
+    }
+
+    public static long uptimeMillis() {
+        return (System.nanoTime() - START) / 1000000;
+    }
+
+    public static long elapsedRealtime() {
+        return uptimeMillis();
+    }
+}
@@ -0,0 +1,15 @@
+package android.text;
+
+/**
+ * Plain Java version of the framework class for running the benchmarks on the JVM.
+ */
+@SuppressWarnings("unused")
+public final class TextUtils {
+
+    private TextUtils() {
+    }
+
+    public static boolean isEmpty(final CharSequence str) {
+        return str == null || str.length() == 0;
+    }
+}
@@ -0,0 +1,33 @@
+package android.util;
+
+/**
+ * Plain Java version of the framework class for running the benchmarks on the JVM, messages are written to the standard error.
+ */
+@SuppressWarnings("unused")
+public final class Log {
+
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+    public static final int ASSERT = 7;
+
+    private Log() {
+    }
+
+    public static int println(final int priority, final String tag, final String msg) {
+        System.err.println(priority + "/" + tag + ": " + msg);
+        return 0;
+    }
+
+    public static boolean isLoggable(final String tag, final int level) {
+        return level >= INFO;
+    }
+
+    public static String getStackTraceString(final Throwable tr) {
+        final java.io.StringWriter writer = new java.io.StringWriter();
+        tr.printStackTrace(new java.io.PrintWriter(writer));
+        return writer.toString();
+    }
+}
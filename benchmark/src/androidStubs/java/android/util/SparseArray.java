@@ -0,0 +1,120 @@
+package android.util;
+
+import java.util.Arrays;
+
+/**
+ * Plain Java version of the framework class for running the benchmarks on the JVM, keys are kept sorted in an array.
+ */
+@SuppressWarnings({"unchecked", "unused"})
+public class SparseArray<E> implements Cloneable {
+
+    private int[] mKeys;
+    private Object[] mValues;
+    private int mSize;
+
+    public SparseArray() {
+        this(10);
+    }
+
+    public SparseArray(final int initialCapacity) {
+        mKeys = new int[Math.max(1, initialCapacity)];
+        mValues = new Object[mKeys.length];
+    }
+
+    @Override
+    public SparseArray<E> clone() {
+        try {
+            final SparseArray<E> clone = (SparseArray<E>) super.clone();
+            clone.mKeys = mKeys.clone();
+            clone.mValues = mValues.clone();
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    public boolean contains(final int key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    public E get(final int key) {
+        return get(key, null);
+    }
+
+    public E get(final int key, final E valueIfKeyNotFound) {
+        final int i = indexOfKey(key);
+        return i < 0 ? valueIfKeyNotFound : (E) mValues[i];
+    }
+
+    public void delete(final int key) {
+        final int i = indexOfKey(key);
+        if (i >= 0) {
+            removeAt(i);
+        }
+    }
+
+    public void remove(final int key) {
+        delete(key);
+    }
+
+    public void removeAt(final int index) {
+        System.arraycopy(mKeys, index + 1, mKeys, index, mSize - index - 1);
+        System.arraycopy(mValues, index + 1, mValues, index, mSize - index - 1);
+        mValues[--mSize] = null;
+    }
+
+    public void put(final int key, final E value) {
+        int i = indexOfKey(key);
+        if (i >= 0) {
+            mValues[i] = value;
+            return;
+        }
+        i = ~i;
+        if (mSize == mKeys.length) {
+            mKeys = Arrays.copyOf(mKeys, mSize * 2);
+            mValues = Arrays.copyOf(mValues, mSize * 2);
+        }
+        System.arraycopy(mKeys, i, mKeys, i + 1, mSize - i);
+        System.arraycopy(mValues, i, mValues, i + 1, mSize - i);
+        mKeys[i] = key;
+        mValues[i] = value;
+        mSize++;
+    }
+
+    public void append(final int key, final E value) {
+        put(key, value);
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public int keyAt(final int index) {
+        return mKeys[index];
+    }
+
+    public E valueAt(final int index) {
+        return (E) mValues[index];
+    }
+
+    public void setValueAt(final int index, final E value) {
+        mValues[index] = value;
+    }
+
+    public int indexOfKey(final int key) {
+        return Arrays.binarySearch(mKeys, 0, mSize, key);
+    }
+
+    public int indexOfValue(final E value) {
+        for (int i = 0; i < mSize; i++) {
+            if (mValues[i] == value)
+                return i;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        Arrays.fill(mValues, 0, mSize, null);
+        mSize = 0;
+    }
+}
@@ -0,0 +1,214 @@
+package no.nordicsemi.android.mesh;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Generates the Mesh Provisioning/Configuration Database json of a large synthetic network for the benchmarks.
+ * <p>
+ * Every node has two elements with a bound, subscribed and publishing model each, the nodes are spread over 16 groups.
+ * The same uuids and keys are generated for a given number of nodes.
+ * </p>
+ */
+final class BenchmarkNetwork {
+
+    private static final String NET_KEY = "7DD7364CD842AD18C17C2B820C84C3D6";
+    private static final String APP_KEY = "63964771734FBD76E3B40519D1D94A48";
+    private static final int GROUPS = 16;
+
+    private BenchmarkNetwork() {
+    }
+
+    /**
+     * Returns the json of a network with a single provisioner and the given number of nodes.
+     *
+     * @param nodeCount Number of nodes, not counting the node of the provisioner
+     */
+    @NonNull
+    static String create(final int nodeCount) {
+        return createNetwork(nodeCount).toString();
+    }
+
+    private static JsonObject createNetwork(final int nodeCount) {
+        final Random random = new Random(nodeCount);
+        final JsonObject network = new JsonObject();
+        network.addProperty("$schema", "http://json-schema.org/draft-04/schema#");
+        network.addProperty("id", "http://www.bluetooth.com/specifications/assigned-numbers/mesh-profile/cdb-schema.json#");
+        network.addProperty("version", "1.0.0");
+        network.addProperty("meshUUID", random.uuid());
+        network.addProperty("meshName", "Benchmark");
+        network.addProperty("timestamp", "2021-01-01T00:00:00+00:00");
+        network.addProperty("partial", false);
+
+        final JsonObject netKey = new JsonObject();
+        netKey.addProperty("name", "Network Key 1");
+        netKey.addProperty("index", 0);
+        netKey.addProperty("key", NET_KEY);
+        netKey.addProperty("phase", 0);
+        netKey.addProperty("minSecurity", "secure");
+        netKey.addProperty("timestamp", "2021-01-01T00:00:00+00:00");
+        network.add("netKeys", array(netKey));
+
+        final JsonObject appKey = new JsonObject();
+        appKey.addProperty("name", "Application Key 1");
+        appKey.addProperty("index", 0);
+        appKey.addProperty("boundNetKey", 0);
+        appKey.addProperty("key", APP_KEY);
+        network.add("appKeys", array(appKey));
+
+        final JsonObject provisioner = new JsonObject();
+        final String provisionerUuid = random.uuid();
+        provisioner.addProperty("provisionerName", "Benchmark Provisioner");
+        provisioner.addProperty("UUID", provisionerUuid);
+        provisioner.add("allocatedUnicastRange", array(range("lowAddress", "0001", "highAddress", "7FFF")));
+        provisioner.add("allocatedGroupRange", array(range("lowAddress", "C000", "highAddress", "CC9A")));
+        provisioner.add("allocatedSceneRange", array(range("firstScene", "0001", "lastScene", "3333")));
+        network.add("provisioners", array(provisioner));
+
+        final JsonArray nodes = new JsonArray();
+        nodes.add(createNode(provisionerUuid, 0x0001, random));
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(createNode(random.uuid(), 0x0002 + i * 2, random));
+        }
+        network.add("nodes", nodes);
+
+        final JsonArray groups = new JsonArray();
+        for (int i = 0; i < GROUPS; i++) {
+            final JsonObject group = new JsonObject();
+            group.addProperty("name", "Group " + i);
+            group.addProperty("address", address(0xC000 + i));
+            group.addProperty("parentAddress", "0000");
+            groups.add(group);
+        }
+        network.add("groups", groups);
+        network.add("scenes", new JsonArray());
+        network.add("networkExclusions", new JsonArray());
+        return network;
+    }
+
+    private static JsonObject createNode(final String uuid, final int unicastAddress, final Random random) {
+        final JsonObject node = new JsonObject();
+        node.addProperty("UUID", uuid);
+        node.addProperty("name", "Node " + address(unicastAddress));
+        node.addProperty("deviceKey", random.key());
+        node.addProperty("unicastAddress", address(unicastAddress));
+        node.addProperty("security", "secure");
+        node.add("netKeys", array(index(0)));
+        node.addProperty("configComplete", true);
+        node.addProperty("cid", "0059");
+        node.addProperty("pid", "0000");
+        node.addProperty("vid", "0000");
+        node.addProperty("crpl", "0028");
+        final JsonObject features = new JsonObject();
+        features.addProperty("friend", 2);
+        features.addProperty("lowPower", 2);
+        features.addProperty("relay", 1);
+        features.addProperty("proxy", 1);
+        node.add("features", features);
+        node.addProperty("secureNetworkBeacon", true);
+        node.addProperty("defaultTTL", 5);
+        final JsonObject networkTransmit = new JsonObject();
+        networkTransmit.addProperty("count", 2);
+        networkTransmit.addProperty("interval", 20);
+        node.add("networkTransmit", networkTransmit);
+        node.add("appKeys", array(index(0)));
+
+        final String group = address(0xC000 + (unicastAddress % GROUPS));
+        final JsonArray elements = new JsonArray();
+        final JsonObject primaryElement = element(0, model("0000", null), model("0002", null), model("1000", group));
+        final JsonObject secondaryElement = element(1, model("1002", group));
+        elements.add(primaryElement);
+        elements.add(secondaryElement);
+        node.add("elements", elements);
+        node.addProperty("excluded", false);
+        return node;
+    }
+
+    private static JsonObject element(final int index, final JsonObject... models) {
+        final JsonObject element = new JsonObject();
+        element.addProperty("name", "Element " + index);
+        element.addProperty("index", index);
+        element.addProperty("location", "0000");
+        element.add("models", array(models));
+        return element;
+    }
+
+    private static JsonObject model(final String modelId, final String group) {
+        final JsonObject model = new JsonObject();
+        model.addProperty("modelId", modelId);
+        if (group == null) {
+            model.add("bind", new JsonArray());
+            model.add("subscribe", new JsonArray());
+            return model;
+        }
+        final JsonArray bind = new JsonArray();
+        bind.add(0);
+        model.add("bind", bind);
+        final JsonArray subscribe = new JsonArray();
+        subscribe.add(group);
+        model.add("subscribe", subscribe);
+        final JsonObject publish = new JsonObject();
+        publish.addProperty("address", group);
+        publish.addProperty("index", 0);
+        publish.addProperty("ttl", 5);
+        publish.addProperty("period", 10000);
+        final JsonObject retransmit = new JsonObject();
+        retransmit.addProperty("count", 1);
+        retransmit.addProperty("interval", 50);
+        publish.add("retransmit", retransmit);
+        publish.addProperty("credentials", 0);
+        model.add("publish", publish);
+        return model;
+    }
+
+    private static JsonObject range(final String lowName, final String low, final String highName, final String high) {
+        final JsonObject range = new JsonObject();
+        range.addProperty(lowName, low);
+        range.addProperty(highName, high);
+        return range;
+    }
+
+    private static JsonObject index(final int index) {
+        final JsonObject key = new JsonObject();
+        key.addProperty("index", index);
+        key.addProperty("updated", false);
+        return key;
+    }
+
+    private static JsonArray array(final JsonObject... objects) {
+        final JsonArray array = new JsonArray();
+        for (JsonObject object : objects) {
+            array.add(object);
+        }
+        return array;
+    }
+
+    private static String address(final int address) {
+        return String.format(Locale.US, "%04X", address);
+    }
+
+    /**
+     * Generates the same uuids and keys on every run.
+     */
+    private static final class Random {
+
+        private final java.util.Random random;
+
+        Random(final long seed) {
+            random = new java.util.Random(seed);
+        }
+
+        String uuid() {
+            return new UUID(random.nextLong(), random.nextLong()).toString().toUpperCase(Locale.US);
+        }
+
+        String key() {
+            return String.format(Locale.US, "%016X%016X", random.nextLong(), random.nextLong());
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package no.nordicsemi.android.mesh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.simulation.LinkSettings;
+import no.nordicsemi.android.mesh.simulation.VirtualNodeFarm;
+import no.nordicsemi.android.mesh.transport.ConfigAppKeyAdd;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataGet;
+import no.nordicsemi.android.mesh.transport.ConfigModelAppBind;
+import no.nordicsemi.android.mesh.transport.ConfigModelSubscriptionAdd;
+import no.nordicsemi.android.mesh.transport.ConfigStatusMessage;
+import no.nordicsemi.android.mesh.transport.GenericOnOffGet;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.MeshMessageFuture;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
+/**
+ * Load tests provisioning, configuring and reading the state of a large network of virtual nodes hosted by a {@link VirtualNodeFarm}.
+ * <p>
+ * Every operation is a single shot over all nodes: provisioning the devices over their own bearers with a window of concurrent
+ * sessions, configuring the provisioned nodes through the proxy bearer, and reading the Generic OnOff state of every configured node.
+ * The latency is added to every packet in both directions, the loss applies to the network pdus relayed by the proxy.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class MeshLoadBenchmark {
+
+    private static final long SEED = 0x5EED;
+    private static final int PROVISIONING_WINDOW = 8;
+    private static final int MAX_IN_FLIGHT = 32;
+    private static final long TIMEOUT = 2000;
+    private static final int RETRIES = 3;
+    private static final int GROUPS = 16;
+    private static final int GENERIC_ON_OFF_SERVER = 0x1000;
+
+    /**
+     * Number of nodes.
+     */
+    @Param({"1000"})
+    public int nodes;
+
+    /**
+     * Latency of the bearers in milliseconds.
+     */
+    @Param({"0", "20"})
+    public long latency;
+
+    /**
+     * Probability of a network pdu relayed by the proxy being lost.
+     */
+    @Param({"0", "0.05"})
+    public double loss;
+
+    private LinkSettings settings;
+
+    @Setup
+    public void setUp() {
+        MeshLogger.setLogLevel(android.util.Log.ASSERT);
+        settings = new LinkSettings(LinkSettings.DEFAULT_MTU, latency, latency / 4, loss);
+    }
+
+    /**
+     * Unprovisioned devices and a network without nodes other than the provisioner, recreated for every iteration.
+     */
+    @State(Scope.Thread)
+    public static class Unprovisioned {
+
+        VirtualNodeFarm farm;
+        SimulatedMeshManager manager;
+        List<UUID> devices;
+
+        @Setup(Level.Iteration)
+        public void setUp(final MeshLoadBenchmark benchmark) {
+            farm = new VirtualNodeFarm(SEED);
+            devices = farm.addDevices(benchmark.nodes);
+            manager = new SimulatedMeshManager(new ImportExportUtils().importNetwork(BenchmarkNetwork.create(0)));
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            manager.close();
+            farm.shutdown();
+        }
+    }
+
+    /**
+     * Nodes that have been provisioned without being configured, recreated for every iteration.
+     */
+    @State(Scope.Thread)
+    public static class Provisioned {
+
+        LoadNetwork network;
+
+        @Setup(Level.Iteration)
+        public void setUp(final MeshLoadBenchmark benchmark) {
+            network = new LoadNetwork(benchmark.nodes, benchmark.settings);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            network.close();
+        }
+    }
+
+    /**
+     * Nodes that have been provisioned and configured, created once.
+     */
+    @State(Scope.Thread)
+    public static class Configured {
+
+        LoadNetwork network;
+
+        @Setup(Level.Trial)
+        public void setUp(final MeshLoadBenchmark benchmark) {
+            network = new LoadNetwork(benchmark.nodes, benchmark.settings);
+            network.configure();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            network.close();
+        }
+    }
+
+    @Benchmark
+    public int provision(final Unprovisioned state) throws InterruptedException {
+        final Semaphore window = new Semaphore(PROVISIONING_WINDOW);
+        final List<CompletableFuture<ProvisionedMeshNode>> futures = new ArrayList<>(state.devices.size());
+        for (UUID device : state.devices) {
+            window.acquire();
+            final CompletableFuture<ProvisionedMeshNode> future = state.manager.provision(device, state.farm.connect(device, settings));
+            future.whenComplete((node, error) -> window.release());
+            futures.add(future);
+        }
+        for (CompletableFuture<ProvisionedMeshNode> future : futures) {
+            await(future);
+        }
+        return state.farm.getNodeCount();
+    }
+
+    @Benchmark
+    public int configure(final Provisioned state) {
+        return state.network.configure();
+    }
+
+    @Benchmark
+    public int status(final Configured state) {
+        final MeshNetwork network = state.network.manager.getMeshNetwork();
+        final GenericOnOffGet get = new GenericOnOffGet(network.getAppKey(0));
+        return awaitAll(state.network.manager.enqueueMeshPdus(state.network.addresses, get,
+                ApplicationMessageOpCodes.GENERIC_ON_OFF_STATUS));
+    }
+
+    /**
+     * Network of nodes provisioned directly in the farm with the keys of an imported network, reached through a proxy bearer.
+     */
+    private static final class LoadNetwork {
+
+        private final VirtualNodeFarm farm = new VirtualNodeFarm(SEED);
+        private final SimulatedMeshManager manager;
+        private final List<Integer> addresses = new ArrayList<>();
+
+        LoadNetwork(final int nodes, final LinkSettings settings) {
+            final MeshNetwork network = new ImportExportUtils().importNetwork(BenchmarkNetwork.create(nodes));
+            final NetworkKey networkKey = network.getPrimaryNetworkKey();
+            final int ivIndex = network.getIvIndex().getIvIndex();
+            final String provisionerUuid = network.getProvisioners().get(0).getProvisionerUuid();
+            for (ProvisionedMeshNode node : network.getNodes()) {
+                if (node.getUuid().equalsIgnoreCase(provisionerUuid))
+                    continue;
+                farm.provision(UUID.fromString(node.getUuid()), networkKey.getKey(), networkKey.getKeyIndex(), ivIndex,
+                        node.getUnicastAddress(), node.getDeviceKey());
+                addresses.add(node.getUnicastAddress());
+            }
+            manager = new SimulatedMeshManager(network);
+            manager.setOutboundWindow(MAX_IN_FLIGHT);
+            manager.setOutboundTimeout(TIMEOUT, RETRIES);
+            manager.setProxyBearer(farm.connect(settings));
+        }
+
+        /**
+         * Reads the composition data, adds the application key, binds it to the Generic OnOff Server and subscribes the server to a
+         * group, on every node.
+         *
+         * @return Number of messages sent
+         */
+        int configure() {
+            final MeshNetwork network = manager.getMeshNetwork();
+            final ApplicationKey appKey = network.getAppKey(0);
+            final List<MeshMessageFuture> futures = new ArrayList<>(4 * addresses.size());
+            futures.addAll(manager.enqueueMeshPdus(addresses, new ConfigCompositionDataGet(),
+                    ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS));
+            futures.addAll(manager.enqueueMeshPdus(addresses, new ConfigAppKeyAdd(network.getPrimaryNetworkKey(), appKey),
+                    ConfigMessageOpCodes.CONFIG_APPKEY_STATUS));
+            for (int address : addresses) {
+                futures.add(manager.enqueueMeshPdu(address, new ConfigModelAppBind(address, GENERIC_ON_OFF_SERVER, appKey.getKeyIndex()),
+                        ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS));
+                futures.add(manager.enqueueMeshPdu(address,
+                        new ConfigModelSubscriptionAdd(address, 0xC000 + address % GROUPS, GENERIC_ON_OFF_SERVER),
+                        ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS));
+            }
+            return awaitAll(futures);
+        }
+
+        void close() {
+            manager.close();
+            farm.shutdown();
+        }
+    }
+
+    private static int awaitAll(final List<MeshMessageFuture> futures) {
+        for (MeshMessageFuture future : futures) {
+            final MeshMessage status = await(future);
+            if (status instanceof ConfigStatusMessage && ((ConfigStatusMessage) status).getStatusCode() != 0)
+                throw new IllegalStateException(status.getClass().getSimpleName() + " from 0x" + Integer.toHexString(status.getSrc())
+                        + ": " + ((ConfigStatusMessage) status).getStatusCodeName());
+        }
+        return futures.size();
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            //Messages are retried by the scheduler, this only guards against a stalled simulation
+            return future.get(5, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package no.nordicsemi.android.mesh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
+/**
+ * Benchmarks importing and exporting the Mesh Provisioning/Configuration Database json of a large synthetic network.
+ * <p>
+ * See {@link BenchmarkNetwork} for the nodes of the network.
+ * </p>
+ */
+@State(Scope.Thread)
+public class MeshNetworkBenchmark {
+
+    /**
+     * Number of nodes in the network.
+     */
+    @Param({"100", "1000"})
+    public int nodes;
+
+    private ImportExportUtils importExportUtils;
+    private String json;
+    private MeshNetwork network;
+
+    @Setup
+    public void setUp() {
+        MeshLogger.setLogLevel(android.util.Log.ASSERT);
+        importExportUtils = new ImportExportUtils();
+        json = BenchmarkNetwork.create(nodes);
+        network = importExportUtils.importNetwork(json);
+        if (importExportUtils.export(network, false) == null)
+            throw new IllegalStateException("Export failed");
+    }
+
+    @Benchmark
+    public MeshNetwork importNetwork() {
+        return importExportUtils.importNetwork(json);
+    }
+
+    @Benchmark
+    public String exportNetwork() {
+        return importExportUtils.export(network, false);
+    }
+}
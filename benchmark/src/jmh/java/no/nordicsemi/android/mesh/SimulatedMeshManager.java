@@ -0,0 +1,569 @@
+package no.nordicsemi.android.mesh;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.nio.ByteBuffer;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningKeyPairPool;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningState;
+import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.simulation.MeshBearer;
+import no.nordicsemi.android.mesh.simulation.MeshBearerCallbacks;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataStatus;
+import no.nordicsemi.android.mesh.transport.ControlMessage;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.MeshMessageFuture;
+import no.nordicsemi.android.mesh.transport.NetworkLayerCallbacks;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.UpperTransportLayerCallbacks;
+import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
+import no.nordicsemi.android.mesh.utils.ProxyFilter;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+/**
+ * Drives the message and provisioning handlers of the library over {@link MeshBearer}s, as {@link MeshManagerApi} does over the
+ * GATT bearers of an app.
+ * <p>
+ * MeshManagerApi cannot be used on the JVM as it loads the network from the database, this class implements the same callbacks on a
+ * network held in memory instead. The handlers are only used on the main looper, which is prepared when the manager is constructed.
+ * </p>
+ * <p>
+ * The load test therefore does not cover the code of MeshManagerApi itself: the hand-off to its transport thread, the segmentation
+ * and reassembly of proxy pdus and the updates of the stored network are replaced by the simpler versions below.
+ * </p>
+ */
+final class SimulatedMeshManager {
+
+    private static final int GATT_SAR_START = 0b01;
+    private static final int GATT_SAR_CONTINUATION = 0b10;
+    private static final int GATT_SAR_END = 0b11;
+
+    private final Context mContext = new Context();
+    private final Handler mHandler;
+    private final MeshNetwork mMeshNetwork;
+    private final MeshMessageHandler mMeshMessageHandler;
+    private final Map<UUID, ProvisioningSession> mProvisioningSessions = new ConcurrentHashMap<>();
+    //Only used on the main thread
+    private MeshBearer mProxyBearer;
+    private ProxySarBuffer mIncomingSarBuffer;
+
+    /**
+     * Constructs the manager.
+     *
+     * @param network Network with a single provisioner, which is selected
+     */
+    SimulatedMeshManager(@NonNull final MeshNetwork network) {
+        Looper.prepareMainLooper();
+        if (Security.getProvider("SC") == null) {
+            //Appended rather than preferred, the seeding of its default random would otherwise resolve to itself on a desktop JVM
+            Security.addProvider(new org.spongycastle.jce.provider.BouncyCastleProvider());
+        }
+        mHandler = new Handler(Looper.getMainLooper());
+        mMeshNetwork = network;
+        if (network.getSelectedProvisioner() == null) {
+            network.provisioners.get(0).setLastSelected(true);
+        }
+        mMeshMessageHandler = new MeshMessageHandler(mContext, internalTransportCallbacks, networkLayerCallbacks, upperTransportLayerCallbacks);
+        mMeshMessageHandler.setMeshStatusCallbacks(statusCallbacks);
+    }
+
+    @NonNull
+    MeshNetwork getMeshNetwork() {
+        return mMeshNetwork;
+    }
+
+    /**
+     * Sets the bearer connected to the proxy node messages are sent through.
+     */
+    void setProxyBearer(@NonNull final MeshBearer bearer) {
+        callOnMainThread(() -> {
+            if (mProxyBearer != null) {
+                mProxyBearer.close();
+            }
+            mProxyBearer = bearer;
+            mIncomingSarBuffer = new ProxySarBuffer(bearer.getMtu());
+            bearer.setBearerCallbacks(proxyBearerCallbacks);
+            return null;
+        });
+    }
+
+    /**
+     * Provisions a device without OOB authentication, the bearer is closed once the provisioning has completed or failed.
+     *
+     * @param deviceUuid Device uuid
+     * @param bearer     Bearer connected to the device
+     * @return Future completed with the provisioned node
+     */
+    @NonNull
+    CompletableFuture<ProvisionedMeshNode> provision(@NonNull final UUID deviceUuid, @NonNull final MeshBearer bearer) {
+        final ProvisioningSession session = new ProvisioningSession(deviceUuid, bearer);
+        if (mProvisioningSessions.putIfAbsent(deviceUuid, session) != null)
+            throw new IllegalArgumentException("A provisioning session is already open for " + deviceUuid);
+        //Key pairs for all open sessions are generated while their invites and capabilities are exchanged
+        ProvisioningKeyPairPool.getDefault().prepare(mProvisioningSessions.size());
+        mHandler.post(session::open);
+        return session.future;
+    }
+
+    /**
+     * Enqueues a message to be sent through the proxy bearer, see {@link MeshManagerApi#enqueueMeshPdu(int, MeshMessage, int)}.
+     */
+    @NonNull
+    MeshMessageFuture enqueueMeshPdu(final int dst, @NonNull final MeshMessage meshMessage, final int statusOpCode) {
+        return callOnMainThread(() -> mMeshMessageHandler.enqueueMeshMessage(getSourceAddress(), dst, null, meshMessage, statusOpCode));
+    }
+
+    /**
+     * Enqueues a message for each destination, see {@link MeshManagerApi#enqueueMeshPdu(int, MeshMessage, int)}.
+     */
+    @NonNull
+    List<MeshMessageFuture> enqueueMeshPdus(@NonNull final List<Integer> destinations,
+                                            @NonNull final MeshMessage meshMessage,
+                                            final int statusOpCode) {
+        return callOnMainThread(() -> {
+            final List<MeshMessageFuture> futures = new ArrayList<>(destinations.size());
+            for (int dst : destinations) {
+                futures.add(mMeshMessageHandler.enqueueMeshMessage(getSourceAddress(), dst, null, meshMessage, statusOpCode));
+            }
+            return futures;
+        });
+    }
+
+    /**
+     * See {@link MeshManagerApi#setOutboundWindow(int)}.
+     */
+    void setOutboundWindow(final int maxInFlight) {
+        callOnMainThread(() -> {
+            mMeshMessageHandler.setOutboundWindow(maxInFlight);
+            return null;
+        });
+    }
+
+    /**
+     * See {@link MeshManagerApi#setOutboundTimeout(long, int)}.
+     */
+    void setOutboundTimeout(final long timeout, final int retries) {
+        callOnMainThread(() -> {
+            mMeshMessageHandler.setOutboundTimeout(timeout, retries);
+            return null;
+        });
+    }
+
+    /**
+     * Cancels the messages that have not completed and closes all bearers.
+     */
+    void close() {
+        callOnMainThread(() -> {
+            mMeshMessageHandler.cancelOutboundMessages();
+            for (ProvisioningSession session : mProvisioningSessions.values()) {
+                session.close(new IllegalStateException("Manager closed"));
+            }
+            if (mProxyBearer != null) {
+                mProxyBearer.close();
+                mProxyBearer = null;
+            }
+            return null;
+        });
+    }
+
+    private int getSourceAddress() {
+        final Integer address = mMeshNetwork.getSelectedProvisioner().getProvisionerAddress();
+        if (address == null)
+            throw new IllegalArgumentException("Provisioner address not set, please assign an address to the provisioner.");
+        return address;
+    }
+
+    private <T> T callOnMainThread(@NonNull final Callable<T> callable) {
+        if (Looper.getMainLooper().isCurrentThread()) {
+            try {
+                return callable.call();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        final FutureTask<T> task = new FutureTask<>(callable);
+        mHandler.post(task);
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Segments a pdu for the mtu, see MeshManagerApi#applySegmentation.
+     */
+    @NonNull
+    private static byte[] applySegmentation(final int mtuSize, @NonNull final byte[] pdu) {
+        int srcOffset = 0;
+        int dstOffset = 0;
+        final int chunks = (pdu.length + (mtuSize - 1)) / mtuSize;
+
+        final int pduType = pdu[0];
+        if (chunks > 1) {
+            final byte[] segmentedBuffer = new byte[pdu.length + chunks - 1];
+            int length;
+            for (int i = 0; i < chunks; i++) {
+                if (i == 0) {
+                    length = Math.min(pdu.length - srcOffset, mtuSize);
+                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset, length);
+                    segmentedBuffer[0] = (byte) ((GATT_SAR_START << 6) | pduType);
+                } else if (i == chunks - 1) {
+                    length = Math.min(pdu.length - srcOffset, mtuSize);
+                    segmentedBuffer[dstOffset] = (byte) ((GATT_SAR_END << 6) | pduType);
+                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset + 1, length);
+                } else {
+                    length = Math.min(pdu.length - srcOffset, mtuSize - 1);
+                    segmentedBuffer[dstOffset] = (byte) ((GATT_SAR_CONTINUATION << 6) | pduType);
+                    System.arraycopy(pdu, srcOffset, segmentedBuffer, dstOffset + 1, length);
+                }
+                srcOffset += length;
+                dstOffset += mtuSize;
+            }
+            return segmentedBuffer;
+        }
+        return pdu;
+    }
+
+    private final MeshBearerCallbacks proxyBearerCallbacks = new MeshBearerCallbacks() {
+        @Override
+        public void onDataSent(final int mtu, @NonNull final byte[] data) {
+            //Only provisioning needs the write callbacks
+        }
+
+        @Override
+        public void onDataReceived(final int mtu, @NonNull final byte[] data) {
+            final byte[] pdu = mIncomingSarBuffer.append(mtu, data);
+            if (pdu == null)
+                return;
+            MeshMetrics.onPduReceived(pdu[0]);
+            try {
+                if (pdu[0] == MeshManagerApi.PDU_TYPE_NETWORK || pdu[0] == MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION) {
+                    final long startTime = System.nanoTime();
+                    try {
+                        mMeshMessageHandler.parseMeshPduNotifications(pdu, mMeshNetwork);
+                    } finally {
+                        MeshMetrics.recordProcessingTime(startTime);
+                    }
+                }
+            } catch (ExtendedInvalidCipherTextException | IllegalArgumentException ex) {
+                //Pdus that cannot be decrypted or parsed are dropped, as by MeshManagerApi
+            }
+        }
+    };
+
+    /**
+     * Provisioning session of a device, see {@link no.nordicsemi.android.mesh.ProvisioningSession}.
+     */
+    private final class ProvisioningSession implements MeshBearerCallbacks, MeshProvisioningStatusCallbacks {
+
+        private final UUID deviceUuid;
+        private final MeshBearer bearer;
+        private final MeshProvisioningHandler handler;
+        private final ProxySarBuffer incomingSarBuffer;
+        private final ProxySarBuffer outgoingSarBuffer;
+        private final CompletableFuture<ProvisionedMeshNode> future = new CompletableFuture<>();
+        private int reservedAddress = MeshAddress.UNASSIGNED_ADDRESS;
+
+        ProvisioningSession(@NonNull final UUID deviceUuid, @NonNull final MeshBearer bearer) {
+            this.deviceUuid = deviceUuid;
+            this.bearer = bearer;
+            handler = new MeshProvisioningHandler(mContext, internalTransportCallbacks, internalMeshMgrCallbacks);
+            handler.setProvisioningCallbacks(this);
+            incomingSarBuffer = new ProxySarBuffer(bearer.getMtu());
+            outgoingSarBuffer = new ProxySarBuffer(bearer.getMtu());
+        }
+
+        void open() {
+            bearer.setBearerCallbacks(this);
+            try {
+                handler.identify(deviceUuid, mMeshNetwork.getPrimaryNetworkKey(), mMeshNetwork.getProvisioningFlags(),
+                        mMeshNetwork.getIvIndex().getIvIndex(), mMeshNetwork.getGlobalTtl(), MeshProvisioningHandler.ATTENTION_TIMER);
+            } catch (IllegalArgumentException ex) {
+                close(ex);
+            }
+        }
+
+        void send(@NonNull final byte[] pdu) {
+            bearer.send(applySegmentation(bearer.getMtu(), pdu));
+        }
+
+        void close(@Nullable final Throwable error) {
+            if (mProvisioningSessions.remove(deviceUuid, this)) {
+                if (reservedAddress != MeshAddress.UNASSIGNED_ADDRESS) {
+                    mMeshNetwork.releaseUnicastAddress(reservedAddress);
+                }
+                bearer.close();
+                incomingSarBuffer.reset();
+                outgoingSarBuffer.reset();
+            }
+            if (error != null) {
+                future.completeExceptionally(error);
+            }
+        }
+
+        @Override
+        public void onDataSent(final int mtu, @NonNull final byte[] data) {
+            final byte[] pdu = outgoingSarBuffer.append(mtu, data);
+            if (pdu != null && pdu[0] == MeshManagerApi.PDU_TYPE_PROVISIONING) {
+                handler.handleProvisioningWriteCallbacks();
+            }
+        }
+
+        @Override
+        public void onDataReceived(final int mtu, @NonNull final byte[] data) {
+            final byte[] pdu = incomingSarBuffer.append(mtu, data);
+            if (pdu != null && pdu[0] == MeshManagerApi.PDU_TYPE_PROVISIONING) {
+                MeshMetrics.onPduReceived(MeshManagerApi.PDU_TYPE_PROVISIONING);
+                handler.parseProvisioningNotifications(pdu);
+            }
+        }
+
+        @Override
+        public void onProvisioningStateChanged(final UnprovisionedMeshNode meshNode, final ProvisioningState.States state, final byte[] data) {
+            if (state != ProvisioningState.States.PROVISIONING_CAPABILITIES)
+                return;
+            try {
+                reservedAddress = mMeshNetwork.reserveUnicastAddress(meshNode.getNumberOfElements(), mMeshNetwork.getSelectedProvisioner());
+                meshNode.setUnicastAddress(reservedAddress);
+                handler.startProvisioningNoOOB(meshNode);
+            } catch (IllegalArgumentException ex) {
+                close(ex);
+            }
+        }
+
+        @Override
+        public void onProvisioningFailed(final UnprovisionedMeshNode meshNode, final ProvisioningState.States state, final byte[] data) {
+            close(new IllegalStateException("Provisioning " + deviceUuid + " failed with error " + (data.length > 2 ? data[2] : -1)));
+        }
+
+        @Override
+        public void onProvisioningCompleted(final ProvisionedMeshNode meshNode, final ProvisioningState.States state, final byte[] data) {
+            //The reserved address has been released when the node was added to the network
+            reservedAddress = MeshAddress.UNASSIGNED_ADDRESS;
+            close(null);
+            future.complete(meshNode);
+        }
+    }
+
+    private final InternalTransportCallbacks internalTransportCallbacks = new InternalTransportCallbacks() {
+
+        @Override
+        public List<ApplicationKey> getApplicationKeys(final int boundNetKeyIndex) {
+            return mMeshNetwork.getAppKeys(boundNetKeyIndex);
+        }
+
+        @Override
+        public ProvisionedMeshNode getNode(final int unicast) {
+            return mMeshNetwork.getNode(unicast);
+        }
+
+        @Override
+        public Provisioner getProvisioner(final int unicast) {
+            return null;
+        }
+
+        @Override
+        public void sendProvisioningPdu(final UnprovisionedMeshNode meshNode, final byte[] pdu) {
+            final ProvisioningSession session = mProvisioningSessions.get(meshNode.getDeviceUuid());
+            if (session != null) {
+                MeshMetrics.onPduSent(MeshManagerApi.PDU_TYPE_PROVISIONING);
+                session.send(pdu);
+            }
+        }
+
+        @Override
+        public void onMeshPduCreated(final int dst, final byte[] pdu) {
+            if (mProxyBearer != null) {
+                MeshMetrics.onPduSent(pdu[0]);
+                mProxyBearer.send(applySegmentation(mProxyBearer.getMtu(), pdu));
+            }
+        }
+
+        @Override
+        public ProxyFilter getProxyFilter() {
+            return mMeshNetwork.getProxyFilter();
+        }
+
+        @Override
+        public void setProxyFilter(@NonNull final ProxyFilter filter) {
+            mMeshNetwork.setProxyFilter(filter);
+        }
+
+        @Override
+        public void updateMeshNetwork(final MeshMessage message) {
+            if (message instanceof ConfigCompositionDataStatus) {
+                //Elements of the node have been updated
+                mMeshNetwork.invalidateNodeAddressIndex();
+            }
+        }
+
+        @Override
+        public void onNodeUpdated(@NonNull final ProvisionedMeshNode meshNode) {
+            //The simulated network is not persisted
+        }
+
+        @Override
+        public void onMeshNodeReset(final ProvisionedMeshNode meshNode) {
+            if (meshNode != null && mMeshNetwork.deleteNode(meshNode)) {
+                mMeshMessageHandler.resetState(meshNode.getUnicastAddress());
+            }
+        }
+
+        @Override
+        public MeshNetwork getMeshNetwork() {
+            return mMeshNetwork;
+        }
+
+        @Override
+        public void storeScene(final int address, final int currentScene, final List<Integer> scenes) {
+        }
+
+        @Override
+        public void deleteScene(final int address, final int currentScene, final List<Integer> scenes) {
+        }
+    };
+
+    private final InternalMeshManagerCallbacks internalMeshMgrCallbacks = new InternalMeshManagerCallbacks() {
+        @Override
+        public void onNodeProvisioned(final ProvisionedMeshNode meshNode) {
+            synchronized (mMeshNetwork) {
+                for (int i = 0; i < mMeshNetwork.nodes.size(); i++) {
+                    if (meshNode.getUuid().equals(mMeshNetwork.nodes.get(i).getUuid())) {
+                        mMeshNetwork.nodes.remove(i);
+                        break;
+                    }
+                }
+                mMeshNetwork.nodes.add(meshNode);
+                mMeshNetwork.invalidateNodeAddressIndex();
+                //The reservation is kept, the node has no elements until its composition data is read and releasing it would hand
+                //its secondary element addresses to the next session
+                mMeshNetwork.sequenceNumbers.put(meshNode.getUnicastAddress(), meshNode.getSequenceNumber());
+                mMeshNetwork.unicastAddress = mMeshNetwork.nextAvailableUnicastAddress(meshNode.getNumberOfElements(), mMeshNetwork.getSelectedProvisioner());
+            }
+            meshNode.setMeshUuid(mMeshNetwork.getMeshUUID());
+        }
+    };
+
+    private final NetworkLayerCallbacks networkLayerCallbacks = new NetworkLayerCallbacks() {
+
+        @Override
+        public Provisioner getProvisioner() {
+            return mMeshNetwork.getSelectedProvisioner();
+        }
+
+        @Override
+        public Provisioner getProvisioner(final int unicastAddress) {
+            return mMeshNetwork.getSelectedProvisioner();
+        }
+
+        @Override
+        public NetworkKey getPrimaryNetworkKey() {
+            return mMeshNetwork.getPrimaryNetworkKey();
+        }
+
+        @Override
+        public NetworkKey getNetworkKey(final int keyIndex) {
+            return mMeshNetwork.getNetKey(keyIndex);
+        }
+
+        @Override
+        public List<NetworkKey> getNetworkKeys() {
+            return mMeshNetwork.getNetKeys();
+        }
+    };
+
+    private final UpperTransportLayerCallbacks upperTransportLayerCallbacks = new UpperTransportLayerCallbacks() {
+
+        @Override
+        public ProvisionedMeshNode getNode(final int unicastAddress) {
+            return mMeshNetwork.getNode(unicastAddress);
+        }
+
+        @Override
+        public byte[] getIvIndex() {
+            return ByteBuffer.allocate(4).putInt(mMeshNetwork.getIvIndex().getTransmitIvIndex()).array();
+        }
+
+        @Override
+        public int getNextSequenceNumber(final int src) {
+            //Sequence numbers are not persisted
+            return mMeshNetwork.getNode(src).incrementSequenceNumber();
+        }
+
+        @Override
+        public byte[] getApplicationKey(final int aid) {
+            for (ApplicationKey key : mMeshNetwork.getAppKeys()) {
+                if (aid == SecureUtils.calculateK4(key.getKey())) {
+                    return key.getKey();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<ApplicationKey> getApplicationKeys(final int boundNetKeyIndex) {
+            return mMeshNetwork.getAppKeys(boundNetKeyIndex);
+        }
+
+        @Nullable
+        @Override
+        public List<Group> gerVirtualGroups() {
+            return mMeshNetwork.getGroups();
+        }
+    };
+
+    private final MeshStatusCallbacks statusCallbacks = new MeshStatusCallbacks() {
+        //Statuses complete the futures of the enqueued messages, the callbacks are not needed
+        @Override
+        public void onTransactionFailed(final int dst, final boolean hasIncompleteTimerExpired) {
+        }
+
+        @Override
+        public void onUnknownPduReceived(final int src, final byte[] accessPayload) {
+        }
+
+        @Override
+        public void onBlockAcknowledgementProcessed(final int dst, @NonNull final ControlMessage message) {
+        }
+
+        @Override
+        public void onBlockAcknowledgementReceived(final int src, @NonNull final ControlMessage message) {
+        }
+
+        @Override
+        public void onMeshMessageProcessed(final int dst, @NonNull final MeshMessage meshMessage) {
+        }
+
+        @Override
+        public void onMeshMessageReceived(final int src, @NonNull final MeshMessage meshMessage) {
+        }
+
+        @Override
+        public void onMessageDecryptionFailed(final String meshLayer, final String errorMessage) {
+        }
+    };
+}
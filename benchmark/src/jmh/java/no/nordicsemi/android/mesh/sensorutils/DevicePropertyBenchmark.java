@@ -0,0 +1,49 @@
+package no.nordicsemi.android.mesh.sensorutils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks decoding the values of a Sensor Status message reporting a mix of commonly used properties.
+ */
+@State(Scope.Thread)
+public class DevicePropertyBenchmark {
+
+    private static final DeviceProperty[] PROPERTIES = {
+            DeviceProperty.PRESENT_AMBIENT_TEMPERATURE,
+            DeviceProperty.PRECISE_PRESENT_AMBIENT_TEMPERATURE,
+            DeviceProperty.PRESENT_AMBIENT_RELATIVE_HUMIDITY,
+            DeviceProperty.PEOPLE_COUNT,
+            DeviceProperty.MOTION_SENSED,
+            DeviceProperty.TIME_SINCE_MOTION_SENSED,
+            DeviceProperty.PRESENT_AMBIENT_LIGHT_LEVEL,
+            DeviceProperty.PRESENT_DEVICE_INPUT_POWER
+    };
+    private static final int[] LENGTHS = {1, 2, 2, 2, 1, 2, 3, 3};
+    private static final byte[] DATA = {
+            0x28,
+            0x10, 0x09,
+            0x20, 0x1C,
+            0x05, 0x00,
+            0x32,
+            0x3C, 0x00,
+            0x10, 0x27, 0x00,
+            (byte) 0xE8, 0x03, 0x00
+    };
+
+    @Benchmark
+    public void getCharacteristic(final Blackhole blackhole) {
+        int offset = 0;
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            blackhole.consume(DeviceProperty.getCharacteristic(PROPERTIES[i], DATA, offset, LENGTHS[i]));
+            offset += LENGTHS[i];
+        }
+    }
+
+    @Benchmark
+    public DeviceProperty from() {
+        return DeviceProperty.from(DeviceProperty.PRESENT_DEVICE_INPUT_POWER.getPropertyId());
+    }
+}
@@ -0,0 +1,183 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.transport.ConfigStatusMessage.StatusCodeNames;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Configuration Server, handling the messages the library sends while configuring a node after provisioning.
+ */
+final class ConfigServer implements ModelServer {
+
+    static final int MODEL_ID = 0x0000;
+
+    private static final int KEY_LENGTH = 16;
+    private static final int KEY_INDEXES_LENGTH = 3;
+    private static final int SIG_MODEL_ID_LENGTH = 2;
+    private static final int MAX_TTL = 0x7F;
+
+    @Override
+    public int getModelId() {
+        return MODEL_ID;
+    }
+
+    @Nullable
+    @Override
+    public byte[] onAccessMessage(@NonNull final VirtualNode node, final int elementAddress, final int opCode, @NonNull final byte[] parameters) {
+        switch (opCode) {
+            case ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_GET:
+                return VirtualNode.createAccessPdu(ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS, createCompositionData(node));
+            case ConfigMessageOpCodes.CONFIG_APPKEY_ADD:
+                return onAppKeyAdd(node, parameters);
+            case ConfigMessageOpCodes.CONFIG_MODEL_APP_BIND:
+                return onModelAppBind(node, parameters);
+            case ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_ADD:
+                return onModelSubscriptionAdd(node, parameters);
+            case ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_GET:
+                return VirtualNode.createAccessPdu(ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_STATUS, new byte[]{(byte) node.getDefaultTtl()});
+            case ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_SET:
+                //TTL 1 and values above 0x7F are prohibited, the message is ignored
+                if (parameters.length != 1 || parameters[0] == 1 || (parameters[0] & 0xFF) > MAX_TTL)
+                    return null;
+                node.setDefaultTtl(parameters[0]);
+                return VirtualNode.createAccessPdu(ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_STATUS, parameters);
+            case ConfigMessageOpCodes.CONFIG_NODE_RESET:
+                node.resetAfterSending();
+                return VirtualNode.createAccessPdu(ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS, new byte[0]);
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private byte[] onAppKeyAdd(@NonNull final VirtualNode node, @NonNull final byte[] parameters) {
+        if (parameters.length != KEY_INDEXES_LENGTH + KEY_LENGTH)
+            return null;
+        final int netKeyIndex = (parameters[0] & 0xFF) | ((parameters[1] & 0x0F) << 8);
+        final int appKeyIndex = ((parameters[1] & 0xF0) >> 4) | ((parameters[2] & 0xFF) << 4);
+        final byte[] appKey = Arrays.copyOfRange(parameters, KEY_INDEXES_LENGTH, parameters.length);
+        final StatusCodeNames status;
+        if (netKeyIndex != node.getNetKeyIndex()) {
+            status = StatusCodeNames.INVALID_NETKEY_INDEX;
+        } else {
+            final byte[] existing = node.getAppKey(appKeyIndex);
+            if (existing == null) {
+                node.addAppKey(appKeyIndex, appKey);
+                status = StatusCodeNames.SUCCESS;
+            } else {
+                status = Arrays.equals(existing, appKey) ? StatusCodeNames.SUCCESS : StatusCodeNames.KEY_INDEX_ALREADY_STORED;
+            }
+        }
+        return createStatus(ConfigMessageOpCodes.CONFIG_APPKEY_STATUS, status, Arrays.copyOf(parameters, KEY_INDEXES_LENGTH));
+    }
+
+    @Nullable
+    private byte[] onModelAppBind(@NonNull final VirtualNode node, @NonNull final byte[] parameters) {
+        //Element address, application key index and the SIG or vendor model identifier
+        if (parameters.length != 4 + SIG_MODEL_ID_LENGTH && parameters.length != 4 + 2 * SIG_MODEL_ID_LENGTH)
+            return null;
+        final int appKeyIndex = MeshParserUtils.unsignedBytesToInt(parameters[2], parameters[3]) & 0x0FFF;
+        final VirtualNode.Model model = findModel(node, parameters);
+        final StatusCodeNames status;
+        if (model == null) {
+            status = isElementAddress(node, parameters) ? StatusCodeNames.INVALID_MODEL : StatusCodeNames.INVALID_ADDRESS;
+        } else if (node.getAppKey(appKeyIndex) == null) {
+            status = StatusCodeNames.INVALID_APPKEY_INDEX;
+        } else if (model.getServer().getModelId() == MODEL_ID) {
+            //The configuration server only uses the device key
+            status = StatusCodeNames.CANNOT_BIND;
+        } else {
+            model.bind(appKeyIndex);
+            status = StatusCodeNames.SUCCESS;
+        }
+        return createStatus(ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS, status, parameters);
+    }
+
+    @Nullable
+    private byte[] onModelSubscriptionAdd(@NonNull final VirtualNode node, @NonNull final byte[] parameters) {
+        //Element address, subscription address and the SIG or vendor model identifier
+        if (parameters.length != 4 + SIG_MODEL_ID_LENGTH && parameters.length != 4 + 2 * SIG_MODEL_ID_LENGTH)
+            return null;
+        final int address = MeshParserUtils.unsignedBytesToInt(parameters[2], parameters[3]);
+        final VirtualNode.Model model = findModel(node, parameters);
+        final StatusCodeNames status;
+        if (!MeshAddress.isValidGroupAddress(address) || address == MeshAddress.ALL_NODES_ADDRESS) {
+            status = StatusCodeNames.INVALID_ADDRESS;
+        } else if (model == null) {
+            status = isElementAddress(node, parameters) ? StatusCodeNames.INVALID_MODEL : StatusCodeNames.INVALID_ADDRESS;
+        } else if (model.getServer().getModelId() == MODEL_ID) {
+            status = StatusCodeNames.NOT_A_SUBSCRIBE_MODEL;
+        } else {
+            model.subscribe(address);
+            status = StatusCodeNames.SUCCESS;
+        }
+        return createStatus(ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS, status, parameters);
+    }
+
+    /**
+     * Returns the model addressed by a message starting with the element address and ending with the model identifier.
+     */
+    @Nullable
+    private static VirtualNode.Model findModel(@NonNull final VirtualNode node, @NonNull final byte[] parameters) {
+        //Virtual nodes do not have any vendor models
+        if (parameters.length != 4 + SIG_MODEL_ID_LENGTH || !isElementAddress(node, parameters))
+            return null;
+        final int elementAddress = MeshParserUtils.unsignedBytesToInt(parameters[0], parameters[1]);
+        final int modelId = MeshParserUtils.unsignedBytesToInt(parameters[4], parameters[5]);
+        for (VirtualNode.Model model : node.getModels(elementAddress - node.getUnicastAddress())) {
+            if (model.getServer().getModelId() == modelId)
+                return model;
+        }
+        return null;
+    }
+
+    private static boolean isElementAddress(@NonNull final VirtualNode node, @NonNull final byte[] parameters) {
+        final int index = MeshParserUtils.unsignedBytesToInt(parameters[0], parameters[1]) - node.getUnicastAddress();
+        return index >= 0 && index < node.getElementCount();
+    }
+
+    @NonNull
+    private static byte[] createStatus(final int opCode, @NonNull final StatusCodeNames status, @NonNull final byte[] parameters) {
+        final byte[] statusParameters = new byte[1 + parameters.length];
+        statusParameters[0] = (byte) status.getStatusCode();
+        System.arraycopy(parameters, 0, statusParameters, 1, parameters.length);
+        return VirtualNode.createAccessPdu(opCode, statusParameters);
+    }
+
+    /**
+     * Returns page 0 of the composition data.
+     */
+    @NonNull
+    private static byte[] createCompositionData(@NonNull final VirtualNode node) {
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(0);
+        writeUint16(data, VirtualNode.COMPANY_IDENTIFIER);
+        writeUint16(data, VirtualNode.PRODUCT_IDENTIFIER);
+        writeUint16(data, VirtualNode.VERSION_IDENTIFIER);
+        writeUint16(data, VirtualNode.REPLAY_PROTECTION_LIST_SIZE);
+        writeUint16(data, VirtualNode.FEATURES);
+        for (int i = 0; i < node.getElementCount(); i++) {
+            final List<VirtualNode.Model> models = node.getModels(i);
+            //Unknown location
+            writeUint16(data, 0);
+            data.write(models.size());
+            data.write(0);
+            for (VirtualNode.Model model : models) {
+                writeUint16(data, model.getServer().getModelId());
+            }
+        }
+        return data.toByteArray();
+    }
+
+    private static void writeUint16(@NonNull final ByteArrayOutputStream data, final int value) {
+        data.write(value & 0xFF);
+        data.write((value >> 8) & 0xFF);
+    }
+}
@@ -0,0 +1,43 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
+
+/**
+ * Generic OnOff Server, transitions complete instantly.
+ */
+final class GenericOnOffServer implements ModelServer {
+
+    static final int MODEL_ID = 0x1000;
+
+    private boolean on;
+
+    @Override
+    public int getModelId() {
+        return MODEL_ID;
+    }
+
+    @Nullable
+    @Override
+    public byte[] onAccessMessage(@NonNull final VirtualNode node, final int elementAddress, final int opCode, @NonNull final byte[] parameters) {
+        switch (opCode) {
+            case ApplicationMessageOpCodes.GENERIC_ON_OFF_GET:
+                return createStatus();
+            case ApplicationMessageOpCodes.GENERIC_ON_OFF_SET:
+            case ApplicationMessageOpCodes.GENERIC_ON_OFF_SET_UNACKNOWLEDGED:
+                //OnOff, TID and the optional transition time and delay
+                if (parameters.length != 2 && parameters.length != 4)
+                    return null;
+                on = parameters[0] == 1;
+                return opCode == ApplicationMessageOpCodes.GENERIC_ON_OFF_SET ? createStatus() : null;
+            default:
+                return null;
+        }
+    }
+
+    @NonNull
+    private byte[] createStatus() {
+        return VirtualNode.createAccessPdu(ApplicationMessageOpCodes.GENERIC_ON_OFF_STATUS, new byte[]{(byte) (on ? 1 : 0)});
+    }
+}
@@ -0,0 +1,59 @@
+package no.nordicsemi.android.mesh.simulation;
+
+/**
+ * Properties of a simulated link between the library and the virtual nodes.
+ * <p>
+ * The mtu and the latency apply to the bearer, packets are delivered in order after the latency and a random jitter. The loss rate
+ * applies to the network pdus a proxy node relays between the bearer and the mesh network, the GATT bearer itself is reliable.
+ * </p>
+ */
+public final class LinkSettings {
+
+    /**
+     * Mtu of a connection using the default ATT MTU of 23 bytes.
+     */
+    public static final int DEFAULT_MTU = 20;
+
+    private final int mtu;
+    private final long latency;
+    private final long jitter;
+    private final double lossRate;
+
+    /**
+     * Constructs the link settings.
+     *
+     * @param mtu      Maximum number of bytes sent at once
+     * @param latency  Time in milliseconds a packet takes to be delivered
+     * @param jitter   Maximum time in milliseconds randomly added to the latency of a packet
+     * @param lossRate Probability of a network pdu being lost, between 0 and 1
+     * @throws IllegalArgumentException if any of the values is out of range
+     */
+    public LinkSettings(final int mtu, final long latency, final long jitter, final double lossRate) throws IllegalArgumentException {
+        if (mtu < DEFAULT_MTU)
+            throw new IllegalArgumentException("Mtu must be at least " + DEFAULT_MTU);
+        if (latency < 0 || jitter < 0)
+            throw new IllegalArgumentException("Latency and jitter cannot be negative");
+        if (lossRate < 0 || lossRate >= 1)
+            throw new IllegalArgumentException("Loss rate must be between 0 and 1");
+        this.mtu = mtu;
+        this.latency = latency;
+        this.jitter = jitter;
+        this.lossRate = lossRate;
+    }
+
+    public int getMtu() {
+        return mtu;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public long getJitter() {
+        return jitter;
+    }
+
+    public double getLossRate() {
+        return lossRate;
+    }
+}
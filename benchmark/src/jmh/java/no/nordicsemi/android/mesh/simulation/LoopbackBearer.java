@@ -0,0 +1,201 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * In-process bearer connecting the library to a {@link VirtualNodeFarm}.
+ * <p>
+ * Data sent is split into mtu sized packets, each packet is reported as written right away and delivered to the farm after the
+ * latency of the link. Pdus sent by the virtual nodes are segmented for the mtu and delivered to the callbacks on the main thread.
+ * Packets are delivered in the order they were sent in both directions, as on a GATT connection.
+ * </p>
+ */
+public final class LoopbackBearer implements MeshBearer {
+
+    private static final int SAR_COMPLETE = 0b00;
+    private static final int SAR_START = 0b01;
+    private static final int SAR_CONTINUATION = 0b10;
+    private static final int SAR_END = 0b11;
+    private static final int SAR_BIT_OFFSET = 6;
+    private static final int PDU_TYPE_MASK = 0x3F;
+
+    private final VirtualNodeFarm mFarm;
+    private final LinkSettings mSettings;
+    private final VirtualProvisionee mProvisionee;
+    //Each direction has its own generator used by a single thread, so that a seeded run draws the same numbers every time
+    private final Random mUplinkRandom;
+    private final Random mDownlinkRandom;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    //Reassembly buffer of the packets received by the farm, only used on the thread of the farm
+    private final ByteArrayOutputStream mIncoming = new ByteArrayOutputStream();
+    //Packets in flight, each scheduled task takes the head so that the order does not depend on when the tasks fire
+    private final ArrayDeque<byte[]> mUplink = new ArrayDeque<>();
+    private final ArrayDeque<byte[]> mDownlink = new ArrayDeque<>();
+    private volatile MeshBearerCallbacks mCallbacks;
+    private volatile boolean closed;
+    private long mUplinkTime;
+    private long mDownlinkTime;
+
+    /**
+     * Constructs the bearer.
+     *
+     * @param farm        Farm the bearer is connected to
+     * @param settings    Link settings
+     * @param provisionee Device provisioned over this bearer or null if the bearer is connected to the proxy of the farm
+     * @param seed        Seed of the jitter and the loss of the link
+     */
+    LoopbackBearer(@NonNull final VirtualNodeFarm farm,
+                   @NonNull final LinkSettings settings,
+                   @Nullable final VirtualProvisionee provisionee,
+                   final long seed) {
+        mFarm = farm;
+        mSettings = settings;
+        mProvisionee = provisionee;
+        mUplinkRandom = new Random(seed);
+        mDownlinkRandom = new Random(~seed);
+    }
+
+    @Override
+    public int getMtu() {
+        return mSettings.getMtu();
+    }
+
+    @Override
+    public void setBearerCallbacks(@NonNull final MeshBearerCallbacks callbacks) {
+        mCallbacks = callbacks;
+    }
+
+    @Override
+    public synchronized void send(@NonNull final byte[] pdu) {
+        if (closed)
+            return;
+        final int mtu = mSettings.getMtu();
+        for (int offset = 0; offset < pdu.length; offset += mtu) {
+            final byte[] packet = Arrays.copyOfRange(pdu, offset, Math.min(offset + mtu, pdu.length));
+            mHandler.post(() -> {
+                final MeshBearerCallbacks callbacks = mCallbacks;
+                if (!closed && callbacks != null) {
+                    callbacks.onDataSent(mtu, packet);
+                }
+            });
+            mUplinkTime = nextDeliveryTime(mUplinkRandom, mUplinkTime);
+            mUplink.add(packet);
+            mFarm.schedule(mUplinkTime, this::onPacketReceived);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        mFarm.onBearerClosed(this);
+    }
+
+    /**
+     * Returns the device provisioned over this bearer or null if the bearer is connected to the proxy of the farm.
+     */
+    @Nullable
+    VirtualProvisionee getProvisionee() {
+        return mProvisionee;
+    }
+
+    /**
+     * Returns true if a network pdu relayed over this bearer is to be dropped, called on the thread of the farm.
+     */
+    boolean isLost() {
+        return mSettings.getLossRate() > 0 && mDownlinkRandom.nextDouble() < mSettings.getLossRate();
+    }
+
+    /**
+     * Segments a pdu sent by the farm for the mtu and schedules the segments to be delivered, called on the thread of the farm.
+     *
+     * @param pdu Proxy pdu
+     */
+    void deliver(@NonNull final byte[] pdu) {
+        if (closed)
+            return;
+        final int mtu = mSettings.getMtu();
+        if (pdu.length <= mtu) {
+            scheduleNotification(mtu, pdu);
+            return;
+        }
+        final int pduType = pdu[0] & PDU_TYPE_MASK;
+        int offset = 1;
+        while (offset < pdu.length) {
+            final int length = Math.min(mtu - 1, pdu.length - offset);
+            final int sar = offset == 1 ? SAR_START : offset + length == pdu.length ? SAR_END : SAR_CONTINUATION;
+            final byte[] packet = new byte[length + 1];
+            packet[0] = (byte) ((sar << SAR_BIT_OFFSET) | pduType);
+            System.arraycopy(pdu, offset, packet, 1, length);
+            scheduleNotification(mtu, packet);
+            offset += length;
+        }
+    }
+
+    private void scheduleNotification(final int mtu, @NonNull final byte[] packet) {
+        mDownlinkTime = nextDeliveryTime(mDownlinkRandom, mDownlinkTime);
+        mDownlink.add(packet);
+        mFarm.schedule(mDownlinkTime, () -> {
+            final byte[] next = mDownlink.poll();
+            mHandler.post(() -> {
+                final MeshBearerCallbacks callbacks = mCallbacks;
+                if (!closed && callbacks != null) {
+                    callbacks.onDataReceived(mtu, next);
+                }
+            });
+        });
+    }
+
+    /**
+     * Reassembles the packets written to the bearer, called on the thread of the farm.
+     */
+    private void onPacketReceived() {
+        final byte[] packet;
+        synchronized (this) {
+            packet = mUplink.poll();
+        }
+        if (closed || packet == null)
+            return;
+        final int sar = (packet[0] & 0xFF) >> SAR_BIT_OFFSET;
+        switch (sar) {
+            case SAR_COMPLETE:
+                mIncoming.reset();
+                mFarm.onPduReceived(this, packet);
+                break;
+            case SAR_START:
+                mIncoming.reset();
+                mIncoming.write(packet[0] & PDU_TYPE_MASK);
+                mIncoming.write(packet, 1, packet.length - 1);
+                break;
+            case SAR_CONTINUATION:
+                mIncoming.write(packet, 1, packet.length - 1);
+                break;
+            default:
+                mIncoming.write(packet, 1, packet.length - 1);
+                final byte[] pdu = mIncoming.toByteArray();
+                mIncoming.reset();
+                mFarm.onPduReceived(this, pdu);
+                break;
+        }
+    }
+
+    /**
+     * Returns the time a packet is delivered at, never before the previous packet sent in the same direction.
+     */
+    private long nextDeliveryTime(@NonNull final Random random, final long previous) {
+        long delay = mSettings.getLatency();
+        if (mSettings.getJitter() > 0) {
+            delay += (long) (random.nextDouble() * (mSettings.getJitter() + 1));
+        }
+        return Math.max(previous, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+}
@@ -0,0 +1,41 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A bearer carrying proxy pdus between the library and a node, i.e. the GATT connection to a proxy node or to a device being provisioned.
+ * <p>
+ * The library hands the pdus it creates to the application, which writes them to the bearer, and the application passes the data
+ * received from the bearer back to the library. A bearer reports both through {@link MeshBearerCallbacks}.
+ * </p>
+ */
+public interface MeshBearer {
+
+    /**
+     * Returns the maximum number of bytes written to or notified by the bearer at once.
+     */
+    int getMtu();
+
+    /**
+     * Sets the callbacks the bearer reports written and received data to.
+     *
+     * @param callbacks {@link MeshBearerCallbacks}
+     */
+    void setBearerCallbacks(@NonNull final MeshBearerCallbacks callbacks);
+
+    /**
+     * Sends a pdu created by the library.
+     * <p>
+     * Pdus larger than the mtu must have been segmented using the proxy protocol SAR with a segment starting every mtu bytes,
+     * which is how the library segments the pdus for the mtu returned by the application.
+     * </p>
+     *
+     * @param pdu Proxy pdu
+     */
+    void send(@NonNull final byte[] pdu);
+
+    /**
+     * Closes the bearer, data that has not been delivered yet is discarded.
+     */
+    void close();
+}
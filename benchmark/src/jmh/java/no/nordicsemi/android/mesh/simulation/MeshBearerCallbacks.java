@@ -0,0 +1,25 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Callbacks of a {@link MeshBearer}, invoked on the main thread.
+ */
+public interface MeshBearerCallbacks {
+
+    /**
+     * Invoked when data has been written to the bearer, the data is to be passed on to the write callbacks of the library.
+     *
+     * @param mtu  Mtu of the bearer
+     * @param data Data written
+     */
+    void onDataSent(final int mtu, @NonNull final byte[] data);
+
+    /**
+     * Invoked when data has been received from the bearer, the data is to be passed on to the notification handling of the library.
+     *
+     * @param mtu  Mtu of the bearer
+     * @param data Data received
+     */
+    void onDataReceived(final int mtu, @NonNull final byte[] data);
+}
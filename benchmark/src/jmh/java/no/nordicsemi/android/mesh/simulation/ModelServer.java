@@ -0,0 +1,31 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Server model of a virtual node.
+ * <p>
+ * Messages are only passed on to a model if they have been sent to an address the model receives on, and with the device key for the
+ * configuration server or with an application key bound to the model for any other model.
+ * </p>
+ */
+interface ModelServer {
+
+    /**
+     * Returns the SIG model identifier.
+     */
+    int getModelId();
+
+    /**
+     * Handles an access message, called on the thread of the {@link VirtualNodeFarm}.
+     *
+     * @param node           Node the model belongs to
+     * @param elementAddress Address of the element the model is on
+     * @param opCode         Operation code
+     * @param parameters     Message parameters
+     * @return Access pdu of the status to be sent to the source of the message or null if the message is not answered
+     */
+    @Nullable
+    byte[] onAccessMessage(@NonNull final VirtualNode node, final int elementAddress, final int opCode, @NonNull final byte[] parameters);
+}
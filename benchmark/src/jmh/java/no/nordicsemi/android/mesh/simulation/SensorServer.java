@@ -0,0 +1,51 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
+import no.nordicsemi.android.mesh.sensorutils.DeviceProperty;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Sensor Server with a single Present Ambient Temperature sensor.
+ */
+final class SensorServer implements ModelServer {
+
+    static final int MODEL_ID = 0x1100;
+
+    private static final int PROPERTY_ID = DeviceProperty.PRESENT_AMBIENT_TEMPERATURE.getPropertyId();
+    //Temperature 8 characteristic, in steps of 0.5 degrees Celsius
+    private static final byte TEMPERATURE = 21 * 2;
+
+    @Override
+    public int getModelId() {
+        return MODEL_ID;
+    }
+
+    @Nullable
+    @Override
+    public byte[] onAccessMessage(@NonNull final VirtualNode node, final int elementAddress, final int opCode, @NonNull final byte[] parameters) {
+        switch (opCode) {
+            case ApplicationMessageOpCodes.SENSOR_DESCRIPTOR_GET:
+                if (!isRequested(parameters))
+                    return VirtualNode.createAccessPdu(ApplicationMessageOpCodes.SENSOR_DESCRIPTOR_STATUS, parameters);
+                //Unspecified tolerances, sampling function, measurement period and update interval
+                return VirtualNode.createAccessPdu(ApplicationMessageOpCodes.SENSOR_DESCRIPTOR_STATUS,
+                        new byte[]{(byte) PROPERTY_ID, (byte) (PROPERTY_ID >> 8), 0, 0, 0, 0, 0, 0});
+            case ApplicationMessageOpCodes.SENSOR_GET:
+                if (!isRequested(parameters))
+                    //Format B with a zero length for a property that is not supported
+                    return VirtualNode.createAccessPdu(ApplicationMessageOpCodes.SENSOR_STATUS,
+                            new byte[]{(byte) 0xFF, parameters[0], parameters[1]});
+                //Format A, a one octet value
+                return VirtualNode.createAccessPdu(ApplicationMessageOpCodes.SENSOR_STATUS,
+                        new byte[]{(byte) ((PROPERTY_ID & 0x07) << 5), (byte) (PROPERTY_ID >> 3), TEMPERATURE});
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isRequested(@NonNull final byte[] parameters) {
+        return parameters.length != 2 || MeshParserUtils.unsignedBytesToInt(parameters[0], parameters[1]) == PROPERTY_ID;
+    }
+}
@@ -0,0 +1,513 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.NetworkPduCodec;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+/**
+ * Virtual mesh node with a Configuration Server and a Generic OnOff Server on the primary element and a Sensor Server on the
+ * secondary element.
+ * <p>
+ * The node implements the lower and upper transport layers: segmented messages are reassembled and acknowledged, segmented
+ * messages sent to a unicast address are retransmitted until they have been acknowledged, and access messages are decrypted with
+ * the device key or an application key. Relaying, friendship and heartbeats are not simulated.
+ * All methods are called on the thread of the {@link VirtualNodeFarm}.
+ * </p>
+ */
+final class VirtualNode {
+
+    static final int COMPANY_IDENTIFIER = 0x0059;
+    static final int PRODUCT_IDENTIFIER = 0x0001;
+    static final int VERSION_IDENTIFIER = 0x0001;
+    static final int REPLAY_PROTECTION_LIST_SIZE = 0x0100;
+    //Relay and proxy
+    static final int FEATURES = 0x0003;
+
+    private static final int DEVICE_KEY_INDEX = -1;
+    private static final int DEFAULT_TTL = 5;
+    private static final int MAX_UNSEGMENTED_UPPER_TRANSPORT_PDU_LENGTH = 15;
+    private static final int MAX_SEGMENT_LENGTH = 12;
+    private static final int TRANS_MIC_LENGTH = 4;
+    private static final int SZMIC_TRANS_MIC_LENGTH = 8;
+    private static final int SEGMENT_ACKNOWLEDGEMENT_OPCODE = 0x00;
+    private static final int SEQ_ZERO_MASK = 0x1FFF;
+    private static final int SEGMENT_TRANSMISSION_INTERVAL = 200;
+    private static final int SEGMENT_RETRANSMISSIONS = 2;
+
+    private final VirtualNodeFarm mFarm;
+    private final UUID mUuid;
+    private final List<List<Model>> mElements;
+    private final Map<Integer, AppKey> mAppKeys = new HashMap<>();
+    //Last sequence number received from each source address
+    private final Map<Integer, Integer> mReplayProtectionList = new HashMap<>();
+    private final Map<Integer, IncomingMessage> mIncomingMessages = new HashMap<>();
+    private final Map<Integer, OutgoingMessage> mOutgoingMessages = new HashMap<>();
+    private VirtualNodeFarm.Subnet mSubnet;
+    private int mUnicastAddress = MeshAddress.UNASSIGNED_ADDRESS;
+    private byte[] mDeviceKey;
+    private int mSequenceNumber;
+    private int mDefaultTtl = DEFAULT_TTL;
+    private boolean mResetPending;
+
+    VirtualNode(@NonNull final VirtualNodeFarm farm, @NonNull final UUID uuid) {
+        mFarm = farm;
+        mUuid = uuid;
+        mElements = new ArrayList<>(2);
+        mElements.add(Collections.unmodifiableList(Arrays.asList(new Model(new ConfigServer()), new Model(new GenericOnOffServer()))));
+        mElements.add(Collections.singletonList(new Model(new SensorServer())));
+    }
+
+    /**
+     * Returns the access pdu of a message.
+     *
+     * @param opCode     Operation code
+     * @param parameters Message parameters
+     */
+    @NonNull
+    static byte[] createAccessPdu(final int opCode, @NonNull final byte[] parameters) {
+        final byte[] opCodeBytes = MeshParserUtils.getOpCode(opCode);
+        final byte[] accessPdu = Arrays.copyOf(opCodeBytes, opCodeBytes.length + parameters.length);
+        System.arraycopy(parameters, 0, accessPdu, opCodeBytes.length, parameters.length);
+        return accessPdu;
+    }
+
+    @NonNull
+    UUID getUuid() {
+        return mUuid;
+    }
+
+    boolean isProvisioned() {
+        return mSubnet != null;
+    }
+
+    int getUnicastAddress() {
+        return mUnicastAddress;
+    }
+
+    int getElementCount() {
+        return mElements.size();
+    }
+
+    /**
+     * Returns the models of an element.
+     *
+     * @param index Index of the element
+     */
+    @NonNull
+    List<Model> getModels(final int index) {
+        return mElements.get(index);
+    }
+
+    int getNetKeyIndex() {
+        return mSubnet.keyIndex;
+    }
+
+    int getDefaultTtl() {
+        return mDefaultTtl;
+    }
+
+    void setDefaultTtl(final int defaultTtl) {
+        mDefaultTtl = defaultTtl;
+    }
+
+    @Nullable
+    byte[] getAppKey(final int appKeyIndex) {
+        final AppKey appKey = mAppKeys.get(appKeyIndex);
+        return appKey == null ? null : appKey.key;
+    }
+
+    void addAppKey(final int appKeyIndex, @NonNull final byte[] key) {
+        mAppKeys.put(appKeyIndex, new AppKey(key));
+    }
+
+    /**
+     * Resets the node once the status of the message being handled has been sent.
+     */
+    void resetAfterSending() {
+        mResetPending = true;
+    }
+
+    void onProvisioned(@NonNull final VirtualNodeFarm.Subnet subnet, final int unicastAddress, @NonNull final byte[] deviceKey) {
+        mSubnet = subnet;
+        mUnicastAddress = unicastAddress;
+        mDeviceKey = deviceKey;
+    }
+
+    /**
+     * Handles a lower transport pdu received by the proxy of the farm.
+     *
+     * @param ctl               0 for an access message or 1 for a control message
+     * @param src               Source address
+     * @param dst               Destination address
+     * @param sequenceNumber    Sequence number
+     * @param lowerTransportPdu Lower transport pdu
+     */
+    void onLowerTransportPdu(final int ctl, final int src, final int dst, final int sequenceNumber, @NonNull final byte[] lowerTransportPdu) {
+        if (!isProvisioned() || !receives(dst))
+            return;
+        final Integer lastSequenceNumber = mReplayProtectionList.get(src);
+        if (lastSequenceNumber != null && sequenceNumber <= lastSequenceNumber)
+            return;
+        mReplayProtectionList.put(src, sequenceNumber);
+
+        final boolean segmented = (lowerTransportPdu[0] & 0x80) != 0;
+        if (ctl == 1) {
+            if (!segmented && (lowerTransportPdu[0] & 0x7F) == SEGMENT_ACKNOWLEDGEMENT_OPCODE) {
+                onSegmentAcknowledgement(src, lowerTransportPdu);
+            }
+            return;
+        }
+        final int akf = (lowerTransportPdu[0] >> 6) & 0x01;
+        final int aid = lowerTransportPdu[0] & 0x3F;
+        if (!segmented) {
+            onUpperTransportPdu(src, dst, akf, aid, 0, sequenceNumber,
+                    Arrays.copyOfRange(lowerTransportPdu, 1, lowerTransportPdu.length));
+        } else if (lowerTransportPdu.length > 4) {
+            onSegment(src, dst, akf, aid, sequenceNumber, lowerTransportPdu);
+        }
+        resetIfPending();
+    }
+
+    private boolean receives(final int dst) {
+        if (MeshAddress.isValidUnicastAddress(dst))
+            return dst >= mUnicastAddress && dst < mUnicastAddress + mElements.size();
+        if (dst == MeshAddress.ALL_NODES_ADDRESS)
+            return true;
+        for (List<Model> models : mElements) {
+            for (Model model : models) {
+                if (model.subscriptions.contains(dst))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private void onSegment(final int src, final int dst, final int akf, final int aid, final int sequenceNumber, @NonNull final byte[] pdu) {
+        final int szmic = (pdu[1] >> 7) & 0x01;
+        final int seqZero = ((pdu[1] & 0x7F) << 6) | ((pdu[2] & 0xFF) >> 2);
+        final int segO = ((pdu[2] & 0x03) << 3) | ((pdu[3] & 0xE0) >> 5);
+        final int segN = pdu[3] & 0x1F;
+        final int seqAuth = sequenceNumber - ((sequenceNumber - seqZero) & SEQ_ZERO_MASK);
+        if (segO > segN)
+            return;
+
+        IncomingMessage message = mIncomingMessages.get(src);
+        if (message == null || seqAuth > message.seqAuth) {
+            message = new IncomingMessage(seqAuth, segN);
+            mIncomingMessages.put(src, message);
+        } else if (seqAuth < message.seqAuth || segN != message.segN) {
+            return;
+        }
+        final boolean unicast = MeshAddress.isValidUnicastAddress(dst);
+        if (message.isComplete()) {
+            //The acknowledgement of the complete message has been lost
+            if (unicast) {
+                sendSegmentAcknowledgement(dst, src, seqZero, message.blockAck);
+            }
+            return;
+        }
+        if (message.segments[segO] == null) {
+            message.segments[segO] = Arrays.copyOfRange(pdu, 4, pdu.length);
+            message.blockAck |= 1 << segO;
+        }
+        if (message.isComplete()) {
+            if (unicast) {
+                sendSegmentAcknowledgement(dst, src, seqZero, message.blockAck);
+            }
+            onUpperTransportPdu(src, dst, akf, aid, szmic, seqAuth, message.concatenate());
+        } else if (unicast && segO == segN) {
+            sendSegmentAcknowledgement(dst, src, seqZero, message.blockAck);
+        }
+    }
+
+    private void onSegmentAcknowledgement(final int src, @NonNull final byte[] pdu) {
+        if (pdu.length != 7)
+            return;
+        final int seqZero = ((pdu[1] & 0x7F) << 6) | ((pdu[2] & 0xFF) >> 2);
+        final int blockAck = ((pdu[3] & 0xFF) << 24) | ((pdu[4] & 0xFF) << 16) | ((pdu[5] & 0xFF) << 8) | (pdu[6] & 0xFF);
+        final OutgoingMessage message = mOutgoingMessages.get(src);
+        if (message == null || message.seqZero != seqZero)
+            return;
+        if (blockAck == 0 || blockAck == message.getAllSegments()) {
+            //A block ack of zero cancels the message
+            mOutgoingMessages.remove(src);
+            return;
+        }
+        message.blockAck |= blockAck;
+        sendMissingSegments(src, message);
+    }
+
+    private void sendMissingSegments(final int dst, @NonNull final OutgoingMessage message) {
+        for (int segO = 0; segO < message.segments.length; segO++) {
+            if ((message.blockAck & (1 << segO)) == 0) {
+                mFarm.sendNetworkPdu(0, mDefaultTtl, nextSequenceNumber(), message.src, dst, mSubnet, message.segments[segO]);
+            }
+        }
+    }
+
+    /**
+     * Retransmits the segments that have not been acknowledged when the segment transmission timer expires.
+     */
+    private void startSegmentTransmissionTimer(final int dst, @NonNull final OutgoingMessage message) {
+        final long interval = TimeUnit.MILLISECONDS.toNanos(SEGMENT_TRANSMISSION_INTERVAL + 50L * mDefaultTtl);
+        mFarm.schedule(System.nanoTime() + interval, () -> {
+            if (mOutgoingMessages.get(dst) != message)
+                return;
+            if (message.retransmissions == 0) {
+                mOutgoingMessages.remove(dst);
+                return;
+            }
+            message.retransmissions--;
+            sendMissingSegments(dst, message);
+            startSegmentTransmissionTimer(dst, message);
+        });
+    }
+
+    private void onUpperTransportPdu(final int src, final int dst, final int akf, final int aid, final int szmic,
+                                     final int seqAuth, @NonNull final byte[] upperTransportPdu) {
+        final int transMicLength = szmic == 1 ? SZMIC_TRANS_MIC_LENGTH : TRANS_MIC_LENGTH;
+        if (upperTransportPdu.length <= transMicLength)
+            return;
+        final NetworkPduCodec codec = NetworkPduCodec.get();
+        final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(seqAuth);
+        final byte[] ivIndex = mFarm.getIvIndexBytes();
+        final byte[] accessPdu = new byte[upperTransportPdu.length - transMicLength];
+        if (akf == 0) {
+            final byte[] nonce = codec.createDeviceNonce(szmic, sequenceNumber, src, dst, ivIndex);
+            if (decrypt(mDeviceKey, nonce, upperTransportPdu, accessPdu, transMicLength)) {
+                onAccessPdu(src, dst, DEVICE_KEY_INDEX, accessPdu);
+            }
+            return;
+        }
+        for (Map.Entry<Integer, AppKey> entry : mAppKeys.entrySet()) {
+            final AppKey appKey = entry.getValue();
+            if (appKey.aid != aid)
+                continue;
+            final byte[] nonce = codec.createApplicationNonce(szmic, sequenceNumber, src, dst, ivIndex);
+            if (decrypt(appKey.key, nonce, upperTransportPdu, accessPdu, transMicLength)) {
+                onAccessPdu(src, dst, entry.getKey(), accessPdu);
+                return;
+            }
+        }
+    }
+
+    private void onAccessPdu(final int src, final int dst, final int appKeyIndex, @NonNull final byte[] accessPdu) {
+        if (accessPdu.length == 0)
+            return;
+        final int opCodeLength = MeshParserUtils.getOpCodeLength(accessPdu[0] & 0xFF);
+        if (accessPdu.length < opCodeLength)
+            return;
+        final int opCode = opCodeLength == 1 ? accessPdu[0] & 0xFF : MeshParserUtils.getOpCode(accessPdu, opCodeLength);
+        final byte[] parameters = Arrays.copyOfRange(accessPdu, opCodeLength, accessPdu.length);
+        for (int i = 0; i < mElements.size(); i++) {
+            final int elementAddress = mUnicastAddress + i;
+            for (Model model : mElements.get(i)) {
+                if (!model.receives(dst, elementAddress, i == 0))
+                    continue;
+                final boolean configuration = model.server.getModelId() == ConfigServer.MODEL_ID;
+                if (appKeyIndex == DEVICE_KEY_INDEX ? !configuration : !model.boundAppKeys.contains(appKeyIndex))
+                    continue;
+                final byte[] status = model.server.onAccessMessage(this, elementAddress, opCode, parameters);
+                if (status != null) {
+                    sendAccessPdu(elementAddress, src, appKeyIndex, status);
+                }
+            }
+        }
+    }
+
+    private void sendAccessPdu(final int src, final int dst, final int appKeyIndex, @NonNull final byte[] accessPdu) {
+        final AppKey appKey = appKeyIndex == DEVICE_KEY_INDEX ? null : mAppKeys.get(appKeyIndex);
+        final int sequenceNumber = nextSequenceNumber();
+        final byte[] sequenceNumberBytes = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
+        final NetworkPduCodec codec = NetworkPduCodec.get();
+        final byte[] upperTransportPdu;
+        final int header;
+        if (appKey == null) {
+            final byte[] nonce = codec.createDeviceNonce(0, sequenceNumberBytes, src, dst, mFarm.getIvIndexBytes());
+            upperTransportPdu = SecureUtils.encryptCCM(accessPdu, mDeviceKey, nonce, TRANS_MIC_LENGTH);
+            header = 0;
+        } else {
+            final byte[] nonce = codec.createApplicationNonce(0, sequenceNumberBytes, src, dst, mFarm.getIvIndexBytes());
+            upperTransportPdu = SecureUtils.encryptCCM(accessPdu, appKey.key, nonce, TRANS_MIC_LENGTH);
+            header = 0x40 | appKey.aid;
+        }
+
+        if (upperTransportPdu.length <= MAX_UNSEGMENTED_UPPER_TRANSPORT_PDU_LENGTH) {
+            final byte[] pdu = new byte[1 + upperTransportPdu.length];
+            pdu[0] = (byte) header;
+            System.arraycopy(upperTransportPdu, 0, pdu, 1, upperTransportPdu.length);
+            mFarm.sendNetworkPdu(0, mDefaultTtl, sequenceNumber, src, dst, mSubnet, pdu);
+            return;
+        }
+        final int seqZero = sequenceNumber & SEQ_ZERO_MASK;
+        final int segN = (upperTransportPdu.length - 1) / MAX_SEGMENT_LENGTH;
+        final byte[][] segments = new byte[segN + 1][];
+        for (int segO = 0; segO <= segN; segO++) {
+            final int offset = segO * MAX_SEGMENT_LENGTH;
+            final int length = Math.min(MAX_SEGMENT_LENGTH, upperTransportPdu.length - offset);
+            final byte[] segment = new byte[4 + length];
+            segment[0] = (byte) (0x80 | header);
+            segment[1] = (byte) ((seqZero >> 6) & 0x7F);
+            segment[2] = (byte) (((seqZero & 0x3F) << 2) | (segO >> 3));
+            segment[3] = (byte) (((segO & 0x07) << 5) | segN);
+            System.arraycopy(upperTransportPdu, offset, segment, 4, length);
+            segments[segO] = segment;
+            mFarm.sendNetworkPdu(0, mDefaultTtl, segO == 0 ? sequenceNumber : nextSequenceNumber(), src, dst, mSubnet, segment);
+        }
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            final OutgoingMessage message = new OutgoingMessage(src, seqZero, segments);
+            mOutgoingMessages.put(dst, message);
+            startSegmentTransmissionTimer(dst, message);
+        }
+    }
+
+    private void sendSegmentAcknowledgement(final int src, final int dst, final int seqZero, final int blockAck) {
+        final byte[] pdu = new byte[]{
+                SEGMENT_ACKNOWLEDGEMENT_OPCODE,
+                (byte) ((seqZero >> 6) & 0x7F),
+                (byte) ((seqZero & 0x3F) << 2),
+                (byte) (blockAck >> 24), (byte) (blockAck >> 16), (byte) (blockAck >> 8), (byte) blockAck
+        };
+        mFarm.sendNetworkPdu(1, mDefaultTtl, nextSequenceNumber(), src, dst, mSubnet, pdu);
+    }
+
+    private void resetIfPending() {
+        if (!mResetPending)
+            return;
+        mResetPending = false;
+        mFarm.onNodeReset(this);
+        mSubnet = null;
+        mUnicastAddress = MeshAddress.UNASSIGNED_ADDRESS;
+        mDeviceKey = null;
+        mSequenceNumber = 0;
+        mDefaultTtl = DEFAULT_TTL;
+        mAppKeys.clear();
+        mReplayProtectionList.clear();
+        mIncomingMessages.clear();
+        mOutgoingMessages.clear();
+        for (List<Model> models : mElements) {
+            for (Model model : models) {
+                model.boundAppKeys.clear();
+                model.subscriptions.clear();
+            }
+        }
+    }
+
+    private int nextSequenceNumber() {
+        return mSequenceNumber++;
+    }
+
+    private static boolean decrypt(@NonNull final byte[] key, @NonNull final byte[] nonce, @NonNull final byte[] in,
+                                   @NonNull final byte[] out, final int micLength) {
+        return CryptoContext.get().tryDecryptCCM(key, nonce, null, in, 0, in.length, out, 0, micLength) >= 0;
+    }
+
+    /**
+     * Server model on an element of the node with its bound application keys and subscriptions.
+     */
+    static final class Model {
+
+        private final ModelServer server;
+        private final Set<Integer> boundAppKeys = new HashSet<>();
+        private final Set<Integer> subscriptions = new HashSet<>();
+
+        Model(@NonNull final ModelServer server) {
+            this.server = server;
+        }
+
+        @NonNull
+        ModelServer getServer() {
+            return server;
+        }
+
+        void bind(final int appKeyIndex) {
+            boundAppKeys.add(appKeyIndex);
+        }
+
+        void subscribe(final int address) {
+            subscriptions.add(address);
+        }
+
+        private boolean receives(final int dst, final int elementAddress, final boolean primaryElement) {
+            return dst == elementAddress || subscriptions.contains(dst) || (primaryElement && dst == MeshAddress.ALL_NODES_ADDRESS);
+        }
+    }
+
+    private static final class AppKey {
+
+        private final byte[] key;
+        private final int aid;
+
+        AppKey(@NonNull final byte[] key) {
+            this.key = key;
+            this.aid = SecureUtils.calculateK4(key);
+        }
+    }
+
+    private static final class IncomingMessage {
+
+        private final int seqAuth;
+        private final int segN;
+        private final byte[][] segments;
+        private int blockAck;
+
+        IncomingMessage(final int seqAuth, final int segN) {
+            this.seqAuth = seqAuth;
+            this.segN = segN;
+            this.segments = new byte[segN + 1][];
+        }
+
+        boolean isComplete() {
+            return blockAck == (segN == 31 ? -1 : (1 << (segN + 1)) - 1);
+        }
+
+        @NonNull
+        byte[] concatenate() {
+            int length = 0;
+            for (byte[] segment : segments) {
+                length += segment.length;
+            }
+            final byte[] pdu = new byte[length];
+            int offset = 0;
+            for (byte[] segment : segments) {
+                System.arraycopy(segment, 0, pdu, offset, segment.length);
+                offset += segment.length;
+            }
+            return pdu;
+        }
+    }
+
+    private static final class OutgoingMessage {
+
+        private final int src;
+        private final int seqZero;
+        private final byte[][] segments;
+        private int blockAck;
+        private int retransmissions = SEGMENT_RETRANSMISSIONS;
+
+        OutgoingMessage(final int src, final int seqZero, @NonNull final byte[][] segments) {
+            this.src = src;
+            this.seqZero = seqZero;
+            this.segments = segments;
+        }
+
+        int getAllSegments() {
+            return segments.length == 32 ? -1 : (1 << segments.length) - 1;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.MeshManagerApi;
+import no.nordicsemi.android.mesh.transport.NetworkPduCodec;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+/**
+ * Hosts virtual mesh nodes in the same process as the library, for load testing the provisioning, configuration and status handling
+ * of large networks without any radio.
+ * <p>
+ * Devices added to the farm are unprovisioned and can be provisioned over a bearer connected to the device, see
+ * {@link #connect(UUID, LinkSettings)}, or directly with the keys of an existing network, see {@link #provision}. Provisioned nodes
+ * are reached over a bearer connected to the proxy of the farm, see {@link #connect(LinkSettings)}, which relays every network pdu
+ * to the nodes it is addressed to and every pdu sent by the nodes to all proxy bearers.
+ * </p>
+ * <p>
+ * All nodes run on a single thread owned by the farm, which is also the thread the bearers deliver the written packets on.
+ * The methods of the farm may be called from any thread.
+ * </p>
+ */
+public final class VirtualNodeFarm {
+
+    private static final String TAG = VirtualNodeFarm.class.getSimpleName();
+    private static final int IV_INDEX_LENGTH = 4;
+    private static final int NETWORK_HEADER_LENGTH = 6;
+
+    private final ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Random mRandom;
+    //The following are only used on the thread of the farm
+    private final Map<UUID, VirtualNode> mDevices = new LinkedHashMap<>();
+    private final Map<Integer, VirtualNode> mElementAddresses = new HashMap<>();
+    private final List<VirtualNode> mNodes = new ArrayList<>();
+    private final Map<Integer, Subnet> mSubnets = new HashMap<>();
+    private final List<LoopbackBearer> mProxyBearers = new ArrayList<>();
+    private final byte[] mIvIndexBytes = new byte[IV_INDEX_LENGTH];
+    private int mIvIndex;
+
+    /**
+     * Constructs the farm.
+     *
+     * @param seed Seed of the device uuids and of the jitter and loss of the links, the keys generated while provisioning are random
+     */
+    public VirtualNodeFarm(final long seed) {
+        mRandom = new Random(seed);
+        if (Security.getProvider("SC") == null) {
+            //Appended rather than preferred, the seeding of its default random would otherwise resolve to itself on a desktop JVM
+            Security.addProvider(new org.spongycastle.jce.provider.BouncyCastleProvider());
+        }
+    }
+
+    /**
+     * Adds an unprovisioned device to the farm.
+     *
+     * @return Device uuid
+     */
+    @NonNull
+    public UUID addDevice() {
+        return call(() -> {
+            final UUID uuid = new UUID(mRandom.nextLong(), mRandom.nextLong());
+            mDevices.put(uuid, new VirtualNode(this, uuid));
+            return uuid;
+        });
+    }
+
+    /**
+     * Adds unprovisioned devices to the farm.
+     *
+     * @param count Number of devices
+     * @return Device uuids
+     */
+    @NonNull
+    public List<UUID> addDevices(final int count) {
+        final List<UUID> uuids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            uuids.add(addDevice());
+        }
+        return uuids;
+    }
+
+    /**
+     * Returns the number of provisioned nodes.
+     */
+    public int getNodeCount() {
+        return call(mNodes::size);
+    }
+
+    /**
+     * Connects a bearer to an unprovisioned device, as done when provisioning over PB-GATT.
+     *
+     * @param deviceUuid Device uuid
+     * @param settings   Link settings
+     * @throws IllegalArgumentException if the device does not exist or has already been provisioned
+     */
+    @NonNull
+    public MeshBearer connect(@NonNull final UUID deviceUuid, @NonNull final LinkSettings settings) throws IllegalArgumentException {
+        return call(() -> {
+            final VirtualNode device = mDevices.get(deviceUuid);
+            if (device == null)
+                throw new IllegalArgumentException("Unknown device " + deviceUuid);
+            if (device.isProvisioned())
+                throw new IllegalArgumentException("Device " + deviceUuid + " has already been provisioned");
+            final VirtualProvisionee provisionee = new VirtualProvisionee(this, device);
+            final LoopbackBearer bearer = new LoopbackBearer(this, settings, provisionee, mRandom.nextLong());
+            provisionee.setBearer(bearer);
+            return bearer;
+        });
+    }
+
+    /**
+     * Connects a bearer to the proxy of the farm.
+     *
+     * @param settings Link settings
+     */
+    @NonNull
+    public MeshBearer connect(@NonNull final LinkSettings settings) {
+        return call(() -> {
+            final LoopbackBearer bearer = new LoopbackBearer(this, settings, null, mRandom.nextLong());
+            mProxyBearers.add(bearer);
+            return bearer;
+        });
+    }
+
+    /**
+     * Provisions a device without running the provisioning protocol, i.e. to recreate the nodes of an imported network.
+     *
+     * @param deviceUuid     Device uuid
+     * @param networkKey     Network key
+     * @param keyIndex       Index of the network key
+     * @param ivIndex        IV Index
+     * @param unicastAddress Unicast address of the primary element
+     * @param deviceKey      Device key
+     * @throws IllegalArgumentException if the device has already been provisioned or any of the addresses is in use
+     */
+    public void provision(@NonNull final UUID deviceUuid,
+                          @NonNull final byte[] networkKey,
+                          final int keyIndex,
+                          final int ivIndex,
+                          final int unicastAddress,
+                          @NonNull final byte[] deviceKey) throws IllegalArgumentException {
+        call(() -> {
+            VirtualNode device = mDevices.get(deviceUuid);
+            if (device == null) {
+                device = new VirtualNode(this, deviceUuid);
+                mDevices.put(deviceUuid, device);
+            }
+            onProvisioned(device, networkKey, keyIndex, ivIndex, unicastAddress, deviceKey);
+            return null;
+        });
+    }
+
+    /**
+     * Stops the thread of the farm, pdus that have not been delivered yet are discarded.
+     */
+    public void shutdown() {
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs a task at the given time on the thread of the farm.
+     *
+     * @param time     Time as returned by {@link System#nanoTime()}
+     * @param runnable Task
+     */
+    void schedule(final long time, @NonNull final Runnable runnable) {
+        if (!mExecutor.isShutdown()) {
+            mExecutor.schedule(runnable, time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void onBearerClosed(@NonNull final LoopbackBearer bearer) {
+        if (!mExecutor.isShutdown()) {
+            mExecutor.execute(() -> mProxyBearers.remove(bearer));
+        }
+    }
+
+    /**
+     * Handles a pdu written to a bearer of the farm.
+     *
+     * @param bearer Bearer the pdu was written to
+     * @param pdu    Proxy pdu
+     */
+    void onPduReceived(@NonNull final LoopbackBearer bearer, @NonNull final byte[] pdu) {
+        final VirtualProvisionee provisionee = bearer.getProvisionee();
+        if (provisionee != null) {
+            if (pdu[0] == MeshManagerApi.PDU_TYPE_PROVISIONING) {
+                provisionee.onProvisioningPdu(pdu);
+            }
+        } else if (pdu[0] == MeshManagerApi.PDU_TYPE_NETWORK && !bearer.isLost()) {
+            onNetworkPdu(pdu);
+        }
+        //Proxy configuration messages and beacons are not handled by the proxy of the farm
+    }
+
+    /**
+     * Adds a node that has been provisioned to the network of the farm.
+     *
+     * @throws IllegalArgumentException if any of the addresses of the node is in use
+     */
+    void onProvisioned(@NonNull final VirtualNode node,
+                       @NonNull final byte[] networkKey,
+                       final int keyIndex,
+                       final int ivIndex,
+                       final int unicastAddress,
+                       @NonNull final byte[] deviceKey) throws IllegalArgumentException {
+        if (node.isProvisioned())
+            throw new IllegalArgumentException("Device " + node.getUuid() + " has already been provisioned");
+        for (int i = 0; i < node.getElementCount(); i++) {
+            if (!MeshAddress.isValidUnicastAddress(unicastAddress + i) || mElementAddresses.containsKey(unicastAddress + i))
+                throw new IllegalArgumentException("Address " + MeshAddress.formatAddress(unicastAddress + i, true) + " is in use");
+        }
+        if (mNodes.isEmpty()) {
+            setIvIndex(ivIndex);
+        }
+        node.onProvisioned(getSubnet(networkKey, keyIndex), unicastAddress, deviceKey);
+        for (int i = 0; i < node.getElementCount(); i++) {
+            mElementAddresses.put(unicastAddress + i, node);
+        }
+        mNodes.add(node);
+    }
+
+    /**
+     * Removes a node that has been reset from the network, the device may be provisioned again.
+     */
+    void onNodeReset(@NonNull final VirtualNode node) {
+        for (int i = 0; i < node.getElementCount(); i++) {
+            mElementAddresses.remove(node.getUnicastAddress() + i);
+        }
+        mNodes.remove(node);
+    }
+
+    @NonNull
+    byte[] getIvIndexBytes() {
+        return mIvIndexBytes;
+    }
+
+    /**
+     * Encodes a network pdu sent by a node and relays it to the proxy bearers.
+     *
+     * @param ctl               0 for an access message or 1 for a control message
+     * @param ttl               Time to live
+     * @param sequenceNumber    Sequence number
+     * @param src               Source address
+     * @param dst               Destination address
+     * @param subnet            Subnet the pdu is sent on
+     * @param lowerTransportPdu Lower transport pdu
+     */
+    void sendNetworkPdu(final int ctl,
+                        final int ttl,
+                        final int sequenceNumber,
+                        final int src,
+                        final int dst,
+                        @NonNull final Subnet subnet,
+                        @NonNull final byte[] lowerTransportPdu) {
+        final int netMicLength = SecureUtils.getNetMicLength(ctl);
+        final byte[] pdu = new byte[NetworkPduCodec.getNetworkPduLength(lowerTransportPdu.length, netMicLength)];
+        final int iviNid = ((mIvIndex & 0x01) << 7) | subnet.nid;
+        NetworkPduCodec.get().encodeNetworkPdu(MeshManagerApi.PDU_TYPE_NETWORK, iviNid, (byte) ((ctl << 7) | ttl),
+                MeshParserUtils.getSequenceNumberBytes(sequenceNumber), src, dst, lowerTransportPdu, mIvIndexBytes,
+                subnet.k2Output.getEncryptionKey(), subnet.k2Output.getPrivacyKey(), netMicLength, pdu, 0);
+        for (int i = 0; i < mProxyBearers.size(); i++) {
+            final LoopbackBearer bearer = mProxyBearers.get(i);
+            if (!bearer.isLost()) {
+                bearer.deliver(pdu);
+            }
+        }
+    }
+
+    /**
+     * Decrypts a network pdu received by the proxy and passes the lower transport pdu on to the nodes it is addressed to.
+     */
+    private void onNetworkPdu(@NonNull final byte[] pdu) {
+        final Subnet subnet = mSubnets.get(pdu[1] & 0x7F);
+        if (subnet == null || pdu.length <= 2 + NETWORK_HEADER_LENGTH)
+            return;
+        //Only the current IV index is accepted, the farm does not take part in IV update procedures
+        if (((pdu[1] >> 7) & 0x01) != (mIvIndex & 0x01))
+            return;
+        final NetworkPduCodec codec = NetworkPduCodec.get();
+        final byte[] networkHeader = codec.deObfuscateNetworkHeader(pdu, mIvIndexBytes, subnet.k2Output.getPrivacyKey());
+        final byte ctlTtl = networkHeader[0];
+        final int ctl = (ctlTtl >> 7) & 0x01;
+        final byte[] sequenceNumber = Arrays.copyOfRange(networkHeader, 1, 4);
+        final int src = MeshParserUtils.unsignedBytesToInt(networkHeader[5], networkHeader[4]);
+        final int netMicLength = SecureUtils.getNetMicLength(ctl);
+        final int payloadLength = pdu.length - (2 + NETWORK_HEADER_LENGTH);
+        if (payloadLength <= 2 + netMicLength)
+            return;
+        final byte[] nonce = codec.createNetworkNonce(ctlTtl, sequenceNumber, src, mIvIndexBytes);
+        final byte[] payload = new byte[payloadLength - netMicLength];
+        if (CryptoContext.get().tryDecryptCCM(subnet.k2Output.getEncryptionKey(), nonce, null,
+                pdu, 2 + NETWORK_HEADER_LENGTH, payloadLength, payload, 0, netMicLength) < 0)
+            return;
+
+        final int dst = MeshParserUtils.unsignedBytesToInt(payload[1], payload[0]);
+        final byte[] lowerTransportPdu = Arrays.copyOfRange(payload, 2, payload.length);
+        final int seq = MeshParserUtils.convert24BitsToInt(sequenceNumber);
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            final VirtualNode node = mElementAddresses.get(dst);
+            if (node != null) {
+                node.onLowerTransportPdu(ctl, src, dst, seq, lowerTransportPdu);
+            }
+        } else {
+            //Nodes may be reset while a group message is being handled
+            for (VirtualNode node : new ArrayList<>(mNodes)) {
+                node.onLowerTransportPdu(ctl, src, dst, seq, lowerTransportPdu);
+            }
+        }
+    }
+
+    private void setIvIndex(final int ivIndex) {
+        mIvIndex = ivIndex;
+        System.arraycopy(MeshParserUtils.intToBytes(ivIndex), 0, mIvIndexBytes, 0, IV_INDEX_LENGTH);
+    }
+
+    @NonNull
+    private Subnet getSubnet(@NonNull final byte[] networkKey, final int keyIndex) {
+        final SecureUtils.K2Output k2Output = SecureUtils.calculateK2(networkKey, SecureUtils.K2_MASTER_INPUT);
+        final Subnet subnet = mSubnets.get((int) k2Output.getNid());
+        if (subnet != null && Arrays.equals(subnet.networkKey, networkKey))
+            return subnet;
+        final Subnet newSubnet = new Subnet(networkKey, keyIndex, k2Output);
+        mSubnets.put(newSubnet.nid, newSubnet);
+        return newSubnet;
+    }
+
+    @Nullable
+    private <T> T call(@NonNull final Callable<T> callable) throws IllegalArgumentException {
+        try {
+            return mExecutor.submit(callable).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IllegalArgumentException)
+                throw (IllegalArgumentException) ex.getCause();
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Network key the nodes of the farm have been provisioned with.
+     */
+    static final class Subnet {
+
+        final byte[] networkKey;
+        final int keyIndex;
+        final SecureUtils.K2Output k2Output;
+        final int nid;
+
+        Subnet(@NonNull final byte[] networkKey, final int keyIndex, @NonNull final SecureUtils.K2Output k2Output) {
+            this.networkKey = networkKey;
+            this.keyIndex = keyIndex;
+            this.k2Output = k2Output;
+            this.nid = k2Output.getNid();
+        }
+    }
+}
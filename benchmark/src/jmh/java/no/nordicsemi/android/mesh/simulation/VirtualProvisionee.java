@@ -0,0 +1,262 @@
+package no.nordicsemi.android.mesh.simulation;
+
+import org.spongycastle.jce.ECNamedCurveTable;
+import org.spongycastle.jce.interfaces.ECPublicKey;
+import org.spongycastle.jce.spec.ECParameterSpec;
+import org.spongycastle.jce.spec.ECPublicKeySpec;
+import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Arrays;
+
+import javax.crypto.KeyAgreement;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.MeshManagerApi;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+/**
+ * Provisioning server of a virtual device, supporting provisioning without OOB authentication only.
+ * <p>
+ * All methods are called on the thread of the {@link VirtualNodeFarm}.
+ * </p>
+ */
+final class VirtualProvisionee {
+
+    private static final byte TYPE_INVITE = 0x00;
+    private static final byte TYPE_CAPABILITIES = 0x01;
+    private static final byte TYPE_START = 0x02;
+    private static final byte TYPE_PUBLIC_KEY = 0x03;
+    private static final byte TYPE_CONFIRMATION = 0x05;
+    private static final byte TYPE_RANDOM = 0x06;
+    private static final byte TYPE_DATA = 0x07;
+    private static final byte TYPE_COMPLETE = 0x08;
+    private static final byte TYPE_FAILED = 0x09;
+
+    private static final int ERROR_INVALID_PDU = 0x01;
+    private static final int ERROR_INVALID_FORMAT = 0x02;
+    private static final int ERROR_UNEXPECTED_PDU = 0x03;
+    private static final int ERROR_CONFIRMATION_FAILED = 0x04;
+    private static final int ERROR_DECRYPTION_FAILED = 0x06;
+    private static final int ERROR_UNEXPECTED_ERROR = 0x07;
+    private static final int ERROR_CANNOT_ASSIGN_ADDRESSES = 0x08;
+
+    private static final int KEY_LENGTH = 16;
+    private static final int COORDINATE_LENGTH = 32;
+    private static final int PROVISIONING_DATA_MIC_LENGTH = 8;
+    private static final int PROVISIONING_DATA_LENGTH = 25 + PROVISIONING_DATA_MIC_LENGTH;
+
+    private final VirtualNodeFarm mFarm;
+    private final VirtualNode mDevice;
+    private LoopbackBearer mBearer;
+    //Confirmation inputs: invite 1 byte, capabilities 11 bytes, start 5 bytes, provisioner key 64 bytes, device key 64 bytes
+    private final ByteBuffer mConfirmationInputs = ByteBuffer.allocate(1 + 11 + 5 + 64 + 64);
+    private byte mExpectedType = TYPE_INVITE;
+    private KeyPair mKeyPair;
+    private byte[] mEcdhSecret;
+    private byte[] mConfirmationSalt;
+    private byte[] mProvisionerConfirmation;
+    private byte[] mDeviceRandom;
+    private byte[] mProvisioningSalt;
+
+    VirtualProvisionee(@NonNull final VirtualNodeFarm farm, @NonNull final VirtualNode device) {
+        mFarm = farm;
+        mDevice = device;
+    }
+
+    void setBearer(@NonNull final LoopbackBearer bearer) {
+        mBearer = bearer;
+    }
+
+    /**
+     * Handles a provisioning pdu written by the provisioner.
+     *
+     * @param pdu Proxy pdu, starting with the proxy pdu type
+     */
+    void onProvisioningPdu(@NonNull final byte[] pdu) {
+        if (pdu.length < 2) {
+            fail(ERROR_INVALID_PDU);
+            return;
+        }
+        final byte type = pdu[1];
+        if (type != mExpectedType) {
+            fail(type > TYPE_FAILED ? ERROR_INVALID_PDU : ERROR_UNEXPECTED_PDU);
+            return;
+        }
+        try {
+            switch (type) {
+                case TYPE_INVITE:
+                    onInvite(pdu);
+                    break;
+                case TYPE_START:
+                    onStart(pdu);
+                    break;
+                case TYPE_PUBLIC_KEY:
+                    onPublicKey(pdu);
+                    break;
+                case TYPE_CONFIRMATION:
+                    onConfirmation(pdu);
+                    break;
+                case TYPE_RANDOM:
+                    onRandom(pdu);
+                    break;
+                case TYPE_DATA:
+                    onData(pdu);
+                    break;
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            fail(ERROR_UNEXPECTED_ERROR);
+        }
+    }
+
+    private void onInvite(@NonNull final byte[] pdu) {
+        if (pdu.length != 3) {
+            fail(ERROR_INVALID_FORMAT);
+            return;
+        }
+        mConfirmationInputs.put(pdu[2]);
+        final byte[] capabilities = new byte[]{
+                (byte) mDevice.getElementCount(),
+                0x00, 0x01, //FIPS P-256 Elliptic Curve
+                0x00, //No OOB public key
+                0x00, //No static OOB
+                0x00, 0x00, 0x00, //No output OOB
+                0x00, 0x00, 0x00 //No input OOB
+        };
+        mConfirmationInputs.put(capabilities);
+        mExpectedType = TYPE_START;
+        send(TYPE_CAPABILITIES, capabilities);
+    }
+
+    private void onStart(@NonNull final byte[] pdu) throws GeneralSecurityException {
+        if (pdu.length != 7) {
+            fail(ERROR_INVALID_FORMAT);
+            return;
+        }
+        //Only the FIPS P-256 algorithm without OOB public key and authentication is supported
+        for (int i = 2; i < pdu.length; i++) {
+            if (pdu[i] != 0) {
+                fail(ERROR_INVALID_FORMAT);
+                return;
+            }
+        }
+        mConfirmationInputs.put(pdu, 2, 5);
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("ECDH", "SC");
+        generator.initialize(ECNamedCurveTable.getParameterSpec("secp256r1"));
+        mKeyPair = generator.generateKeyPair();
+        mExpectedType = TYPE_PUBLIC_KEY;
+    }
+
+    private void onPublicKey(@NonNull final byte[] pdu) throws GeneralSecurityException {
+        if (pdu.length != 2 + 2 * COORDINATE_LENGTH) {
+            fail(ERROR_INVALID_FORMAT);
+            return;
+        }
+        final BigInteger x = BigIntegers.fromUnsignedByteArray(pdu, 2, COORDINATE_LENGTH);
+        final BigInteger y = BigIntegers.fromUnsignedByteArray(pdu, 2 + COORDINATE_LENGTH, COORDINATE_LENGTH);
+        final ECParameterSpec parameters = ECNamedCurveTable.getParameterSpec("secp256r1");
+        final PublicKey provisionerKey = KeyFactory.getInstance("ECDH", "SC")
+                .generatePublic(new ECPublicKeySpec(parameters.getCurve().validatePoint(x, y), parameters));
+        final KeyAgreement agreement = KeyAgreement.getInstance("ECDH", "SC");
+        agreement.init(mKeyPair.getPrivate());
+        agreement.doPhase(provisionerKey, true);
+        mEcdhSecret = agreement.generateSecret();
+
+        final ECPoint point = ((ECPublicKey) mKeyPair.getPublic()).getQ();
+        final byte[] deviceKey = new byte[2 * COORDINATE_LENGTH];
+        System.arraycopy(BigIntegers.asUnsignedByteArray(COORDINATE_LENGTH, point.getXCoord().toBigInteger()), 0, deviceKey, 0, COORDINATE_LENGTH);
+        System.arraycopy(BigIntegers.asUnsignedByteArray(COORDINATE_LENGTH, point.getYCoord().toBigInteger()), 0, deviceKey, COORDINATE_LENGTH, COORDINATE_LENGTH);
+        mConfirmationInputs.put(pdu, 2, 2 * COORDINATE_LENGTH);
+        mConfirmationInputs.put(deviceKey);
+        mConfirmationSalt = SecureUtils.calculateSalt(mConfirmationInputs.array());
+        mExpectedType = TYPE_CONFIRMATION;
+        send(TYPE_PUBLIC_KEY, deviceKey);
+    }
+
+    private void onConfirmation(@NonNull final byte[] pdu) {
+        if (pdu.length != 2 + KEY_LENGTH) {
+            fail(ERROR_INVALID_FORMAT);
+            return;
+        }
+        mProvisionerConfirmation = Arrays.copyOfRange(pdu, 2, pdu.length);
+        mDeviceRandom = SecureUtils.generateRandomNumber();
+        mExpectedType = TYPE_RANDOM;
+        send(TYPE_CONFIRMATION, calculateConfirmation(mDeviceRandom));
+    }
+
+    private void onRandom(@NonNull final byte[] pdu) {
+        if (pdu.length != 2 + KEY_LENGTH) {
+            fail(ERROR_INVALID_FORMAT);
+            return;
+        }
+        final byte[] provisionerRandom = Arrays.copyOfRange(pdu, 2, pdu.length);
+        if (!Arrays.equals(mProvisionerConfirmation, calculateConfirmation(provisionerRandom))) {
+            fail(ERROR_CONFIRMATION_FAILED);
+            return;
+        }
+        mProvisioningSalt = SecureUtils.calculateSalt(ByteBuffer.allocate(3 * KEY_LENGTH)
+                .put(mConfirmationSalt).put(provisionerRandom).put(mDeviceRandom).array());
+        mExpectedType = TYPE_DATA;
+        send(TYPE_RANDOM, mDeviceRandom);
+    }
+
+    private void onData(@NonNull final byte[] pdu) {
+        if (pdu.length != 2 + PROVISIONING_DATA_LENGTH) {
+            fail(ERROR_INVALID_FORMAT);
+            return;
+        }
+        final byte[] sessionKey = SecureUtils.calculateK1(mEcdhSecret, mProvisioningSalt, SecureUtils.PRSK);
+        final byte[] nonce = SecureUtils.calculateK1(mEcdhSecret, mProvisioningSalt, SecureUtils.PRSN);
+        final byte[] sessionNonce = Arrays.copyOfRange(nonce, 3, nonce.length);
+        final byte[] data = new byte[PROVISIONING_DATA_LENGTH - PROVISIONING_DATA_MIC_LENGTH];
+        if (CryptoContext.get().tryDecryptCCM(sessionKey, sessionNonce, null, pdu, 2, PROVISIONING_DATA_LENGTH,
+                data, 0, PROVISIONING_DATA_MIC_LENGTH) < 0) {
+            fail(ERROR_DECRYPTION_FAILED);
+            return;
+        }
+        final byte[] networkKey = Arrays.copyOfRange(data, 0, KEY_LENGTH);
+        final int keyIndex = MeshParserUtils.unsignedBytesToInt(data[17], data[16]);
+        final int ivIndex = ByteBuffer.wrap(data, 19, 4).getInt();
+        final int unicastAddress = MeshParserUtils.unsignedBytesToInt(data[24], data[23]);
+        final byte[] deviceKey = SecureUtils.calculateK1(mEcdhSecret, mProvisioningSalt, SecureUtils.PRDK);
+        try {
+            mFarm.onProvisioned(mDevice, networkKey, keyIndex, ivIndex, unicastAddress, deviceKey);
+        } catch (IllegalArgumentException ex) {
+            fail(ERROR_CANNOT_ASSIGN_ADDRESSES);
+            return;
+        }
+        mExpectedType = TYPE_FAILED;
+        send(TYPE_COMPLETE, new byte[0]);
+    }
+
+    @NonNull
+    private byte[] calculateConfirmation(@NonNull final byte[] random) {
+        final byte[] confirmationKey = SecureUtils.calculateK1(mEcdhSecret, mConfirmationSalt, SecureUtils.PRCK);
+        //The authentication value is zero without OOB authentication
+        final byte[] confirmationData = Arrays.copyOf(random, 2 * KEY_LENGTH);
+        return SecureUtils.calculateCMAC(confirmationData, confirmationKey);
+    }
+
+    private void fail(final int errorCode) {
+        //The link is closed by the provisioner after a failure
+        mExpectedType = TYPE_FAILED;
+        send(TYPE_FAILED, new byte[]{(byte) errorCode});
+    }
+
+    private void send(final byte type, @NonNull final byte[] parameters) {
+        final byte[] pdu = new byte[2 + parameters.length];
+        pdu[0] = MeshManagerApi.PDU_TYPE_PROVISIONING;
+        pdu[1] = type;
+        System.arraycopy(parameters, 0, pdu, 2, parameters.length);
+        mBearer.deliver(pdu);
+    }
+}
@@ -0,0 +1,98 @@
+package no.nordicsemi.android.mesh.transport;
+
+import android.content.Context;
+
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.Group;
+import no.nordicsemi.android.mesh.NetworkKey;
+import no.nordicsemi.android.mesh.Provisioner;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Creates a {@link MeshTransport} whose callbacks are answered from a single network key, without a mesh network.
+ */
+final class BenchmarkTransport {
+
+    static final int IV_INDEX = 0x12345678;
+
+    private BenchmarkTransport() {
+    }
+
+    /**
+     * Creates the transport.
+     *
+     * @param networkKey Network key returned as the primary and only network key.
+     * @param node       Node the transport is created for.
+     */
+    @NonNull
+    static MeshTransport create(@NonNull final NetworkKey networkKey, @NonNull final ProvisionedMeshNode node) {
+        //Logging is disabled, messages would otherwise be built on the measured paths
+        MeshLogger.setLogLevel(android.util.Log.ASSERT);
+        final MeshTransport transport = new MeshTransport(new Context(), node);
+        final byte[] ivIndex = MeshParserUtils.intToBytes(IV_INDEX);
+        final int[] sequenceNumber = {0};
+        transport.setNetworkLayerCallbacks(new NetworkLayerCallbacks() {
+            @Override
+            public Provisioner getProvisioner() {
+                return null;
+            }
+
+            @Override
+            public Provisioner getProvisioner(final int unicastAddress) {
+                return null;
+            }
+
+            @Override
+            public NetworkKey getPrimaryNetworkKey() {
+                return networkKey;
+            }
+
+            @Override
+            public NetworkKey getNetworkKey(final int keyIndex) {
+                return networkKey;
+            }
+
+            @Override
+            public List<NetworkKey> getNetworkKeys() {
+                return Collections.singletonList(networkKey);
+            }
+        });
+        transport.setUpperTransportLayerCallbacks(new UpperTransportLayerCallbacks() {
+            @Override
+            public ProvisionedMeshNode getNode(final int unicastAddress) {
+                return node;
+            }
+
+            @Override
+            public byte[] getIvIndex() {
+                return ivIndex;
+            }
+
+            @Override
+            public byte[] getApplicationKey(final int aid) {
+                return null;
+            }
+
+            @Override
+            public List<ApplicationKey> getApplicationKeys(final int boundNetKeyIndex) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public int getNextSequenceNumber(final int src) {
+                return sequenceNumber[0] = (sequenceNumber[0] + 1) & 0xFFFFFF;
+            }
+
+            @Override
+            public List<Group> gerVirtualGroups() {
+                return Collections.emptyList();
+            }
+        });
+        return transport;
+    }
+}
@@ -0,0 +1,98 @@
+package no.nordicsemi.android.mesh.transport;
+
+import android.util.SparseArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import no.nordicsemi.android.mesh.NetworkKey;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Benchmarks segmenting an upper transport pdu and reassembling the received segments.
+ * <p>
+ * The segments are addressed to a group so that no segment acknowledgement is sent when a message is complete. Each reassembled
+ * message is given the next SeqZero, a message with an old SeqAuth would be discarded.
+ * </p>
+ */
+@State(Scope.Thread)
+public class LowerTransportLayerBenchmark {
+
+    private static final byte[] NET_KEY = MeshParserUtils.toByteArray("7DD7364CD842AD18C17C2B820C84C3D6");
+    private static final int SRC = 0x0002;
+    private static final int DST = 0xC000;
+    private static final int SEGMENT_PAYLOAD_LENGTH = 12;
+    private static final int MAX_SEQUENCE_NUMBER = 0xFFFFFF;
+
+    /**
+     * Length of the upper transport pdu, two and the maximum number of segments.
+     */
+    @Param({"24", "384"})
+    public int upperTransportPduLength;
+
+    private NetworkKey networkKey;
+    private MeshTransport transport;
+    private AccessMessage message;
+    //Received pdus, the decrypted network pdus starting with the pdu type, the network header and the destination
+    private byte[][] segments;
+    private byte[] networkPdu;
+    private int sequenceNumber;
+
+    @Setup
+    public void setUp() {
+        networkKey = new NetworkKey(0, NET_KEY);
+        transport = BenchmarkTransport.create(networkKey, new ProvisionedMeshNode());
+        message = new AccessMessage();
+        message.setAkf(1);
+        message.setSequenceNumber(MeshParserUtils.getSequenceNumberBytes(1));
+        message.setUpperTransportPdu(new byte[upperTransportPduLength]);
+
+        transport.createLowerTransportAccessPDU(message);
+        final SparseArray<byte[]> lowerTransportPdus = message.getLowerTransportAccessPdu();
+        segments = new byte[lowerTransportPdus.size()][];
+        for (int i = 0; i < segments.length; i++) {
+            final byte[] lowerTransportPdu = lowerTransportPdus.get(i);
+            final byte[] segment = new byte[10 + lowerTransportPdu.length];
+            segment[6] = (byte) (SRC >> 8);
+            segment[7] = (byte) SRC;
+            segment[8] = (byte) (DST >> 8);
+            segment[9] = (byte) DST;
+            System.arraycopy(lowerTransportPdu, 0, segment, 10, lowerTransportPdu.length);
+            segments[i] = segment;
+        }
+        networkPdu = new byte[29];
+        sequenceNumber = 0;
+    }
+
+    @Benchmark
+    public AccessMessage segment() {
+        transport.createLowerTransportAccessPDU(message);
+        return message;
+    }
+
+    @Benchmark
+    public AccessMessage reassemble() {
+        if (sequenceNumber + segments.length > MAX_SEQUENCE_NUMBER) {
+            //Start over with a node that has not seen any SeqAuth yet
+            transport = BenchmarkTransport.create(networkKey, new ProvisionedMeshNode());
+            sequenceNumber = 0;
+        }
+        final int seqZero = sequenceNumber & 0x1FFF;
+        AccessMessage reassembled = null;
+        for (int segO = 0; segO < segments.length; segO++) {
+            final byte[] segment = segments[segO];
+            segment[11] = (byte) ((segment[11] & 0x80) | ((seqZero >> 6) & 0x7F));
+            segment[12] = (byte) (((seqZero << 2) & 0xFC) | (segment[12] & 0x03));
+            reassembled = transport.parseSegmentedAccessLowerTransportPDU(5, networkPdu, segment, BenchmarkTransport.IV_INDEX,
+                    MeshParserUtils.getSequenceNumberBytes(sequenceNumber + segO));
+        }
+        sequenceNumber += segments.length;
+        if (reassembled == null) {
+            throw new IllegalStateException("Segments were not reassembled");
+        }
+        return reassembled;
+    }
+}
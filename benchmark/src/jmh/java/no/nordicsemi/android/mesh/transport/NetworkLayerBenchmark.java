@@ -0,0 +1,87 @@
+package no.nordicsemi.android.mesh.transport;
+
+import android.util.SparseArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import no.nordicsemi.android.mesh.NetworkKey;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+/**
+ * Benchmarks encoding the network pdus of an access message and decoding a received network pdu.
+ * <p>
+ * Decoding follows the steps the message handler takes for every received pdu before it is passed to the lower transport layer,
+ * de-obfuscating the network header and decrypting the network payload.
+ * </p>
+ */
+@State(Scope.Thread)
+public class NetworkLayerBenchmark {
+
+    private static final byte[] NET_KEY = MeshParserUtils.toByteArray("7DD7364CD842AD18C17C2B820C84C3D6");
+    private static final int SRC = 0x0001;
+    private static final int DST = 0x1201;
+
+    /**
+     * Number of segments of the access message.
+     */
+    @Param({"1", "4"})
+    public int segments;
+
+    private MeshTransport transport;
+    private AccessMessage message;
+    private byte[] receivedPdu;
+    private byte[] ivIndex;
+    private SecureUtils.K2Output k2Output;
+
+    @Setup
+    public void setUp() {
+        final NetworkKey networkKey = new NetworkKey(0, NET_KEY);
+        k2Output = networkKey.getTxDerivatives();
+        transport = BenchmarkTransport.create(networkKey, new ProvisionedMeshNode());
+        ivIndex = MeshParserUtils.intToBytes(BenchmarkTransport.IV_INDEX);
+
+        //A message secured with the device key is sent with the primary network key
+        message = new AccessMessage();
+        message.setAkf(UpperTransportLayer.APPLICATION_KEY_IDENTIFIER);
+        message.setTtl(5);
+        message.setSrc(SRC);
+        message.setDst(DST);
+        message.setIvIndex(ivIndex);
+        message.setSequenceNumber(MeshParserUtils.getSequenceNumberBytes(1));
+        final SparseArray<byte[]> lowerTransportPdus = new SparseArray<>();
+        for (int i = 0; i < segments; i++) {
+            lowerTransportPdus.put(i, new byte[16]);
+        }
+        message.setLowerTransportAccessPdu(lowerTransportPdus);
+        receivedPdu = transport.createNetworkLayerPDU(message).getNetworkLayerPdu().get(0);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return transport.createNetworkLayerPDU(message);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        final NetworkPduCodec codec = NetworkPduCodec.get();
+        final byte[] networkHeader = codec.deObfuscateNetworkHeader(receivedPdu, ivIndex, k2Output.getPrivacyKey());
+        final int ctlTtl = networkHeader[0];
+        final int src = MeshParserUtils.unsignedBytesToInt(networkHeader[5], networkHeader[4]);
+        final byte[] sequenceNumber = {networkHeader[1], networkHeader[2], networkHeader[3]};
+        final int netMicLength = SecureUtils.getNetMicLength((ctlTtl >> 7) & 0x01);
+        final int networkPayloadLength = receivedPdu.length - (2 + networkHeader.length);
+        final byte[] nonce = codec.createNetworkNonce((byte) ctlTtl, sequenceNumber, src, ivIndex);
+        final byte[] decryptedPayload = new byte[networkPayloadLength - netMicLength];
+        if (CryptoContext.get().tryDecryptCCM(k2Output.getEncryptionKey(), nonce, null,
+                receivedPdu, 2 + networkHeader.length, networkPayloadLength, decryptedPayload, 0, netMicLength) < 0) {
+            throw new IllegalStateException("Decryption failed");
+        }
+        return decryptedPayload;
+    }
+}
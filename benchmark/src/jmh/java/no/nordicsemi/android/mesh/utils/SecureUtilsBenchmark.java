@@ -0,0 +1,67 @@
+package no.nordicsemi.android.mesh.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.spongycastle.crypto.InvalidCipherTextException;
+
+/**
+ * Benchmarks the cryptographic functions used to secure every pdu and to derive the network credentials.
+ */
+@State(Scope.Thread)
+public class SecureUtilsBenchmark {
+
+    //Sample data from the mesh profile specification
+    private static final byte[] KEY = MeshParserUtils.toByteArray("7DD7364CD842AD18C17C2B820C84C3D6");
+    private static final byte[] NONCE = MeshParserUtils.toByteArray("00800000011201000012345678");
+
+    /**
+     * Payload length, an unsegmented and the largest segmented access payload.
+     */
+    @Param({"11", "380"})
+    public int payloadLength;
+
+    private byte[] payload;
+    private byte[] encrypted;
+
+    @Setup
+    public void setUp() {
+        payload = new byte[payloadLength];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+        encrypted = SecureUtils.encryptCCM(payload, KEY, NONCE, 4);
+    }
+
+    @Benchmark
+    public byte[] encryptCCM() {
+        return SecureUtils.encryptCCM(payload, KEY, NONCE, 4);
+    }
+
+    @Benchmark
+    public byte[] decryptCCM() throws InvalidCipherTextException {
+        return SecureUtils.decryptCCM(encrypted, KEY, NONCE, 4);
+    }
+
+    @Benchmark
+    public byte[] calculateCMAC() {
+        return SecureUtils.calculateCMAC(payload, KEY);
+    }
+
+    @Benchmark
+    public SecureUtils.K2Output calculateK2() {
+        return SecureUtils.calculateK2(KEY, SecureUtils.K2_MASTER_INPUT);
+    }
+
+    @Benchmark
+    public byte[] calculateK3() {
+        return SecureUtils.calculateK3(KEY);
+    }
+
+    @Benchmark
+    public byte calculateK4() {
+        return SecureUtils.calculateK4(KEY);
+    }
+}
@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh;
 
-import android.util.Log;
-
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -16,6 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 final class AllocatedGroupRangeDeserializer implements JsonSerializer<List<AllocatedGroupRange>>, JsonDeserializer<List<AllocatedGroupRange>> {
     private static final String TAG = AllocatedGroupRangeDeserializer.class.getSimpleName();
@@ -32,7 +31,7 @@ final class AllocatedGroupRangeDeserializer implements JsonSerializer<List<Alloc
                 groupRanges.add(new AllocatedGroupRange(lowAddress, highAddress));
             }
         } catch (Exception ex) {
-            Log.e(TAG, "Error while de-serializing Allocated group range: " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Error while de-serializing Allocated group range: " + ex.getMessage());
         }
         return groupRanges;
     }
@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh;
 
-import android.util.Log;
-
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -16,6 +14,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
 final class AllocatedSceneRangeDeserializer implements JsonSerializer<List<AllocatedSceneRange>>, JsonDeserializer<List<AllocatedSceneRange>> {
     private static final String TAG = AllocatedSceneRangeDeserializer.class.getSimpleName();
 
@@ -31,7 +31,7 @@ final class AllocatedSceneRangeDeserializer implements JsonSerializer<List<Alloc
                 sceneRanges.add(new AllocatedSceneRange(firstScene, lastScene));
             }
         } catch (Exception ex) {
-            Log.e(TAG, "Error while de-serializing allocated scene range: " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Error while de-serializing allocated scene range: " + ex.getMessage());
         }
         return sceneRanges;
     }
@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh;
 
-import android.util.Log;
-
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -16,6 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 final class AllocatedUnicastRangeDeserializer implements JsonSerializer<List<AllocatedUnicastRange>>, JsonDeserializer<List<AllocatedUnicastRange>> {
     private static final String TAG = AllocatedUnicastRangeDeserializer.class.getSimpleName();
@@ -32,7 +31,7 @@ final class AllocatedUnicastRangeDeserializer implements JsonSerializer<List<All
                 unicastRanges.add(new AllocatedUnicastRange(lowAddress, highAddress));
             }
         } catch (Exception ex) {
-            Log.e(TAG, "Error while de-serializing allocated unicast range: " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Error while de-serializing allocated unicast range: " + ex.getMessage());
         }
         return unicastRanges;
     }
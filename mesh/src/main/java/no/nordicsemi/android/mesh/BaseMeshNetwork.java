@@ -1,7 +1,6 @@
 package no.nordicsemi.android.mesh;
 
 import android.text.TextUtils;
-import android.util.Log;
 import android.util.SparseIntArray;
 
 import com.google.gson.annotations.Expose;
@@ -18,6 +17,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
@@ -31,8 +31,10 @@ import no.nordicsemi.android.mesh.transport.ConfigAppKeyUpdate;
 import no.nordicsemi.android.mesh.transport.ConfigKeyRefreshPhaseSet;
 import no.nordicsemi.android.mesh.transport.ConfigNetKeyUpdate;
 import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.MeshModel;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.ProxyFilter;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
@@ -103,7 +105,7 @@ abstract class BaseMeshNetwork {
     @Ignore
     @SerializedName("nodes")
     @Expose
-    List<ProvisionedMeshNode> nodes = new ArrayList<>();
+    List<ProvisionedMeshNode> nodes = new CopyOnWriteArrayList<>();
     @Ignore
     @SerializedName("groups")
     @Expose
@@ -133,6 +135,18 @@ abstract class BaseMeshNetwork {
     @Expose(serialize = false, deserialize = false)
     private ProxyFilter proxyFilter;
     @Ignore
+    @Expose(serialize = false, deserialize = false)
+    private final NodeAddressIndex nodeAddressIndex = new NodeAddressIndex();
+    @Ignore
+    @Expose(serialize = false, deserialize = false)
+    private final GroupMembershipIndex groupMembershipIndex = new GroupMembershipIndex();
+    @Ignore
+    @Expose(serialize = false, deserialize = false)
+    private final UnicastAddressSpace unicastAddressSpace = new UnicastAddressSpace();
+    @Ignore
+    @Expose(serialize = false, deserialize = false)
+    private NetworkChanges pendingChanges;
+    @Ignore
     protected final Comparator<ProvisionedMeshNode> nodeComparator = (node1, node2) ->
             Integer.compare(node1.getUnicastAddress(), node2.getUnicastAddress());
     @Ignore
@@ -414,7 +428,7 @@ abstract class BaseMeshNetwork {
                 try {
                     return key.clone();
                 } catch (CloneNotSupportedException e) {
-                    Log.e(TAG, "Error while cloning key: " + e.getMessage());
+                    MeshLogger.e(TAG, () -> "Error while cloning key: " + e.getMessage());
                 }
             }
         }
@@ -480,7 +494,7 @@ abstract class BaseMeshNetwork {
                 try {
                     return key.clone();
                 } catch (CloneNotSupportedException e) {
-                    Log.e(TAG, "Error while cloning key: " + e.getMessage());
+                    MeshLogger.e(TAG, () -> "Error while cloning key: " + e.getMessage());
                 }
             }
         }
@@ -854,6 +868,7 @@ abstract class BaseMeshNetwork {
         if (provisioner.getProvisionerAddress() != null) {
             final ProvisionedMeshNode node = new ProvisionedMeshNode(provisioner, netKeys, appKeys);
             nodes.add(node);
+            invalidateNodeAddressIndex();
             notifyNodeAdded(node);
         }
         return true;
@@ -919,6 +934,7 @@ abstract class BaseMeshNetwork {
                 if (node == null) {
                     node = new ProvisionedMeshNode(provisioner, netKeys, appKeys);
                     nodes.add(node);
+                    invalidateNodeAddressIndex();
                     notifyNodeAdded(node);
                 } else {
                     for (int i = 0; i < nodes.size(); i++) {
@@ -933,6 +949,7 @@ abstract class BaseMeshNetwork {
                             node = new ProvisionedMeshNode(provisioner, netKeys, appKeys);
                             node.setSequenceNumber(sequenceNumber);
                             nodes.set(i, node);
+                            invalidateNodeAddressIndex();
                             notifyNodeUpdated(node);
                             break;
                         }
@@ -958,6 +975,7 @@ abstract class BaseMeshNetwork {
         if (node == null)
             return true;
         else if (nodes.remove(node)) {
+            invalidateNodeAddressIndex();
             provisioner.assignProvisionerAddress(null);
             notifyNodeDeleted(node);
             return true;
@@ -1045,6 +1063,10 @@ abstract class BaseMeshNetwork {
 
     /**
      * Returns the list of {@link ProvisionedMeshNode}
+     * <p>
+     * Nodes are added and removed on the transport thread as they are provisioned or reset. The list may be iterated on any thread,
+     * an iteration sees the nodes of the network at the time it started.
+     * </p>
      */
     public List<ProvisionedMeshNode> getNodes() {
         return Collections.unmodifiableList(nodes);
@@ -1056,7 +1078,8 @@ abstract class BaseMeshNetwork {
      * @param nodes list of {@link ProvisionedMeshNode}
      */
     void setNodes(@NonNull List<ProvisionedMeshNode> nodes) {
-        this.nodes = nodes;
+        this.nodes = new CopyOnWriteArrayList<>(nodes);
+        invalidateNodeAddressIndex();
     }
 
     /**
@@ -1082,12 +1105,7 @@ abstract class BaseMeshNetwork {
      * @param unicastAddress unicast address of the node
      */
     public ProvisionedMeshNode getNode(@NonNull final byte[] unicastAddress) {
-        for (ProvisionedMeshNode node : nodes) {
-            if (node.hasUnicastAddress(MeshAddress.addressBytesToInt(unicastAddress))) {
-                return node;
-            }
-        }
-        return null;
+        return getNode(MeshAddress.addressBytesToInt(unicastAddress));
     }
 
     /**
@@ -1096,12 +1114,93 @@ abstract class BaseMeshNetwork {
      * @param unicastAddress unicast address of the node
      */
     public ProvisionedMeshNode getNode(final int unicastAddress) {
-        for (ProvisionedMeshNode node : nodes) {
-            if (node.hasUnicastAddress(unicastAddress)) {
-                return node;
-            }
+        return nodeAddressIndex.get(nodes, unicastAddress);
+    }
+
+    /**
+     * Returns the index used to look up the elements and models subscribing or publishing to an address.
+     */
+    @NonNull
+    final GroupMembershipIndex getGroupMembershipIndex() {
+        return groupMembershipIndex;
+    }
+
+    /**
+     * Returns the bitmap used to find free unicast addresses.
+     */
+    @NonNull
+    final UnicastAddressSpace getUnicastAddressSpace() {
+        return unicastAddressSpace;
+    }
+
+    /**
+     * Invalidates the indexes used to look up nodes by their unicast address, models by their subscription addresses and free
+     * unicast addresses.
+     * <p>
+     * This must be called every time a node is added, removed or replaced in the list of nodes, or the elements of a node change.
+     * </p>
+     */
+    final void invalidateNodeAddressIndex() {
+        nodeAddressIndex.invalidate();
+        groupMembershipIndex.invalidate();
+        unicastAddressSpace.invalidate();
+    }
+
+    /**
+     * Invalidates the index used to look up models by their subscription and publication addresses so that it is rebuilt on the
+     * next lookup, i.e. after the subscriptions or publication of several models have been changed directly.
+     */
+    final void invalidateGroupMembershipIndex() {
+        groupMembershipIndex.invalidate();
+    }
+
+    /**
+     * Updates the index used to look up models by their subscription and publication addresses after the subscriptions or
+     * publication of a model have changed, i.e. when a status has been received from the model.
+     *
+     * @param elementAddress  Address of the element containing the model.
+     * @param modelIdentifier Identifier of the model.
+     */
+    final void updateGroupMembership(final int elementAddress, final int modelIdentifier) {
+        final ProvisionedMeshNode node = getNode(elementAddress);
+        final Element element = node == null ? null : node.getElements().get(elementAddress);
+        final MeshModel model = element == null ? null : element.getMeshModels().get(modelIdentifier);
+        if (model != null) {
+            groupMembershipIndex.onModelUpdated(element, model);
         }
-        return null;
+    }
+
+    private NetworkChanges getPendingChanges() {
+        if (pendingChanges == null) {
+            pendingChanges = new NetworkChanges();
+        }
+        return pendingChanges;
+    }
+
+    /**
+     * Marks network wide entities as changed so that they are written to the database on the next flush.
+     *
+     * @param entities Bit mask of {@link NetworkChanges} entities.
+     */
+    final void markDirty(final int entities) {
+        getPendingChanges().markDirty(entities);
+    }
+
+    /**
+     * Marks a node as changed so that it is written to the database on the next flush.
+     *
+     * @param node Node that has changed.
+     */
+    final void markDirty(@NonNull final ProvisionedMeshNode node) {
+        getPendingChanges().markDirty(node);
+    }
+
+    /**
+     * Returns the changes that are pending to be written to the database and clears them.
+     */
+    @NonNull
+    final NetworkChanges takePendingChanges() {
+        return getPendingChanges().take();
     }
 
     /**
@@ -1148,13 +1247,17 @@ abstract class BaseMeshNetwork {
      * @param meshNode node to be deleted
      * @return true if deleted and false otherwise
      */
-    public boolean deleteNode(@NonNull final ProvisionedMeshNode meshNode) {
+    public synchronized boolean deleteNode(@NonNull final ProvisionedMeshNode meshNode) {
         //Let's go through the nodes and delete if a node exists
         boolean nodeDeleted = false;
         for (ProvisionedMeshNode node : nodes) {
             if (node.getUuid().equalsIgnoreCase(meshNode.getUuid())) {
                 excludeNode(node);
                 nodes.remove(node);
+                invalidateNodeAddressIndex();
+                if (pendingChanges != null) {
+                    pendingChanges.remove(node);
+                }
                 notifyNodeDeleted(node);
                 nodeDeleted = true;
                 break;
@@ -1248,10 +1351,14 @@ abstract class BaseMeshNetwork {
     }
 
     /**
-     * Returns the map of network exclusions
+     * Returns a copy of the map of network exclusions, the exclusions are updated on the transport thread.
      */
-    public Map<Integer, ArrayList<Integer>> getNetworkExclusions() {
-        return Collections.unmodifiableMap(networkExclusions);
+    public synchronized Map<Integer, ArrayList<Integer>> getNetworkExclusions() {
+        final Map<Integer, ArrayList<Integer>> exclusions = new HashMap<>();
+        for (Map.Entry<Integer, ArrayList<Integer>> entry : networkExclusions.entrySet()) {
+            exclusions.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(exclusions);
     }
 
     /**
@@ -1260,6 +1367,7 @@ abstract class BaseMeshNetwork {
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     public void setNetworkExclusions(@NonNull final Map<Integer, ArrayList<Integer>> networkExclusions) {
         this.networkExclusions = networkExclusions;
+        invalidateNodeAddressIndex();
     }
 
 
@@ -1308,6 +1416,7 @@ abstract class BaseMeshNetwork {
         }
 
         networkExclusions.put(ivIndex.getIvIndex(), addresses);
+        invalidateNodeAddressIndex();
         notifyNetworkUpdated();
     }
 
@@ -0,0 +1,155 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningState;
+import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.ControlMessage;
+import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+/**
+ * Marshals the callbacks invoked on the transport thread to the executor chosen by the application.
+ * <p>
+ * Callbacks are dispatched in the order they are invoked, so the executor must run its tasks in the order they are submitted,
+ * i.e. a {@link android.os.Handler} or a single threaded executor.
+ * </p>
+ */
+final class CallbackDispatcher {
+
+    private CallbackDispatcher() {
+    }
+
+    /**
+     * Dispatches {@link MeshManagerCallbacks} to an executor, {@link MeshManagerCallbacks#getMtu()} is invoked on the calling thread.
+     */
+    static final class ManagerCallbacks implements MeshManagerCallbacks {
+
+        private final Executor mExecutor;
+        private final MeshManagerCallbacks mCallbacks;
+
+        ManagerCallbacks(@NonNull final Executor executor, @NonNull final MeshManagerCallbacks callbacks) {
+            mExecutor = executor;
+            mCallbacks = callbacks;
+        }
+
+        @Override
+        public void onNetworkLoaded(final MeshNetwork meshNetwork) {
+            mExecutor.execute(() -> mCallbacks.onNetworkLoaded(meshNetwork));
+        }
+
+        @Override
+        public void onNetworkUpdated(final MeshNetwork meshNetwork) {
+            mExecutor.execute(() -> mCallbacks.onNetworkUpdated(meshNetwork));
+        }
+
+        @Override
+        public void onNetworkLoadFailed(final String error) {
+            mExecutor.execute(() -> mCallbacks.onNetworkLoadFailed(error));
+        }
+
+        @Override
+        public void onNetworkImported(final MeshNetwork meshNetwork) {
+            mExecutor.execute(() -> mCallbacks.onNetworkImported(meshNetwork));
+        }
+
+        @Override
+        public void onNetworkImportFailed(final String error) {
+            mExecutor.execute(() -> mCallbacks.onNetworkImportFailed(error));
+        }
+
+        @Override
+        public void sendProvisioningPdu(final UnprovisionedMeshNode meshNode, final byte[] pdu) {
+            mExecutor.execute(() -> mCallbacks.sendProvisioningPdu(meshNode, pdu));
+        }
+
+        @Override
+        public void onMeshPduCreated(final byte[] pdu) {
+            mExecutor.execute(() -> mCallbacks.onMeshPduCreated(pdu));
+        }
+
+        @Override
+        public int getMtu() {
+            return mCallbacks.getMtu();
+        }
+    }
+
+    /**
+     * Dispatches {@link MeshStatusCallbacks} to an executor.
+     */
+    static final class StatusCallbacks implements MeshStatusCallbacks {
+
+        private final Executor mExecutor;
+        private final MeshStatusCallbacks mCallbacks;
+
+        StatusCallbacks(@NonNull final Executor executor, @NonNull final MeshStatusCallbacks callbacks) {
+            mExecutor = executor;
+            mCallbacks = callbacks;
+        }
+
+        @Override
+        public void onTransactionFailed(final int dst, final boolean hasIncompleteTimerExpired) {
+            mExecutor.execute(() -> mCallbacks.onTransactionFailed(dst, hasIncompleteTimerExpired));
+        }
+
+        @Override
+        public void onUnknownPduReceived(final int src, final byte[] accessPayload) {
+            mExecutor.execute(() -> mCallbacks.onUnknownPduReceived(src, accessPayload));
+        }
+
+        @Override
+        public void onBlockAcknowledgementProcessed(final int dst, @NonNull final ControlMessage message) {
+            mExecutor.execute(() -> mCallbacks.onBlockAcknowledgementProcessed(dst, message));
+        }
+
+        @Override
+        public void onBlockAcknowledgementReceived(final int src, @NonNull final ControlMessage message) {
+            mExecutor.execute(() -> mCallbacks.onBlockAcknowledgementReceived(src, message));
+        }
+
+        @Override
+        public void onMeshMessageProcessed(final int dst, @NonNull final MeshMessage meshMessage) {
+            mExecutor.execute(() -> mCallbacks.onMeshMessageProcessed(dst, meshMessage));
+        }
+
+        @Override
+        public void onMeshMessageReceived(final int src, @NonNull final MeshMessage meshMessage) {
+            mExecutor.execute(() -> mCallbacks.onMeshMessageReceived(src, meshMessage));
+        }
+
+        @Override
+        public void onMessageDecryptionFailed(final String meshLayer, final String errorMessage) {
+            mExecutor.execute(() -> mCallbacks.onMessageDecryptionFailed(meshLayer, errorMessage));
+        }
+    }
+
+    /**
+     * Dispatches {@link MeshProvisioningStatusCallbacks} to an executor.
+     */
+    static final class ProvisioningCallbacks implements MeshProvisioningStatusCallbacks {
+
+        private final Executor mExecutor;
+        private final MeshProvisioningStatusCallbacks mCallbacks;
+
+        ProvisioningCallbacks(@NonNull final Executor executor, @NonNull final MeshProvisioningStatusCallbacks callbacks) {
+            mExecutor = executor;
+            mCallbacks = callbacks;
+        }
+
+        @Override
+        public void onProvisioningStateChanged(final UnprovisionedMeshNode meshNode, final ProvisioningState.States state, final byte[] data) {
+            mExecutor.execute(() -> mCallbacks.onProvisioningStateChanged(meshNode, state, data));
+        }
+
+        @Override
+        public void onProvisioningFailed(final UnprovisionedMeshNode meshNode, final ProvisioningState.States state, final byte[] data) {
+            mExecutor.execute(() -> mCallbacks.onProvisioningFailed(meshNode, state, data));
+        }
+
+        @Override
+        public void onProvisioningCompleted(final ProvisionedMeshNode meshNode, final ProvisioningState.States state, final byte[] data) {
+            mExecutor.execute(() -> mCallbacks.onProvisioningCompleted(meshNode, state, data));
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.MeshModel;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.PublicationSettings;
+
+/**
+ * Index of the elements and models subscribing or publishing to each address and of the scenes stored on each node in a mesh
+ * network.
+ * <p>
+ * The index maps subscription and publication addresses to the elements and models using them, and unicast addresses of nodes to
+ * the scenes stored on them, so that the members of a group or the scenes of a node are looked up in time proportional to the
+ * size of the result. When the subscriptions or publication of a model change, or an address is added to or removed from a scene,
+ * only the lists of the affected addresses are updated. The models are rebuilt lazily on the first lookup after the index has been
+ * invalidated, which must be done every time a node is added, removed or replaced or the elements of a node change. The scenes
+ * are rebuilt after the list of scenes has been replaced or a scene has been modified by the application.
+ * </p>
+ * <p>
+ * The index is updated on the transport thread when a status is received and looked up from the application, so all methods are
+ * synchronized.
+ * </p>
+ */
+final class GroupMembershipIndex {
+
+    private final Map<Integer, List<Element>> subscribedElements = new HashMap<>();
+    private final Map<Integer, List<MeshModel>> subscribedModels = new HashMap<>();
+    private final Map<Integer, List<MeshModel>> publishingModels = new HashMap<>();
+    private final Map<Integer, List<Scene>> storedScenes = new HashMap<>();
+    // Addresses each model was indexed with, so that an update only touches the lists of these addresses
+    private final Map<MeshModel, IndexedModel> indexedModels = new IdentityHashMap<>();
+    private boolean modelsInvalidated = true;
+    private boolean scenesInvalidated = true;
+
+    /**
+     * Subscription and publication addresses a model was indexed with.
+     */
+    private static final class IndexedModel {
+        final Element element;
+        final List<Integer> subscriptions;
+        final Integer publishAddress;
+
+        IndexedModel(@NonNull final Element element, @NonNull final List<Integer> subscriptions, @Nullable final Integer publishAddress) {
+            this.element = element;
+            this.subscriptions = subscriptions;
+            this.publishAddress = publishAddress;
+        }
+    }
+
+    /**
+     * Invalidates the models so that they are rebuilt on the next lookup.
+     */
+    synchronized void invalidate() {
+        modelsInvalidated = true;
+    }
+
+    /**
+     * Invalidates the scenes so that they are rebuilt on the next lookup.
+     */
+    synchronized void invalidateScenes() {
+        scenesInvalidated = true;
+    }
+
+    /**
+     * Updates the addresses of a model after its subscriptions or publication have changed.
+     *
+     * @param element Element containing the model.
+     * @param model   Model that has changed.
+     */
+    synchronized void onModelUpdated(@NonNull final Element element, @NonNull final MeshModel model) {
+        if (modelsInvalidated)
+            return;
+        remove(model);
+        index(element, model);
+    }
+
+    /**
+     * Adds a scene to the nodes it is stored on.
+     *
+     * @param scene Scene that has been added to the network.
+     */
+    synchronized void onSceneAdded(@NonNull final Scene scene) {
+        if (scenesInvalidated)
+            return;
+        for (Integer address : scene.getAddresses()) {
+            add(storedScenes, address, scene);
+        }
+    }
+
+    /**
+     * Removes a scene from the nodes it is stored on.
+     *
+     * @param scene Scene that has been removed from the network.
+     */
+    synchronized void onSceneRemoved(@NonNull final Scene scene) {
+        if (scenesInvalidated)
+            return;
+        for (Integer address : scene.getAddresses()) {
+            remove(storedScenes, address, scene);
+        }
+    }
+
+    /**
+     * Updates the scenes of a node after a scene has been stored on it.
+     *
+     * @param scene   Scene.
+     * @param address Unicast address of the node.
+     */
+    synchronized void onSceneStored(@NonNull final Scene scene, final int address) {
+        if (!scenesInvalidated) {
+            add(storedScenes, address, scene);
+        }
+    }
+
+    /**
+     * Updates the scenes of a node after a scene has been deleted from it.
+     *
+     * @param scene   Scene.
+     * @param address Unicast address of the node.
+     */
+    synchronized void onSceneDeleted(@NonNull final Scene scene, final int address) {
+        if (!scenesInvalidated) {
+            remove(storedScenes, address, scene);
+        }
+    }
+
+    /**
+     * Returns the elements containing a model subscribed to the given address.
+     *
+     * @param nodes   Nodes in the network, used to rebuild the index if needed.
+     * @param address Subscription address.
+     */
+    @NonNull
+    synchronized List<Element> getElements(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        validateModels(nodes);
+        return copyOf(subscribedElements.get(address));
+    }
+
+    /**
+     * Returns the models subscribed to the given address.
+     *
+     * @param nodes   Nodes in the network, used to rebuild the index if needed.
+     * @param address Subscription address.
+     */
+    @NonNull
+    synchronized List<MeshModel> getModels(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        validateModels(nodes);
+        return copyOf(subscribedModels.get(address));
+    }
+
+    /**
+     * Returns true if any model subscribes or publishes to the given address.
+     *
+     * @param nodes   Nodes in the network, used to rebuild the index if needed.
+     * @param address Subscription or publication address.
+     */
+    synchronized boolean isInUse(@NonNull final List<ProvisionedMeshNode> nodes, final int address) {
+        validateModels(nodes);
+        return subscribedModels.containsKey(address) || publishingModels.containsKey(address);
+    }
+
+    /**
+     * Returns the scenes stored on the node with the given address.
+     *
+     * @param scenes  Scenes in the network, used to rebuild the index if needed.
+     * @param address Unicast address of the node.
+     */
+    @NonNull
+    synchronized ArrayList<Scene> getScenes(@NonNull final List<Scene> scenes, final int address) {
+        if (scenesInvalidated) {
+            storedScenes.clear();
+            for (Scene scene : scenes) {
+                for (Integer sceneAddress : scene.getAddresses()) {
+                    add(storedScenes, sceneAddress, scene);
+                }
+            }
+            scenesInvalidated = false;
+        }
+        final List<Scene> values = storedScenes.get(address);
+        return values == null ? new ArrayList<Scene>() : new ArrayList<>(values);
+    }
+
+    private void validateModels(@NonNull final List<ProvisionedMeshNode> nodes) {
+        if (modelsInvalidated) {
+            subscribedElements.clear();
+            subscribedModels.clear();
+            publishingModels.clear();
+            indexedModels.clear();
+            for (ProvisionedMeshNode node : nodes) {
+                for (Element element : node.getElements().values()) {
+                    for (MeshModel model : element.getMeshModels().values()) {
+                        if (model != null) {
+                            index(element, model);
+                        }
+                    }
+                }
+            }
+            modelsInvalidated = false;
+        }
+    }
+
+    private void index(@NonNull final Element element, @NonNull final MeshModel model) {
+        final PublicationSettings publicationSettings = model.getPublicationSettings();
+        final IndexedModel indexed = new IndexedModel(element, new ArrayList<>(model.getSubscribedAddresses()),
+                publicationSettings == null ? null : publicationSettings.getPublishAddress());
+        for (Integer address : indexed.subscriptions) {
+            add(subscribedModels, address, model);
+            if (!isSubscribedByAnotherModel(element, model, address)) {
+                add(subscribedElements, address, element);
+            }
+        }
+        if (indexed.publishAddress != null) {
+            add(publishingModels, indexed.publishAddress, model);
+        }
+        indexedModels.put(model, indexed);
+    }
+
+    private void remove(@NonNull final MeshModel model) {
+        final IndexedModel indexed = indexedModels.remove(model);
+        if (indexed == null)
+            return;
+        for (Integer address : indexed.subscriptions) {
+            remove(subscribedModels, address, model);
+            if (!isSubscribedByAnotherModel(indexed.element, model, address)) {
+                remove(subscribedElements, address, indexed.element);
+            }
+        }
+        if (indexed.publishAddress != null) {
+            remove(publishingModels, indexed.publishAddress, model);
+        }
+    }
+
+    /**
+     * Returns true if a model of the element other than the given one has been indexed as subscribing to the address.
+     */
+    private boolean isSubscribedByAnotherModel(@NonNull final Element element, @NonNull final MeshModel model, final int address) {
+        for (MeshModel other : element.getMeshModels().values()) {
+            if (other != model) {
+                final IndexedModel indexed = indexedModels.get(other);
+                if (indexed != null && indexed.subscriptions.contains(address))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a value to the list of an address, callers make sure that a value is only added once.
+     */
+    private static <T> void add(@NonNull final Map<Integer, List<T>> map, final int address, @NonNull final T value) {
+        List<T> values = map.get(address);
+        if (values == null) {
+            values = new ArrayList<>(1);
+            map.put(address, values);
+        }
+        values.add(value);
+    }
+
+    /**
+     * Removes a value from the list of an address. Values are compared by identity, as models of different nodes are equal.
+     */
+    private static <T> void remove(@NonNull final Map<Integer, List<T>> map, final int address, @NonNull final T value) {
+        final List<T> values = map.get(address);
+        if (values == null)
+            return;
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == value) {
+                values.remove(i);
+                break;
+            }
+        }
+        if (values.isEmpty()) {
+            map.remove(address);
+        }
+    }
+
+    @NonNull
+    private static <T> List<T> copyOf(final List<T> values) {
+        return values == null ? Collections.emptyList() : new ArrayList<>(values);
+    }
+}
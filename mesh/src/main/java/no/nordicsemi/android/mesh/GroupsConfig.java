@@ -52,7 +52,7 @@ public class GroupsConfig extends ExportConfig {
         }
 
         @Override
-        public ExportConfig build() {
+        public GroupsConfig build() {
             return new GroupsConfig(this);
         }
     }
@@ -2,21 +2,40 @@ package no.nordicsemi.android.mesh;
 
 import android.content.ContentResolver;
 import android.net.Uri;
-import android.util.Log;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -26,16 +45,44 @@ import no.nordicsemi.android.mesh.transport.MeshModel;
 import no.nordicsemi.android.mesh.transport.MeshModelListDeserializer;
 import no.nordicsemi.android.mesh.transport.NodeDeserializer;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.PublicationSettings;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static no.nordicsemi.android.mesh.utils.MeshAddress.isValidGroupAddress;
 
 /**
  * Utility class to handle network imports and exports
+ * <p>
+ * Networks are read and written with a streaming json codec. Nodes, which make up most of a Mesh Configuration Database, are parsed
+ * and emitted one at a time and the export configurations are applied to each node as it is written, so neither a json tree of the
+ * whole document nor a copy of the network is built. The remaining sections are small and are handled as json trees. Imports from a
+ * {@link Reader} and exports to a {@link Writer} are streamed, while the exports returning a String hold the resulting document in
+ * memory.
+ * </p>
  */
 class ImportExportUtils {
 
     private static final String TAG = ImportExportUtils.class.getSimpleName();
     private final Gson mGson;
+    private final MeshNetworkDeserializer mNetworkDeserializer = new MeshNetworkDeserializer();
+    private final NodeDeserializer mNodeDeserializer = new NodeDeserializer();
+    private final JsonDeserializationContext mDeserializationContext = new JsonDeserializationContext() {
+        @Override
+        public <T> T deserialize(final JsonElement json, final Type typeOfT) throws JsonParseException {
+            return mGson.fromJson(json, typeOfT);
+        }
+    };
+    private final JsonSerializationContext mSerializationContext = new JsonSerializationContext() {
+        @Override
+        public JsonElement serialize(final Object src) {
+            return mGson.toJsonTree(src);
+        }
+
+        @Override
+        public JsonElement serialize(final Object src, final Type typeOfSrc) {
+            return mGson.toJsonTree(src, typeOfSrc);
+        }
+    };
 
     ImportExportUtils() {
         mGson = initGson();
@@ -66,10 +113,10 @@ class ImportExportUtils {
                 .registerTypeAdapter(allocatedUnicastRange, new AllocatedUnicastRangeDeserializer())
                 .registerTypeAdapter(allocatedGroupRange, new AllocatedGroupRangeDeserializer())
                 .registerTypeAdapter(allocatedSceneRange, new AllocatedSceneRangeDeserializer())
-                .registerTypeAdapter(nodeList, new NodeDeserializer())
+                .registerTypeAdapter(nodeList, mNodeDeserializer)
                 .registerTypeAdapter(elementList, new InternalElementListDeserializer())
                 .registerTypeAdapter(meshModelList, new MeshModelListDeserializer())
-                .registerTypeAdapter(MeshNetwork.class, new MeshNetworkDeserializer())
+                .registerTypeAdapter(MeshNetwork.class, mNetworkDeserializer)
                 .serializeNulls()
                 .setPrettyPrinting()
                 .create();
@@ -78,31 +125,64 @@ class ImportExportUtils {
     /**
      * Imports the network from the Mesh Provisioning/Configuration Database json file
      */
-    protected MeshNetwork importNetwork(@NonNull final String networkJson) throws JsonSyntaxException {
-        return mGson.fromJson(networkJson, MeshNetwork.class);
+    protected MeshNetwork importNetwork(@NonNull final String networkJson) throws JsonParseException {
+        return importNetwork(new StringReader(networkJson));
     }
 
     /**
-     * Reads and returns the json string from URI.
+     * Imports the network from the Mesh Provisioning/Configuration Database json file at the given URI.
      *
      * @param contentResolver ContentResolver
      * @param uri             URI
      * @throws IOException in case of failure
      */
-    protected String readJsonStringFromUri(@NonNull final ContentResolver contentResolver, @NonNull final Uri uri) throws IOException {
-        final StringBuilder stringBuilder = new StringBuilder();
+    protected MeshNetwork importNetwork(@NonNull final ContentResolver contentResolver, @NonNull final Uri uri) throws IOException {
         final InputStream inputStream = contentResolver.openInputStream(uri);
-        if (inputStream != null) {
-            final BufferedReader reader = new BufferedReader(new InputStreamReader(
-                    inputStream));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                stringBuilder.append(line);
-            }
-            reader.close();
+        if (inputStream == null)
+            throw new IOException("Unable to open " + uri);
+        try {
+            return importNetwork(new BufferedReader(new InputStreamReader(inputStream, "UTF-8")));
+        } finally {
             inputStream.close();
         }
-        return stringBuilder.toString();
+    }
+
+    /**
+     * Imports the network from a reader of the Mesh Provisioning/Configuration Database json.
+     * <p>
+     * Nodes are de-serialized one at a time as they are read, every other member of the network is read as a json tree.
+     * </p>
+     *
+     * @param json Reader of the json
+     */
+    protected MeshNetwork importNetwork(@NonNull final Reader json) throws JsonParseException {
+        final JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+        try {
+            final JsonObject jsonNetwork = new JsonObject();
+            List<ProvisionedMeshNode> nodes = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (name.equals("nodes") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    //The nodes are only needed to validate the mandatory members of the network
+                    jsonNetwork.add(name, new JsonArray());
+                    nodes = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        nodes.add(mNodeDeserializer.deserializeNode(JsonParser.parseReader(reader).getAsJsonObject(),
+                                mDeserializationContext));
+                    }
+                    reader.endArray();
+                } else {
+                    jsonNetwork.add(name, JsonParser.parseReader(reader));
+                }
+            }
+            reader.endObject();
+            return mNetworkDeserializer.deserializeNetwork(jsonNetwork, nodes, mDeserializationContext);
+        } catch (IOException | IllegalStateException ex) {
+            throw new JsonSyntaxException(ex);
+        }
     }
 
     /**
@@ -114,17 +194,38 @@ class ImportExportUtils {
     @Nullable
     protected String export(@NonNull final MeshNetwork network, final boolean partial) {
         try {
-            network.setPartial(partial);
-            return mGson.toJson(network);
-        } catch (final com.google.gson.JsonSyntaxException ex) {
-            Log.e(TAG, "Error: " + ex.getMessage());
-            return null;
+            final StringWriter writer = new StringWriter();
+            export(writer, network, partial);
+            return writer.toString();
         } catch (final Exception e) {
-            Log.e(TAG, "Error: " + e.getMessage());
+            MeshLogger.e(TAG, () -> "Error: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Exports the mesh network to a writer.
+     *
+     * @param out     Writer
+     * @param network Mesh network to be exported
+     * @param partial True if the network is to be exported as partial.
+     * @throws IOException in case of failure
+     */
+    protected void export(@NonNull final Writer out, @NonNull final MeshNetwork network, final boolean partial) throws IOException {
+        export(out, network, new Selection(network), partial);
+    }
+
+    /**
+     * Exports the selected part of the mesh network to a Json file
+     *
+     * @param network               Mesh network to be exported
+     * @param networkKeysConfig     Network Keys configuration.
+     * @param applicationKeysConfig Application Keys configuration.
+     * @param nodesConfig           Nodes configuration.
+     * @param provisionersConfig    Provisioners configuration.
+     * @param groupsConfig          Groups configuration.
+     * @param scenesConfig          Scenes configuration.
+     */
     @Nullable
     protected String export(@NonNull final MeshNetwork network,
                             @NonNull final NetworkKeysConfig networkKeysConfig,
@@ -133,14 +234,104 @@ class ImportExportUtils {
                             @NonNull final ProvisionersConfig provisionersConfig,
                             @NonNull final GroupsConfig groupsConfig,
                             @NonNull final ScenesConfig scenesConfig) {
-        //Let's use Gson to make a temporary copy of the network and apply the export configurations.
-        final MeshNetwork temp = mGson.fromJson(mGson.toJson(network), MeshNetwork.class);
-        return export(prepareNetwork(temp, networkKeysConfig, applicationKeysConfig, nodesConfig,
+        try {
+            final StringWriter writer = new StringWriter();
+            export(writer, network, networkKeysConfig, applicationKeysConfig, nodesConfig, provisionersConfig, groupsConfig, scenesConfig);
+            return writer.toString();
+        } catch (final Exception e) {
+            MeshLogger.e(TAG, () -> "Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Exports the selected part of the mesh network to a writer.
+     *
+     * @param out                   Writer
+     * @param network               Mesh network to be exported
+     * @param networkKeysConfig     Network Keys configuration.
+     * @param applicationKeysConfig Application Keys configuration.
+     * @param nodesConfig           Nodes configuration.
+     * @param provisionersConfig    Provisioners configuration.
+     * @param groupsConfig          Groups configuration.
+     * @param scenesConfig          Scenes configuration.
+     * @throws IOException in case of failure
+     */
+    protected void export(@NonNull final Writer out,
+                          @NonNull final MeshNetwork network,
+                          @NonNull final NetworkKeysConfig networkKeysConfig,
+                          @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                          @NonNull final NodesConfig nodesConfig,
+                          @NonNull final ProvisionersConfig provisionersConfig,
+                          @NonNull final GroupsConfig groupsConfig,
+                          @NonNull final ScenesConfig scenesConfig) throws IOException {
+        export(out, network, prepareSelection(network, networkKeysConfig, applicationKeysConfig, nodesConfig,
                 provisionersConfig, groupsConfig, scenesConfig), true);
     }
 
     /**
-     * Configures and returns a network with the export configuration provided.
+     * Writes the selected part of the network to the writer, applying the export configurations to each node as it is written.
+     *
+     * @param out       Writer
+     * @param network   Mesh network
+     * @param selection Selection of the network to be exported
+     * @param partial   True if the network is exported as partial.
+     * @throws IOException in case of failure
+     */
+    private void export(@NonNull final Writer out,
+                        @NonNull final MeshNetwork network,
+                        @NonNull final Selection selection,
+                        final boolean partial) throws IOException {
+        final JsonWriter writer = mGson.newJsonWriter(out);
+        try {
+            writer.beginObject();
+            for (Map.Entry<String, JsonElement> member : mNetworkDeserializer.serializeHeader(network, partial).entrySet()) {
+                writer.name(member.getKey());
+                mGson.toJson(member.getValue(), writer);
+            }
+            writer.name("netKeys");
+            mGson.toJson(mNetworkDeserializer.serializeNetKeys(mSerializationContext, selection.netKeys), writer);
+            writer.name("appKeys");
+            mGson.toJson(mNetworkDeserializer.serializeAppKeys(mSerializationContext, selection.appKeys), writer);
+            writer.name("provisioners");
+            mGson.toJson(mNetworkDeserializer.serializeProvisioners(mSerializationContext, selection.provisioners), writer);
+
+            writer.name("nodes").beginArray();
+            for (ProvisionedMeshNode node : selection.nodes) {
+                final JsonObject jsonNode = mNodeDeserializer.serializeNode(node, mSerializationContext);
+                if (selection.withoutDeviceKey.contains(node)) {
+                    jsonNode.addProperty("deviceKey", "");
+                }
+                if (selection.appKeyIndexes != null || selection.groupAddresses != null) {
+                    excludeAddressesAndKeys(jsonNode, selection.appKeyIndexes, selection.groupAddresses);
+                }
+                mGson.toJson(jsonNode, writer);
+            }
+            writer.endArray();
+
+            writer.name("groups").beginArray();
+            for (Group group : selection.groups) {
+                mGson.toJson(mNetworkDeserializer.serializeGroup(group), writer);
+            }
+            writer.endArray();
+
+            writer.name("scenes").beginArray();
+            for (Scene scene : selection.scenes) {
+                mGson.toJson(mNetworkDeserializer.serializeScene(scene, selection.nodeAddresses), writer);
+            }
+            writer.endArray();
+
+            writer.name("networkExclusions");
+            mGson.toJson(mNetworkDeserializer.serializeExclusionList(network.getNetworkExclusions()), writer);
+            writer.endObject();
+            writer.flush();
+        } catch (JsonIOException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Selects the parts of the network to be exported with the export configuration provided.
      *
      * @param network               MeshNetwork.
      * @param networkKeysConfig     Network Keys configuration.
@@ -150,31 +341,29 @@ class ImportExportUtils {
      * @param groupsConfig          Groups configuration.
      * @param scenesConfig          Scenes configuration.
      */
-    private MeshNetwork prepareNetwork(@NonNull final MeshNetwork network,
+    private Selection prepareSelection(@NonNull final MeshNetwork network,
                                        @NonNull final NetworkKeysConfig networkKeysConfig,
                                        @NonNull final ApplicationKeysConfig applicationKeysConfig,
                                        @NonNull final NodesConfig nodesConfig,
                                        @NonNull final ProvisionersConfig provisionersConfig,
                                        @NonNull final GroupsConfig groupsConfig,
                                        @NonNull final ScenesConfig scenesConfig) {
+        final Selection selection = new Selection(network);
 
         // Initial list of nodes to export
         if (nodesConfig.getConfig() instanceof NodesConfig.ExportWithoutDeviceKey) {
-            for (ProvisionedMeshNode node : network.nodes)
-                node.setDeviceKey(null);
+            selection.withoutDeviceKey.addAll(network.nodes);
         } else if (nodesConfig.getConfig() instanceof NodesConfig.ExportSome) {
-            network.nodes.clear();
             final List<ProvisionedMeshNode> withDeviceKey = ((NodesConfig.ExportSome) nodesConfig.getConfig()).getWithDeviceKey();
             final List<ProvisionedMeshNode> withoutDeviceKey = ((NodesConfig.ExportSome) nodesConfig.getConfig()).getWithoutDeviceKey();
-            for (ProvisionedMeshNode node : withoutDeviceKey)
-                node.setDeviceKey(null);
-            network.nodes.addAll(withDeviceKey);
-            network.nodes.addAll(withoutDeviceKey);
+            selection.nodes = new ArrayList<>(withDeviceKey);
+            selection.nodes.addAll(withoutDeviceKey);
+            selection.withoutDeviceKey.addAll(withoutDeviceKey);
 
             // Add any missing provisioner nodes if they were not selected when selecting nodes.
             for (Provisioner provisioner : network.provisioners) {
-                if (!isProvisionerExistsInNodes(provisioner, network.nodes)) {
-                    network.nodes.add(new ProvisionedMeshNode(provisioner, network.netKeys, network.appKeys));
+                if (!isProvisionerExistsInNodes(provisioner, selection.nodes)) {
+                    selection.nodes.add(new ProvisionedMeshNode(provisioner, network.netKeys, network.appKeys));
                 }
             }
         }
@@ -183,11 +372,10 @@ class ImportExportUtils {
         // List of provisioners to export
         if (provisionersConfig.getConfig() instanceof ProvisionersConfig.ExportSome) {
             // First Let's exclude provisioners that are not nodes
-            final ListIterator<Provisioner> provisionerListIterator = network.provisioners.listIterator();
-            while (provisionerListIterator.hasNext()) {
-                final Provisioner provisioner = provisionerListIterator.next();
-                if (!isProvisionerExistsInNodes(provisioner, network.nodes)) {
-                    provisionerListIterator.remove();
+            selection.provisioners = new ArrayList<>();
+            for (Provisioner provisioner : network.provisioners) {
+                if (isProvisionerExistsInNodes(provisioner, selection.nodes)) {
+                    selection.provisioners.add(provisioner);
                 }
             }
 
@@ -195,67 +383,60 @@ class ImportExportUtils {
             // We must go through all items to ensure there are no duplicates
             final List<Provisioner> selectedProvisioners = ((ProvisionersConfig.ExportSome) provisionersConfig.getConfig()).getProvisioners();
             for (Provisioner provisioner : selectedProvisioners) {
-                if (!network.isProvisionerUuidInUse(provisioner.getProvisionerUuid())) {
-                    network.provisioners.add(provisioner);
+                if (!isProvisionerSelected(provisioner, selection.provisioners)) {
+                    selection.provisioners.add(provisioner);
                 }
             }
         }
 
         // List of Network Keys to export
         if (networkKeysConfig.getConfig() instanceof NetworkKeysConfig.ExportSome) {
-            network.setNetKeys(((NetworkKeysConfig.ExportSome) networkKeysConfig.getConfig()).getKeys());
+            selection.netKeys = ((NetworkKeysConfig.ExportSome) networkKeysConfig.getConfig()).getKeys();
         }
 
         // List of Application Keys to export
         if (applicationKeysConfig.getConfig() instanceof ApplicationKeysConfig.ExportSome) {
-            network.appKeys.clear();
+            selection.appKeys = new ArrayList<>();
             // List of keys set in the configuration, but we must only export the keys that are bound to that application key.
             final List<ApplicationKey> keys = ((ApplicationKeysConfig.ExportSome) applicationKeysConfig.getConfig()).getKeys();
             for (ApplicationKey key : keys) {
-                if (isApplicationKeyBound(network.getNetKeys(), key)) {
-                    network.appKeys.add(key);
+                if (isApplicationKeyBound(selection.netKeys, key)) {
+                    selection.appKeys.add(key);
                 }
             }
         }
+        selection.appKeyIndexes = new HashSet<>();
+        for (ApplicationKey key : selection.appKeys) {
+            selection.appKeyIndexes.add(key.getKeyIndex());
+        }
 
         // Exclude nodes unknown to network keys
         // TODO what will happen to the provisioner if the node is to excluded due to an unknown network key?
-        final ListIterator<ProvisionedMeshNode> nodeListIterator = network.nodes.listIterator();
-        while (nodeListIterator.hasNext()) {
-            final ProvisionedMeshNode node = nodeListIterator.next();
-            if (!isNetworkKeyAdded(node, network.getNetKeys())) {
-                nodeListIterator.remove();
-                continue;
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>(selection.nodes.size());
+        selection.nodeAddresses = new HashSet<>();
+        for (ProvisionedMeshNode node : selection.nodes) {
+            if (isNetworkKeyAdded(node, selection.netKeys)) {
+                nodes.add(node);
+                selection.nodeAddresses.add(node.getUnicastAddress());
             }
-            excludeAppKeys(node, network.appKeys);
         }
+        selection.nodes = nodes;
 
         if (groupsConfig.getConfig() instanceof GroupsConfig.ExportRelated) {
-            excludeNonRelatedGroups(network);
+            selection.groups = getRelatedGroups(network.getGroups(), selection.nodes, selection.appKeyIndexes);
         } else if (groupsConfig.getConfig() instanceof GroupsConfig.ExportSome) {
-            network.groups = ((GroupsConfig.ExportSome) groupsConfig.getConfig()).getGroups();
-            // If subscriptions/publications uses any excluded group addresses, let's remove them.
-            for (ProvisionedMeshNode node : network.getNodes()) {
-                for (Element element : node.getElements().values()) {
-                    for (MeshModel model : element.getMeshModels().values()) {
-                        for (Group group : network.groups) {
-                            if (model.getPublicationSettings() != null &&
-                                    isValidGroupAddress(model.getPublicationSettings().getPublishAddress()) &&
-                                    model.getPublicationSettings().getPublishAddress() != group.getAddress()) {
-                                model.setPublicationSettings(null);
-                            }
-                            model.getSubscribedAddresses().remove((Integer) group.getAddress());
-                        }
-                    }
-                }
+            selection.groups = ((GroupsConfig.ExportSome) groupsConfig.getConfig()).getGroups();
+            // If subscriptions/publications uses any excluded group addresses, they will be removed when exporting the nodes.
+            selection.groupAddresses = new HashSet<>();
+            for (Group group : selection.groups) {
+                selection.groupAddresses.add(group.getAddress());
             }
         }
 
         if (scenesConfig.getConfig() instanceof ScenesConfig.ExportSome) {
-            network.scenes = ((ScenesConfig.ExportSome) scenesConfig.getConfig()).getScenes();
+            selection.scenes = ((ScenesConfig.ExportSome) scenesConfig.getConfig()).getScenes();
         }
-        removeExcludedNodesFromScenes(network.nodes, network.scenes);
-        return network;
+        return selection;
     }
 
     /**
@@ -276,34 +457,60 @@ class ImportExportUtils {
     }
 
     /**
-     * Excludes groups that are not related tot he list of nodes.
+     * Check if a provisioner with the same UUID is in the list of provisioners
+     *
+     * @param provisioner  Provisioner
+     * @param provisioners List of provisioners
+     */
+    private boolean isProvisionerSelected(@NonNull final Provisioner provisioner, @NonNull final List<Provisioner> provisioners) {
+        for (Provisioner selected : provisioners) {
+            if (selected.getProvisionerUuid().equalsIgnoreCase(provisioner.getProvisionerUuid()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the groups that are related to the list of nodes.
      *
-     * @param network Mesh network.
+     * @param groups         Groups in the network.
+     * @param nodes          Nodes to be exported.
+     * @param appKeyIndexes  Indexes of the application keys to be exported.
      */
-    private void excludeNonRelatedGroups(@NonNull final MeshNetwork network) {
-        final List<Group> groups = new ArrayList<>();
-        for (Group group : network.getGroups()) {
-            for (ProvisionedMeshNode node : network.getNodes()) {
-                if (isGroupInUse(node, group)) {
-                    groups.add(group);
+    private List<Group> getRelatedGroups(@NonNull final List<Group> groups,
+                                         @NonNull final List<ProvisionedMeshNode> nodes,
+                                         @NonNull final Set<Integer> appKeyIndexes) {
+        final List<Group> relatedGroups = new ArrayList<>();
+        for (Group group : groups) {
+            for (ProvisionedMeshNode node : nodes) {
+                if (isGroupInUse(node, group, appKeyIndexes)) {
+                    relatedGroups.add(group);
+                    break;
                 }
             }
         }
-        network.groups = groups;
+        return relatedGroups;
     }
 
     /**
      * Checks if the node has subscribed or publishes to the group.
      *
-     * @param node  Node
-     * @param group Group
+     * @param node          Node
+     * @param group         Group
+     * @param appKeyIndexes Indexes of the application keys to be exported.
      * @return true if is in use or false otherwise.
      */
-    private boolean isGroupInUse(@NonNull final ProvisionedMeshNode node, @NonNull final Group group) {
+    private boolean isGroupInUse(@NonNull final ProvisionedMeshNode node,
+                                 @NonNull final Group group,
+                                 @NonNull final Set<Integer> appKeyIndexes) {
         for (final Element element : node.getElements().values()) {
             for (final MeshModel model : element.getMeshModels().values()) {
-                if (model.getPublicationSettings().getPublishAddress() == group.getAddress() ||
-                        model.getSubscribedAddresses().contains((Integer) group.getAddress())) {
+                final PublicationSettings settings = model.getPublicationSettings();
+                if (settings != null && settings.getPublishAddress() == group.getAddress() &&
+                        isPublicationExported(model, appKeyIndexes)) {
+                    return true;
+                }
+                if (model.getSubscribedAddresses().contains((Integer) group.getAddress())) {
                     return true;
                 }
             }
@@ -312,64 +519,72 @@ class ImportExportUtils {
     }
 
     /**
-     * Removes excluded node from a scene addresses.
+     * Checks if the publication of a model is exported, which is not the case if it uses a bound application key that is excluded.
      *
-     * @param nodes  List of nodes in the network.
-     * @param scenes List of scenes in the network.
+     * @param model         Mesh model.
+     * @param appKeyIndexes Indexes of the application keys to be exported.
      */
-    private void removeExcludedNodesFromScenes(@NonNull List<ProvisionedMeshNode> nodes, @NonNull List<Scene> scenes) {
-        ListIterator<Integer> addresses;
-        Integer address;
-        for (Scene scene : scenes) {
-            addresses = scene.getAddresses().listIterator();
-            while (addresses.hasNext()) {
-                address = addresses.next();
-                if (!isNodeAddressExistsInScene(nodes, address)) {
-                    addresses.remove();
-                }
-            }
-        }
+    private boolean isPublicationExported(@NonNull final MeshModel model, @NonNull final Set<Integer> appKeyIndexes) {
+        final int index = model.getPublicationSettings().getAppKeyIndex();
+        return appKeyIndexes.contains(index) || !model.getBoundAppKeyIndexes().contains(index);
     }
 
     /**
-     * Checks if a scene address exists exists in the list of nodes in the network.
+     * Excludes application keys and group addresses that are not exported from the models of a serialized node.
      *
-     * @param nodes   List of nodes in the network.
-     * @param address Scene address.
-     * @return true if node address is included in scene.
+     * @param jsonNode       Serialized node.
+     * @param appKeyIndexes  Indexes of the application keys to be exported or null to export all bound keys.
+     * @param groupAddresses Group addresses to be exported or null to export all subscriptions and publications.
      */
-    private boolean isNodeAddressExistsInScene(@NonNull final List<ProvisionedMeshNode> nodes, @NonNull final Integer address) {
-        for (ProvisionedMeshNode node : nodes) {
-            if (address == node.getUnicastAddress()) {
-                return true;
+    private void excludeAddressesAndKeys(@NonNull final JsonObject jsonNode,
+                                         @Nullable final Set<Integer> appKeyIndexes,
+                                         @Nullable final Set<Integer> groupAddresses) {
+        for (JsonElement jsonElement : jsonNode.getAsJsonArray("elements")) {
+            for (JsonElement jsonModel : jsonElement.getAsJsonObject().getAsJsonArray("models")) {
+                final JsonObject model = jsonModel.getAsJsonObject();
+                final JsonObject publish = model.has("publish") && model.get("publish").isJsonObject() ?
+                        model.getAsJsonObject("publish") : null;
+                if (appKeyIndexes != null && model.has("bind")) {
+                    final Iterator<JsonElement> boundKeyIndexes = model.getAsJsonArray("bind").iterator();
+                    while (boundKeyIndexes.hasNext()) {
+                        final int index = boundKeyIndexes.next().getAsInt();
+                        if (!appKeyIndexes.contains(index)) {
+                            boundKeyIndexes.remove();
+                            if (publish != null && publish.get("index").getAsInt() == index) {
+                                model.remove("publish");
+                            }
+                        }
+                    }
+                }
+                if (groupAddresses != null) {
+                    if (publish != null && model.has("publish") && isExcludedGroupAddress(publish.get("address").getAsString(), groupAddresses)) {
+                        model.remove("publish");
+                    }
+                    if (model.has("subscribe")) {
+                        final Iterator<JsonElement> subscriptions = model.getAsJsonArray("subscribe").iterator();
+                        while (subscriptions.hasNext()) {
+                            if (isExcludedGroupAddress(subscriptions.next().getAsString(), groupAddresses)) {
+                                subscriptions.remove();
+                            }
+                        }
+                    }
+                }
             }
         }
-        return false;
     }
 
     /**
-     * Exclude application keys that may be bound or used for publication by the models in the node that are not in the list.
+     * Checks if a serialized address is a group address that is not exported. Virtual addresses are serialized as label UUIDs and are
+     * always exported.
      *
-     * @param node            Mesh node.
-     * @param applicationKeys Selected Application keys.
+     * @param address        Serialized address.
+     * @param groupAddresses Group addresses to be exported.
      */
-    private void excludeAppKeys(@NonNull final ProvisionedMeshNode node, @NonNull final List<ApplicationKey> applicationKeys) {
-        int index;
-        for (Element element : node.getElements().values()) {
-            for (MeshModel model : element.getMeshModels().values()) {
-                final ListIterator<Integer> boundKeyIndexes = model.getBoundAppKeyIndexes().listIterator();
-                while (boundKeyIndexes.hasNext()) {
-                    index = boundKeyIndexes.next();
-                    if (!isApplicationKeyBound(index, applicationKeys)) {
-                        boundKeyIndexes.remove();
-                        if (model.getPublicationSettings() != null && model.getPublicationSettings().getAppKeyIndex() == index) {
-                            model.setPublicationSettings(null);
-                        }
-                    }
-
-                }
-            }
-        }
+    private boolean isExcludedGroupAddress(@NonNull final String address, @NonNull final Set<Integer> groupAddresses) {
+        if (address.length() != 4)
+            return false;
+        final int value = Integer.parseInt(address, 16);
+        return isValidGroupAddress(value) && !groupAddresses.contains(value);
     }
 
     /**
@@ -386,14 +601,6 @@ class ImportExportUtils {
         return false;
     }
 
-    private boolean isApplicationKeyBound(@NonNull final Integer index, @NonNull final List<ApplicationKey> keys) {
-        for (ApplicationKey key : keys) {
-            if (index == key.getKeyIndex())
-                return true;
-        }
-        return false;
-    }
-
     /**
      * Checks if at least one Network Key is added to a node.
      *
@@ -409,4 +616,32 @@ class ImportExportUtils {
         }
         return false;
     }
+
+    /**
+     * Parts of a network selected for export. The lists reference the network, which is never modified while exporting.
+     */
+    private static final class Selection {
+        List<ProvisionedMeshNode> nodes;
+        List<Provisioner> provisioners;
+        List<NetworkKey> netKeys;
+        List<ApplicationKey> appKeys;
+        List<Group> groups;
+        List<Scene> scenes;
+        final Set<ProvisionedMeshNode> withoutDeviceKey = Collections.newSetFromMap(new IdentityHashMap<ProvisionedMeshNode, Boolean>());
+        // Indexes of the exported application keys, null when all keys bound to the models are exported
+        Set<Integer> appKeyIndexes;
+        // Exported group addresses, null when all subscriptions and publications are exported
+        Set<Integer> groupAddresses;
+        // Unicast addresses of the exported nodes, null when all scene addresses are exported
+        Set<Integer> nodeAddresses;
+
+        Selection(@NonNull final MeshNetwork network) {
+            nodes = network.nodes;
+            provisioners = network.provisioners;
+            netKeys = network.netKeys;
+            appKeys = network.appKeys;
+            groups = network.groups;
+            scenes = network.scenes;
+        }
+    }
 }
@@ -85,6 +85,13 @@ public interface InternalTransportCallbacks {
      */
     void updateMeshNetwork(final MeshMessage message);
 
+    /**
+     * This callback is invoked when a status message received from a node has changed the state of the node
+     *
+     * @param meshNode node that has changed
+     */
+    void onNodeUpdated(@NonNull final ProvisionedMeshNode meshNode);
+
     /**
      * This callback is invoked when the mesh node is successfully reset
      *
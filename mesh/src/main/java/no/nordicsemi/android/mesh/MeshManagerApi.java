@@ -25,20 +25,37 @@ package no.nordicsemi.android.mesh;
 import android.content.Context;
 import android.net.Uri;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
-import android.util.Log;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.Charset;
 import java.security.Security;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -55,24 +72,53 @@ import no.nordicsemi.android.mesh.data.ProvisionerDao;
 import no.nordicsemi.android.mesh.data.ProvisionersDao;
 import no.nordicsemi.android.mesh.data.SceneDao;
 import no.nordicsemi.android.mesh.data.ScenesDao;
+import no.nordicsemi.android.mesh.provisionerstates.ProvisioningKeyPairPool;
 import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.AccessMessageHandler;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataStatus;
+import no.nordicsemi.android.mesh.transport.ConfigModelPublicationStatus;
+import no.nordicsemi.android.mesh.transport.ConfigModelSubscriptionStatus;
+import no.nordicsemi.android.mesh.transport.ConfigSigModelSubscriptionList;
+import no.nordicsemi.android.mesh.transport.ConfigVendorModelSubscriptionList;
 import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.MeshMessageFuture;
 import no.nordicsemi.android.mesh.transport.NetworkLayerCallbacks;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.SequenceNumberAllocator;
 import no.nordicsemi.android.mesh.transport.UpperTransportLayerCallbacks;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.mesh.utils.InputOOBAction;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.OutputOOBAction;
 import no.nordicsemi.android.mesh.utils.ProxyFilter;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
-
-
+import no.nordicsemi.android.mesh.utils.TimingWheel;
+
+
+/**
+ * Entry point of the mesh library.
+ * <p>
+ * Threading: the mesh stack is confined to the transport thread, see {@link #MeshManagerApi(Context, Looper, Executor)}.
+ * Methods may be called from any thread. Methods returning a value or validating their arguments, e.g.
+ * {@link #enqueueMeshPdu(int, MeshMessage, int)} or {@link #registerAccessMessageHandler(int, AccessMessageHandler)}, wait for the
+ * transport thread so that their exceptions are thrown to the caller, all others return once the call has been handed over.
+ * </p>
+ * <p>
+ * The {@link MeshNetwork} is updated on the transport thread as messages are received, while the callbacks reading it are invoked
+ * on the callback executor. The lists of nodes, the addresses of the scenes and the network exclusions are replaced or copied when
+ * they change, so they may be read from the callbacks without locking. Changes made by the application that span several of these
+ * collections should be made while holding the lock of the network.
+ * </p>
+ */
 @SuppressWarnings("WeakerAccess")
 public class MeshManagerApi implements MeshMngrApi {
 
     private static final String TAG = MeshManagerApi.class.getSimpleName();
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
     public final static UUID MESH_PROVISIONING_UUID = UUID.fromString("00001827-0000-1000-8000-00805F9B34FB");
     public final static UUID MESH_PROXY_UUID = UUID.fromString("00001828-0000-1000-8000-00805F9B34FB");
     public static final byte PDU_TYPE_PROVISIONING = 0x03;
@@ -102,16 +148,25 @@ public class MeshManagerApi implements MeshMngrApi {
     private final static int ADVERTISED_NETWORK_ID_OFFSET = 1; //Offset of the network id contained in the advertisement service data
     private final static int ADVERTISED_NETWORK_ID_LENGTH = 8; //Length of the network id contained in the advertisement service data
 
+    private static HandlerThread sTransportThread;
+
     private final Context mContext;
     private final Handler mHandler;
-    private MeshManagerCallbacks mMeshManagerCallbacks;
+    private final TransportExecutor mTransportExecutor;
+    private final TimingWheel mTimingWheel;
+    private final Executor mCallbackExecutor;
+    private final NetworkWriteCoalescer mNetworkWriteCoalescer;
+    private final NodeIdentityResolver mNodeIdentityResolver = new NodeIdentityResolver();
+    private final ReplayProtectionStore mReplayProtectionStore;
+    private final SequenceNumberStore mSequenceNumberStore;
+    private volatile MeshManagerCallbacks mMeshManagerCallbacks;
     private final MeshProvisioningHandler mMeshProvisioningHandler;
+    private final Map<UUID, ProvisioningSession> mProvisioningSessions = new ConcurrentHashMap<>();
+    private MeshProvisioningStatusCallbacks mProvisioningStatusCallbacks;
     private final MeshMessageHandler mMeshMessageHandler;
     private final ImportExportUtils mImportExportUtils;
-    private byte[] mIncomingBuffer;
-    private int mIncomingBufferOffset;
-    private byte[] mOutgoingBuffer;
-    private int mOutgoingBufferOffset;
+    private final ProxySarBuffer[] mIncomingSarBuffers = new ProxySarBuffer[GATT_SAR_UNMASK + 1];
+    private final ProxySarBuffer[] mOutgoingSarBuffers = new ProxySarBuffer[GATT_SAR_UNMASK + 1];
     private MeshNetwork mMeshNetwork;
     private boolean ivUpdateTestModeActive = false;
     private boolean allowIvIndexRecoveryOver42 = false;
@@ -132,42 +187,115 @@ public class MeshManagerApi implements MeshMngrApi {
     private ScenesDao mScenesDao;
     private boolean isNetworkImportInProgress = false;
 
-    private final Runnable mProxyProtocolTimeoutRunnable = new Runnable() {
+    private final TimingWheel.Timer mProxyProtocolTimer = new TimingWheel.Timer(new Runnable() {
         @Override
         public void run() {
+            final ProxySarBuffer sarBuffer = mIncomingSarBuffers[PDU_TYPE_PROXY_CONFIGURATION];
+            if (sarBuffer != null) {
+                sarBuffer.reset();
+            }
             mMeshMessageHandler.onIncompleteTimerExpired(MeshAddress.UNASSIGNED_ADDRESS);
         }
-    };
+    });
 
     /**
      * The mesh manager api constructor.
+     * <p>
+     * Pdus are parsed and created, and the segmentation and reassembly timers run, on a dedicated mesh transport thread shared by all
+     * instances. The callbacks are invoked on the main thread.
+     * </p>
      *
      * @param context context
      */
     public MeshManagerApi(@NonNull final Context context) {
+        this(context, null, null);
+    }
+
+    /**
+     * The mesh manager api constructor.
+     * <p>
+     * All parsing, encryption, timers and transport state of the mesh stack are confined to the thread of the transport looper.
+     * Notifications and write callbacks may be passed in from any thread and are handed over to the transport thread, and the
+     * callbacks are dispatched to the callback executor in the order they are invoked.
+     * </p>
+     *
+     * @param context          context
+     * @param transportLooper  Looper of the thread the mesh transport runs on, or null to use the dedicated mesh transport thread
+     * @param callbackExecutor Executor running the tasks in the order they are submitted that the callbacks are dispatched to,
+     *                         or null to dispatch them to the main thread
+     */
+    public MeshManagerApi(@NonNull final Context context,
+                          @Nullable final Looper transportLooper,
+                          @Nullable final Executor callbackExecutor) {
         this.mContext = context;
-        mHandler = new Handler(Looper.getMainLooper());
+        final Looper looper = transportLooper != null ? transportLooper : getDefaultTransportLooper();
+        mHandler = new Handler(looper);
+        mTransportExecutor = TransportExecutor.of(mHandler);
+        mTimingWheel = new TimingWheel(mHandler);
+        if (callbackExecutor != null) {
+            mCallbackExecutor = callbackExecutor;
+        } else {
+            final Handler mainHandler = new Handler(Looper.getMainLooper());
+            mCallbackExecutor = mainHandler::post;
+        }
+        mNetworkWriteCoalescer = new NetworkWriteCoalescer(mHandler, NetworkWriteCoalescer.DEFAULT_WINDOW, networkWriter);
+        mReplayProtectionStore = new ReplayProtectionStore(context.getFilesDir());
+        mSequenceNumberStore = new SequenceNumberStore(context.getFilesDir());
         mMeshProvisioningHandler = new MeshProvisioningHandler(context, internalTransportCallbacks, internalMeshMgrCallbacks);
-        mMeshMessageHandler = new MeshMessageHandler(context, internalTransportCallbacks, networkLayerCallbacks, upperTransportLayerCallbacks);
+        mMeshMessageHandler = new MeshMessageHandler(context, mTimingWheel, internalTransportCallbacks, networkLayerCallbacks, upperTransportLayerCallbacks);
         mImportExportUtils = new ImportExportUtils();
         initBouncyCastle();
         //Init database
         initDb(context);
     }
 
+    private static synchronized Looper getDefaultTransportLooper() {
+        if (sTransportThread == null) {
+            sTransportThread = new HandlerThread("MeshTransport");
+            sTransportThread.start();
+        }
+        return sTransportThread.getLooper();
+    }
+
     @Override
     public void setMeshManagerCallbacks(@NonNull final MeshManagerCallbacks callbacks) {
-        mMeshManagerCallbacks = callbacks;
+        mMeshManagerCallbacks = new CallbackDispatcher.ManagerCallbacks(mCallbackExecutor, callbacks);
     }
 
     @Override
     public void setProvisioningStatusCallbacks(@NonNull final MeshProvisioningStatusCallbacks callbacks) {
-        mMeshProvisioningHandler.setProvisioningCallbacks(callbacks);
+        final MeshProvisioningStatusCallbacks dispatcher = new CallbackDispatcher.ProvisioningCallbacks(mCallbackExecutor, callbacks);
+        runOnTransportThread(() -> {
+            mProvisioningStatusCallbacks = dispatcher;
+            mMeshProvisioningHandler.setProvisioningCallbacks(dispatcher);
+            for (ProvisioningSession session : mProvisioningSessions.values()) {
+                session.setProvisioningCallbacks(dispatcher);
+            }
+        });
     }
 
     @Override
     public void setMeshStatusCallbacks(@NonNull final MeshStatusCallbacks callbacks) {
-        mMeshMessageHandler.setMeshStatusCallbacks(callbacks);
+        final MeshStatusCallbacks dispatcher = new CallbackDispatcher.StatusCallbacks(mCallbackExecutor, callbacks);
+        runOnTransportThread(() -> mMeshMessageHandler.setMeshStatusCallbacks(dispatcher));
+    }
+
+    /**
+     * Runs a task on the transport thread, immediately if called from the transport thread.
+     *
+     * @param task Task to run
+     */
+    void runOnTransportThread(@NonNull final Runnable task) {
+        mTransportExecutor.execute(task);
+    }
+
+    /**
+     * Runs a task on the transport thread and waits for its result, exceptions thrown by the task are rethrown to the caller.
+     *
+     * @param task Task to run
+     */
+    <T> T callOnTransportThread(@NonNull final Callable<T> task) {
+        return mTransportExecutor.call(task);
     }
 
     @Override
@@ -181,6 +309,11 @@ public class MeshManagerApi implements MeshMngrApi {
         return mMeshNetwork;
     }
 
+    @Override
+    public void flushMeshNetwork() {
+        mNetworkWriteCoalescer.flush();
+    }
+
     @Override
     public boolean isIvUpdateTestModeActive() {
         return ivUpdateTestModeActive;
@@ -234,19 +367,19 @@ public class MeshManagerApi implements MeshMngrApi {
 
     @Override
     public final void handleNotifications(final int mtuSize, @NonNull final byte[] data) {
+        runOnTransportThread(() -> onNotificationReceived(mtuSize, data));
+    }
+
+    private void onNotificationReceived(final int mtuSize, @NonNull final byte[] data) {
         byte[] unsegmentedPdu;
         if (!isGattSegmented(data)) {
             unsegmentedPdu = data;
         } else {
-            final byte[] combinedPdu = appendPdu(mtuSize, data);
-            if (combinedPdu == null) {
-                //Start the timer
-                toggleProxyProtocolSarTimeOut(data);
+            unsegmentedPdu = getSarBuffer(mIncomingSarBuffers, mtuSize, data).append(mtuSize, data);
+            //Starts or stops the timer
+            toggleProxyProtocolSarTimeOut(data);
+            if (unsegmentedPdu == null)
                 return;
-            } else {
-                toggleProxyProtocolSarTimeOut(data);
-                unsegmentedPdu = removeSegmentation(mtuSize, combinedPdu);
-            }
         }
         parseNotifications(unsegmentedPdu);
     }
@@ -259,9 +392,9 @@ public class MeshManagerApi implements MeshMngrApi {
     private void toggleProxyProtocolSarTimeOut(final byte[] data) {
         final int pduType = MeshParserUtils.unsignedByteToInt(data[0]);
         if (pduType == ((GATT_SAR_START << SAR_BIT_OFFSET) | MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)) {
-            mHandler.postDelayed(mProxyProtocolTimeoutRunnable, PROXY_SAR_TRANSFER_TIME_OUT);
+            mTimingWheel.schedule(mProxyProtocolTimer, PROXY_SAR_TRANSFER_TIME_OUT);
         } else if (pduType == ((GATT_SAR_END << SAR_BIT_OFFSET) | MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION)) {
-            mHandler.removeCallbacks(mProxyProtocolTimeoutRunnable);
+            mTimingWheel.cancel(mProxyProtocolTimer);
         }
     }
 
@@ -271,45 +404,47 @@ public class MeshManagerApi implements MeshMngrApi {
      * @param unsegmentedPdu pdu received by the client.
      */
     private void parseNotifications(final byte[] unsegmentedPdu) {
+        MeshMetrics.onPduReceived(unsegmentedPdu[0]);
         try {
             switch (unsegmentedPdu[0]) {
                 case PDU_TYPE_NETWORK:
                     //MeshNetwork PDU
-                    Log.v(TAG, "Received network pdu: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
-                    mMeshMessageHandler.parseMeshPduNotifications(unsegmentedPdu, mMeshNetwork);
+                    MeshLogger.v(TAG, () -> "Received network pdu: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
+                    parseMeshPdu(unsegmentedPdu);
                     break;
                 case PDU_TYPE_MESH_BEACON:
                     //Validate SNBs against all network keys
+                    final byte[] receivedBeaconData = new byte[unsegmentedPdu.length - 1];
+                    System.arraycopy(unsegmentedPdu, 1, receivedBeaconData, 0, receivedBeaconData.length);
+                    final SecureNetworkBeacon receivedBeacon = new SecureNetworkBeacon(receivedBeaconData);
+                    final int flags = receivedBeacon.getFlags();
+                    final int ivIndex = receivedBeacon.getIvIndex().getIvIndex();
+                    MeshLogger.d(TAG, () -> "Received mesh beacon: " + receivedBeacon.toString());
                     NetworkKey networkKey;
                     for (int i = 0; i < mMeshNetwork.getNetKeys().size(); i++) {
                         networkKey = mMeshNetwork.getNetKeys().get(i);
-                        final byte[] receivedBeaconData = new byte[unsegmentedPdu.length - 1];
-                        System.arraycopy(unsegmentedPdu, 1, receivedBeaconData, 0, receivedBeaconData.length);
-                        final SecureNetworkBeacon receivedBeacon = new SecureNetworkBeacon(receivedBeaconData);
-
-                        final byte[] n = networkKey.getTxNetworkKey();
-                        final int flags = receivedBeacon.getFlags();
-                        final byte[] networkId = SecureUtils.calculateK3(n);
-                        final int ivIndex = receivedBeacon.getIvIndex().getIvIndex();
-                        Log.d(TAG, "Received mesh beacon: " + receivedBeacon.toString());
+                        //A beacon carrying a different network id can not authenticate against this key
+                        if (!networkKey.matchesTxNetworkId(receivedBeacon.getNetworkId()))
+                            continue;
 
-                        final SecureNetworkBeacon localSecureNetworkBeacon = SecureUtils.createSecureNetworkBeacon(n, flags, networkId, ivIndex);
+                        final byte[] authValue = SecureUtils.calculateSecureNetworkBeaconAuthValue(networkKey.getTxBeaconKey(), flags,
+                                networkKey.getTxNetworkId(), ivIndex);
                         //Check the the beacon received is a valid by matching the authentication values
-                        if (Arrays.equals(receivedBeacon.getAuthenticationValue(), localSecureNetworkBeacon.getAuthenticationValue())) {
-                            Log.d(TAG, "Secure Network Beacon authenticated.");
+                        if (authenticationValueMatches(receivedBeacon.getAuthenticationValue(), authValue)) {
+                            MeshLogger.d(TAG, "Secure Network Beacon authenticated.");
 
                             //  The library does not retransmit Secure Network Beacon.
                             //  If this node is a member of a primary subnet and receives a Secure Network
                             //  beacon on a secondary subnet, it will disregard it.
                             if (mMeshNetwork.getPrimaryNetworkKey() != null && networkKey.keyIndex != 0) {
-                                Log.d(TAG, "Discarding beacon for secondary subnet with network key index: " + networkKey.keyIndex);
+                                MeshLogger.d(TAG, "Discarding beacon for secondary subnet with network key index: " + networkKey.keyIndex);
                                 return;
                             }
 
                             // Get the last IV Index.
                             /// The last used IV Index for this mesh network.
                             final IvIndex lastIvIndex = mMeshNetwork.getIvIndex();
-                            Log.d(TAG, "Last IV Index: " + lastIvIndex.getIvIndex());
+                            MeshLogger.d(TAG, () -> "Last IV Index: " + lastIvIndex.getIvIndex());
                             /// The date of the last change of IV Index or IV Update Flag.
                             final Calendar lastTransitionDate = lastIvIndex.getTransitionDate();
                             /// A flag whether the IV has recently been updated using IV Recovery procedure.
@@ -323,7 +458,7 @@ public class MeshManagerApi implements MeshMngrApi {
                             if (!receivedBeacon.canOverwrite(lastIvIndex, lastTransitionDate, isIvRecoveryActive, isIvTestModeActive, flag)) {
                                 String numberOfHoursSinceDate = ((Calendar.getInstance().getTimeInMillis() -
                                         lastTransitionDate.getTimeInMillis()) / (3600 * 1000)) + "h";
-                                Log.w(TAG, "Discarding beacon " + receivedBeacon.getIvIndex() +
+                                MeshLogger.w(TAG, () -> "Discarding beacon " + receivedBeacon.getIvIndex() +
                                         ", last " + lastIvIndex.getIvIndex() + ", changed: "
                                         + numberOfHoursSinceDate + " ago, test mode: " + ivUpdateTestModeActive);
                                 return;
@@ -333,16 +468,18 @@ public class MeshManagerApi implements MeshMngrApi {
                             mMeshNetwork.ivIndex = new IvIndex(receivedIvIndex.getIvIndex(), receivedIvIndex.isIvUpdateActive(), lastTransitionDate);
 
                             if (mMeshNetwork.ivIndex.getIvIndex() > lastIvIndex.getIvIndex()) {
-                                Log.i(TAG, "Applying: " + mMeshNetwork.ivIndex.getIvIndex());
+                                MeshLogger.i(TAG, () -> "Applying: " + mMeshNetwork.ivIndex.getIvIndex());
                             }
 
                             // If the IV Index used for transmitting messages effectively increased,
                             // the Node shall reset the sequence number to 0x000000.
                             if (mMeshNetwork.ivIndex.getTransmitIvIndex() > lastIvIndex.getTransmitIvIndex()) {
-                                Log.i(TAG, "Resetting local sequence numbers to 0");
+                                MeshLogger.i(TAG, "Resetting local sequence numbers to 0");
                                 final Provisioner provisioner = mMeshNetwork.getSelectedProvisioner();
                                 final ProvisionedMeshNode node = mMeshNetwork.getNode(provisioner.getProvisionerUuid());
                                 node.setSequenceNumber(0);
+                                mSequenceNumberStore.getAllocator(mMeshNetwork.getMeshUUID(), node.getUnicastAddress(), 0).reset(0);
+                                mMeshNetwork.markDirty(node);
                             }
 
                             //Updating the iv recovery flag
@@ -353,54 +490,78 @@ public class MeshManagerApi implements MeshMngrApi {
                             }
 
                             if (!mMeshNetwork.ivIndex.getIvRecoveryFlag()) {
-                                final Iterator<Entry<Integer, ArrayList<Integer>>> iterator = mMeshNetwork.networkExclusions.entrySet().iterator();
-                                while (iterator.hasNext()) {
-                                    final Entry<Integer, ArrayList<Integer>> exclusions = iterator.next();
-                                    final int expectedIncrement = exclusions.getKey() + 2;
-                                    if (mMeshNetwork.ivIndex.getIvIndex() >= expectedIncrement) {
-                                        // Clear the last known sequence number of addresses that are to be removed from the exclusion list.
-                                        // Decided to retain the last known sequence number as the IV Indexes increment the sequence number
-                                        // will be greater than the last known anyways
-                                        //for (Integer address : mMeshNetwork.networkExclusions.get(expectedIncrement)) {
-                                        //    mMeshNetwork.sequenceNumbers.removeAt(address);
-                                        //}
-                                        iterator.remove();
+                                //The exclusions are exported from the application thread
+                                synchronized (mMeshNetwork) {
+                                    final Iterator<Entry<Integer, ArrayList<Integer>>> iterator = mMeshNetwork.networkExclusions.entrySet().iterator();
+                                    while (iterator.hasNext()) {
+                                        final Entry<Integer, ArrayList<Integer>> exclusions = iterator.next();
+                                        final int expectedIncrement = exclusions.getKey() + 2;
+                                        if (mMeshNetwork.ivIndex.getIvIndex() >= expectedIncrement) {
+                                            // Clear the last known sequence number of addresses that are to be removed from the exclusion list.
+                                            // Decided to retain the last known sequence number as the IV Indexes increment the sequence number
+                                            // will be greater than the last known anyways
+                                            //for (Integer address : mMeshNetwork.networkExclusions.get(expectedIncrement)) {
+                                            //    mMeshNetwork.sequenceNumbers.removeAt(address);
+                                            //}
+                                            iterator.remove();
+                                        }
                                     }
                                 }
                             }
+                            //The IV index is stored in the network row, beacons repeating the current state change nothing
+                            if (receivedIvIndex.getIvIndex() != lastIvIndex.getIvIndex() ||
+                                    receivedIvIndex.isIvUpdateActive() != lastIvIndex.isIvUpdateActive()) {
+                                mMeshNetwork.markDirty(NetworkChanges.NETWORK);
+                                mNetworkWriteCoalescer.schedule(mMeshNetwork);
+                            }
                         }
                     }
                     break;
                 case PDU_TYPE_PROXY_CONFIGURATION:
                     //Proxy configuration
-                    Log.v(TAG, "Received proxy configuration message: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
-                    mMeshMessageHandler.parseMeshPduNotifications(unsegmentedPdu, mMeshNetwork);
+                    MeshLogger.v(TAG, () -> "Received proxy configuration message: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
+                    parseMeshPdu(unsegmentedPdu);
                     break;
                 case PDU_TYPE_PROVISIONING:
                     //Provisioning PDU
-                    Log.v(TAG, "Received provisioning message: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
+                    MeshLogger.v(TAG, () -> "Received provisioning message: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true));
                     mMeshProvisioningHandler.parseProvisioningNotifications(unsegmentedPdu);
                     break;
             }
         } catch (ExtendedInvalidCipherTextException ex) {
             //TODO handle decryption failure
         } catch (IllegalArgumentException ex) {
-            Log.e(TAG, "Parsing notification failed: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true) + " - " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Parsing notification failed: " + MeshParserUtils.bytesToHex(unsegmentedPdu, true) + " - " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Parses a network or proxy configuration pdu and records the time taken, also when the pdu is rejected.
+     *
+     * @param pdu Network or proxy configuration pdu
+     */
+    private void parseMeshPdu(final byte[] pdu) throws ExtendedInvalidCipherTextException {
+        final long startTime = System.nanoTime();
+        try {
+            mMeshMessageHandler.parseMeshPduNotifications(pdu, mMeshNetwork);
+        } finally {
+            MeshMetrics.recordProcessingTime(startTime);
         }
     }
 
     @Override
     public final void handleWriteCallbacks(final int mtuSize, @NonNull final byte[] data) {
+        runOnTransportThread(() -> onDataWritten(mtuSize, data));
+    }
+
+    private void onDataWritten(final int mtuSize, @NonNull final byte[] data) {
         byte[] unsegmentedPdu;
         if (!isGattSegmented(data)) {
             unsegmentedPdu = data;
         } else {
-            final byte[] combinedPdu = appendWritePdu(mtuSize, data);
-            if (combinedPdu == null)
+            unsegmentedPdu = getSarBuffer(mOutgoingSarBuffers, mtuSize, data).append(mtuSize, data);
+            if (unsegmentedPdu == null)
                 return;
-            else {
-                unsegmentedPdu = removeSegmentation(mtuSize, combinedPdu);
-            }
         }
         handleWriteCallbacks(unsegmentedPdu);
     }
@@ -413,16 +574,16 @@ public class MeshManagerApi implements MeshMngrApi {
     private void handleWriteCallbacks(final byte[] data) {
         switch (data[0]) {
             case PDU_TYPE_NETWORK: // MeshNetwork PDU
-                Log.v(TAG, "MeshNetwork pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, () -> "MeshNetwork pdu sent: " + MeshParserUtils.bytesToHex(data, true));
                 break;
             case PDU_TYPE_MESH_BEACON: // MESH BEACON
-                Log.v(TAG, "Mesh beacon pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, () -> "Mesh beacon pdu sent: " + MeshParserUtils.bytesToHex(data, true));
                 break;
             case PDU_TYPE_PROXY_CONFIGURATION: // Proxy configuration
-                Log.v(TAG, "Proxy configuration pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, () -> "Proxy configuration pdu sent: " + MeshParserUtils.bytesToHex(data, true));
                 break;
             case PDU_TYPE_PROVISIONING: // Provisioning PDU
-                Log.v(TAG, "Provisioning pdu sent: " + MeshParserUtils.bytesToHex(data, true));
+                MeshLogger.v(TAG, () -> "Provisioning pdu sent: " + MeshParserUtils.bytesToHex(data, true));
                 mMeshProvisioningHandler.handleProvisioningWriteCallbacks();
                 break;
         }
@@ -442,61 +603,20 @@ public class MeshManagerApi implements MeshMngrApi {
     }
 
     /**
-     * Appends the PDUs that are segmented at gatt layer.
-     *
-     * @param mtuSize mtu size supported by the device/node
-     * @param pdu     pdu received by the provisioner
-     * @return the combine pdu or returns null if not complete.
-     */
-    private byte[] appendPdu(final int mtuSize, final byte[] pdu) {
-        final int length = Math.min(pdu.length, mtuSize);
-        if (mIncomingBuffer == null) {
-            mIncomingBufferOffset = 0;
-            mIncomingBufferOffset += length;
-            mIncomingBuffer = pdu;
-        } else {
-            final byte[] buffer = new byte[mIncomingBuffer.length + length];
-            System.arraycopy(mIncomingBuffer, 0, buffer, 0, mIncomingBufferOffset);
-            System.arraycopy(pdu, 0, buffer, mIncomingBufferOffset, length);
-            mIncomingBufferOffset += length;
-            mIncomingBuffer = buffer;
-            final int sar = MeshParserUtils.unsignedByteToInt(pdu[0]) >> SAR_BIT_OFFSET;
-            if (sar == GATT_SAR_END) {
-                final byte[] packet = mIncomingBuffer;
-                mIncomingBuffer = null;
-                return packet;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Appends the PDUs that are segmented at gatt layer.
+     * Returns the reassembly buffer for the pdu type of the given segment.
      *
-     * @param mtuSize mtu size supported by the device/node
-     * @param pdu     pdu received by the provisioner
-     * @return the combine pdu or returns null if not complete.
+     * @param sarBuffers reassembly buffers of the direction the segment was transferred in
+     * @param mtuSize    mtu size supported by the device/node
+     * @param segment    pdu segmented at the gatt layer
      */
-    private byte[] appendWritePdu(final int mtuSize, final byte[] pdu) {
-        if (mOutgoingBuffer == null) {
-            final int length = Math.min(pdu.length, mtuSize);
-            mOutgoingBufferOffset = 0;
-            mOutgoingBufferOffset += length;
-            mOutgoingBuffer = pdu;
-        } else {
-            final int length = Math.min(pdu.length, mtuSize);
-            final byte[] buffer = new byte[mOutgoingBuffer.length + length];
-            System.arraycopy(mOutgoingBuffer, 0, buffer, 0, mOutgoingBufferOffset);
-            System.arraycopy(pdu, 0, buffer, mOutgoingBufferOffset, length);
-            mOutgoingBufferOffset += length;
-            mOutgoingBuffer = buffer;
-            if (length < mtuSize) {
-                final byte[] packet = mOutgoingBuffer;
-                mOutgoingBuffer = null;
-                return packet;
-            }
-        }
-        return null;
+    private ProxySarBuffer getSarBuffer(@NonNull final ProxySarBuffer[] sarBuffers, final int mtuSize, @NonNull final byte[] segment) {
+        final int pduType = segment[0] & GATT_SAR_UNMASK;
+        ProxySarBuffer sarBuffer = sarBuffers[pduType];
+        if (sarBuffer == null) {
+            sarBuffer = new ProxySarBuffer(mtuSize);
+            sarBuffers[pduType] = sarBuffer;
+        }
+        return sarBuffer;
     }
 
     private byte[] applySegmentation(final int mtuSize, final byte[] pdu) {
@@ -530,34 +650,6 @@ public class MeshManagerApi implements MeshMngrApi {
         return pdu;
     }
 
-    private byte[] removeSegmentation(final int mtuSize, final byte[] data) {
-        int srcOffset = 0;
-        int dstOffset = 0;
-        final int chunks = (data.length + (mtuSize - 1)) / mtuSize;
-        if (chunks > 1) {
-            final byte[] buffer = new byte[data.length - (chunks - 1)];
-            int length;
-            for (int i = 0; i < chunks; i++) {
-                // when removing segmentation bits we only remove the start because the pdu type would be the same for each segment.
-                // Therefore we can ignore this pdu type byte as they are already put together in the ble
-                length = Math.min(buffer.length - dstOffset, mtuSize);
-                if (i == 0) {
-                    System.arraycopy(data, srcOffset, buffer, dstOffset, length);
-                    buffer[0] = (byte) (buffer[0] & GATT_SAR_UNMASK);
-                } else if (i == chunks - 1) {
-                    System.arraycopy(data, srcOffset + 1, buffer, dstOffset, length);
-                } else {
-                    length = length - 1;
-                    System.arraycopy(data, srcOffset + 1, buffer, dstOffset, length);
-                }
-                srcOffset += mtuSize;
-                dstOffset += length;
-            }
-            return buffer;
-        }
-        return data;
-    }
-
     @Override
     public void identifyNode(@NonNull final UUID deviceUUID) throws IllegalArgumentException {
         identifyNode(deviceUUID, MeshProvisioningHandler.ATTENTION_TIMER);
@@ -568,22 +660,83 @@ public class MeshManagerApi implements MeshMngrApi {
                              final int attentionTimer) throws IllegalArgumentException {
         final NetworkKey networkKey = mMeshNetwork.getPrimaryNetworkKey();
         if (networkKey != null) {
-            mMeshProvisioningHandler.identify(deviceUuid, networkKey, mMeshNetwork.getProvisioningFlags(),
-                    mMeshNetwork.getIvIndex().getIvIndex(), mMeshNetwork.getGlobalTtl(), attentionTimer);
+            ProvisioningKeyPairPool.getDefault().prepare(1);
+            callOnTransportThread(Executors.callable(() ->
+                    mMeshProvisioningHandler.identify(deviceUuid, networkKey, mMeshNetwork.getProvisioningFlags(),
+                            mMeshNetwork.getIvIndex().getIvIndex(), mMeshNetwork.getGlobalTtl(), attentionTimer)));
+        }
+    }
+
+    @NonNull
+    @Override
+    public ProvisioningSession openProvisioningSession(@NonNull final UUID deviceUuid,
+                                                       final int attentionTimer) throws IllegalArgumentException {
+        final NetworkKey networkKey = mMeshNetwork.getPrimaryNetworkKey();
+        if (networkKey == null)
+            throw new IllegalArgumentException("Network key cannot be null or empty!");
+        if (mProvisioningSessions.containsKey(deviceUuid))
+            throw new IllegalArgumentException("A provisioning session is already open for " + deviceUuid);
+
+        final MeshProvisioningHandler provisioningHandler = new MeshProvisioningHandler(mContext, internalTransportCallbacks, internalMeshMgrCallbacks);
+        final ProvisioningSession session = new ProvisioningSession(this, provisioningHandler, mMeshManagerCallbacks.getMtu());
+        mProvisioningSessions.put(deviceUuid, session);
+        //Key pairs for the sessions that have not started provisioning are generated while their invites and capabilities are exchanged
+        ProvisioningKeyPairPool.getDefault().prepare(getSessionsAwaitingKeyPair());
+        try {
+            callOnTransportThread(Executors.callable(() -> {
+                provisioningHandler.setProvisioningCallbacks(mProvisioningStatusCallbacks);
+                provisioningHandler.identify(deviceUuid, networkKey, mMeshNetwork.getProvisioningFlags(),
+                        mMeshNetwork.getIvIndex().getIvIndex(), mMeshNetwork.getGlobalTtl(), attentionTimer);
+            }));
+        } catch (IllegalArgumentException ex) {
+            mProvisioningSessions.remove(deviceUuid);
+            throw ex;
+        }
+        return session;
+    }
+
+    /**
+     * Returns the number of open provisioning sessions that have not started provisioning yet.
+     */
+    private int getSessionsAwaitingKeyPair() {
+        int count = 0;
+        for (ProvisioningSession session : mProvisioningSessions.values()) {
+            if (session.isAwaitingKeyPair())
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes a provisioning session once it has been closed. The key pairs generated in advance are discarded once the last
+     * session has been closed.
+     *
+     * @param session Closed session
+     */
+    void onProvisioningSessionClosed(@NonNull final ProvisioningSession session) {
+        final Iterator<ProvisioningSession> iterator = mProvisioningSessions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == session) {
+                iterator.remove();
+                break;
+            }
+        }
+        if (mProvisioningSessions.isEmpty()) {
+            ProvisioningKeyPairPool.getDefault().clear();
         }
     }
 
     @Override
     public void startProvisioning(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode) throws IllegalArgumentException {
         if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningNoOOB(unprovisionedMeshNode);
+            callOnTransportThread(Executors.callable(() -> mMeshProvisioningHandler.startProvisioningNoOOB(unprovisionedMeshNode)));
         }
     }
 
     @Override
     public void startProvisioningWithStaticOOB(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode) throws IllegalArgumentException {
         if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningWithStaticOOB(unprovisionedMeshNode);
+            callOnTransportThread(Executors.callable(() -> mMeshProvisioningHandler.startProvisioningWithStaticOOB(unprovisionedMeshNode)));
         }
     }
 
@@ -591,7 +744,7 @@ public class MeshManagerApi implements MeshMngrApi {
     public void startProvisioningWithOutputOOB(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode,
                                                @NonNull final OutputOOBAction oobAction) throws IllegalArgumentException {
         if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningWithOutputOOB(unprovisionedMeshNode, oobAction);
+            callOnTransportThread(Executors.callable(() -> mMeshProvisioningHandler.startProvisioningWithOutputOOB(unprovisionedMeshNode, oobAction)));
         }
     }
 
@@ -599,13 +752,13 @@ public class MeshManagerApi implements MeshMngrApi {
     public void startProvisioningWithInputOOB(@NonNull final UnprovisionedMeshNode unprovisionedMeshNode,
                                               @NonNull final InputOOBAction oobAction) throws IllegalArgumentException {
         if (isAddressValid(unprovisionedMeshNode)) {
-            mMeshProvisioningHandler.startProvisioningWithInputOOB(unprovisionedMeshNode, oobAction);
+            callOnTransportThread(Executors.callable(() -> mMeshProvisioningHandler.startProvisioningWithInputOOB(unprovisionedMeshNode, oobAction)));
         }
     }
 
     @Override
     public void setProvisioningAuthentication(@NonNull final String authentication) {
-        mMeshProvisioningHandler.sendProvisioningConfirmation(authentication);
+        runOnTransportThread(() -> mMeshProvisioningHandler.sendProvisioningConfirmation(authentication));
     }
 
     @NonNull
@@ -670,6 +823,19 @@ public class MeshManagerApi implements MeshMngrApi {
         return null;
     }
 
+    /**
+     * Compares the 64-bit authentication value of a received beacon against the leading bytes of the calculated value.
+     */
+    private static boolean authenticationValueMatches(@NonNull final byte[] received, @NonNull final byte[] calculated) {
+        if (received.length > calculated.length)
+            return false;
+        for (int i = 0; i < received.length; i++) {
+            if (received[i] != calculated[i])
+                return false;
+        }
+        return true;
+    }
+
     @Override
     public String generateNetworkId(@NonNull final byte[] networkKey) {
         return MeshParserUtils.bytesToHex(SecureUtils.calculateK3(networkKey), false);
@@ -689,15 +855,19 @@ public class MeshManagerApi implements MeshMngrApi {
             return false;
         }
 
-        for (NetworkKey key : mMeshNetwork.netKeys) {
-            if (Arrays.equals(advertisedHash, SecureUtils.
-                    calculateHash(key.getIdentityKey(), random, MeshAddress.addressIntToBytes(meshNode.getUnicastAddress()))) ||
-                    (key.getOldIdentityKey() != null &&
-                            Arrays.equals(advertisedHash, SecureUtils.
-                                    calculateHash(key.getOldIdentityKey(), random, MeshAddress.addressIntToBytes(meshNode.getUnicastAddress())))))
-                return true;
-        }
-        return false;
+        return mNodeIdentityResolver.matches(mMeshNetwork, meshNode, advertisedHash, random);
+    }
+
+    @Nullable
+    @Override
+    public ProvisionedMeshNode resolveNodeIdentity(@Nullable final byte[] serviceData) {
+        if (mMeshNetwork == null || !isAdvertisedWithNodeIdentity(serviceData))
+            return null;
+        final byte[] advertisedHash = getAdvertisedHash(serviceData);
+        final byte[] random = getAdvertisedRandom(serviceData);
+        if (advertisedHash == null || random == null)
+            return null;
+        return mNodeIdentityResolver.resolve(mMeshNetwork, advertisedHash, random);
     }
 
 
@@ -750,7 +920,7 @@ public class MeshManagerApi implements MeshMngrApi {
         final byte[] advertisedNetworkId = getAdvertisedNetworkId(serviceData);
         if (advertisedNetworkId != null) {
             for (NetworkKey key : mMeshNetwork.getNetKeys()) {
-                if (Arrays.equals(key.getNetworkId(), advertisedNetworkId) || Arrays.equals(key.getOldNetworkId(), advertisedNetworkId))
+                if (key.matchesNetworkId(advertisedNetworkId))
                     return true;
             }
         }
@@ -789,11 +959,16 @@ public class MeshManagerApi implements MeshMngrApi {
         ivUpdateTestModeActive = false;
         allowIvIndexRecoveryOver42 = false;
         final MeshNetwork meshNet = mMeshNetwork;
+        mNetworkWriteCoalescer.flush();
+        mNodeIdentityResolver.clear();
+        runOnTransportThread(mMeshMessageHandler::cancelOutboundMessages);
+        CryptoContext.clearAll();
         deleteMeshNetworkFromDb(meshNet);
         final MeshNetwork newMeshNetwork = generateMeshNetwork();
         newMeshNetwork.setCallbacks(callbacks);
         insertNetwork(newMeshNetwork);
         mMeshNetwork = newMeshNetwork;
+        runOnTransportThread(() -> mReplayProtectionStore.attach(newMeshNetwork));
         mMeshManagerCallbacks.onNetworkLoaded(newMeshNetwork);
     }
 
@@ -849,36 +1024,91 @@ public class MeshManagerApi implements MeshMngrApi {
      * @param meshNetwork mesh network to be deleted
      */
     public final void deleteMeshNetworkFromDb(final MeshNetwork meshNetwork) {
+        mReplayProtectionStore.delete(meshNetwork.getMeshUUID());
+        mSequenceNumberStore.delete(meshNetwork.getMeshUUID());
         mMeshNetworkDb.delete(mMeshNetworkDao, meshNetwork);
     }
 
     @Override
     public void createMeshPdu(final int dst, @NonNull final MeshMessage meshMessage) {
+        final int src = getSourceAddress(dst);
+        final UUID label = getLabel(dst);
+        //Waits for the transport thread, the message may be invalid or its source node may have been removed
+        callOnTransportThread(Executors.callable(() -> mMeshMessageHandler.createMeshMessage(src, dst, label, meshMessage)));
+    }
+
+    @NonNull
+    @Override
+    public MeshMessageFuture enqueueMeshPdu(final int dst, @NonNull final MeshMessage meshMessage, final int statusOpCode) {
+        final int src = getSourceAddress(dst);
+        final UUID label = getLabel(dst);
+        return callOnTransportThread(() -> mMeshMessageHandler.enqueueMeshMessage(src, dst, label, meshMessage, statusOpCode));
+    }
+
+    @Override
+    public void setOutboundWindow(final int maxInFlight) {
+        //The arguments are validated on the transport thread, rethrowing the exception to the caller
+        callOnTransportThread(Executors.callable(() -> mMeshMessageHandler.setOutboundWindow(maxInFlight)));
+    }
+
+    @Override
+    public void setOutboundTimeout(final long timeout, final int retries) {
+        callOnTransportThread(Executors.callable(() -> mMeshMessageHandler.setOutboundTimeout(timeout, retries)));
+    }
+
+    /**
+     * Returns the address of the selected provisioner after validating the destination address.
+     *
+     * @param dst destination address
+     * @throws IllegalArgumentException if the destination is invalid or the provisioner address is not set
+     */
+    private int getSourceAddress(final int dst) {
         if (!MeshAddress.isAddressInRange(dst)) {
             throw new IllegalArgumentException("Invalid address, destination address must be a valid 16-bit value.");
         }
         final Provisioner provisioner = mMeshNetwork.getSelectedProvisioner();
-        if (provisioner != null && provisioner.getProvisionerAddress() != null) {
-            UUID label = null;
-            if (MeshAddress.isValidVirtualAddress(dst)) {
-                label = mMeshNetwork.getLabelUuid(dst);
-                if (label == null) {
-                    throw new IllegalArgumentException("Label UUID unavailable for the virtual address provided");
-                }
-            }
-            mMeshMessageHandler.createMeshMessage(provisioner.getProvisionerAddress(), dst, label, meshMessage);
-        } else {
+        if (provisioner == null || provisioner.getProvisionerAddress() == null) {
             throw new IllegalArgumentException("Provisioner address not set, please assign an address to the provisioner.");
         }
+        return provisioner.getProvisionerAddress();
+    }
+
+    /**
+     * Returns the label uuid of a virtual destination address or null for any other address.
+     *
+     * @param dst destination address
+     * @throws IllegalArgumentException if the label uuid of a virtual address is unavailable
+     */
+    @Nullable
+    private UUID getLabel(final int dst) {
+        if (MeshAddress.isValidVirtualAddress(dst)) {
+            final UUID label = mMeshNetwork.getLabelUuid(dst);
+            if (label == null) {
+                throw new IllegalArgumentException("Label UUID unavailable for the virtual address provided");
+            }
+            return label;
+        }
+        return null;
+    }
+
+    @Override
+    public void registerAccessMessageHandler(final int opCode, @NonNull final AccessMessageHandler handler) {
+        callOnTransportThread(Executors.callable(() -> mMeshMessageHandler.registerAccessMessageHandler(opCode, handler)));
+    }
+
+    @Override
+    public void unregisterAccessMessageHandler(final int opCode) {
+        callOnTransportThread(Executors.callable(() -> mMeshMessageHandler.unregisterAccessMessageHandler(opCode)));
     }
 
     @Override
     public String exportMeshNetwork() {
         try {
-            final MeshNetwork meshNetwork = mMeshNetwork;
-            return mImportExportUtils.export(meshNetwork, false);
+            final StringWriter writer = new StringWriter();
+            exportMeshNetwork(writer);
+            return writer.toString();
         } catch (Exception ex) {
-            mMeshManagerCallbacks.onNetworkImportFailed(ex.getMessage());
+            MeshLogger.e(TAG, "Error: " + ex.getMessage());
         }
         return null;
     }
@@ -891,20 +1121,56 @@ public class MeshManagerApi implements MeshMngrApi {
                                     @NonNull final GroupsConfig groupsConfig,
                                     @NonNull final ScenesConfig scenesConfig) {
         try {
-            final MeshNetwork network = mMeshNetwork;
-            return mImportExportUtils.export(network, networkKeysConfig, applicationKeysConfig,
-                    nodesConfig, provisionersConfig, groupsConfig, scenesConfig);
+            final StringWriter writer = new StringWriter();
+            exportMeshNetwork(writer, networkKeysConfig, applicationKeysConfig, nodesConfig, provisionersConfig, groupsConfig, scenesConfig);
+            return writer.toString();
         } catch (Exception ex) {
-            mMeshManagerCallbacks.onNetworkImportFailed(ex.getMessage());
+            MeshLogger.e(TAG, "Error: " + ex.getMessage());
         }
         return null;
     }
 
+    @Override
+    public void exportMeshNetwork(@NonNull final Writer writer) throws IOException {
+        final MeshNetwork meshNetwork = mMeshNetwork;
+        mImportExportUtils.export(writer, meshNetwork, false);
+    }
+
+    @Override
+    public void exportMeshNetwork(@NonNull final OutputStream outputStream) throws IOException {
+        exportMeshNetwork(new BufferedWriter(new OutputStreamWriter(outputStream, UTF_8)));
+    }
+
+    @Override
+    public void exportMeshNetwork(@NonNull final Writer writer,
+                                  @NonNull final NetworkKeysConfig networkKeysConfig,
+                                  @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                                  @NonNull final NodesConfig nodesConfig,
+                                  @NonNull final ProvisionersConfig provisionersConfig,
+                                  @NonNull final GroupsConfig groupsConfig,
+                                  @NonNull final ScenesConfig scenesConfig) throws IOException {
+        final MeshNetwork network = mMeshNetwork;
+        mImportExportUtils.export(writer, network, networkKeysConfig, applicationKeysConfig,
+                nodesConfig, provisionersConfig, groupsConfig, scenesConfig);
+    }
+
+    @Override
+    public void exportMeshNetwork(@NonNull final OutputStream outputStream,
+                                  @NonNull final NetworkKeysConfig networkKeysConfig,
+                                  @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                                  @NonNull final NodesConfig nodesConfig,
+                                  @NonNull final ProvisionersConfig provisionersConfig,
+                                  @NonNull final GroupsConfig groupsConfig,
+                                  @NonNull final ScenesConfig scenesConfig) throws IOException {
+        exportMeshNetwork(new BufferedWriter(new OutputStreamWriter(outputStream, UTF_8)), networkKeysConfig, applicationKeysConfig,
+                nodesConfig, provisionersConfig, groupsConfig, scenesConfig);
+    }
+
     @Override
     public void importMeshNetwork(@NonNull final Uri uri) {
         try {
             isNetworkImportInProgress = true;
-            importMeshNetworkJson(mImportExportUtils.readJsonStringFromUri(mContext.getContentResolver(), uri));
+            importMeshNetwork(mImportExportUtils.importNetwork(mContext.getContentResolver(), uri));
             isNetworkImportInProgress = false;
         } catch (Exception ex) {
             isNetworkImportInProgress = false;
@@ -914,27 +1180,14 @@ public class MeshManagerApi implements MeshMngrApi {
 
     @Override
     public void importMeshNetworkJson(@NonNull String networkJson) {
+        importMeshNetwork(new StringReader(networkJson));
+    }
+
+    @Override
+    public void importMeshNetwork(@NonNull final Reader reader) {
         try {
             isNetworkImportInProgress = true;
-            final MeshNetwork importedNetwork = mImportExportUtils.importNetwork(networkJson);
-            importedNetwork.setCallbacks(callbacks);
-            final MeshNetwork network = mMeshNetworkDb.getMeshNetwork(mMeshNetworkDao, importedNetwork.getMeshUUID());
-            if (network != null) {
-                final List<ProvisionedMeshNode> nodes = mMeshNetworkDb.getNodes(mProvisionedNodesDao, importedNetwork.getMeshUUID());
-                importedNetwork.unicastAddress = network.unicastAddress;
-                for (ProvisionedMeshNode meshNode : importedNetwork.nodes) {
-                    for (ProvisionedMeshNode node : nodes) {
-                        if (node.getUuid().equalsIgnoreCase(meshNode.getUuid())) {
-                            meshNode.setSequenceNumber(node.getSequenceNumber());
-                        }
-                    }
-                }
-                importedNetwork.loadSequenceNumbers();
-            }
-            mMeshNetworkDb.update(mMeshNetworkDao, importedNetwork, false);
-            insertNetwork(importedNetwork);
-            mMeshNetwork = importedNetwork;
-            mMeshManagerCallbacks.onNetworkImported(importedNetwork);
+            importMeshNetwork(mImportExportUtils.importNetwork(reader));
             isNetworkImportInProgress = false;
         } catch (Exception ex) {
             isNetworkImportInProgress = false;
@@ -942,6 +1195,44 @@ public class MeshManagerApi implements MeshMngrApi {
         }
     }
 
+    @Override
+    public void importMeshNetwork(@NonNull final InputStream inputStream) {
+        importMeshNetwork(new BufferedReader(new InputStreamReader(inputStream, UTF_8)));
+    }
+
+    /**
+     * Replaces the current network with the imported network.
+     *
+     * @param importedNetwork Imported mesh network
+     */
+    private void importMeshNetwork(@NonNull final MeshNetwork importedNetwork) throws ExecutionException, InterruptedException {
+        importedNetwork.setCallbacks(callbacks);
+        final MeshNetwork network = mMeshNetworkDb.getMeshNetwork(mMeshNetworkDao, importedNetwork.getMeshUUID());
+        if (network != null) {
+            final List<ProvisionedMeshNode> nodes = mMeshNetworkDb.getNodes(mProvisionedNodesDao, importedNetwork.getMeshUUID());
+            importedNetwork.unicastAddress = network.unicastAddress;
+            for (ProvisionedMeshNode meshNode : importedNetwork.nodes) {
+                for (ProvisionedMeshNode node : nodes) {
+                    if (node.getUuid().equalsIgnoreCase(meshNode.getUuid())) {
+                        meshNode.setSequenceNumber(node.getSequenceNumber());
+                    }
+                }
+            }
+            importedNetwork.loadSequenceNumbers();
+        }
+        if (mMeshNetwork != null && mMeshNetwork.getMeshUUID().equalsIgnoreCase(importedNetwork.getMeshUUID())) {
+            //The imported network replaces the current one
+            mNetworkWriteCoalescer.cancel();
+        } else {
+            mNetworkWriteCoalescer.flush();
+        }
+        mMeshNetworkDb.update(mMeshNetworkDao, importedNetwork, false);
+        insertNetwork(importedNetwork);
+        mMeshNetwork = importedNetwork;
+        runOnTransportThread(() -> mReplayProtectionStore.attach(importedNetwork));
+        mMeshManagerCallbacks.onNetworkImported(importedNetwork);
+    }
+
     @SuppressWarnings("FieldCanBeLocal")
     private final InternalTransportCallbacks internalTransportCallbacks = new InternalTransportCallbacks() {
 
@@ -962,17 +1253,18 @@ public class MeshManagerApi implements MeshMngrApi {
 
         @Override
         public void sendProvisioningPdu(final UnprovisionedMeshNode meshNode, final byte[] pdu) {
-            final int mtu = mMeshManagerCallbacks.getMtu();
+            //Pdus of a provisioning session are segmented for the bearer of that session
+            final ProvisioningSession session = mProvisioningSessions.get(meshNode.getDeviceUuid());
+            final int mtu = session != null ? session.getMtu() : mMeshManagerCallbacks.getMtu();
+            MeshMetrics.onPduSent(PDU_TYPE_PROVISIONING);
             mMeshManagerCallbacks.sendProvisioningPdu(meshNode, applySegmentation(mtu, pdu));
         }
 
         @Override
         public void onMeshPduCreated(final int dst, final byte[] pdu) {
-            //We must save the mesh network state for every message that is being sent out.
-            //This will specifically save the sequence number for every message sent.
-            final ProvisionedMeshNode meshNode = mMeshNetwork.getNode(dst);
-            updateNetwork(meshNode);
+            //Sequence numbers are persisted by the SequenceNumberStore, the network is not written for every message sent
             final int mtu = mMeshManagerCallbacks.getMtu();
+            MeshMetrics.onPduSent(pdu[0]);
             mMeshManagerCallbacks.onMeshPduCreated(applySegmentation(mtu, pdu));
         }
 
@@ -988,8 +1280,44 @@ public class MeshManagerApi implements MeshMngrApi {
 
         @Override
         public void updateMeshNetwork(final MeshMessage message) {
-            final ProvisionedMeshNode meshNode = mMeshNetwork.getNode(message.getSrc());
-            updateNetwork(meshNode);
+            if (message instanceof ConfigCompositionDataStatus) {
+                //Elements of the node have been updated
+                mMeshNetwork.invalidateNodeAddressIndex();
+            } else if (message instanceof ConfigSigModelSubscriptionList) {
+                final ConfigSigModelSubscriptionList status = (ConfigSigModelSubscriptionList) message;
+                mMeshNetwork.updateGroupMembership(status.getElementAddress(), status.getModelIdentifier());
+                //Unknown groups may have been added to the network
+                mMeshNetwork.markDirty(NetworkChanges.GROUPS);
+            } else if (message instanceof ConfigVendorModelSubscriptionList) {
+                final ConfigVendorModelSubscriptionList status = (ConfigVendorModelSubscriptionList) message;
+                mMeshNetwork.updateGroupMembership(status.getElementAddress(), status.getModelIdentifier());
+                mMeshNetwork.markDirty(NetworkChanges.GROUPS);
+            } else if (message instanceof ConfigModelSubscriptionStatus) {
+                final ConfigModelSubscriptionStatus status = (ConfigModelSubscriptionStatus) message;
+                mMeshNetwork.updateGroupMembership(status.getElementAddress(), status.getModelIdentifier());
+            } else if (message instanceof ConfigModelPublicationStatus) {
+                final ConfigModelPublicationStatus status = (ConfigModelPublicationStatus) message;
+                mMeshNetwork.updateGroupMembership(status.getElementAddress(), status.getModelIdentifier());
+            }
+            //Nodes changed by the message have been marked by onNodeUpdated, the sequence number of the node is tracked by the
+            //replay protection list of the network
+            mNetworkWriteCoalescer.schedule(mMeshNetwork);
+            mMeshManagerCallbacks.onNetworkUpdated(mMeshNetwork);
+        }
+
+        @Override
+        public void onNodeUpdated(@NonNull final ProvisionedMeshNode meshNode) {
+            synchronized (mMeshNetwork) {
+                for (int i = 0; i < mMeshNetwork.nodes.size(); i++) {
+                    if (meshNode.getUnicastAddress() == mMeshNetwork.nodes.get(i).getUnicastAddress()) {
+                        if (mMeshNetwork.nodes.set(i, meshNode) != meshNode) {
+                            mMeshNetwork.invalidateNodeAddressIndex();
+                        }
+                        break;
+                    }
+                }
+            }
+            mMeshNetwork.markDirty(meshNode);
         }
 
         @Override
@@ -1009,31 +1337,28 @@ public class MeshManagerApi implements MeshMngrApi {
         @Override
         public void storeScene(final int address, final int currentScene, final List<Integer> scenes) {
             final Scene scene = mMeshNetwork.getScene(currentScene);
-            if (scene != null && !scene.getAddresses().contains(address)) {
-                scene.addresses.add(address);
+            if (scene != null && scene.addAddress(address)) {
+                mMeshNetwork.getGroupMembershipIndex().onSceneStored(scene, address);
+                mMeshNetwork.markDirty(NetworkChanges.SCENES);
             }
         }
 
         @Override
         public void deleteScene(final int address, final int currentScene, final List<Integer> scenes) {
             final Scene scene = mMeshNetwork.getScene(currentScene);
-            if (scene != null && scene.getAddresses().contains(address)) {
-                scene.addresses.remove((Integer) address);
+            if (scene != null && scene.removeAddress(address)) {
+                mMeshNetwork.getGroupMembershipIndex().onSceneDeleted(scene, address);
+                mMeshNetwork.markDirty(NetworkChanges.SCENES);
             }
         }
+    };
 
-        private void updateNetwork(final ProvisionedMeshNode meshNode) {
-            if (meshNode != null) {
-                for (int i = 0; i < mMeshNetwork.nodes.size(); i++) {
-                    if (meshNode.getUnicastAddress() == mMeshNetwork.nodes.get(i).getUnicastAddress()) {
-                        mMeshNetwork.nodes.set(i, meshNode);
-                        break;
-                    }
-                }
-            }
-            mMeshNetworkDb.update(mMeshNetwork, mMeshNetworkDao, mNetworkKeysDao, mApplicationKeysDao, mProvisionersDao, mProvisionedNodesDao,
-                    mGroupsDao, mScenesDao);
-            mMeshManagerCallbacks.onNetworkUpdated(mMeshNetwork);
+    @SuppressWarnings("FieldCanBeLocal")
+    private final NetworkWriteCoalescer.Writer networkWriter = new NetworkWriteCoalescer.Writer() {
+        @Override
+        public void write(@NonNull final MeshNetwork network, @NonNull final NetworkChanges changes) {
+            mMeshNetworkDb.update(network, changes, mMeshNetworkDao, mNetworkKeysDao, mApplicationKeysDao, mProvisionersDao,
+                    mProvisionedNodesDao, mGroupsDao, mScenesDao);
         }
     };
 
@@ -1044,8 +1369,8 @@ public class MeshManagerApi implements MeshMngrApi {
      */
     private void deleteSceneAddress(final int address) {
         for (Scene scene : mMeshNetwork.getScenes()) {
-            if (scene.addresses.remove((Integer) address)) {
-                Log.d(TAG, "Node removed from " + scene.getName());
+            if (scene.removeAddress(address)) {
+                MeshLogger.d(TAG, () -> "Node removed from " + scene.getName());
             }
         }
     }
@@ -1054,9 +1379,13 @@ public class MeshManagerApi implements MeshMngrApi {
     private final InternalMeshManagerCallbacks internalMeshMgrCallbacks = new InternalMeshManagerCallbacks() {
         @Override
         public void onNodeProvisioned(final ProvisionedMeshNode meshNode) {
-            updateProvisionedNodeList(meshNode);
-            mMeshNetwork.sequenceNumbers.put(meshNode.getUnicastAddress(), meshNode.getSequenceNumber());
-            mMeshNetwork.unicastAddress = mMeshNetwork.nextAvailableUnicastAddress(meshNode.getNumberOfElements(), mMeshNetwork.getSelectedProvisioner());
+            //Nodes provisioned in concurrent sessions are added to the network one at a time
+            synchronized (mMeshNetwork) {
+                updateProvisionedNodeList(meshNode);
+                mMeshNetwork.releaseUnicastAddress(meshNode.getUnicastAddress());
+                mMeshNetwork.sequenceNumbers.put(meshNode.getUnicastAddress(), meshNode.getSequenceNumber());
+                mMeshNetwork.unicastAddress = mMeshNetwork.nextAvailableUnicastAddress(meshNode.getNumberOfElements(), mMeshNetwork.getSelectedProvisioner());
+            }
             //Set the mesh network uuid to the node so we can identify nodes belonging to a network
             meshNode.setMeshUuid(mMeshNetwork.getMeshUUID());
             mMeshNetworkDb.insert(mProvisionedNodeDao, meshNode);
@@ -1074,6 +1403,7 @@ public class MeshManagerApi implements MeshMngrApi {
                 }
             }
             mMeshNetwork.nodes.add(meshNode);
+            mMeshNetwork.invalidateNodeAddressIndex();
         }
     };
 
@@ -1124,6 +1454,23 @@ public class MeshManagerApi implements MeshMngrApi {
             return ByteBuffer.allocate(4).putInt(ivIndex).array();
         }
 
+        @Override
+        public int getNextSequenceNumber(final int src) throws IllegalArgumentException {
+            final ProvisionedMeshNode node = mMeshNetwork.getNode(src);
+            //The provisioner may have been removed or its address changed while the message was queued
+            if (node == null)
+                throw new IllegalArgumentException("No node found for the source address " + MeshAddress.formatAddress(src, true));
+            final SequenceNumberAllocator allocator =
+                    mSequenceNumberStore.getAllocator(mMeshNetwork.getMeshUUID(), node.getUnicastAddress(), node.getSequenceNumber());
+            //The sequence number of the provisioner node may have been moved forward manually
+            if (node.getSequenceNumber() > allocator.getSequenceNumber()) {
+                allocator.reset(node.getSequenceNumber());
+            }
+            final int sequenceNumber = allocator.allocate();
+            node.setSequenceNumber(sequenceNumber);
+            return sequenceNumber;
+        }
+
         @Override
         public byte[] getApplicationKey(final int aid) {
             for (ApplicationKey key : mMeshNetwork.getAppKeys()) {
@@ -1170,6 +1517,7 @@ public class MeshManagerApi implements MeshMngrApi {
             }
             network.setCallbacks(callbacks);
             mMeshNetwork = network;
+            runOnTransportThread(() -> mReplayProtectionStore.attach(network));
             mMeshManagerCallbacks.onNetworkLoaded(network);
         }
 
@@ -1185,7 +1533,8 @@ public class MeshManagerApi implements MeshMngrApi {
         // This should be kept until the current iv index has incremented by 2 and delete it when
         // clearing the exclusion lists
         // mMeshNetwork.sequenceNumbers.delete(meshNode.getUnicastAddress());
-        mMeshMessageHandler.resetState(meshNode.getUnicastAddress());
+        //Nodes may be deleted by the application as well
+        runOnTransportThread(() -> mMeshMessageHandler.resetState(meshNode.getUnicastAddress()));
         mMeshNetworkDb.deleteNode(mProvisionedNodeDao, meshNode);
         mMeshNetwork.setTimestamp(System.currentTimeMillis());
         mMeshNetworkDb.update(mMeshNetworkDao, mMeshNetwork);
@@ -29,6 +29,7 @@ import no.nordicsemi.android.mesh.transport.BaseMeshMessageHandler;
 import no.nordicsemi.android.mesh.transport.NetworkLayerCallbacks;
 import no.nordicsemi.android.mesh.transport.UpperTransportLayerCallbacks;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
 
 /**
  * MeshMessageHandler class for handling mesh
@@ -50,6 +51,23 @@ final class MeshMessageHandler extends BaseMeshMessageHandler {
         super(context, internalTransportCallbacks, networkLayerCallbacks, upperTransportLayerCallbacks);
     }
 
+    /**
+     * Constructs MeshMessageHandler confined to a transport thread
+     *
+     * @param context                      Context
+     * @param timingWheel                  Timing wheel of the transport thread
+     * @param internalTransportCallbacks   {@link InternalTransportCallbacks} Callbacks
+     * @param networkLayerCallbacks        {@link NetworkLayerCallbacks} network layer callbacks
+     * @param upperTransportLayerCallbacks {@link UpperTransportLayerCallbacks} upper transport layer callbacks
+     */
+    MeshMessageHandler(@NonNull final Context context,
+                       @NonNull final TimingWheel timingWheel,
+                       @NonNull final InternalTransportCallbacks internalTransportCallbacks,
+                       @NonNull final NetworkLayerCallbacks networkLayerCallbacks,
+                       @NonNull final UpperTransportLayerCallbacks upperTransportLayerCallbacks) {
+        super(context, timingWheel, internalTransportCallbacks, networkLayerCallbacks, upperTransportLayerCallbacks);
+    }
+
     @Override
     protected final void setMeshStatusCallbacks(@NonNull final MeshStatusCallbacks statusCallbacks) {
         mStatusCallbacks = statusCallbacks;
@@ -2,12 +2,19 @@ package no.nordicsemi.android.mesh;
 
 import android.net.Uri;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.AccessMessageHandler;
 import no.nordicsemi.android.mesh.transport.MeshMessage;
+import no.nordicsemi.android.mesh.transport.MeshMessageFuture;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.InputOOBAction;
 import no.nordicsemi.android.mesh.utils.OutputOOBAction;
@@ -78,6 +85,23 @@ interface MeshMngrApi {
      */
     void identifyNode(@NonNull final UUID deviceUUID, final int attentionTimer) throws IllegalArgumentException;
 
+    /**
+     * Opens a provisioning session and identifies the node that is to be provisioned.
+     * <p>
+     * Unlike {@link #identifyNode(UUID, int)}, each session runs its own provisioning state machine so that several nodes may be
+     * provisioned concurrently, each over its own bearer. Provisioning pdus of the session are sent through
+     * {@link MeshManagerCallbacks#sendProvisioningPdu(UnprovisionedMeshNode, byte[])} for the node of the session, which identifies
+     * the bearer to send them on. The provisioning is continued and the pdus received are handled using the returned session.
+     * </p>
+     *
+     * @param deviceUUID     Device uuid of the unprovisioned mesh node.
+     * @param attentionTimer Attention timer in seconds
+     * @return {@link ProvisioningSession} that must be closed once the provisioning has completed or failed
+     * @throws IllegalArgumentException if the network has no primary network key or a session is already open for the node
+     */
+    @NonNull
+    ProvisioningSession openProvisioningSession(@NonNull final UUID deviceUUID, final int attentionTimer) throws IllegalArgumentException;
+
     /**
      * Starts provisioning an unprovisioned mesh node
      * <p>
@@ -176,6 +200,19 @@ interface MeshMngrApi {
      */
     boolean nodeIdentityMatches(@NonNull final ProvisionedMeshNode meshNode, @NonNull final byte[] serviceData);
 
+    /**
+     * Returns the node advertising with Node Identity.
+     * <p>
+     * The advertised hash is matched against every node of the network using each network key, recently resolved advertisements
+     * are cached so that repeated advertisements from the same proxy node are resolved without recalculating the hash.
+     * </p>
+     *
+     * @param serviceData advertised service data
+     * @return the node that generated the advertised hash or null if the advertisement does not belong to a node in the network
+     */
+    @Nullable
+    ProvisionedMeshNode resolveNodeIdentity(@Nullable final byte[] serviceData);
+
     /**
      * Checks if the node is advertising with Node Identity
      *
@@ -216,9 +253,71 @@ interface MeshMngrApi {
      *
      * @param dst         destination address
      * @param meshMessage {@link MeshMessage} Mesh message containing the message opcode and message parameters
+     * @throws IllegalArgumentException if the message can not be created, e.g. if the destination is invalid or a key is missing
      */
     void createMeshPdu(final int dst, @NonNull final MeshMessage meshMessage) throws IllegalArgumentException;
 
+    /**
+     * Queues a mesh message to be sent through the outbound scheduler.
+     * <p>
+     * Messages to the same destination are sent in order. Only one acknowledged message is kept in flight for each destination, as
+     * a status is interpreted against the last message sent to its destination, and a limited number in total, see
+     * {@link #setOutboundWindow(int)}. Unacknowledged messages to a unicast address wait for the acknowledged message in flight to
+     * the same destination for the same reason. A message is in flight until a status with the given
+     * opcode is received from the destination. If no status is received it is resent and finally times out, see
+     * {@link #setOutboundTimeout(long, int)}. This allows configuring many nodes in parallel without overrunning the proxy node.
+     * The status is still delivered to {@link MeshStatusCallbacks#onMeshMessageReceived(int, MeshMessage)}.
+     * </p>
+     *
+     * @param dst          Destination address of the message
+     * @param meshMessage  Mesh message to be sent
+     * @param statusOpCode Opcode of the status expected from the destination or {@link MeshMessageFuture#NO_STATUS} if the
+     *                     message is not acknowledged
+     * @return {@link MeshMessageFuture} completed when the status is received
+     * @throws IllegalArgumentException if the destination address is invalid or the provisioner address is not set
+     */
+    @NonNull
+    MeshMessageFuture enqueueMeshPdu(final int dst, @NonNull final MeshMessage meshMessage, final int statusOpCode) throws IllegalArgumentException;
+
+    /**
+     * Sets the number of acknowledged messages sent with {@link #enqueueMeshPdu(int, MeshMessage, int)} that may be in flight to all
+     * destinations, there is never more than one in flight to a single destination.
+     *
+     * @param maxInFlight Maximum number of messages in flight to all destinations, defaults to 4
+     * @throws IllegalArgumentException if the value is less than 1
+     */
+    void setOutboundWindow(final int maxInFlight) throws IllegalArgumentException;
+
+    /**
+     * Sets the time to wait for the status of a message sent with {@link #enqueueMeshPdu(int, MeshMessage, int)} and the number of
+     * times it is resent before timing out.
+     *
+     * @param timeout Time to wait for a status in milliseconds, defaults to 10 seconds
+     * @param retries Number of retries, defaults to 2
+     * @throws IllegalArgumentException if the timeout is not positive or retries is negative
+     */
+    void setOutboundTimeout(final long timeout, final int retries) throws IllegalArgumentException;
+
+    /**
+     * Registers a handler for access messages received with the given opcode.
+     * <p>
+     * Handlers can only be registered for opcodes that are not already handled by the library, i.e. vendor model opcodes.
+     * The status message returned by the handler is delivered to {@link MeshStatusCallbacks#onMeshMessageReceived(int, MeshMessage)}.
+     * </p>
+     *
+     * @param opCode  Opcode of the access message.
+     * @param handler {@link AccessMessageHandler} handler.
+     * @throws IllegalArgumentException if the opcode is already handled by the library.
+     */
+    void registerAccessMessageHandler(final int opCode, @NonNull final AccessMessageHandler handler) throws IllegalArgumentException;
+
+    /**
+     * Unregisters the handler registered for the given opcode.
+     *
+     * @param opCode Opcode of the access message.
+     */
+    void unregisterAccessMessageHandler(final int opCode);
+
     /**
      * Loads the mesh network from the local database.
      * <p>
@@ -236,6 +335,15 @@ interface MeshMngrApi {
     @Nullable
     MeshNetwork getMeshNetwork();
 
+    /**
+     * Writes the pending changes of the mesh network to the local database immediately.
+     * <p>
+     * Changes made by received messages are written in batches after a short delay. Call this when the application is stopped or
+     * before it is closed so that the latest changes are not lost if the process is killed.
+     * </p>
+     */
+    void flushMeshNetwork();
+
 
     /**
      * Returns the current IV Test mode.
@@ -294,6 +402,65 @@ interface MeshMngrApi {
                              @NonNull final GroupsConfig groupsConfig,
                              @NonNull final ScenesConfig scenesConfig);
 
+    /**
+     * Exports full mesh network as json to a writer. The network is written as it is serialized without holding the whole
+     * document in memory. The writer is flushed but not closed.
+     *
+     * @param writer Writer the json is written to.
+     * @throws IOException if the network could not be written.
+     */
+    void exportMeshNetwork(@NonNull final Writer writer) throws IOException;
+
+    /**
+     * Exports full mesh network as UTF-8 encoded json to an output stream. The stream is flushed but not closed.
+     *
+     * @param outputStream Output stream the json is written to.
+     * @throws IOException if the network could not be written.
+     */
+    void exportMeshNetwork(@NonNull final OutputStream outputStream) throws IOException;
+
+    /**
+     * Exports a partial mesh network as json to a writer with the provided export configuration. The writer is flushed but not
+     * closed.
+     *
+     * @param writer                Writer the json is written to.
+     * @param networkKeysConfig     Export configuration for Network Keys.
+     * @param applicationKeysConfig Export configuration for Application Keys.
+     * @param nodesConfig           Export configuration for Nodes.
+     * @param provisionersConfig    Export configuration for Provisioners.
+     * @param groupsConfig          Export configuration for Groups.
+     * @param scenesConfig          Export configuration for scenes.
+     * @throws IOException if the network could not be written.
+     */
+    void exportMeshNetwork(@NonNull final Writer writer,
+                           @NonNull final NetworkKeysConfig networkKeysConfig,
+                           @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                           @NonNull final NodesConfig nodesConfig,
+                           @NonNull final ProvisionersConfig provisionersConfig,
+                           @NonNull final GroupsConfig groupsConfig,
+                           @NonNull final ScenesConfig scenesConfig) throws IOException;
+
+    /**
+     * Exports a partial mesh network as UTF-8 encoded json to an output stream with the provided export configuration. The stream
+     * is flushed but not closed.
+     *
+     * @param outputStream          Output stream the json is written to.
+     * @param networkKeysConfig     Export configuration for Network Keys.
+     * @param applicationKeysConfig Export configuration for Application Keys.
+     * @param nodesConfig           Export configuration for Nodes.
+     * @param provisionersConfig    Export configuration for Provisioners.
+     * @param groupsConfig          Export configuration for Groups.
+     * @param scenesConfig          Export configuration for scenes.
+     * @throws IOException if the network could not be written.
+     */
+    void exportMeshNetwork(@NonNull final OutputStream outputStream,
+                           @NonNull final NetworkKeysConfig networkKeysConfig,
+                           @NonNull final ApplicationKeysConfig applicationKeysConfig,
+                           @NonNull final NodesConfig nodesConfig,
+                           @NonNull final ProvisionersConfig provisionersConfig,
+                           @NonNull final GroupsConfig groupsConfig,
+                           @NonNull final ScenesConfig scenesConfig) throws IOException;
+
     /**
      * Starts an asynchronous task that imports a network from the mesh configuration db json
      *
@@ -308,6 +475,21 @@ interface MeshMngrApi {
      */
     void importMeshNetworkJson(@NonNull final String networkJson);
 
+    /**
+     * Imports a network from a reader of the mesh configuration db json. Nodes are parsed as they are read without holding the
+     * whole document in memory. The reader is not closed.
+     *
+     * @param reader Reader of the configuration database json.
+     */
+    void importMeshNetwork(@NonNull final Reader reader);
+
+    /**
+     * Imports a network from an input stream of the UTF-8 encoded mesh configuration db json. The stream is not closed.
+     *
+     * @param inputStream Input stream of the configuration database json.
+     */
+    void importMeshNetwork(@NonNull final InputStream inputStream);
+
     /**
      * Generates a random virtual address
      */
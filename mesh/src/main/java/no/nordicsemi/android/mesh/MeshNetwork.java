@@ -3,8 +3,11 @@ package no.nordicsemi.android.mesh;
 
 import android.text.TextUtils;
 
+import com.google.gson.annotations.Expose;
+
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -13,15 +16,27 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
+import no.nordicsemi.android.mesh.transport.CompositionDataTemplate;
 import no.nordicsemi.android.mesh.transport.Element;
 import no.nordicsemi.android.mesh.transport.MeshModel;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.transport.ReplayProtectionList;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
 
 @SuppressWarnings({"WeakerAccess", "UnusedReturnValue"})
 @Entity(tableName = "mesh_network")
 public final class MeshNetwork extends BaseMeshNetwork {
 
+    //Unicast addresses reserved for nodes being provisioned, keyed by the address with the number of elements as the value
+    @Ignore
+    @Expose(serialize = false, deserialize = false)
+    private Map<Integer, Integer> reservedUnicastAddresses;
+    //Persisted separately from the network by the ReplayProtectionStore
+    @Ignore
+    @Expose(serialize = false, deserialize = false)
+    private ReplayProtectionList replayProtectionList;
+
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     public MeshNetwork(final String meshUUID) {
         super(meshUUID);
@@ -31,6 +46,18 @@ public final class MeshNetwork extends BaseMeshNetwork {
         this.mCallbacks = mCallbacks;
     }
 
+    /**
+     * Returns the replay protection list holding the IV Index and sequence number of the last pdu received from each source address.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    @NonNull
+    public synchronized ReplayProtectionList getReplayProtectionList() {
+        if (replayProtectionList == null) {
+            replayProtectionList = new ReplayProtectionList();
+        }
+        return replayProtectionList;
+    }
+
     /**
      * Returns true if the configuration contains full information about the mesh network, or false otherwise
      *
@@ -138,52 +165,16 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @return Allocated unicast address or -1 if none
      * @throws IllegalArgumentException if there is no allocated unicast range to the provisioner
      */
-    public int nextAvailableUnicastAddress(final int elementCount, @NonNull final Provisioner provisioner) throws IllegalArgumentException {
+    public synchronized int nextAvailableUnicastAddress(final int elementCount, @NonNull final Provisioner provisioner) throws IllegalArgumentException {
         if (provisioner.getAllocatedUnicastRanges().isEmpty()) {
             throw new IllegalArgumentException("Please allocate a unicast address range to the provisioner");
         }
 
-        // Populate all addresses that are currently in use
-        final ArrayList<Integer> usedAddresses = new ArrayList<>();
-        for (ProvisionedMeshNode node : nodes) {
-            usedAddresses.addAll(node.getElements().keySet());
-        }
-        // Excluded addresses with the current IvIndex and current IvIndex - 1 must be considered as addresses in use.
-        if (networkExclusions.get(ivIndex.getIvIndex()) != null)
-            usedAddresses.addAll(networkExclusions.get(ivIndex.getIvIndex()));
-        if (networkExclusions.get(ivIndex.getIvIndex() - 1) != null)
-            usedAddresses.addAll(networkExclusions.get(ivIndex.getIvIndex() - 1));
-
-        Collections.sort(usedAddresses);
-        // Iterate through all nodes just once, while iterating over ranges.
-        int index = 0;
+        final UnicastAddressSpace addressSpace = getUnicastAddressSpace();
+        addressSpace.validate(nodes, networkExclusions, ivIndex.getIvIndex(), reservedUnicastAddresses);
         for (AllocatedUnicastRange range : provisioner.getAllocatedUnicastRanges()) {
-            // Start from the beginning of the current range.
-            int address = range.getLowAddress();
-
-            // Iterate through nodes that weren't checked yet in essence the used addresses which include the excluded adresses
-            for (int usedAddress : usedAddresses) {
-
-                // Skip nodes with addresses below the range.
-                if (address > usedAddress) {
-                    continue;
-                }
-
-                // If we found a space before the current node, return the address.
-                if (usedAddress > (address + (elementCount - 1))) {
-                    return address;
-                }
-
-                // Else, move the address to the next available address.
-                address = usedAddress + 1;
-
-                // If the new address is outside of the range, go to the next one.
-                if (range.highAddress < address + (elementCount - 1)) {
-                    break;
-                }
-            }
-
-            if (range.getHighAddress() >= address + (elementCount - 1)) {
+            final int address = addressSpace.firstFit(range.getLowAddress(), range.getHighAddress(), elementCount);
+            if (address != -1) {
                 return address;
             }
         }
@@ -192,6 +183,51 @@ public final class MeshNetwork extends BaseMeshNetwork {
         return -1;
     }
 
+    /**
+     * Reserves the next unicast address for a node that is being provisioned.
+     * <p>
+     * The reserved addresses are not returned by {@link #nextAvailableUnicastAddress(int, Provisioner)} until they are released,
+     * so nodes that are provisioned concurrently are never assigned overlapping addresses.
+     * </p>
+     *
+     * @param elementCount Element count
+     * @param provisioner  provisioner
+     * @return Reserved unicast address or -1 if none
+     * @throws IllegalArgumentException if there is no allocated unicast range to the provisioner
+     */
+    synchronized int reserveUnicastAddress(final int elementCount, @NonNull final Provisioner provisioner) throws IllegalArgumentException {
+        final int address = nextAvailableUnicastAddress(elementCount, provisioner);
+        if (address != -1) {
+            if (reservedUnicastAddresses == null) {
+                reservedUnicastAddresses = new HashMap<>();
+            }
+            reservedUnicastAddresses.put(address, elementCount);
+            getUnicastAddressSpace().markUsed(address, elementCount);
+        }
+        return address;
+    }
+
+    /**
+     * Releases the unicast addresses reserved by {@link #reserveUnicastAddress(int, Provisioner)}, once the node has been added to
+     * the network or its provisioning has been abandoned.
+     *
+     * @param address Reserved unicast address
+     */
+    synchronized void releaseUnicastAddress(final int address) {
+        if (reservedUnicastAddresses != null) {
+            final Integer elementCount = reservedUnicastAddresses.remove(address);
+            if (elementCount != null) {
+                // The reserved addresses are still in use if the node has been added to the network
+                final UnicastAddressSpace addressSpace = getUnicastAddressSpace();
+                for (int i = 0; i < elementCount; i++) {
+                    if (getNode(address + i) == null) {
+                        addressSpace.markFree(address + i);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Returns the next unicast address for a provisioner based on the allocated range and the number of elements
      *
@@ -507,11 +543,14 @@ public final class MeshNetwork extends BaseMeshNetwork {
     }
 
     /**
-     * Removes a group from the mesh network
+     * Removes a group from the mesh network. A group that is in use is not removed, see {@link #isGroupInUse(Group)}.
      *
      * @param group group to be removed
+     * @return true if the group was removed or false if it does not exist or is in use
      */
     public boolean removeGroup(@NonNull final Group group) {
+        if (isGroupInUse(group))
+            return false;
         if (groups.remove(group)) {
             notifyGroupDeleted(group);
             return true;
@@ -687,6 +726,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
     private boolean insertScene(@NonNull final Scene scene) {
         if (!isSceneExist(scene)) {
             this.scenes.add(scene);
+            getGroupMembershipIndex().onSceneAdded(scene);
             notifySceneAdded(scene);
             return true;
         }
@@ -713,6 +753,8 @@ public final class MeshNetwork extends BaseMeshNetwork {
      */
     public boolean updateScene(@NonNull final Scene scene) {
         if (isSceneExist(scene)) {
+            //The addresses of the scene may have been set by the application
+            getGroupMembershipIndex().invalidateScenes();
             notifySceneUpdated(scene);
             return true;
         }
@@ -729,6 +771,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
         if (!scene.addresses.isEmpty())
             throw new IllegalArgumentException("Scene is already in use!");
         if (scenes.remove(scene)) {
+            getGroupMembershipIndex().onSceneRemoved(scene);
             notifySceneDeleted(scene);
             return true;
         }
@@ -772,16 +815,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
         if (!MeshAddress.isValidUnicastAddress(address)) {
             throw new IllegalArgumentException("Invalid address, address must be a unicast address");
         }
-        final ArrayList<Scene> scenesList = new ArrayList<>();
-        for (Scene scene : scenes) {
-            for (Integer addr : scene.getAddresses()) {
-                if (addr == address) {
-                    scenesList.add(scene);
-                    break;
-                }
-            }
-        }
-        return scenesList;
+        return getGroupMembershipIndex().getScenes(scenes, address);
     }
 
     /**
@@ -790,25 +824,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @param group group
      */
     public List<Element> getElements(final Group group) {
-        final List<Element> elements = new ArrayList<>();
-        for (final ProvisionedMeshNode node : nodes) {
-            for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
-                final Element element = elementEntry.getValue();
-                for (Map.Entry<Integer, MeshModel> modelEntry : element.getMeshModels().entrySet()) {
-                    final MeshModel model = modelEntry.getValue();
-                    if (model != null) {
-                        final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
-                        for (Integer subscriptionAddress : subscriptionAddresses) {
-                            if (group.getAddress() == subscriptionAddress) {
-                                if (!elements.contains(element))
-                                    elements.add(element);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return elements;
+        return getGroupMembershipIndex().getElements(nodes, group.getAddress());
     }
 
     /**
@@ -817,25 +833,75 @@ public final class MeshNetwork extends BaseMeshNetwork {
      * @param group group
      */
     public List<MeshModel> getModels(final Group group) {
-        final List<MeshModel> models = new ArrayList<>();
-        for (final ProvisionedMeshNode node : nodes) {
-            for (Map.Entry<Integer, Element> elementEntry : node.getElements().entrySet()) {
-                final Element element = elementEntry.getValue();
-                for (Map.Entry<Integer, MeshModel> modelEntry : element.getMeshModels().entrySet()) {
-                    final MeshModel model = modelEntry.getValue();
-                    if (model != null) {
-                        final List<Integer> subscriptionAddresses = model.getSubscribedAddresses();
-                        for (Integer subscriptionAddress : subscriptionAddresses) {
-                            if (group.getAddress() == subscriptionAddress) {
-                                if (!models.contains(model))
-                                    models.add(model);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return models;
+        return getGroupMembershipIndex().getModels(nodes, group.getAddress());
+    }
+
+    /**
+     * Returns true if any model in the network subscribes or publishes to a particular group
+     *
+     * @param group group
+     */
+    public boolean isGroupInUse(@NonNull final Group group) {
+        return getGroupMembershipIndex().isInUse(nodes, group.getAddress());
+    }
+
+    /**
+     * Returns the composition data template of nodes running the firmware with the given identifiers.
+     * <p>
+     * Templates are learned from the composition data received from nodes. A node that is provisioned again, or a node of a product
+     * whose composition data has already been received, may be given its elements with
+     * {@link #setCompositionData(ProvisionedMeshNode, CompositionDataTemplate)} instead of sending a Config Composition Data Get.
+     * </p>
+     *
+     * @param companyIdentifier Company identifier
+     * @param productIdentifier Product identifier
+     * @param versionIdentifier Version identifier
+     * @return the template or null if no node running the firmware is known
+     */
+    @Nullable
+    public CompositionDataTemplate getCompositionDataTemplate(final int companyIdentifier,
+                                                              final int productIdentifier,
+                                                              final int versionIdentifier) {
+        return CompositionDataTemplate.find(companyIdentifier, productIdentifier, versionIdentifier);
+    }
+
+    /**
+     * Sets the composition data of a node from a template, which creates the elements and models of the node.
+     *
+     * @param node     Node that has not received its composition data
+     * @param template Composition data template of the firmware running on the node
+     * @return true if the composition data was set or false if the node is not in the network or already has its elements
+     * @throws IllegalArgumentException if the identifiers of the node do not match the template or the elements of the template
+     *                                  would use the unicast addresses of another node
+     */
+    public boolean setCompositionData(@NonNull final ProvisionedMeshNode node,
+                                      @NonNull final CompositionDataTemplate template) throws IllegalArgumentException {
+        final ProvisionedMeshNode meshNode = getNode(node.getUuid());
+        if (meshNode == null || !meshNode.getElements().isEmpty())
+            return false;
+        if (!matchesIdentifier(meshNode.getCompanyIdentifier(), template.getCompanyIdentifier()) ||
+                !matchesIdentifier(meshNode.getProductIdentifier(), template.getProductIdentifier()) ||
+                !matchesIdentifier(meshNode.getVersionIdentifier(), template.getVersionIdentifier()))
+            throw new IllegalArgumentException("Composition data template does not match the firmware of the node");
+        // The addresses assigned to the node when it was provisioned must cover all elements of the template
+        final int unicastAddress = meshNode.getUnicastAddress();
+        final int lastAddress = unicastAddress + template.getElementCount() - 1;
+        if (!MeshAddress.isValidUnicastAddress(lastAddress))
+            throw new IllegalArgumentException("Elements of the composition data template exceed the unicast address range");
+        for (int address = unicastAddress + 1; address <= lastAddress; address++) {
+            final ProvisionedMeshNode other = getNode(address);
+            if (other != null && other != meshNode)
+                throw new IllegalArgumentException("Elements of the composition data template overlap with node 0x" +
+                        Integer.toHexString(other.getUnicastAddress()));
+        }
+        meshNode.setCompositionData(template);
+        invalidateNodeAddressIndex();
+        notifyNodeUpdated(meshNode);
+        return true;
+    }
+
+    private static boolean matchesIdentifier(@Nullable final Integer identifier, final int templateIdentifier) {
+        return identifier == null || identifier == templateIdentifier;
     }
 
     /**
@@ -847,6 +913,7 @@ public final class MeshNetwork extends BaseMeshNetwork {
 
     void setScenes(List<Scene> scenes) {
         this.scenes = scenes;
+        getGroupMembershipIndex().invalidateScenes();
     }
 
     public boolean isLastSelected() {
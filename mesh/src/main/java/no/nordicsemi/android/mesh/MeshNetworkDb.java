@@ -4,7 +4,6 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
-import android.util.Log;
 import android.util.SparseIntArray;
 
 import java.util.ArrayList;
@@ -40,6 +39,8 @@ import no.nordicsemi.android.mesh.data.SceneDao;
 import no.nordicsemi.android.mesh.data.ScenesDao;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 @RestrictTo(RestrictTo.Scope.LIBRARY)
@@ -174,7 +175,7 @@ abstract class MeshNetworkDb extends RoomDatabase {
             if (meshNetwork != null) {
                 meshNetwork.netKeys = netKeysDao.loadNetworkKeys(meshNetwork.getMeshUUID());
                 meshNetwork.appKeys = appKeysDao.loadApplicationKeys(meshNetwork.getMeshUUID());
-                meshNetwork.nodes = nodesDao.getNodes(meshNetwork.getMeshUUID());
+                meshNetwork.setNodes(nodesDao.getNodes(meshNetwork.getMeshUUID()));
                 meshNetwork.provisioners = provisionersDao.getProvisioners(meshNetwork.getMeshUUID());
                 meshNetwork.groups = groupsDao.loadGroups(meshNetwork.getMeshUUID());
                 meshNetwork.scenes = scenesDao.loadScenes(meshNetwork.getMeshUUID());
@@ -228,6 +229,71 @@ abstract class MeshNetworkDb extends RoomDatabase {
         });
     }
 
+    /**
+     * Writes only the changed entities of a network in a single transaction.
+     *
+     * @param network     Mesh network
+     * @param changes     Changes to be written
+     */
+    void update(@NonNull final MeshNetwork network,
+                @NonNull final NetworkChanges changes,
+                @NonNull final MeshNetworkDao networkDao,
+                @NonNull final NetworkKeysDao netKeyDao,
+                @NonNull final ApplicationKeysDao appKeyDao,
+                @NonNull final ProvisionersDao provisionersDao,
+                @NonNull final ProvisionedMeshNodesDao nodesDao,
+                @NonNull final GroupsDao groupsDao,
+                @NonNull final ScenesDao sceneDao) {
+        //Take a snapshot of the changed entities on the calling thread, they will be serialized on the executor
+        final int entities = changes.getEntities();
+        final List<NetworkKey> netKeys = (entities & NetworkChanges.NET_KEYS) != 0 ? new ArrayList<>(network.getNetKeys()) : null;
+        final List<ApplicationKey> appKeys = (entities & NetworkChanges.APP_KEYS) != 0 ? new ArrayList<>(network.getAppKeys()) : null;
+        final List<Provisioner> provisioners = (entities & NetworkChanges.PROVISIONERS) != 0 ? new ArrayList<>(network.getProvisioners()) : null;
+        final List<Group> groups = (entities & NetworkChanges.GROUPS) != 0 ? new ArrayList<>(network.getGroups()) : null;
+        final List<Scene> scenes = (entities & NetworkChanges.SCENES) != 0 ? new ArrayList<>(network.getScenes()) : null;
+        final List<ProvisionedMeshNode> nodes = (entities & NetworkChanges.ALL_NODES) != 0 ? new ArrayList<>(network.getNodes()) : changes.getNodes();
+        databaseWriteExecutor.execute(() -> {
+            final long startTime = System.nanoTime();
+            final int rows = runInTransaction(() -> {
+                int count = 0;
+                if ((entities & NetworkChanges.NETWORK) != 0) {
+                    networkDao.update(network.meshUUID, network.meshName, network.timestamp,
+                            network.partial, MeshTypeConverters.ivIndexToJson(network.ivIndex),
+                            network.lastSelected,
+                            MeshTypeConverters.networkExclusionsToJson(network.networkExclusions));
+                    count++;
+                }
+                if (netKeys != null) {
+                    netKeyDao.update(netKeys);
+                    count += netKeys.size();
+                }
+                if (appKeys != null) {
+                    appKeyDao.update(appKeys);
+                    count += appKeys.size();
+                }
+                if (provisioners != null) {
+                    provisionersDao.update(provisioners);
+                    count += provisioners.size();
+                }
+                if (!nodes.isEmpty()) {
+                    nodesDao.update(nodes);
+                    count += nodes.size();
+                }
+                if (groups != null) {
+                    groupsDao.update(groups);
+                    count += groups.size();
+                }
+                if (scenes != null) {
+                    sceneDao.update(scenes);
+                    count += scenes.size();
+                }
+                return count;
+            });
+            MeshMetrics.onNetworkFlushed(rows, startTime);
+            MeshLogger.v(TAG, () -> "Flushed " + rows + " rows");
+        });
+    }
+
     void delete(@NonNull final MeshNetworkDao dao, @NonNull final MeshNetwork meshNetwork) {
         databaseWriteExecutor.execute(() -> dao.delete(meshNetwork));
     }
@@ -883,7 +949,7 @@ abstract class MeshNetworkDb extends RoomDatabase {
                     values.put("appKeys", MeshTypeConverters.nodeKeysToJson(appKeyIndexes));
                     database.update("nodes", SQLiteDatabase.CONFLICT_REPLACE, values, "uuid = ?", new String[]{uuid});
                 } catch (Exception ex) {
-                    Log.v(TAG, "Something went wrong while migrating data");
+                    MeshLogger.v(TAG, "Something went wrong while migrating data");
                 }
             } while (cursor.moveToNext());
             cursor.close();
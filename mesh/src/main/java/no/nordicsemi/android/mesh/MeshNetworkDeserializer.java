@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh;
 
-import android.util.Log;
-
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -19,12 +17,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import no.nordicsemi.android.mesh.transport.Element;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static no.nordicsemi.android.mesh.utils.MeshParserUtils.formatTimeStamp;
 import static no.nordicsemi.android.mesh.utils.MeshParserUtils.formatUuid;
@@ -40,8 +41,20 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
     public MeshNetwork deserialize(final JsonElement json,
                                    final Type typeOfT,
                                    final JsonDeserializationContext context) throws JsonParseException {
+        return deserializeNetwork(json.getAsJsonObject(), null, context);
+    }
 
-        final JsonObject jsonObject = json.getAsJsonObject();
+    /**
+     * De-serializes the mesh network from its json object.
+     *
+     * @param jsonObject Json object of the network
+     * @param nodes      Nodes that have already been de-serialized while streaming the json, in which case the nodes in the json
+     *                   object are ignored, or null to de-serialize the nodes from the json object.
+     * @param context    Deserializer context
+     */
+    MeshNetwork deserializeNetwork(@NonNull final JsonObject jsonObject,
+                            @Nullable final List<ProvisionedMeshNode> nodes,
+                            @NonNull final JsonDeserializationContext context) throws JsonParseException {
         if (!isValidMeshObject(jsonObject)) {
             throw new JsonSyntaxException("Invalid Mesh Provisioning/Configuration Database, " +
                     "Mesh Network must follow the Mesh Provisioning/Configuration Database format.");
@@ -85,8 +98,15 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
         network.provisioners = deserializeProvisioners(context,
                 jsonObject.getAsJsonArray("provisioners"), network.meshUUID);
 
-        network.nodes = deserializeNodes(context,
-                jsonObject.getAsJsonArray("nodes"), network.meshUUID);
+        if (nodes == null) {
+            network.setNodes(deserializeNodes(context,
+                    jsonObject.getAsJsonArray("nodes"), network.meshUUID));
+        } else {
+            for (ProvisionedMeshNode node : nodes) {
+                node.setMeshUuid(network.meshUUID);
+            }
+            network.setNodes(nodes);
+        }
 
         network.groups = deserializeGroups(jsonObject, network.meshUUID);
 
@@ -103,6 +123,24 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
     public JsonElement serialize(final MeshNetwork network,
                                  final Type typeOfSrc,
                                  final JsonSerializationContext context) {
+        final JsonObject jsonObject = serializeHeader(network, network.partial);
+        jsonObject.add("netKeys", serializeNetKeys(context, network.getNetKeys()));
+        jsonObject.add("appKeys", serializeAppKeys(context, network.getAppKeys()));
+        jsonObject.add("provisioners", serializeProvisioners(context, network.getProvisioners()));
+        jsonObject.add("nodes", serializeNodes(context, network.getNodes()));
+        jsonObject.add("groups", serializeGroups(network.getGroups()));
+        jsonObject.add("scenes", serializeScenes(network.getScenes()));
+        jsonObject.add("networkExclusions", serializeExclusionList(network.getNetworkExclusions()));
+        return jsonObject;
+    }
+
+    /**
+     * Returns a json object containing the members of the network that precede the keys, provisioners and nodes.
+     *
+     * @param network Mesh network
+     * @param partial True if the network is serialized as partial
+     */
+    JsonObject serializeHeader(@NonNull final MeshNetwork network, final boolean partial) {
         final String meshUuid = network.getMeshUUID().toUpperCase(Locale.US)/*MeshParserUtils.uuidToHex(network.getMeshUUID())*/;
         final JsonObject jsonObject = new JsonObject();
         jsonObject.addProperty("$schema", network.getSchema());
@@ -111,14 +149,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
         jsonObject.addProperty("meshUUID", meshUuid);
         jsonObject.addProperty("meshName", network.getMeshName());
         jsonObject.addProperty("timestamp", formatTimeStamp(network.getTimestamp()));
-        jsonObject.addProperty("partial", network.partial);
-        jsonObject.add("netKeys", serializeNetKeys(context, network.getNetKeys()));
-        jsonObject.add("appKeys", serializeAppKeys(context, network.getAppKeys()));
-        jsonObject.add("provisioners", serializeProvisioners(context, network.getProvisioners()));
-        jsonObject.add("nodes", serializeNodes(context, network.getNodes()));
-        jsonObject.add("groups", serializeGroups(network.getGroups()));
-        jsonObject.add("scenes", serializeScenes(network.getScenes()));
-        jsonObject.add("networkExclusions", serializeExclusionList(network.getNetworkExclusions()));
+        jsonObject.addProperty("partial", partial);
         return jsonObject;
     }
 
@@ -152,7 +183,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param networkKeys Network key list
      * @return JsonElement
      */
-    private JsonElement serializeNetKeys(@NonNull final JsonSerializationContext context,
+    JsonElement serializeNetKeys(@NonNull final JsonSerializationContext context,
                                          @NonNull final List<NetworkKey> networkKeys) {
         final Type networkKey = new TypeToken<List<NetworkKey>>() {
         }.getType();
@@ -186,7 +217,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param applicationKeys Application key list
      * @return JsonElement
      */
-    private JsonElement serializeAppKeys(@NonNull final JsonSerializationContext context,
+    JsonElement serializeAppKeys(@NonNull final JsonSerializationContext context,
                                          @NonNull final List<ApplicationKey> applicationKeys) {
         final Type networkKey = new TypeToken<List<ApplicationKey>>() {
         }.getType();
@@ -267,7 +298,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param provisioners Provisioners list
      * @return JsonElement
      */
-    private JsonElement serializeProvisioners(@NonNull final JsonSerializationContext context,
+    JsonElement serializeProvisioners(@NonNull final JsonSerializationContext context,
                                               @NonNull final List<Provisioner> provisioners) {
         final JsonArray jsonArray = new JsonArray();
         for (Provisioner provisioner : provisioners) {
@@ -405,25 +436,35 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @return JsonElement
      */
     private JsonElement serializeGroups(@NonNull final List<Group> groups) {
-        JsonArray groupsArray = new JsonArray();
+        final JsonArray groupsArray = new JsonArray();
         for (Group group : groups) {
-            JsonObject groupObj = new JsonObject();
-            groupObj.addProperty("name", group.getName());
-            if (group.getAddressLabel() == null) {
-                groupObj.addProperty("address", MeshAddress.formatAddress(group.getAddress(), false));
-            } else {
-                groupObj.addProperty("address", uuidToHex(group.getAddressLabel()));
-            }
-            if (group.getParentAddressLabel() == null) {
-                groupObj.addProperty("parentAddress", MeshAddress.formatAddress(group.getParentAddress(), false));
-            } else {
-                groupObj.addProperty("parentAddress", uuidToHex(group.getParentAddressLabel()));
-            }
-            groupsArray.add(groupObj);
+            groupsArray.add(serializeGroup(group));
         }
         return groupsArray;
     }
 
+    /**
+     * Returns serialized json object of a group
+     *
+     * @param group Group
+     * @return JsonObject
+     */
+    JsonObject serializeGroup(@NonNull final Group group) {
+        final JsonObject groupObj = new JsonObject();
+        groupObj.addProperty("name", group.getName());
+        if (group.getAddressLabel() == null) {
+            groupObj.addProperty("address", MeshAddress.formatAddress(group.getAddress(), false));
+        } else {
+            groupObj.addProperty("address", uuidToHex(group.getAddressLabel()));
+        }
+        if (group.getParentAddressLabel() == null) {
+            groupObj.addProperty("parentAddress", MeshAddress.formatAddress(group.getParentAddress(), false));
+        } else {
+            groupObj.addProperty("parentAddress", uuidToHex(group.getParentAddressLabel()));
+        }
+        return groupObj;
+    }
+
     /**
      * Returns a list of groups de-serializing the json array containing the groups
      *
@@ -458,7 +499,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
                 group.setName(name);
                 groups.add(group);
             } catch (Exception ex) {
-                Log.e(TAG, "Error while de-serializing groups: " + ex.getMessage());
+                MeshLogger.e(TAG, () -> "Error while de-serializing groups: " + ex.getMessage());
             }
         }
         return groups;
@@ -473,17 +514,30 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
     private JsonElement serializeScenes(@NonNull final List<Scene> scenes) {
         final JsonArray scenesArray = new JsonArray();
         for (Scene scene : scenes) {
-            JsonObject sceneObj = new JsonObject();
-            sceneObj.addProperty("name", scene.getName());
-            final JsonArray array = new JsonArray();
-            for (Integer address : scene.getAddresses()) {
+            scenesArray.add(serializeScene(scene, null));
+        }
+        return scenesArray;
+    }
+
+    /**
+     * Returns serialized json object of a scene
+     *
+     * @param scene     Scene
+     * @param addresses Addresses of the nodes exported with the scene or null to export all addresses of the scene
+     * @return JsonObject
+     */
+    JsonObject serializeScene(@NonNull final Scene scene, @Nullable final Set<Integer> addresses) {
+        final JsonObject sceneObj = new JsonObject();
+        sceneObj.addProperty("name", scene.getName());
+        final JsonArray array = new JsonArray();
+        for (Integer address : scene.getAddresses()) {
+            if (addresses == null || addresses.contains(address)) {
                 array.add(MeshAddress.formatAddress(address, false));
             }
-            sceneObj.add("addresses", array);
-            sceneObj.addProperty("number", String.format(Locale.US, "%04X", scene.getNumber()));
-            scenesArray.add(sceneObj);
         }
-        return scenesArray;
+        sceneObj.add("addresses", array);
+        sceneObj.addProperty("number", String.format(Locale.US, "%04X", scene.getNumber()));
+        return sceneObj;
     }
 
     /**
@@ -522,7 +576,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
                 scenes.add(scene);
             }
         } catch (Exception ex) {
-            Log.e(TAG, "Error while de-serializing scenes: " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Error while de-serializing scenes: " + ex.getMessage());
         }
         return scenes;
     }
@@ -533,7 +587,7 @@ public final class MeshNetworkDeserializer implements JsonSerializer<MeshNetwork
      * @param networkExclusions exclusion list
      * @return JsonElement
      */
-    private JsonElement serializeExclusionList(@NonNull final Map<Integer, ArrayList<Integer>> networkExclusions) {
+    JsonElement serializeExclusionList(@NonNull final Map<Integer, ArrayList<Integer>> networkExclusions) {
         final JsonArray exclusionList = new JsonArray();
         JsonObject exclusion;
         JsonArray array;
@@ -23,7 +23,6 @@
 package no.nordicsemi.android.mesh;
 
 import android.content.Context;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.util.UUID;
@@ -46,6 +45,7 @@ import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
 import no.nordicsemi.android.mesh.transport.MeshModel;
 import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
 import no.nordicsemi.android.mesh.utils.InputOOBAction;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.OutputOOBAction;
 import no.nordicsemi.android.mesh.utils.StaticOOBType;
@@ -156,7 +156,7 @@ class MeshProvisioningHandler implements InternalProvisioningCallbacks {
 
             }
         } catch (Exception ex) {
-            Log.e(TAG, "Exception in " + provisioningState.getState().name() + " : " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Exception in " + provisioningState.getState().name() + " : " + ex.getMessage());
             parseProvisioningState(unprovisionedMeshNode, data);
         }
     }
@@ -0,0 +1,94 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+/**
+ * Tracks the entities of a mesh network that have changed since they were last written to the database.
+ * <p>
+ * Network wide entities such as keys, provisioners, groups and scenes are tracked as a whole while nodes are tracked individually,
+ * so that a status message received from a single node only rewrites the row of that node.
+ * </p>
+ */
+final class NetworkChanges {
+
+    static final int NETWORK = 1;
+    static final int NET_KEYS = 1 << 1;
+    static final int APP_KEYS = 1 << 2;
+    static final int PROVISIONERS = 1 << 3;
+    static final int GROUPS = 1 << 4;
+    static final int SCENES = 1 << 5;
+    static final int ALL_NODES = 1 << 6;
+    static final int ALL = NETWORK | NET_KEYS | APP_KEYS | PROVISIONERS | GROUPS | SCENES | ALL_NODES;
+
+    private int entities;
+    private final Set<ProvisionedMeshNode> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Marks network wide entities as changed.
+     *
+     * @param entities Bit mask of the changed entities.
+     */
+    void markDirty(final int entities) {
+        this.entities |= entities;
+    }
+
+    /**
+     * Marks a single node as changed.
+     *
+     * @param node Node that has changed.
+     */
+    void markDirty(@NonNull final ProvisionedMeshNode node) {
+        nodes.add(node);
+    }
+
+    /**
+     * Stops tracking a node, i.e. when it has been deleted from the network.
+     *
+     * @param node Node that has been deleted.
+     */
+    void remove(@NonNull final ProvisionedMeshNode node) {
+        nodes.remove(node);
+    }
+
+    /**
+     * Returns true if there are no pending changes.
+     */
+    boolean isEmpty() {
+        return entities == 0 && nodes.isEmpty();
+    }
+
+    /**
+     * Returns the bit mask of the changed network wide entities.
+     */
+    int getEntities() {
+        return entities;
+    }
+
+    /**
+     * Returns the nodes that have changed.
+     */
+    @NonNull
+    List<ProvisionedMeshNode> getNodes() {
+        return new ArrayList<>(nodes);
+    }
+
+    /**
+     * Returns a snapshot of the pending changes and clears them.
+     */
+    @NonNull
+    NetworkChanges take() {
+        final NetworkChanges changes = new NetworkChanges();
+        changes.entities = entities;
+        changes.nodes.addAll(nodes);
+        entities = 0;
+        nodes.clear();
+        return changes;
+    }
+}
@@ -6,6 +6,7 @@ import com.google.gson.annotations.Expose;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
@@ -68,6 +69,18 @@ public final class NetworkKey extends MeshKey {
     @Ignore
     private SecureUtils.K2Output oldDerivatives;
 
+    @Ignore
+    private transient byte[] networkId;
+
+    @Ignore
+    private transient byte[] oldNetworkId;
+
+    @Ignore
+    private transient byte[] beaconKey;
+
+    @Ignore
+    private transient byte[] oldBeaconKey;
+
     /**
      * Constructs a NetworkKey object with a given key index and network key
      *
@@ -151,6 +164,8 @@ public final class NetworkKey extends MeshKey {
         super.setKey(key);
         identityKey = SecureUtils.calculateIdentityKey(key);
         derivatives = SecureUtils.calculateK2(key, SecureUtils.K2_MASTER_INPUT);
+        networkId = null;
+        beaconKey = null;
     }
 
     @Override
@@ -158,6 +173,8 @@ public final class NetworkKey extends MeshKey {
         super.setOldKey(oldKey);
         oldIdentityKey = SecureUtils.calculateIdentityKey(oldKey);
         oldDerivatives = SecureUtils.calculateK2(oldKey, SecureUtils.K2_MASTER_INPUT);
+        oldNetworkId = null;
+        oldBeaconKey = null;
     }
 
     /**
@@ -190,6 +207,36 @@ public final class NetworkKey extends MeshKey {
         }
     }
 
+    /**
+     * Returns the network id derived from the NetworkKey based on the key refresh procedure phase.
+     *
+     * @return network id
+     */
+    public byte[] getTxNetworkId() {
+        switch (phase) {
+            case KEY_DISTRIBUTION:
+                return getOldNetworkId();
+            case USING_NEW_KEYS:
+            default:
+                return getNetworkId();
+        }
+    }
+
+    /**
+     * Returns the beacon key derived from the NetworkKey based on the key refresh procedure phase.
+     *
+     * @return beacon key
+     */
+    public byte[] getTxBeaconKey() {
+        switch (phase) {
+            case KEY_DISTRIBUTION:
+                return getOldBeaconKey();
+            case USING_NEW_KEYS:
+            default:
+                return getBeaconKey();
+        }
+    }
+
     /**
      * Uses min security
      *
@@ -316,20 +363,93 @@ public final class NetworkKey extends MeshKey {
         if (phase == KEY_DISTRIBUTION || phase == USING_NEW_KEYS) {
             phase = NORMAL_OPERATION;
             timestamp = System.currentTimeMillis();
+            oldNetworkId = null;
+            oldBeaconKey = null;
             return true;
         }
         return false;
     }
 
+    /**
+     * Returns the network id derived from the current key.
+     */
     protected byte[] getNetworkId() {
-        return SecureUtils.calculateK3(key);
+        return networkId().clone();
     }
 
+    /**
+     * Returns the network id derived from the old key.
+     */
     @Nullable
     protected byte[] getOldNetworkId() {
-        return SecureUtils.calculateK3(oldKey);
+        final byte[] oldNetworkId = oldNetworkId();
+        return oldNetworkId == null ? null : oldNetworkId.clone();
     }
 
+    /**
+     * Returns the beacon key derived from the current key.
+     */
+    public byte[] getBeaconKey() {
+        return beaconKey().clone();
+    }
+
+    /**
+     * Returns the beacon key derived from the old key.
+     */
+    @Nullable
+    public byte[] getOldBeaconKey() {
+        final byte[] oldBeaconKey = oldBeaconKey();
+        return oldBeaconKey == null ? null : oldBeaconKey.clone();
+    }
+
+    /**
+     * Returns true if the given network id matches the network id derived from the current or the old key.
+     *
+     * @param networkId Network id
+     */
+    boolean matchesNetworkId(@Nullable final byte[] networkId) {
+        return Arrays.equals(networkId(), networkId) || Arrays.equals(oldNetworkId(), networkId);
+    }
+
+    /**
+     * Returns true if the given network id matches the network id used based on the key refresh procedure phase.
+     *
+     * @param networkId Network id
+     */
+    boolean matchesTxNetworkId(@Nullable final byte[] networkId) {
+        return Arrays.equals(phase == KEY_DISTRIBUTION ? oldNetworkId() : networkId(), networkId);
+    }
+
+    //The derived values are cached until the key changes, or the old key changes or is revoked, and must not be handed out
+    private byte[] networkId() {
+        if (networkId == null) {
+            networkId = SecureUtils.calculateK3(key);
+        }
+        return networkId;
+    }
+
+    @Nullable
+    private byte[] oldNetworkId() {
+        if (oldNetworkId == null && oldKey != null) {
+            oldNetworkId = SecureUtils.calculateK3(oldKey);
+        }
+        return oldNetworkId;
+    }
+
+    private byte[] beaconKey() {
+        if (beaconKey == null) {
+            beaconKey = SecureUtils.calculateBeaconKey(key);
+        }
+        return beaconKey;
+    }
+
+    @Nullable
+    private byte[] oldBeaconKey() {
+        if (oldBeaconKey == null && oldKey != null) {
+            oldBeaconKey = SecureUtils.calculateBeaconKey(oldKey);
+        }
+        return oldBeaconKey;
+    }
 
     /**
      * Returns the derivatives from the network key
@@ -0,0 +1,115 @@
+package no.nordicsemi.android.mesh;
+
+import android.os.Handler;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Write behind coalescer for the changes made to a mesh network.
+ * <p>
+ * Instead of writing the whole network to the database every time a message is received, changes are marked on the network using
+ * {@link BaseMeshNetwork#markDirty(int)} and {@link BaseMeshNetwork#markDirty(no.nordicsemi.android.mesh.transport.ProvisionedMeshNode)}.
+ * The first change schedules a flush after the coalescing window and any further changes made within the window are written together
+ * in the same flush. Changes may be scheduled, flushed or cancelled from any thread.
+ * </p>
+ */
+final class NetworkWriteCoalescer {
+
+    /**
+     * Default coalescing window in milliseconds.
+     */
+    static final long DEFAULT_WINDOW = 500;
+
+    private final Handler mHandler;
+    private final long mWindow;
+    private final Writer mWriter;
+    private MeshNetwork mNetwork;
+    private boolean mScheduled;
+
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (NetworkWriteCoalescer.this) {
+                mScheduled = false;
+                flush();
+            }
+        }
+    };
+
+    /**
+     * Writes the changes of a network to the database.
+     */
+    interface Writer {
+
+        /**
+         * Invoked to write the given changes.
+         *
+         * @param network Mesh network.
+         * @param changes Changes to be written.
+         */
+        void write(@NonNull final MeshNetwork network, @NonNull final NetworkChanges changes);
+    }
+
+    /**
+     * Constructs the coalescer.
+     *
+     * @param handler Handler of the thread the network is modified on.
+     * @param window  Coalescing window in milliseconds.
+     * @param writer  Writer used to flush the changes.
+     */
+    NetworkWriteCoalescer(@NonNull final Handler handler, final long window, @NonNull final Writer writer) {
+        mHandler = handler;
+        mWindow = window;
+        mWriter = writer;
+    }
+
+    /**
+     * Schedules the pending changes of the network to be flushed at the end of the coalescing window.
+     *
+     * @param network Mesh network that has been changed.
+     */
+    synchronized void schedule(@NonNull final MeshNetwork network) {
+        if (mNetwork != null && mNetwork != network) {
+            flush();
+        }
+        mNetwork = network;
+        if (!mScheduled) {
+            mScheduled = true;
+            mHandler.postDelayed(mFlushRunnable, mWindow);
+        }
+    }
+
+    /**
+     * Writes the pending changes immediately, i.e. before the network is reset or the application is stopped, as changes waiting
+     * for the end of the coalescing window are lost if the process is killed.
+     */
+    synchronized void flush() {
+        cancelScheduledFlush();
+        final MeshNetwork network = mNetwork;
+        mNetwork = null;
+        if (network != null) {
+            final NetworkChanges changes = network.takePendingChanges();
+            if (!changes.isEmpty()) {
+                mWriter.write(network, changes);
+            }
+        }
+    }
+
+    /**
+     * Discards the pending changes, i.e. when the network has been deleted or replaced.
+     */
+    synchronized void cancel() {
+        cancelScheduledFlush();
+        if (mNetwork != null) {
+            mNetwork.takePendingChanges();
+            mNetwork = null;
+        }
+    }
+
+    private void cancelScheduledFlush() {
+        if (mScheduled) {
+            mScheduled = false;
+            mHandler.removeCallbacks(mFlushRunnable);
+        }
+    }
+}
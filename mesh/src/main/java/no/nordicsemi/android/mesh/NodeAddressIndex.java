@@ -0,0 +1,143 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+/**
+ * Index of the unicast address ranges used by the nodes in a mesh network.
+ * <p>
+ * The element address range of each node is stored as a sorted interval array, allowing a node to be resolved from any of
+ * its element addresses using a binary search. The index is rebuilt lazily on the first lookup after it has been invalidated,
+ * which must be done every time a node is added, removed or replaced, or the elements of a node change.
+ * </p>
+ * <p>
+ * The arrays are published together as an immutable snapshot, so lookups may run on any thread while the index is
+ * invalidated or rebuilt on another one.
+ * </p>
+ */
+final class NodeAddressIndex {
+
+    private static final Comparator<ProvisionedMeshNode> COMPARATOR = (node1, node2) ->
+            Integer.compare(node1.getUnicastAddress(), node2.getUnicastAddress());
+
+    private volatile Snapshot snapshot;
+    private volatile int generation;
+
+    /**
+     * Address ranges of the nodes at the time the index was built.
+     */
+    private static final class Snapshot {
+
+        private final int generation;
+        private final List<ProvisionedMeshNode> nodeList;
+        private final int[] lowAddresses;
+        private final int[] highAddresses;
+        //Highest address of the ranges up to and including each index, used to find ranges overlapping a later one
+        private final int[] maxHighAddresses;
+        private final ProvisionedMeshNode[] nodes;
+
+        private Snapshot(final int generation, @NonNull final List<ProvisionedMeshNode> nodeList) {
+            final ProvisionedMeshNode[] sorted = nodeList.toArray(new ProvisionedMeshNode[0]);
+            Arrays.sort(sorted, COMPARATOR);
+            final int[] lows = new int[sorted.length];
+            final int[] highs = new int[sorted.length];
+            final int[] maxHighs = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                final ProvisionedMeshNode node = sorted[i];
+                lows[i] = node.getUnicastAddress();
+                highs[i] = getHighestAddress(node);
+                maxHighs[i] = i == 0 ? highs[i] : Math.max(maxHighs[i - 1], highs[i]);
+            }
+            this.generation = generation;
+            this.nodeList = nodeList;
+            this.lowAddresses = lows;
+            this.highAddresses = highs;
+            this.maxHighAddresses = maxHighs;
+            this.nodes = sorted;
+        }
+
+        /**
+         * Returns the index of the range containing the given address or -1 if no such range exists.
+         */
+        private int find(final int unicastAddress) {
+            int low = 0;
+            int high = lowAddresses.length - 1;
+            //Find the last range starting at or before the given address
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (lowAddresses[mid] <= unicastAddress) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            //Ranges only overlap if the network contains conflicting nodes, in which case an earlier range may contain the address
+            for (int i = high; i >= 0 && unicastAddress <= maxHighAddresses[i]; i--) {
+                if (unicastAddress <= highAddresses[i])
+                    return i;
+            }
+            return -1;
+        }
+
+        /**
+         * Returns true if the node at the given index no longer has the address range it was indexed with.
+         */
+        private boolean isStale(final int index) {
+            final ProvisionedMeshNode node = nodes[index];
+            return node.getUnicastAddress() != lowAddresses[index] || getHighestAddress(node) != highAddresses[index];
+        }
+    }
+
+    /**
+     * Invalidates the index so that it is rebuilt on the next lookup.
+     */
+    synchronized void invalidate() {
+        generation++;
+        snapshot = null;
+    }
+
+    /**
+     * Returns the node containing the given unicast address or null if no such node exists.
+     *
+     * @param nodes          Nodes in the network, used to rebuild the index if it has been invalidated.
+     * @param unicastAddress Unicast address of the node or one of its elements.
+     */
+    @Nullable
+    ProvisionedMeshNode get(@NonNull final List<ProvisionedMeshNode> nodes, final int unicastAddress) {
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null || snapshot.generation != generation || snapshot.nodeList != nodes) {
+            snapshot = rebuild(nodes);
+        }
+        final int index = snapshot.find(unicastAddress);
+        if (index >= 0 ? snapshot.isStale(index) : snapshot.nodes.length != nodes.size()) {
+            //The index was not invalidated after a node's address changed or a node was added or removed
+            snapshot = rebuild(nodes);
+            final int retry = snapshot.find(unicastAddress);
+            return retry >= 0 ? snapshot.nodes[retry] : null;
+        }
+        return index >= 0 ? snapshot.nodes[index] : null;
+    }
+
+    @NonNull
+    private Snapshot rebuild(@NonNull final List<ProvisionedMeshNode> nodes) {
+        //Read the generation first, so that an invalidation while the snapshot is built causes another rebuild on the next lookup
+        final Snapshot snapshot = new Snapshot(generation, nodes);
+        this.snapshot = snapshot;
+        return snapshot;
+    }
+
+    private static int getHighestAddress(@NonNull final ProvisionedMeshNode node) {
+        //Element addresses are contiguous, so the highest address follows from the number of elements without decoding them
+        final Map<Integer, Element> elements = node.getElements();
+        if (elements == null || elements.isEmpty())
+            return node.getUnicastAddress();
+        return node.getUnicastAddress() + elements.size() - 1;
+    }
+}
@@ -0,0 +1,198 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
+
+/**
+ * Resolves the node advertising with Node Identity from the advertised hash and random.
+ * <p>
+ * The hash input block is built once per advertisement and only the unicast address is rewritten for each candidate node, so
+ * resolving a node costs one AES operation per identity key and node without allocating. The identity keys of the network keys are
+ * cached on {@link NetworkKey}, and recently resolved (random, hash) pairs are kept in a small LRU so that repeated advertisements
+ * from the same proxy are resolved without any AES operations.
+ * </p>
+ */
+final class NodeIdentityResolver {
+
+    private static final int HASH_LENGTH = 8;
+    private static final int RANDOM_LENGTH = 8;
+    private static final int MAX_RESOLVED = 32;
+    // Hash input: 48-bit padding || 64-bit random || 16-bit unicast address
+    private static final int RANDOM_OFFSET = 6;
+    private static final int ADDRESS_OFFSET = RANDOM_OFFSET + RANDOM_LENGTH;
+
+    private final byte[] hashInput = new byte[16];
+    private final byte[] hashOutput = new byte[16];
+    private final Map<Advertisement, ProvisionedMeshNode> resolved = new LinkedHashMap<Advertisement, ProvisionedMeshNode>(MAX_RESOLVED, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Advertisement, ProvisionedMeshNode> eldest) {
+            return size() > MAX_RESOLVED;
+        }
+    };
+    private MeshNetwork network;
+    private byte[][] identityKeys = new byte[0][];
+
+    /**
+     * Returns the node of the network that generated the advertised hash or null if there is none.
+     *
+     * @param network Mesh network
+     * @param hash    64-bit advertised hash
+     * @param random  64-bit advertised random
+     */
+    @Nullable
+    synchronized ProvisionedMeshNode resolve(@NonNull final MeshNetwork network,
+                                             @NonNull final byte[] hash,
+                                             @NonNull final byte[] random) {
+        validate(network);
+        final Advertisement advertisement = new Advertisement(hash, random);
+        final ProvisionedMeshNode cached = resolved.get(advertisement);
+        if (cached != null) {
+            //The node may have been removed or replaced since it was resolved
+            if (network.getNode(cached.getUnicastAddress()) == cached)
+                return cached;
+            resolved.remove(advertisement);
+        }
+
+        prepare(random);
+        final List<ProvisionedMeshNode> nodes = network.nodes;
+        for (byte[] identityKey : identityKeys) {
+            for (int i = 0; i < nodes.size(); i++) {
+                final ProvisionedMeshNode node = nodes.get(i);
+                if (matches(identityKey, node.getUnicastAddress(), hash)) {
+                    resolved.put(advertisement, node);
+                    return node;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the advertised hash was generated by the given node.
+     *
+     * @param network Mesh network
+     * @param node    Node to match with
+     * @param hash    64-bit advertised hash
+     * @param random  64-bit advertised random
+     */
+    synchronized boolean matches(@NonNull final MeshNetwork network,
+                                 @NonNull final ProvisionedMeshNode node,
+                                 @NonNull final byte[] hash,
+                                 @NonNull final byte[] random) {
+        validate(network);
+        final ProvisionedMeshNode cached = resolved.get(new Advertisement(hash, random));
+        if (cached != null && cached.getUnicastAddress() == node.getUnicastAddress())
+            return true;
+
+        prepare(random);
+        for (byte[] identityKey : identityKeys) {
+            if (matches(identityKey, node.getUnicastAddress(), hash))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Clears the resolved nodes, i.e. when the network has been reset or replaced.
+     */
+    synchronized void clear() {
+        network = null;
+        identityKeys = new byte[0][];
+        resolved.clear();
+    }
+
+    private void prepare(@NonNull final byte[] random) {
+        System.arraycopy(random, 0, hashInput, RANDOM_OFFSET, RANDOM_LENGTH);
+    }
+
+    private boolean matches(@NonNull final byte[] identityKey, final int unicastAddress, @NonNull final byte[] hash) {
+        hashInput[ADDRESS_OFFSET] = (byte) ((unicastAddress >> 8) & 0xFF);
+        hashInput[ADDRESS_OFFSET + 1] = (byte) (unicastAddress & 0xFF);
+        CryptoContext.get().encryptBlock(identityKey, hashInput, 0, hashOutput, 0);
+        //The hash is the least significant 64-bits of the encrypted block
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            if (hashOutput[HASH_LENGTH + i] != hash[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Refreshes the identity keys and drops the resolved nodes if the network or its keys have changed.
+     */
+    private void validate(@NonNull final MeshNetwork network) {
+        final List<NetworkKey> netKeys = network.netKeys;
+        if (this.network == network && !hasChanged(netKeys))
+            return;
+        this.network = network;
+        resolved.clear();
+        int count = 0;
+        for (NetworkKey key : netKeys) {
+            count += key.getOldIdentityKey() == null ? 1 : 2;
+        }
+        identityKeys = new byte[count][];
+        int index = 0;
+        for (NetworkKey key : netKeys) {
+            identityKeys[index++] = key.getIdentityKey();
+            if (key.getOldIdentityKey() != null) {
+                identityKeys[index++] = key.getOldIdentityKey();
+            }
+        }
+    }
+
+    private boolean hasChanged(@NonNull final List<NetworkKey> netKeys) {
+        int index = 0;
+        for (NetworkKey key : netKeys) {
+            if (index >= identityKeys.length || identityKeys[index++] != key.getIdentityKey())
+                return true;
+            if (key.getOldIdentityKey() != null) {
+                if (index >= identityKeys.length || identityKeys[index++] != key.getOldIdentityKey())
+                    return true;
+            }
+        }
+        return index != identityKeys.length;
+    }
+
+    /**
+     * Advertised hash and random packed into two longs.
+     */
+    private static final class Advertisement {
+        private final long hash;
+        private final long random;
+
+        Advertisement(@NonNull final byte[] hash, @NonNull final byte[] random) {
+            this.hash = toLong(hash);
+            this.random = toLong(random);
+        }
+
+        private static long toLong(@NonNull final byte[] value) {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (value[i] & 0xFF);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Advertisement))
+                return false;
+            final Advertisement other = (Advertisement) obj;
+            return hash == other.hash && random == other.random;
+        }
+
+        @Override
+        public int hashCode() {
+            final long h = hash * 31 + random;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.InputOOBAction;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
+import no.nordicsemi.android.mesh.utils.OutputOOBAction;
+
+/**
+ * Provisioning session with a single unprovisioned node.
+ * <p>
+ * Sessions are opened with {@link MeshManagerApi#openProvisioningSession(UUID, int)}. Each session runs its own provisioning state
+ * machine over its own bearer, so that several nodes can be provisioned at the same time. Provisioning pdus of a session are sent
+ * with {@link MeshManagerCallbacks#sendProvisioningPdu(UnprovisionedMeshNode, byte[])} for the node of the session, and the pdus
+ * received or written on its bearer must be passed to {@link #handleNotifications(int, byte[])} and
+ * {@link #handleWriteCallbacks(int, byte[])} of the same session.
+ * </p>
+ * <p>
+ * The unicast address of the node is reserved when the provisioning starts, and a session must be closed once the provisioning
+ * has completed or failed.
+ * </p>
+ * <p>
+ * A session may be used from any thread, the provisioning state machine of the session runs on the transport thread of the
+ * {@link MeshManagerApi} it was opened with.
+ * </p>
+ */
+@SuppressWarnings("unused")
+public final class ProvisioningSession {
+
+    private final MeshManagerApi mMeshManagerApi;
+    private final MeshProvisioningHandler mProvisioningHandler;
+    private final ProxySarBuffer mIncomingSarBuffer;
+    private final ProxySarBuffer mOutgoingSarBuffer;
+    private volatile int mMtu;
+    private MeshNetwork mReservingNetwork;
+    private int mReservedAddress = MeshAddress.UNASSIGNED_ADDRESS;
+    private volatile boolean provisioningStarted;
+    private boolean closed;
+
+    ProvisioningSession(@NonNull final MeshManagerApi meshManagerApi,
+                        @NonNull final MeshProvisioningHandler provisioningHandler,
+                        final int mtu) {
+        this.mMeshManagerApi = meshManagerApi;
+        this.mProvisioningHandler = provisioningHandler;
+        this.mMtu = mtu;
+        mIncomingSarBuffer = new ProxySarBuffer(mtu);
+        mOutgoingSarBuffer = new ProxySarBuffer(mtu);
+    }
+
+    /**
+     * Returns the node being provisioned in this session.
+     */
+    @Nullable
+    public UnprovisionedMeshNode getMeshNode() {
+        return mProvisioningHandler.getMeshNode();
+    }
+
+    /**
+     * Returns true if the provisioning has not been started yet, in which case the session will need a key pair from the
+     * {@link no.nordicsemi.android.mesh.provisionerstates.ProvisioningKeyPairPool}.
+     */
+    boolean isAwaitingKeyPair() {
+        return !provisioningStarted;
+    }
+
+    /**
+     * Sets the provisioning callbacks of this session.
+     *
+     * @param callbacks {@link MeshProvisioningStatusCallbacks} callbacks
+     */
+    void setProvisioningCallbacks(final MeshProvisioningStatusCallbacks callbacks) {
+        mProvisioningHandler.setProvisioningCallbacks(callbacks);
+    }
+
+    /**
+     * Returns the mtu of the bearer of this session.
+     */
+    int getMtu() {
+        return mMtu;
+    }
+
+    /**
+     * Must be called to handle notifications received on the bearer of this session.
+     *
+     * @param mtuSize GATT MTU size
+     * @param data    PDU received by the client
+     */
+    public void handleNotifications(final int mtuSize, @NonNull final byte[] data) {
+        mMeshManagerApi.runOnTransportThread(() -> onNotificationReceived(mtuSize, data));
+    }
+
+    private synchronized void onNotificationReceived(final int mtuSize, @NonNull final byte[] data) {
+        mMtu = mtuSize;
+        final byte[] pdu = mIncomingSarBuffer.append(mtuSize, data);
+        if (pdu != null && pdu[0] == MeshManagerApi.PDU_TYPE_PROVISIONING) {
+            MeshMetrics.onPduReceived(MeshManagerApi.PDU_TYPE_PROVISIONING);
+            mProvisioningHandler.parseProvisioningNotifications(pdu);
+        }
+    }
+
+    /**
+     * Must be called to handle provisioning states after writing to the bearer of this session.
+     *
+     * @param mtuSize GATT MTU size
+     * @param data    PDU written to the peripheral
+     */
+    public void handleWriteCallbacks(final int mtuSize, @NonNull final byte[] data) {
+        mMeshManagerApi.runOnTransportThread(() -> onDataWritten(mtuSize, data));
+    }
+
+    private synchronized void onDataWritten(final int mtuSize, @NonNull final byte[] data) {
+        mMtu = mtuSize;
+        final byte[] pdu = mOutgoingSarBuffer.append(mtuSize, data);
+        if (pdu != null && pdu[0] == MeshManagerApi.PDU_TYPE_PROVISIONING) {
+            mProvisioningHandler.handleProvisioningWriteCallbacks();
+        }
+    }
+
+    /**
+     * Starts provisioning the node using No OOB, once its capabilities have been received.
+     */
+    public void startProvisioning() throws IllegalArgumentException {
+        mMeshManagerApi.callOnTransportThread(Executors.callable(() -> {
+            synchronized (this) {
+                final UnprovisionedMeshNode node = reserveUnicastAddress();
+                mProvisioningHandler.startProvisioningNoOOB(node);
+            }
+        }));
+    }
+
+    /**
+     * Starts provisioning the node using Static OOB, once its capabilities have been received.
+     */
+    public void startProvisioningWithStaticOOB() throws IllegalArgumentException {
+        mMeshManagerApi.callOnTransportThread(Executors.callable(() -> {
+            synchronized (this) {
+                final UnprovisionedMeshNode node = reserveUnicastAddress();
+                mProvisioningHandler.startProvisioningWithStaticOOB(node);
+            }
+        }));
+    }
+
+    /**
+     * Starts provisioning the node using Output OOB, once its capabilities have been received.
+     *
+     * @param action Selected {@link OutputOOBAction}
+     */
+    public void startProvisioningWithOutputOOB(@NonNull final OutputOOBAction action) throws IllegalArgumentException {
+        mMeshManagerApi.callOnTransportThread(Executors.callable(() -> {
+            synchronized (this) {
+                final UnprovisionedMeshNode node = reserveUnicastAddress();
+                mProvisioningHandler.startProvisioningWithOutputOOB(node, action);
+            }
+        }));
+    }
+
+    /**
+     * Starts provisioning the node using Input OOB, once its capabilities have been received.
+     *
+     * @param action Selected {@link InputOOBAction}
+     */
+    public void startProvisioningWithInputOOB(@NonNull final InputOOBAction action) throws IllegalArgumentException {
+        mMeshManagerApi.callOnTransportThread(Executors.callable(() -> {
+            synchronized (this) {
+                final UnprovisionedMeshNode node = reserveUnicastAddress();
+                mProvisioningHandler.startProvisioningWithInputOOB(node, action);
+            }
+        }));
+    }
+
+    /**
+     * Set the provisioning confirmation
+     *
+     * @param authentication confirmation pin
+     */
+    public void setProvisioningAuthentication(@NonNull final String authentication) {
+        mMeshManagerApi.runOnTransportThread(() -> mProvisioningHandler.sendProvisioningConfirmation(authentication));
+    }
+
+    /**
+     * Closes the session and releases the unicast address reserved for the node if it has not been provisioned.
+     */
+    public synchronized void close() {
+        if (closed)
+            return;
+        closed = true;
+        releaseUnicastAddress();
+        mIncomingSarBuffer.reset();
+        mOutgoingSarBuffer.reset();
+        mMeshManagerApi.onProvisioningSessionClosed(this);
+    }
+
+    private UnprovisionedMeshNode reserveUnicastAddress() throws IllegalArgumentException {
+        if (closed)
+            throw new IllegalArgumentException("Provisioning session has been closed");
+        final UnprovisionedMeshNode node = getMeshNode();
+        if (node == null)
+            throw new IllegalArgumentException("Node has not been identified");
+        releaseUnicastAddress();
+        final MeshNetwork network = mMeshManagerApi.getMeshNetwork();
+        final int address = network.reserveUnicastAddress(node.getNumberOfElements(), network.getSelectedProvisioner());
+        if (!MeshAddress.isValidUnicastAddress(address)) {
+            throw new IllegalArgumentException("Invalid address");
+        }
+        mReservingNetwork = network;
+        mReservedAddress = address;
+        node.setUnicastAddress(address);
+        provisioningStarted = true;
+        return node;
+    }
+
+    private void releaseUnicastAddress() {
+        if (mReservingNetwork != null) {
+            mReservingNetwork.releaseUnicastAddress(mReservedAddress);
+            mReservingNetwork = null;
+            mReservedAddress = MeshAddress.UNASSIGNED_ADDRESS;
+        }
+    }
+}
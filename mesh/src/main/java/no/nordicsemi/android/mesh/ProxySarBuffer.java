@@ -0,0 +1,88 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Reassembly buffer for proxy pdus segmented at the GATT layer.
+ * <p>
+ * Segments are written in place into a buffer that is reused for every message and only grows when a message does not fit. The SAR
+ * header of each segment is dropped so that once the last segment has been received the buffer already holds the unsegmented pdu,
+ * which is returned with a single copy. A buffer is kept for each direction and pdu type so that interleaved flows do not share state.
+ * </p>
+ */
+final class ProxySarBuffer {
+
+    private static final int SAR_COMPLETE = 0b00;
+    private static final int SAR_START = 0b01;
+    private static final int SAR_END = 0b11;
+    private static final int SAR_BIT_OFFSET = 6;
+    private static final int PDU_TYPE_MASK = 0x3F;
+    private static final int INITIAL_SEGMENTS = 4;
+
+    private byte[] buffer;
+    private int length;
+    private boolean inProgress;
+
+    /**
+     * Constructs the buffer sized to hold a few segments of the given MTU.
+     *
+     * @param mtuSize Maximum size of a segment
+     */
+    ProxySarBuffer(final int mtuSize) {
+        buffer = new byte[Math.max(mtuSize, 1) * INITIAL_SEGMENTS];
+    }
+
+    /**
+     * Appends a segment to the buffer.
+     *
+     * @param mtuSize Maximum size of a segment, any bytes of the segment beyond it are ignored
+     * @param segment Segment including the SAR and pdu type header
+     * @return the unsegmented pdu if the segment completes it or null otherwise
+     */
+    @Nullable
+    byte[] append(final int mtuSize, @NonNull final byte[] segment) {
+        final int sar = (segment[0] & 0xFF) >> SAR_BIT_OFFSET;
+        final int segmentLength = Math.min(segment.length, mtuSize);
+        switch (sar) {
+            case SAR_COMPLETE:
+                reset();
+                return Arrays.copyOf(segment, segmentLength);
+            case SAR_START:
+                length = 0;
+                inProgress = true;
+                ensureCapacity(segmentLength);
+                buffer[length++] = (byte) (segment[0] & PDU_TYPE_MASK);
+                break;
+            default:
+                //A continuation or end segment without a start segment can not be reassembled
+                if (!inProgress)
+                    return null;
+                ensureCapacity(length + segmentLength - 1);
+                break;
+        }
+        System.arraycopy(segment, 1, buffer, length, segmentLength - 1);
+        length += segmentLength - 1;
+        if (sar == SAR_END) {
+            inProgress = false;
+            return Arrays.copyOf(buffer, length);
+        }
+        return null;
+    }
+
+    /**
+     * Discards a partially reassembled pdu, i.e. when the SAR timer expires or the connection is lost.
+     */
+    void reset() {
+        length = 0;
+        inProgress = false;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+}
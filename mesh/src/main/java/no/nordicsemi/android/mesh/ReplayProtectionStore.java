@@ -0,0 +1,261 @@
+package no.nordicsemi.android.mesh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.ReplayProtectionList;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
+/**
+ * Persists the replay protection list of a mesh network to an append-only file.
+ * <p>
+ * Each pdu accepted by the {@link ReplayProtectionList} of the attached network appends a fixed size record holding the source
+ * address, IV Index and sequence number, so that the list is persisted without rewriting the nodes of the network. When the file
+ * holds a number of records well above the number of entries in the list it is compacted by rewriting it with one record per
+ * source address. The file is written on a background thread, records are applied in order when it is loaded so the latest
+ * record of each source address wins.
+ * </p>
+ */
+final class ReplayProtectionStore {
+
+    private static final String TAG = ReplayProtectionStore.class.getSimpleName();
+    private static final String DIRECTORY = "rpl";
+    private static final String EXTENSION = ".rpl";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int RECORD_LENGTH = 10;
+    //The file is compacted once it holds this many records more than the list has entries
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    private final File mDirectory;
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private MeshNetwork mNetwork;
+    //Accessed on the executor thread only
+    private OutputStream mOutputStream;
+    private File mFile;
+    private int mRecordCount;
+
+    /**
+     * Constructs the store.
+     *
+     * @param filesDirectory Directory the replay protection lists are stored in.
+     */
+    ReplayProtectionStore(@NonNull final File filesDirectory) {
+        mDirectory = new File(filesDirectory, DIRECTORY);
+    }
+
+    /**
+     * Loads the persisted replay protection list of a network and starts persisting the pdus it accepts.
+     * Any previously attached network is detached.
+     * <p>
+     * This blocks until the file has been read and must not be called on the main thread. {@link MeshManagerApi} attaches
+     * networks on the transport thread, so that no pdu is checked against the list before it has been loaded.
+     * </p>
+     *
+     * @param network Mesh network.
+     */
+    synchronized void attach(@NonNull final MeshNetwork network) {
+        if (mNetwork == network)
+            return;
+        detach();
+        final ReplayProtectionList replayProtectionList = network.getReplayProtectionList();
+        final File file = new File(mDirectory, network.getMeshUUID() + EXTENSION);
+        try {
+            mExecutor.submit(() -> open(file, replayProtectionList)).get();
+        } catch (ExecutionException | InterruptedException ex) {
+            MeshLogger.e(TAG, "Loading the replay protection list failed", ex);
+        }
+        replayProtectionList.setListener((src, ivIndex, sequenceNumber) -> {
+            final byte[] record = new byte[RECORD_LENGTH];
+            writeRecord(record, 0, src, ivIndex, sequenceNumber);
+            mExecutor.execute(() -> append(file, record, replayProtectionList));
+        });
+        mNetwork = network;
+    }
+
+    /**
+     * Stops persisting the replay protection list of the attached network.
+     */
+    synchronized void detach() {
+        if (mNetwork == null)
+            return;
+        mNetwork.getReplayProtectionList().setListener(null);
+        mNetwork = null;
+        mExecutor.execute(() -> {
+            close();
+            mFile = null;
+        });
+    }
+
+    /**
+     * Deletes the persisted replay protection list of a network, detaching it first if it is attached.
+     *
+     * @param meshUuid Mesh uuid of the network.
+     */
+    synchronized void delete(@NonNull final String meshUuid) {
+        if (mNetwork != null && mNetwork.getMeshUUID().equalsIgnoreCase(meshUuid)) {
+            detach();
+        }
+        final File file = new File(mDirectory, meshUuid + EXTENSION);
+        mExecutor.execute(() -> {
+            if (file.exists() && !file.delete()) {
+                MeshLogger.w(TAG, "Unable to delete " + file.getName());
+            }
+        });
+    }
+
+    private void open(@NonNull final File file, @NonNull final ReplayProtectionList replayProtectionList) {
+        close();
+        mFile = file;
+        mRecordCount = 0;
+        if (file.exists()) {
+            try (final DataInputStream inputStream = new DataInputStream(new FileInputStream(file))) {
+                mRecordCount = readRecords(inputStream, replayProtectionList);
+            } catch (IOException ex) {
+                MeshLogger.e(TAG, "Reading " + file.getName() + " failed", ex);
+            }
+            //A record cut short by the process being killed is discarded so that the records appended next stay aligned
+            final long length = (long) mRecordCount * RECORD_LENGTH;
+            if (file.length() > length) {
+                try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                    randomAccessFile.setLength(length);
+                } catch (IOException ex) {
+                    MeshLogger.e(TAG, "Truncating " + file.getName() + " failed", ex);
+                }
+            }
+        }
+        if (mRecordCount - replayProtectionList.size() > COMPACTION_THRESHOLD) {
+            compact(replayProtectionList);
+        }
+    }
+
+    private void append(@NonNull final File file,
+                        @NonNull final byte[] record,
+                        @NonNull final ReplayProtectionList replayProtectionList) {
+        //Records of a network that has been detached in the meantime are dropped
+        if (!file.equals(mFile))
+            return;
+        try {
+            if (mOutputStream == null) {
+                if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+                    throw new FileNotFoundException("Unable to create " + mDirectory.getName());
+                }
+                mOutputStream = new FileOutputStream(mFile, true);
+            }
+            mOutputStream.write(record);
+            mRecordCount++;
+        } catch (IOException ex) {
+            MeshLogger.e(TAG, "Appending to " + mFile.getName() + " failed", ex);
+            return;
+        }
+        if (mRecordCount - replayProtectionList.size() > COMPACTION_THRESHOLD) {
+            compact(replayProtectionList);
+        }
+    }
+
+    /**
+     * Rewrites the file with one record per source address. Records appended for pdus accepted after the snapshot of the list
+     * has been taken are written again after the compacted records, which is harmless as the latest record wins.
+     */
+    private void compact(@NonNull final ReplayProtectionList replayProtectionList) {
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream(replayProtectionList.size() * RECORD_LENGTH);
+        final byte[] record = new byte[RECORD_LENGTH];
+        replayProtectionList.forEach((src, ivIndex, sequenceNumber) -> {
+            writeRecord(record, 0, src, ivIndex, sequenceNumber);
+            snapshot.write(record, 0, RECORD_LENGTH);
+        });
+        close();
+        final File temp = new File(mDirectory, mFile.getName() + TEMP_EXTENSION);
+        try {
+            if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+                throw new FileNotFoundException("Unable to create " + mDirectory.getName());
+            }
+            try (final FileOutputStream outputStream = new FileOutputStream(temp)) {
+                snapshot.writeTo(outputStream);
+                outputStream.getFD().sync();
+            }
+            if (!temp.renameTo(mFile)) {
+                throw new IOException("Unable to replace " + mFile.getName());
+            }
+            mRecordCount = snapshot.size() / RECORD_LENGTH;
+            MeshLogger.d(TAG, () -> "Compacted replay protection list to " + mRecordCount + " records");
+        } catch (IOException ex) {
+            MeshLogger.e(TAG, "Compacting " + mFile.getName() + " failed", ex);
+        }
+    }
+
+    private void close() {
+        if (mOutputStream != null) {
+            try {
+                mOutputStream.close();
+            } catch (IOException ex) {
+                MeshLogger.e(TAG, "Closing replay protection list failed", ex);
+            }
+            mOutputStream = null;
+        }
+    }
+
+    /**
+     * Reads the records of a replay protection list and restores them in to the given list.
+     *
+     * @param inputStream          Input stream.
+     * @param replayProtectionList Replay protection list the records are restored in to.
+     * @return number of complete records read, a truncated record at the end of the stream is ignored.
+     */
+    static int readRecords(@NonNull final InputStream inputStream,
+                           @NonNull final ReplayProtectionList replayProtectionList) throws IOException {
+        final DataInputStream dataInputStream = inputStream instanceof DataInputStream ?
+                (DataInputStream) inputStream : new DataInputStream(inputStream);
+        final byte[] record = new byte[RECORD_LENGTH];
+        int count = 0;
+        while (true) {
+            try {
+                dataInputStream.readFully(record);
+            } catch (EOFException ex) {
+                return count;
+            }
+            final int src = ((record[0] & 0xFF) << 8) | (record[1] & 0xFF);
+            replayProtectionList.restore(src, readInt(record, 2), readInt(record, 6));
+            count++;
+        }
+    }
+
+    static void writeRecord(@NonNull final byte[] record,
+                            final int offset,
+                            final int src,
+                            final int ivIndex,
+                            final int sequenceNumber) {
+        record[offset] = (byte) (src >> 8);
+        record[offset + 1] = (byte) src;
+        writeInt(record, offset + 2, ivIndex);
+        writeInt(record, offset + 6, sequenceNumber);
+    }
+
+    private static int readInt(@NonNull final byte[] data, final int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) |
+                ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    private static void writeInt(@NonNull final byte[] data, final int offset, final int value) {
+        data[offset] = (byte) (value >> 24);
+        data[offset + 1] = (byte) (value >> 16);
+        data[offset + 2] = (byte) (value >> 8);
+        data[offset + 3] = (byte) value;
+    }
+}
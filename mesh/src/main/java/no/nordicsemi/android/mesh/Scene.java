@@ -39,9 +39,10 @@ public class Scene implements Parcelable {
     @Expose
     private String name = "nRF Scene";
 
+    //Replaced rather than modified, addresses are added and removed on the transport thread while the application may read them
     @TypeConverters(MeshTypeConverters.class)
     @Expose
-    protected List<Integer> addresses = new ArrayList<>();
+    protected volatile List<Integer> addresses = new ArrayList<>();
 
     @PrimaryKey
     @ColumnInfo(name = "number")
@@ -114,9 +115,38 @@ public class Scene implements Parcelable {
      *
      * @param addresses list of addresses
      */
-    public void setAddresses(final List<Integer> addresses) {
-        this.addresses.clear();
-        this.addresses.addAll(addresses);
+    public synchronized void setAddresses(final List<Integer> addresses) {
+        this.addresses = new ArrayList<>(addresses);
+    }
+
+    /**
+     * Adds an address to the scene.
+     *
+     * @param address Unicast address of the node
+     * @return true if the address was added or false if the scene already contains it
+     */
+    synchronized boolean addAddress(final int address) {
+        if (addresses.contains(address))
+            return false;
+        final List<Integer> addresses = new ArrayList<>(this.addresses);
+        addresses.add(address);
+        this.addresses = addresses;
+        return true;
+    }
+
+    /**
+     * Removes an address from the scene.
+     *
+     * @param address Unicast address of the node
+     * @return true if the address was removed or false if the scene does not contain it
+     */
+    synchronized boolean removeAddress(final int address) {
+        if (!addresses.contains(address))
+            return false;
+        final List<Integer> addresses = new ArrayList<>(this.addresses);
+        addresses.remove((Integer) address);
+        this.addresses = addresses;
+        return true;
     }
 
     public int getNumber() {
@@ -0,0 +1,128 @@
+package no.nordicsemi.android.mesh;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.transport.SequenceNumberAllocator;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
+/**
+ * Persists the sequence number blocks reserved by the {@link SequenceNumberAllocator} of each local source address.
+ * <p>
+ * The upper limit of the reserved block of each address is kept in a small file of its own, which is replaced atomically every
+ * time a new block is reserved. The allocators are created on first use and shared until the network they belong to is deleted.
+ * </p>
+ */
+final class SequenceNumberStore {
+
+    private static final String TAG = SequenceNumberStore.class.getSimpleName();
+    private static final String DIRECTORY = "seq";
+    private static final String EXTENSION = ".seq";
+    private static final String TEMP_EXTENSION = ".tmp";
+
+    private final File mDirectory;
+    private final Map<String, SequenceNumberAllocator> mAllocators = new HashMap<>();
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, TAG);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the store.
+     *
+     * @param filesDirectory Directory the reserved sequence numbers are stored in.
+     */
+    SequenceNumberStore(@NonNull final File filesDirectory) {
+        mDirectory = new File(filesDirectory, DIRECTORY);
+    }
+
+    /**
+     * Returns the allocator of a local source address, creating it from the persisted reservation if needed.
+     *
+     * @param meshUuid           Mesh uuid of the network.
+     * @param address            Unicast address of the provisioner.
+     * @param lastSequenceNumber Last sequence number known to be used by the address.
+     */
+    @NonNull
+    synchronized SequenceNumberAllocator getAllocator(@NonNull final String meshUuid, final int address, final int lastSequenceNumber) {
+        final String name = getFileName(meshUuid, address);
+        SequenceNumberAllocator allocator = mAllocators.get(name);
+        if (allocator == null) {
+            final File file = new File(mDirectory, name);
+            allocator = new SequenceNumberAllocator(address, readLimit(file), lastSequenceNumber,
+                    SequenceNumberAllocator.DEFAULT_BLOCK_SIZE, (src, limit) -> writeLimit(file, limit), mExecutor);
+            mAllocators.put(name, allocator);
+        }
+        return allocator;
+    }
+
+    /**
+     * Deletes the reserved sequence numbers of a network.
+     *
+     * @param meshUuid Mesh uuid of the network.
+     */
+    synchronized void delete(@NonNull final String meshUuid) {
+        final String prefix = getFilePrefix(meshUuid);
+        final Iterator<String> iterator = mAllocators.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+        mExecutor.execute(() -> {
+            final File[] files = mDirectory.listFiles();
+            if (files == null)
+                return;
+            for (File file : files) {
+                if (file.getName().startsWith(prefix) && !file.delete()) {
+                    MeshLogger.w(TAG, "Unable to delete " + file.getName());
+                }
+            }
+        });
+    }
+
+    private static int readLimit(@NonNull final File file) {
+        if (!file.exists())
+            return 0;
+        try (final DataInputStream inputStream = new DataInputStream(new FileInputStream(file))) {
+            return inputStream.readInt();
+        } catch (IOException ex) {
+            MeshLogger.e(TAG, "Reading " + file.getName() + " failed", ex);
+            return 0;
+        }
+    }
+
+    private void writeLimit(@NonNull final File file, final int limit) throws IOException {
+        if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+            throw new FileNotFoundException("Unable to create " + mDirectory.getName());
+        }
+        final File temp = new File(mDirectory, file.getName() + TEMP_EXTENSION);
+        try (final FileOutputStream outputStream = new FileOutputStream(temp)) {
+            outputStream.write(new byte[]{(byte) (limit >> 24), (byte) (limit >> 16), (byte) (limit >> 8), (byte) limit});
+            outputStream.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Unable to replace " + file.getName());
+        }
+    }
+
+    private static String getFilePrefix(@NonNull final String meshUuid) {
+        return meshUuid.toUpperCase(Locale.US) + "-";
+    }
+
+    private static String getFileName(@NonNull final String meshUuid, final int address) {
+        return getFilePrefix(meshUuid) + String.format(Locale.US, "%04X", address) + EXTENSION;
+    }
+}
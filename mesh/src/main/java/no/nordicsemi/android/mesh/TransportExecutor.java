@@ -0,0 +1,89 @@
+package no.nordicsemi.android.mesh;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Hands tasks over to the mesh transport thread.
+ * <p>
+ * Tasks submitted from the transport thread run immediately, tasks submitted from any other thread are posted to the transport
+ * thread and run in the order they were submitted. {@link #call(Callable)} waits for the result of a task so that the exceptions it
+ * throws, e.g. an {@link IllegalArgumentException} for an invalid argument, reach the caller.
+ * </p>
+ */
+abstract class TransportExecutor implements Executor {
+
+    /**
+     * Returns an executor running the tasks on the thread of the given handler.
+     *
+     * @param handler Handler of the transport thread
+     */
+    @NonNull
+    static TransportExecutor of(@NonNull final Handler handler) {
+        return new TransportExecutor() {
+            @Override
+            boolean isTransportThread() {
+                return Looper.myLooper() == handler.getLooper();
+            }
+
+            @Override
+            void post(@NonNull final Runnable task) {
+                handler.post(task);
+            }
+        };
+    }
+
+    /**
+     * Returns true if called on the transport thread.
+     */
+    abstract boolean isTransportThread();
+
+    /**
+     * Posts a task to the transport thread.
+     *
+     * @param task Task to run
+     */
+    abstract void post(@NonNull final Runnable task);
+
+    /**
+     * Runs a task on the transport thread, immediately if called from the transport thread.
+     *
+     * @param task Task to run
+     */
+    @Override
+    public final void execute(@NonNull final Runnable task) {
+        if (isTransportThread()) {
+            task.run();
+        } else {
+            post(task);
+        }
+    }
+
+    /**
+     * Runs a task on the transport thread and waits for its result, exceptions thrown by the task are rethrown to the caller.
+     *
+     * @param task Task to run
+     * @throws IllegalStateException if the task throws a checked exception or the calling thread is interrupted
+     */
+    final <T> T call(@NonNull final Callable<T> task) {
+        final FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package no.nordicsemi.android.mesh;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+/**
+ * Bitmap of the unicast addresses in use in a mesh network.
+ * <p>
+ * An address is in use if it belongs to an element of a node, has been excluded with the current or the previous IV Index, or
+ * has been reserved for a node that is being provisioned. Free blocks of addresses are found by skipping whole runs of used and
+ * free addresses, a machine word at a time, instead of sorting and scanning every address in use. The bitmap is rebuilt lazily on
+ * the first lookup after it has been invalidated, which must be done every time a node is added, removed or replaced, the
+ * elements of a node change or the network exclusions change. Reservations are applied in place.
+ * </p>
+ * <p>
+ * The bitmap is invalidated from the transport thread when a node changes, so all methods are synchronized.
+ * </p>
+ */
+final class UnicastAddressSpace {
+
+    private final BitSet usedAddresses = new BitSet(MeshAddress.END_UNICAST_ADDRESS + 1);
+    private boolean invalidated = true;
+    private int ivIndex;
+
+    /**
+     * Invalidates the bitmap so that it is rebuilt on the next lookup.
+     */
+    synchronized void invalidate() {
+        invalidated = true;
+    }
+
+    /**
+     * Returns the first address of the first block of free addresses within the given range or -1 if none.
+     *
+     * @param lowAddress  Lowest address of the range.
+     * @param highAddress Highest address of the range.
+     * @param count       Number of consecutive addresses required.
+     */
+    synchronized int firstFit(final int lowAddress, final int highAddress, final int count) {
+        int address = usedAddresses.nextClearBit(lowAddress);
+        while (address + count - 1 <= highAddress) {
+            final int next = usedAddresses.nextSetBit(address);
+            if (next == -1 || next >= address + count) {
+                return address;
+            }
+            address = usedAddresses.nextClearBit(next);
+        }
+        return -1;
+    }
+
+    /**
+     * Marks a block of addresses as used.
+     *
+     * @param address First address of the block.
+     * @param count   Number of addresses.
+     */
+    synchronized void markUsed(final int address, final int count) {
+        usedAddresses.set(address, address + count);
+    }
+
+    /**
+     * Marks a single address as free.
+     *
+     * @param address Address to be freed.
+     */
+    synchronized void markFree(final int address) {
+        usedAddresses.clear(address);
+    }
+
+    /**
+     * Rebuilds the bitmap if it has been invalidated or the IV Index has changed since it was built.
+     *
+     * @param nodes             Nodes in the network.
+     * @param networkExclusions Excluded addresses mapped to the IV Index they were excluded with.
+     * @param ivIndex           Current IV Index of the network.
+     * @param reservations      Number of addresses reserved mapped to the first reserved address.
+     */
+    synchronized void validate(@NonNull final List<ProvisionedMeshNode> nodes,
+                               @NonNull final Map<Integer, ? extends List<Integer>> networkExclusions,
+                               final int ivIndex,
+                               @Nullable final Map<Integer, Integer> reservations) {
+        if (!invalidated && this.ivIndex == ivIndex)
+            return;
+        usedAddresses.clear();
+        for (ProvisionedMeshNode node : nodes) {
+            //Element addresses are contiguous, the unicast address of a node without elements is in use as well
+            final int address = node.getUnicastAddress();
+            usedAddresses.set(address, address + Math.max(1, node.getNumberOfElements()));
+        }
+        // Excluded addresses with the current IvIndex and current IvIndex - 1 must be considered as addresses in use.
+        markExcluded(networkExclusions.get(ivIndex));
+        markExcluded(networkExclusions.get(ivIndex - 1));
+        if (reservations != null) {
+            for (Map.Entry<Integer, Integer> reservation : reservations.entrySet()) {
+                markUsed(reservation.getKey(), reservation.getValue());
+            }
+        }
+        this.ivIndex = ivIndex;
+        invalidated = false;
+    }
+
+    private void markExcluded(@Nullable final List<Integer> addresses) {
+        if (addresses == null)
+            return;
+        for (Integer address : addresses) {
+            usedAddresses.set(address);
+        }
+    }
+}
@@ -22,12 +22,13 @@
 
 package no.nordicsemi.android.mesh.control;
 
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
 @SuppressWarnings("unused")
 public class BlockAcknowledgementMessage extends TransportControlMessage {
 
@@ -47,17 +48,9 @@ public class BlockAcknowledgementMessage extends TransportControlMessage {
      * @param segO     segment index
      */
     public static Integer calculateBlockAcknowledgement(final Integer blockAck, final int segO) {
-        int ack = 0;
-        if (blockAck == null) {
-            ack |= 1 << segO;
-            Log.v(TAG, "Block ack value: " + Integer.toString(ack, 16));
-            return ack;
-        } else {
-            ack = blockAck;
-            ack |= 1 << segO;
-            Log.v(TAG, "Block ack value: " + Integer.toString(ack, 16));
-            return ack;
-        }
+        final int ack = (blockAck == null ? 0 : blockAck) | 1 << segO;
+        MeshLogger.v(TAG, () -> "Block ack value: " + Integer.toString(ack, 16));
+        return ack;
     }
 
     /**
@@ -95,12 +88,13 @@ public class BlockAcknowledgementMessage extends TransportControlMessage {
         final ArrayList<Integer> retransmitSegments = new ArrayList<>();
         final int blockAck = ByteBuffer.wrap(blockAcknowledgement).order(ByteOrder.BIG_ENDIAN).getInt();
         for (int i = 0; i < segmentCount; i++) {
+            final int segment = i;
             int bit = (blockAck >> i) & 1;
             if (bit == 1) {
-                Log.v(TAG, "Segment " + i + " of " + (segmentCount - 1) + " received by peer");
+                MeshLogger.v(TAG, () -> "Segment " + segment + " of " + (segmentCount - 1) + " received by peer");
             } else {
                 retransmitSegments.add(i);
-                Log.v(TAG, "Segment " + i + " of " + (segmentCount - 1) + " not received by peer");
+                MeshLogger.v(TAG, () -> "Segment " + segment + " of " + (segmentCount - 1) + " not received by peer");
             }
         }
         return retransmitSegments;
@@ -115,7 +109,7 @@ public class BlockAcknowledgementMessage extends TransportControlMessage {
     public static boolean hasAllSegmentsBeenReceived(final Integer blockAcknowledgement, final int segN) {
         if (blockAcknowledgement == null)
             return false;
-        Log.v(TAG, "Block ack: " + blockAcknowledgement);
+        MeshLogger.v(TAG, () -> "Block ack: " + blockAcknowledgement);
         final int blockAck = blockAcknowledgement;
         int setBitCount = 0;
         for (int i = 0; i < segN; i++) {
@@ -124,7 +118,8 @@ public class BlockAcknowledgementMessage extends TransportControlMessage {
                 setBitCount++;
             }
         }
-        Log.v(TAG, "bit count: " + setBitCount);
+        final int bitCount = setBitCount;
+        MeshLogger.v(TAG, () -> "bit count: " + bitCount);
         return setBitCount == segN + 1; //Since segN is 0 based add 1 as the bit count represents the number of segments
     }
 }
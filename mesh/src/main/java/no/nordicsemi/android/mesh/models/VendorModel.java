@@ -24,13 +24,13 @@ package no.nordicsemi.android.mesh.models;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import no.nordicsemi.android.mesh.transport.MeshModel;
 import no.nordicsemi.android.mesh.utils.CompanyIdentifiers;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 @SuppressWarnings("unused")
 public class VendorModel extends MeshModel {
@@ -57,7 +57,7 @@ public class VendorModel extends MeshModel {
         buffer.putInt(modelIdentifier);
         this.companyIdentifier = buffer.getShort(0);
         this.companyName = CompanyIdentifiers.getCompanyName(companyIdentifier);
-        Log.v(TAG, "Company name: " + companyName);
+        MeshLogger.v(TAG, () -> "Company name: " + companyName);
     }
 
     private VendorModel(final Parcel source) {
@@ -3,7 +3,6 @@ package no.nordicsemi.android.mesh.provisionerstates;
 import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
-import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -12,6 +11,7 @@ import java.util.List;
 import no.nordicsemi.android.mesh.utils.AlgorithmType;
 import no.nordicsemi.android.mesh.utils.AuthenticationOOBMethods;
 import no.nordicsemi.android.mesh.utils.InputOOBAction;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.OutputOOBAction;
 
 /**
@@ -52,7 +52,7 @@ public final class ProvisioningCapabilities implements Parcelable {
 
         final byte numberOfElements = (capabilities[2]);
         this.numberOfElements = numberOfElements;
-        Log.v(TAG, "Number of elements: " + numberOfElements);
+        MeshLogger.v(TAG, () -> "Number of elements: " + numberOfElements);
 
         final short algorithm = (short) (((capabilities[3] & 0xff) << 8) | (capabilities[4] & 0xff));
         this.rawAlgorithm = algorithm;
@@ -60,15 +60,15 @@ public final class ProvisioningCapabilities implements Parcelable {
 
         this.rawPublicKeyType = capabilities[5];
         this.publicKeyInformationAvailable = rawPublicKeyType == PUBLIC_KEY_INFORMATION_AVAILABLE;
-        Log.v(TAG, "Public key information available: " + publicKeyInformationAvailable);
+        MeshLogger.v(TAG, () -> "Public key information available: " + publicKeyInformationAvailable);
 
         this.rawStaticOOBType = capabilities[6];
         this.staticOOBInformationAvailable = rawStaticOOBType == STATIC_OOB_INFO_AVAILABLE;
-        Log.v(TAG, "Static OOB information available: : " + staticOOBInformationAvailable);
+        MeshLogger.v(TAG, () -> "Static OOB information available: : " + staticOOBInformationAvailable);
 
         final byte outputOOBSize = capabilities[7];
         this.outputOOBSize = outputOOBSize;
-        Log.v(TAG, "Output OOB size: " + outputOOBSize);
+        MeshLogger.v(TAG, () -> "Output OOB size: " + outputOOBSize);
 
         final short outputOOBAction = (short) (((capabilities[8] & 0xff) << 8) | (capabilities[9] & 0xff));
         this.rawOutputOOBAction = outputOOBAction;
@@ -76,7 +76,7 @@ public final class ProvisioningCapabilities implements Parcelable {
 
         final byte inputOOBSize = capabilities[10];
         this.inputOOBSize = inputOOBSize;
-        Log.v(TAG, "Input OOB size: " + inputOOBSize);
+        MeshLogger.v(TAG, () -> "Input OOB size: " + inputOOBSize);
 
         final short inputOOBAction = (short) (((capabilities[11] & 0xff) << 8) | (capabilities[12] & 0xff));
         this.rawInputOOBAction = inputOOBAction;
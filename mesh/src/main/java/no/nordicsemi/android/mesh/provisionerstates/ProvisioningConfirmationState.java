@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.provisionerstates;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 
@@ -33,6 +32,7 @@ import no.nordicsemi.android.mesh.InternalTransportCallbacks;
 import no.nordicsemi.android.mesh.MeshManagerApi;
 import no.nordicsemi.android.mesh.MeshProvisioningStatusCallbacks;
 import no.nordicsemi.android.mesh.utils.InputOOBAction;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.OutputOOBAction;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
@@ -92,27 +92,27 @@ public class ProvisioningConfirmationState extends ProvisioningState {
     private byte[] createProvisioningConfirmation() {
 
         final byte[] confirmationInputs = provisioningCallbacks.generateConfirmationInputs(mNode.getProvisionerPublicKeyXY(), mNode.getProvisioneePublicKeyXY());
-        Log.v(TAG, "Confirmation inputs: " + MeshParserUtils.bytesToHex(confirmationInputs, false));
+        MeshLogger.v(TAG, () -> "Confirmation inputs: " + MeshParserUtils.bytesToHex(confirmationInputs, false));
 
         //Generate a confirmation salt of the confirmation inputs
         final byte[] confirmationSalt = SecureUtils.calculateSalt(confirmationInputs);
-        Log.v(TAG, "Confirmation salt: " + MeshParserUtils.bytesToHex(confirmationSalt, false));
+        MeshLogger.v(TAG, () -> "Confirmation salt: " + MeshParserUtils.bytesToHex(confirmationSalt, false));
 
         final byte[] ecdhSecret = mNode.getSharedECDHSecret();
 
         //Generate the confirmationKey by calculating the K1 of ECDH, confirmationSalt and ASCII value of "prck".
         final byte[] confirmationKey = SecureUtils.calculateK1(ecdhSecret, confirmationSalt, SecureUtils.PRCK);
-        Log.v(TAG, "Confirmation key: " + MeshParserUtils.bytesToHex(confirmationKey, false));
+        MeshLogger.v(TAG, () -> "Confirmation key: " + MeshParserUtils.bytesToHex(confirmationKey, false));
 
         //Generate provisioner random number
         final byte[] provisionerRandom = SecureUtils.generateRandomNumber();
         mNode.setProvisionerRandom(provisionerRandom);
-        Log.v(TAG, "Provisioner random: " + MeshParserUtils.bytesToHex(provisionerRandom, false));
+        MeshLogger.v(TAG, () -> "Provisioner random: " + MeshParserUtils.bytesToHex(provisionerRandom, false));
 
         //Generate authentication value from the user input authentication
         final byte[] authenticationValue = generateAuthenticationValue();
         mNode.setAuthenticationValue(authenticationValue);
-        Log.v(TAG, "Authentication value: " + MeshParserUtils.bytesToHex(authenticationValue, false));
+        MeshLogger.v(TAG, () -> "Authentication value: " + MeshParserUtils.bytesToHex(authenticationValue, false));
 
         ByteBuffer buffer = ByteBuffer.allocate(provisionerRandom.length + 16);
         buffer.put(provisionerRandom);
@@ -125,7 +125,7 @@ public class ProvisioningConfirmationState extends ProvisioningState {
         buffer.put(new byte[]{MeshManagerApi.PDU_TYPE_PROVISIONING, TYPE_PROVISIONING_CONFIRMATION});
         buffer.put(confirmationValue);
         final byte[] provisioningConfirmationPDU = buffer.array();
-        Log.v(TAG, "Provisioning confirmation: " + MeshParserUtils.bytesToHex(provisioningConfirmationPDU, false));
+        MeshLogger.v(TAG, () -> "Provisioning confirmation: " + MeshParserUtils.bytesToHex(provisioningConfirmationPDU, false));
 
         return provisioningConfirmationPDU;
     }
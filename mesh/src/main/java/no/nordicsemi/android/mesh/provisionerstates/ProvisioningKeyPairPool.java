@@ -0,0 +1,122 @@
+package no.nordicsemi.android.mesh.provisionerstates;
+
+import org.spongycastle.jce.ECNamedCurveTable;
+import org.spongycastle.jce.spec.ECNamedCurveParameterSpec;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
+/**
+ * Pool of provisioner ECDH key pairs generated in the background.
+ * <p>
+ * Generating a P-256 key pair is the most expensive step of a provisioning session. Sessions that are about to start request key
+ * pairs in advance so that they are generated while the invite and capabilities are exchanged, and the public key can be sent as
+ * soon as the provisioning starts. Each key pair is handed out once and is never reused across sessions.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class ProvisioningKeyPairPool {
+
+    private static final String TAG = ProvisioningKeyPairPool.class.getSimpleName();
+    private static final ProvisioningKeyPairPool DEFAULT = new ProvisioningKeyPairPool();
+
+    private final BlockingQueue<KeyPair> keyPairs = new LinkedBlockingQueue<>();
+    //Key pairs that are available or being generated
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, TAG);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private ECNamedCurveParameterSpec parameterSpec;
+
+    /**
+     * Returns the pool shared by all provisioning sessions.
+     */
+    @NonNull
+    public static ProvisioningKeyPairPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Generates key pairs in the background until the given number of key pairs are available or being generated.
+     *
+     * @param count Number of provisioning sessions about to start
+     */
+    public void prepare(final int count) {
+        while (true) {
+            final int current = pending.get();
+            if (current >= count)
+                return;
+            if (pending.compareAndSet(current, current + 1)) {
+                executor.execute(this::generateInBackground);
+            }
+        }
+    }
+
+    /**
+     * Returns a key pair that has been generated in advance, or generates one if none is available.
+     *
+     * @throws GeneralSecurityException if the key pair could not be generated
+     */
+    @NonNull
+    public KeyPair obtain() throws GeneralSecurityException {
+        final KeyPair keyPair = keyPairs.poll();
+        if (keyPair != null) {
+            pending.decrementAndGet();
+            return keyPair;
+        }
+        return generate();
+    }
+
+    /**
+     * Discards the key pairs that have not been handed out, i.e. once all provisioning sessions have been closed.
+     */
+    public void clear() {
+        while (keyPairs.poll() != null) {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of key pairs that have been generated and not handed out.
+     */
+    @VisibleForTesting
+    int getAvailableCount() {
+        return keyPairs.size();
+    }
+
+    private void generateInBackground() {
+        try {
+            keyPairs.add(generate());
+        } catch (GeneralSecurityException ex) {
+            pending.decrementAndGet();
+            MeshLogger.e(TAG, () -> "Generating key pair failed: " + ex.getMessage());
+        }
+    }
+
+    private KeyPair generate() throws GeneralSecurityException {
+        final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("ECDH", "SC");
+        keyPairGenerator.initialize(getParameterSpec());
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    private synchronized ECNamedCurveParameterSpec getParameterSpec() {
+        if (parameterSpec == null) {
+            parameterSpec = ECNamedCurveTable.getParameterSpec("secp256r1");
+        }
+        return parameterSpec;
+    }
+}
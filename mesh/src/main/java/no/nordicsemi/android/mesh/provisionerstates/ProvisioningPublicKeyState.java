@@ -22,13 +22,9 @@
 
 package no.nordicsemi.android.mesh.provisionerstates;
 
-
-import android.util.Log;
-
 import org.spongycastle.jce.ECNamedCurveTable;
 import org.spongycastle.jce.interfaces.ECPrivateKey;
 import org.spongycastle.jce.interfaces.ECPublicKey;
-import org.spongycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.spongycastle.jce.spec.ECParameterSpec;
 import org.spongycastle.jce.spec.ECPublicKeySpec;
 import org.spongycastle.math.ec.ECCurve;
@@ -41,7 +37,6 @@ import java.nio.ByteOrder;
 import java.security.InvalidKeyException;
 import java.security.KeyFactory;
 import java.security.KeyPair;
-import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.spec.InvalidKeySpecException;
@@ -52,6 +47,7 @@ import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.InternalTransportCallbacks;
 import no.nordicsemi.android.mesh.MeshManagerApi;
 import no.nordicsemi.android.mesh.MeshProvisioningStatusCallbacks;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 public class ProvisioningPublicKeyState extends ProvisioningState {
@@ -98,10 +94,8 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
     private void generateKeyPairs() {
 
         try {
-            final ECNamedCurveParameterSpec parameterSpec = ECNamedCurveTable.getParameterSpec("secp256r1");
-            final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("ECDH", "SC");
-            keyPairGenerator.initialize(parameterSpec);
-            final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+            //Key pairs are generated in advance while the invite and capabilities are exchanged
+            final KeyPair keyPair = ProvisioningKeyPairPool.getDefault().obtain();
             final ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
 
             mProvisionerPrivaetKey = (ECPrivateKey) keyPair.getPrivate();
@@ -113,8 +107,8 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
             final byte[] tempX = BigIntegers.asUnsignedByteArray(32, x);
             final byte[] tempY = BigIntegers.asUnsignedByteArray(32, y);
 
-            Log.v(TAG, "X: length: " + tempX.length + " " + MeshParserUtils.bytesToHex(tempX, false));
-            Log.v(TAG, "Y: length: " + tempY.length + " " + MeshParserUtils.bytesToHex(tempY, false));
+            MeshLogger.v(TAG, () -> "X: length: " + tempX.length + " " + MeshParserUtils.bytesToHex(tempX, false));
+            MeshLogger.v(TAG, () -> "Y: length: " + tempY.length + " " + MeshParserUtils.bytesToHex(tempY, false));
 
             final byte[] tempXY = new byte[64];
             System.arraycopy(tempX, 0, tempXY, 0, tempX.length);
@@ -122,7 +116,7 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
 
             mUnprovisionedMeshNode.setProvisionerPublicKeyXY(tempXY);
 
-            Log.v(TAG, "XY: " + MeshParserUtils.bytesToHex(tempXY, true));
+            MeshLogger.v(TAG, () -> "XY: " + MeshParserUtils.bytesToHex(tempXY, true));
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -158,10 +152,10 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
         System.arraycopy(xy, 32, yComponent, 0, xComponent.length);
 
         final byte[] provisioneeX = convertToLittleEndian(xComponent, ByteOrder.LITTLE_ENDIAN);
-        Log.v(TAG, "Provsionee X: " + MeshParserUtils.bytesToHex(provisioneeX, false));
+        MeshLogger.v(TAG, () -> "Provsionee X: " + MeshParserUtils.bytesToHex(provisioneeX, false));
 
         final byte[] provisioneeY = convertToLittleEndian(yComponent, ByteOrder.LITTLE_ENDIAN);
-        Log.v(TAG, "Provsionee Y: " + MeshParserUtils.bytesToHex(provisioneeY, false));
+        MeshLogger.v(TAG, () -> "Provsionee Y: " + MeshParserUtils.bytesToHex(provisioneeY, false));
 
         final BigInteger x = BigIntegers.fromUnsignedByteArray(xy, 0, 32);
         final BigInteger y = BigIntegers.fromUnsignedByteArray(xy, 32, 32);
@@ -183,7 +177,7 @@ public class ProvisioningPublicKeyState extends ProvisioningState {
 
             final byte[] sharedECDHSecret = a.generateSecret();
             mUnprovisionedMeshNode.setSharedECDHSecret(sharedECDHSecret);
-            Log.v(TAG, "ECDH Secret: " + MeshParserUtils.bytesToHex(sharedECDHSecret, false));
+            MeshLogger.v(TAG, () -> "ECDH Secret: " + MeshParserUtils.bytesToHex(sharedECDHSecret, false));
 
         } catch (NoSuchAlgorithmException e) {
             e.printStackTrace();
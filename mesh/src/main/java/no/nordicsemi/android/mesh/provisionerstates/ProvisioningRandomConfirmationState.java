@@ -22,8 +22,6 @@
 
 package no.nordicsemi.android.mesh.provisionerstates;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -32,6 +30,7 @@ import no.nordicsemi.android.mesh.InternalProvisioningCallbacks;
 import no.nordicsemi.android.mesh.InternalTransportCallbacks;
 import no.nordicsemi.android.mesh.MeshManagerApi;
 import no.nordicsemi.android.mesh.MeshProvisioningStatusCallbacks;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
 
@@ -79,7 +78,7 @@ public class ProvisioningRandomConfirmationState extends ProvisioningState {
         buffer.put(new byte[]{MeshManagerApi.PDU_TYPE_PROVISIONING, TYPE_PROVISIONING_RANDOM_CONFIRMATION});
         buffer.put(provisionerRandom);
         final byte[] data = buffer.array();
-        Log.v(TAG, "Provisioner random PDU: " + MeshParserUtils.bytesToHex(data, false));
+        MeshLogger.v(TAG, () -> "Provisioner random PDU: " + MeshParserUtils.bytesToHex(data, false));
         return data;
     }
 
@@ -88,21 +87,21 @@ public class ProvisioningRandomConfirmationState extends ProvisioningState {
 
         final byte[] confirmationInputs = provisioningCallbacks.generateConfirmationInputs(mUnprovisionedMeshNode.getProvisionerPublicKeyXY(),
                 mUnprovisionedMeshNode.getProvisioneePublicKeyXY());
-        Log.v(TAG, "Confirmation inputs: " + MeshParserUtils.bytesToHex(confirmationInputs, false));
+        MeshLogger.v(TAG, () -> "Confirmation inputs: " + MeshParserUtils.bytesToHex(confirmationInputs, false));
 
         //Generate a confirmation salt of the confirmation inputs
         final byte[] confirmationSalt = SecureUtils.calculateSalt(confirmationInputs);
-        Log.v(TAG, "Confirmation salt: " + MeshParserUtils.bytesToHex(confirmationSalt, false));
+        MeshLogger.v(TAG, () -> "Confirmation salt: " + MeshParserUtils.bytesToHex(confirmationSalt, false));
 
         final byte[] ecdhSecret = mUnprovisionedMeshNode.getSharedECDHSecret();
 
         //Generate the confirmationKey by calculating the K1 of ECDH, confirmationSalt and ASCII value of "prck".
         final byte[] confirmationKey = SecureUtils.calculateK1(ecdhSecret, confirmationSalt, SecureUtils.PRCK);
-        Log.v(TAG, "Confirmation key: " + MeshParserUtils.bytesToHex(confirmationKey, false));
+        MeshLogger.v(TAG, () -> "Confirmation key: " + MeshParserUtils.bytesToHex(confirmationKey, false));
 
         //Generate authentication value from the user input pin
         final byte[] authenticationValue = mUnprovisionedMeshNode.getAuthenticationValue();
-        Log.v(TAG, "Authentication value: " + MeshParserUtils.bytesToHex(authenticationValue, false));
+        MeshLogger.v(TAG, () -> "Authentication value: " + MeshParserUtils.bytesToHex(authenticationValue, false));
 
         ByteBuffer buffer = ByteBuffer.allocate(provisioneeRandom.length + authenticationValue.length);
         buffer.put(provisioneeRandom);
@@ -112,7 +111,7 @@ public class ProvisioningRandomConfirmationState extends ProvisioningState {
         final byte[] confirmationValue = SecureUtils.calculateCMAC(confirmationData, confirmationKey);
 
         if (Arrays.equals(confirmationValue, mUnprovisionedMeshNode.getProvisioneeConfirmation())) {
-            Log.v(TAG, "Confirmation values match!!!!: " + MeshParserUtils.bytesToHex(confirmationValue, false));
+            MeshLogger.v(TAG, () -> "Confirmation values match!!!!: " + MeshParserUtils.bytesToHex(confirmationValue, false));
             return true;
         }
 
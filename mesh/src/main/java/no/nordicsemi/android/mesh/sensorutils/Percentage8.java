@@ -1,9 +1,8 @@
 package no.nordicsemi.android.mesh.sensorutils;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static no.nordicsemi.android.mesh.utils.MeshParserUtils.unsignedToSigned;
 
@@ -20,7 +19,7 @@ public class Percentage8 extends DevicePropertyCharacteristic<Float> {
         value = unsignedToSigned(data[offset] & 0xFF, 8) / 2.0f;
         if (value < 0.0f || value > 100.0f) {
             this.value = null;
-            Log.e(TAG, "Value " + value + " is Prohibited!");
+            MeshLogger.e(TAG, () -> "Value " + value + " is Prohibited!");
         }
     }
 
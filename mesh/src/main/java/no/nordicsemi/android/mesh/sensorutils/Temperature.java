@@ -1,11 +1,10 @@
 package no.nordicsemi.android.mesh.sensorutils;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static no.nordicsemi.android.mesh.utils.MeshParserUtils.unsignedToSigned;
@@ -28,7 +27,7 @@ public class Temperature extends DevicePropertyCharacteristic<Float> {
                 value = tempValue / 2.0f;
                 if (value < -64.0f || value > 63.5f) {
                     this.value = null;
-                    Log.e(TAG, "Value " + tempValue + " is Prohibited!");
+                    MeshLogger.e(TAG, () -> "Value " + tempValue + " is Prohibited!");
                 }
                 break;
             case 2:
@@ -39,7 +38,7 @@ public class Temperature extends DevicePropertyCharacteristic<Float> {
                 value = (tempValue / 100.0f);
                 if (value < -273.15f || value > 327.67f) {
                     this.value = null;
-                    Log.e(TAG, "Value " + tempValue + " is Prohibited!");
+                    MeshLogger.e(TAG, () -> "Value " + tempValue + " is Prohibited!");
                 }
                 break;
             default:
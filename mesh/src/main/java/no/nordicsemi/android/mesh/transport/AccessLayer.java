@@ -23,14 +23,14 @@
 package no.nordicsemi.android.mesh.transport;
 
 import android.content.Context;
-import android.os.Handler;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
 
 import static no.nordicsemi.android.mesh.utils.MeshParserUtils.bytesToHex;
 import static no.nordicsemi.android.mesh.utils.MeshParserUtils.createVendorOpCode;
@@ -47,11 +47,9 @@ abstract class AccessLayer {
 
     private static final String TAG = AccessLayer.class.getSimpleName();
     protected Context mContext;
-    Handler mHandler;
+    TimingWheel mTimingWheel;
     ProvisionedMeshNode mMeshNode;
 
-    protected abstract void initHandler();
-
     /**
      * Creates an access message
      *
@@ -89,7 +87,7 @@ abstract class AccessLayer {
         }
         final byte[] accessPdu = accessMessageBuffer.array();
 
-        Log.v(TAG, "Created Access PDU " + bytesToHex(accessPdu, false));
+        MeshLogger.v(TAG, () -> "Created Access PDU " + bytesToHex(accessPdu, false));
         accessMessage.setAccessPdu(accessMessageBuffer.array());
     }
 
@@ -113,7 +111,7 @@ abstract class AccessLayer {
             accessMessageBuffer.put(vendorOpcode);
         }
         final byte[] accessPdu = accessMessageBuffer.array();
-        Log.v(TAG, "Created Access PDU " + bytesToHex(accessPdu, false));
+        MeshLogger.v(TAG, () -> "Created Access PDU " + bytesToHex(accessPdu, false));
         accessMessage.setAccessPdu(accessPdu);
     }
 
@@ -132,6 +130,6 @@ abstract class AccessLayer {
         final ByteBuffer paramsBuffer = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
         paramsBuffer.put(accessPayload, opCodeLength, length);
         message.setParameters(paramsBuffer.array());
-        Log.v(TAG, "Received Access PDU " + bytesToHex(accessPayload, false));
+        MeshLogger.v(TAG, () -> "Received Access PDU " + bytesToHex(accessPayload, false));
     }
 }
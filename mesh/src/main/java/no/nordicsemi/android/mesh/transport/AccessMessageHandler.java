@@ -0,0 +1,25 @@
+package no.nordicsemi.android.mesh.transport;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Handler for access messages received with a given opcode.
+ * <p>
+ * Applications may register handlers for vendor model opcodes using
+ * {@link no.nordicsemi.android.mesh.MeshManagerApi#registerAccessMessageHandler(int, AccessMessageHandler)}, which allows
+ * vendor model status messages to be received even when they were not sent in response to a vendor model message from this provisioner.
+ * </p>
+ */
+public interface AccessMessageHandler {
+
+    /**
+     * Invoked when an access message with the registered opcode is received.
+     *
+     * @param message Access message received.
+     * @return the status message to be delivered to {@link no.nordicsemi.android.mesh.MeshStatusCallbacks#onMeshMessageReceived(int, MeshMessage)}
+     * or null if the message could not be handled, in which case it is delivered as an unknown pdu.
+     */
+    @Nullable
+    MeshMessage onAccessMessageReceived(@NonNull final AccessMessage message);
+}
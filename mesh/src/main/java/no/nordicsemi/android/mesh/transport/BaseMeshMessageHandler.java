@@ -23,14 +23,11 @@
 package no.nordicsemi.android.mesh.transport;
 
 import android.content.Context;
-import android.util.Log;
+import android.os.Handler;
 import android.util.SparseArray;
 
-import org.spongycastle.crypto.InvalidCipherTextException;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.List;
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
@@ -39,15 +36,15 @@ import no.nordicsemi.android.mesh.InternalTransportCallbacks;
 import no.nordicsemi.android.mesh.MeshManagerApi;
 import no.nordicsemi.android.mesh.MeshNetwork;
 import no.nordicsemi.android.mesh.MeshStatusCallbacks;
-import no.nordicsemi.android.mesh.NetworkKey;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
 
-import static no.nordicsemi.android.mesh.transport.NetworkLayer.createNetworkNonce;
-import static no.nordicsemi.android.mesh.transport.NetworkLayer.createProxyNonce;
-import static no.nordicsemi.android.mesh.transport.NetworkLayer.deObfuscateNetworkHeader;
 
 /**
  * Abstract class that handles mesh messages
@@ -56,6 +53,11 @@ public abstract class BaseMeshMessageHandler implements MeshMessageHandlerApi, I
 
     private static final String TAG = BaseMeshMessageHandler.class.getSimpleName();
 
+    //Results of decrypting a received pdu with a candidate IV index
+    private static final int PDU_DECRYPTED = 0;
+    private static final int PDU_MIC_FAILED = 1;
+    private static final int PDU_NOT_MATCHED = 2;
+
     protected final Context mContext;
     protected final InternalTransportCallbacks mInternalTransportCallbacks;
     private final NetworkLayerCallbacks networkLayerCallbacks;
@@ -63,6 +65,11 @@ public abstract class BaseMeshMessageHandler implements MeshMessageHandlerApi, I
     protected MeshStatusCallbacks mStatusCallbacks;
     private final SparseArray<MeshTransport> transportSparseArray = new SparseArray<>();
     private final SparseArray<MeshMessageState> stateSparseArray = new SparseArray<>();
+    //Confined to the transport thread, where access messages are parsed and handlers are registered
+    private final OpCodeTable<AccessMessageHandler> accessMessageHandlers = new OpCodeTable<>(8);
+    private final NidTable nidTable = new NidTable();
+    private final TimingWheel mTimingWheel;
+    private final OutboundScheduler outboundScheduler;
 
     /**
      * Constructs BaseMessageHandler
@@ -76,10 +83,35 @@ public abstract class BaseMeshMessageHandler implements MeshMessageHandlerApi, I
                                      @NonNull final InternalTransportCallbacks internalTransportCallbacks,
                                      @NonNull final NetworkLayerCallbacks networkLayerCallbacks,
                                      @NonNull final UpperTransportLayerCallbacks upperTransportLayerCallbacks) {
+        this(context, new TimingWheel(new Handler(context.getMainLooper())), internalTransportCallbacks, networkLayerCallbacks,
+                upperTransportLayerCallbacks);
+    }
+
+    /**
+     * Constructs BaseMessageHandler
+     * <p>
+     * The handler and the transports created by it are confined to the thread of the given timing wheel. Pdus must be parsed and
+     * messages must be created on that thread, and the wheel drives the segmentation and reassembly timers and the outbound message
+     * timeouts.
+     * </p>
+     *
+     * @param context                      Context
+     * @param timingWheel                  Timing wheel of the transport thread
+     * @param internalTransportCallbacks   {@link InternalTransportCallbacks} Callbacks
+     * @param networkLayerCallbacks        {@link NetworkLayerCallbacks} network layer callbacks
+     * @param upperTransportLayerCallbacks {@link UpperTransportLayerCallbacks} upper transport layer callbacks
+     */
+    protected BaseMeshMessageHandler(@NonNull final Context context,
+                                     @NonNull final TimingWheel timingWheel,
+                                     @NonNull final InternalTransportCallbacks internalTransportCallbacks,
+                                     @NonNull final NetworkLayerCallbacks networkLayerCallbacks,
+                                     @NonNull final UpperTransportLayerCallbacks upperTransportLayerCallbacks) {
         this.mContext = context;
+        this.mTimingWheel = timingWheel;
         this.mInternalTransportCallbacks = internalTransportCallbacks;
         this.networkLayerCallbacks = networkLayerCallbacks;
         this.upperTransportLayerCallbacks = upperTransportLayerCallbacks;
+        this.outboundScheduler = new OutboundScheduler(timingWheel, this::createMeshMessage);
     }
 
     /**
@@ -99,83 +131,175 @@ public abstract class BaseMeshMessageHandler implements MeshMessageHandlerApi, I
      * @param network {@link MeshNetwork}
      */
     protected void parseMeshPduNotifications(@NonNull final byte[] pdu, @NonNull final MeshNetwork network) throws ExtendedInvalidCipherTextException {
-        final List<NetworkKey> networkKeys = network.getNetKeys();
         final int ivi = ((pdu[1] & 0xFF) >>> 7) & 0x01;
         final int nid = pdu[1] & 0x7F;
         final int acceptedIvIndex = network.getIvIndex().getIvIndex();
-        int ivIndex = acceptedIvIndex == 0 ? 0 : acceptedIvIndex - 1;
-        NetworkKey networkKey;
-        SecureUtils.K2Output k2Output;
-        byte[] networkHeader;
-        int ctlTtl;
-        int ctl;
-        int ttl;
-        while (ivIndex <= ivIndex + 1) {
-            //Here we go through all the network keys and filter out network keys based on the nid.
-            for (int i = 0; i < networkKeys.size(); i++) {
-                networkKey = networkKeys.get(i);
-                k2Output = getMatchingK2Output(networkKey, nid);
-                if (k2Output != null) {
-                    networkHeader = deObfuscateNetworkHeader(pdu, MeshParserUtils.intToBytes(ivIndex), k2Output.getPrivacyKey());
-                    ctlTtl = networkHeader[0];
-                    ctl = (ctlTtl >> 7) & 0x01;
-                    ttl = ctlTtl & 0x7F;
-                    Log.v(TAG, "TTL for received message: " + ttl);
-                    final int src = MeshParserUtils.unsignedBytesToInt(networkHeader[5], networkHeader[4]);
-
-                    final ProvisionedMeshNode node = network.getNode(src);
-                    if (node == null) {
-                        continue;
-                    }
-
-                    final byte[] sequenceNumber = ByteBuffer.allocate(3).order(ByteOrder.BIG_ENDIAN).put(networkHeader, 1, 3).array();
-                    Log.v(TAG, "Sequence number of received access message: " + MeshParserUtils.convert24BitsToInt(sequenceNumber));
-                    //TODO validate ivi
-                    byte[] nonce;
-                    try {
-                        final int networkPayloadLength = pdu.length - (2 + networkHeader.length);
-                        final byte[] transportPdu = new byte[networkPayloadLength];
-                        System.arraycopy(pdu, 8, transportPdu, 0, networkPayloadLength);
-                        final byte[] decryptedPayload;
-                        final MeshMessageState state;
-                        if (pdu[0] == MeshManagerApi.PDU_TYPE_NETWORK) {
-                            nonce = createNetworkNonce((byte) ctlTtl, sequenceNumber, src, MeshParserUtils.intToBytes(ivIndex));
-                            decryptedPayload = SecureUtils.decryptCCM(transportPdu, k2Output.getEncryptionKey(), nonce, SecureUtils.getNetMicLength(ctl));
-                            state = getState(src);
-                        } else {
-                            nonce = createProxyNonce(sequenceNumber, src, MeshParserUtils.intToBytes(ivIndex));
-                            decryptedPayload = SecureUtils.decryptCCM(transportPdu, k2Output.getEncryptionKey(), nonce, SecureUtils.getNetMicLength(ctl));
-                            state = getState(MeshAddress.UNASSIGNED_ADDRESS);
-                        }
-                        if (state != null) {
-                            //TODO look in to proxy filter messages
-                            ((DefaultNoOperationMessageState) state).parseMeshPdu(networkKey, node, pdu, networkHeader, decryptedPayload, ivIndex, sequenceNumber);
-                            return;
-                        }
-                    } catch (InvalidCipherTextException ex) {
-                        if (i == networkKeys.size() - 1) {
-                            throw new ExtendedInvalidCipherTextException(ex.getMessage(), ex.getCause(), TAG);
-                        }
-                    }
+        nidTable.update(network.getNetKeys(), acceptedIvIndex);
+        if (nidTable.get(nid) == null) {
+            MeshLogger.v(TAG, "No network key matching the received NID");
+            MeshMetrics.onNidMiss();
+            return;
+        }
+
+        final int ivIndex = nidTable.getIvIndex(ivi);
+        int result = parseMeshPdu(pdu, network, nid, ivIndex);
+        if (result != PDU_DECRYPTED) {
+            final int alternativeIvIndex = nidTable.getAlternativeIvIndex(ivi);
+            if (alternativeIvIndex >= 0) {
+                final int alternativeResult = parseMeshPdu(pdu, network, nid, alternativeIvIndex);
+                if (alternativeResult != PDU_NOT_MATCHED) {
+                    result = alternativeResult;
+                }
+            }
+        }
+        if (result == PDU_MIC_FAILED) {
+            MeshMetrics.onDecryptionFailed();
+            throw new ExtendedInvalidCipherTextException("mac check in CCM failed", null, TAG);
+        } else if (result == PDU_NOT_MATCHED) {
+            MeshLogger.v(TAG, "No known node matching the source address of the received pdu");
+        }
+    }
+
+    /**
+     * Decrypts the pdu using the network keys matching the NID for the given IV index and passes it on to the message state
+     *
+     * @param pdu     mesh pdu that was received
+     * @param network {@link MeshNetwork}
+     * @param nid     NID of the received pdu
+     * @param ivIndex IV index to decrypt the pdu with
+     * @return {@link #PDU_DECRYPTED} if the pdu was decrypted with one of the matching network keys, {@link #PDU_MIC_FAILED} if it
+     * was sent by a known node but could not be decrypted or {@link #PDU_NOT_MATCHED} if no known node sent it with this IV index
+     */
+    private int parseMeshPdu(@NonNull final byte[] pdu, @NonNull final MeshNetwork network, final int nid, final int ivIndex) {
+        final byte[] ivIndexBytes = nidTable.getIvIndexBytes(ivIndex);
+        int result = PDU_NOT_MATCHED;
+        final NetworkPduCodec codec = NetworkPduCodec.get();
+        for (NidTable.Entry entry = nidTable.get(nid); entry != null; entry = entry.next) {
+            final SecureUtils.K2Output k2Output = entry.k2Output;
+            final byte[] networkHeader = codec.deObfuscateNetworkHeader(pdu, ivIndexBytes, k2Output.getPrivacyKey());
+            final int ctlTtl = networkHeader[0];
+            final int ctl = (ctlTtl >> 7) & 0x01;
+            final int ttl = ctlTtl & 0x7F;
+            MeshLogger.v(TAG, () -> "TTL for received message: " + ttl);
+            final int src = MeshParserUtils.unsignedBytesToInt(networkHeader[5], networkHeader[4]);
+
+            //With the wrong IV index or network key the header is garbage and is unlikely to contain the address of a known node
+            final ProvisionedMeshNode node = network.getNode(src);
+            if (node == null) {
+                continue;
+            }
+
+            final byte[] sequenceNumber = ByteBuffer.allocate(3).order(ByteOrder.BIG_ENDIAN).put(networkHeader, 1, 3).array();
+            MeshLogger.v(TAG, () -> "Sequence number of received access message: " + MeshParserUtils.convert24BitsToInt(sequenceNumber));
+            final int netMicLength = SecureUtils.getNetMicLength(ctl);
+            final int networkPayloadLength = pdu.length - (2 + networkHeader.length);
+            if (networkPayloadLength < netMicLength) {
+                continue;
+            }
+            final byte[] nonce;
+            final MeshMessageState state;
+            if (pdu[0] == MeshManagerApi.PDU_TYPE_NETWORK) {
+                nonce = codec.createNetworkNonce((byte) ctlTtl, sequenceNumber, src, ivIndexBytes);
+                state = getState(src);
+            } else {
+                nonce = codec.createProxyNonce(sequenceNumber, src, ivIndexBytes);
+                state = getState(MeshAddress.UNASSIGNED_ADDRESS);
+            }
+            final byte[] decryptedPayload = new byte[networkPayloadLength - netMicLength];
+            if (CryptoContext.get().tryDecryptCCM(k2Output.getEncryptionKey(), nonce, null,
+                    pdu, 2 + networkHeader.length, networkPayloadLength, decryptedPayload, 0, netMicLength) < 0) {
+                result = PDU_MIC_FAILED;
+                continue;
+            }
+            if (state != null) {
+                if (!network.getReplayProtectionList().accept(src, ivIndex, MeshParserUtils.convert24BitsToInt(sequenceNumber))) {
+                    MeshLogger.v(TAG, () -> "Discarding replayed pdu from: " + MeshAddress.formatAddress(src, false));
+                    return PDU_DECRYPTED;
                 }
+                //TODO look in to proxy filter messages
+                ((DefaultNoOperationMessageState) state).parseMeshPdu(entry.networkKey, node, pdu, networkHeader, decryptedPayload, ivIndex, sequenceNumber);
             }
-            ivIndex++;
+            return PDU_DECRYPTED;
         }
+        return result;
+    }
+
+    /**
+     * Registers a handler for access messages received with the given opcode, must be called on the transport thread.
+     *
+     * @param opCode  Opcode of the access message
+     * @param handler {@link AccessMessageHandler} handler
+     * @throws IllegalArgumentException if the opcode is already handled by the library
+     */
+    public final void registerAccessMessageHandler(final int opCode, @NonNull final AccessMessageHandler handler) {
+        if (DefaultNoOperationMessageState.isHandled(opCode))
+            throw new IllegalArgumentException("Opcode " + Integer.toHexString(opCode) + " is already handled by the library");
+        accessMessageHandlers.put(opCode, handler);
+    }
+
+    /**
+     * Unregisters the handler registered for the given opcode, must be called on the transport thread.
+     *
+     * @param opCode Opcode of the access message
+     */
+    public final void unregisterAccessMessageHandler(final int opCode) {
+        accessMessageHandlers.remove(opCode);
+    }
+
+    @Nullable
+    @Override
+    public final AccessMessageHandler getAccessMessageHandler(final int opCode) {
+        return accessMessageHandlers.get(opCode);
+    }
+
+    @Override
+    public final void onMeshMessageReceived(final int src, @NonNull final MeshMessage meshMessage) {
+        outboundScheduler.onMeshMessageReceived(src, meshMessage);
     }
 
     /**
-     * Returns the K2output for a given Network Key matching the received NID
+     * Queues a mesh message to be sent through the outbound scheduler.
      *
-     * @param networkKey NetworkKey
-     * @param nid        NID
-     * @return {@link SecureUtils.K2Output} or null if the NID doesn't match.
+     * @param src          Source address where the message is originating from
+     * @param dst          Destination address
+     * @param label        Label UUID of the destination address
+     * @param meshMessage  Mesh message
+     * @param statusOpCode Opcode of the status expected from the destination or {@link MeshMessageFuture#NO_STATUS}
+     * @return {@link MeshMessageFuture} completed when the status is received
+     */
+    @NonNull
+    public final MeshMessageFuture enqueueMeshMessage(final int src,
+                                                      final int dst,
+                                                      @Nullable final UUID label,
+                                                      @NonNull final MeshMessage meshMessage,
+                                                      final int statusOpCode) {
+        return outboundScheduler.enqueue(src, dst, label, meshMessage, statusOpCode);
+    }
+
+    /**
+     * Sets the number of acknowledged messages the outbound scheduler keeps in flight.
+     *
+     * @param maxInFlight Maximum number of messages in flight to all destinations
+     */
+    public final void setOutboundWindow(final int maxInFlight) {
+        outboundScheduler.setWindow(maxInFlight);
+    }
+
+    /**
+     * Sets the time the outbound scheduler waits for a status and the number of times a message is resent.
+     *
+     * @param timeout Time to wait for a status in milliseconds
+     * @param retries Number of retries
+     */
+    public final void setOutboundTimeout(final long timeout, final int retries) {
+        outboundScheduler.setTimeout(timeout, retries);
+    }
+
+    /**
+     * Cancels all messages queued or in flight in the outbound scheduler.
      */
-    private SecureUtils.K2Output getMatchingK2Output(@NonNull final NetworkKey networkKey, final int nid) {
-        if(nid == networkKey.getDerivatives().getNid())
-            return networkKey.getDerivatives();
-        else if(networkKey.getOldDerivatives() != null && nid == networkKey.getOldDerivatives().getNid())
-            return networkKey.getOldDerivatives();
-        return null;
+    public final void cancelOutboundMessages() {
+        outboundScheduler.cancelAll();
     }
 
     @Override
@@ -221,7 +345,7 @@ public abstract class BaseMeshMessageHandler implements MeshMessageHandlerApi, I
     private MeshTransport getTransport(final int address) {
         MeshTransport transport = transportSparseArray.get(address);
         if (transport == null) {
-            transport = new MeshTransport(mContext);
+            transport = new MeshTransport(mContext, mTimingWheel);
             transport.setNetworkLayerCallbacks(networkLayerCallbacks);
             transport.setUpperTransportLayerCallbacks(upperTransportLayerCallbacks);
             transportSparseArray.put(address, transport);
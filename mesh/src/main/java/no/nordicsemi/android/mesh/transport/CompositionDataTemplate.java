@@ -0,0 +1,275 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import no.nordicsemi.android.mesh.models.SigModelParser;
+import no.nordicsemi.android.mesh.models.VendorModel;
+import no.nordicsemi.android.mesh.utils.DeviceFeatureUtils;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Immutable layout of Composition Data Page 0 shared by all nodes running the same firmware.
+ * <p>
+ * A template is identified by the company, product and version identifiers and a hash of the page. Templates are cached for the
+ * lifetime of the process, so the composition data of nodes with identical firmware is parsed once. Only pages received from nodes
+ * are cached, the state of the nodes in a network never creates a template. Each node is still given its own elements and models,
+ * as they hold the addresses, bindings, subscriptions and publication of the node. A node that is provisioned again may be given
+ * the elements of a known template without sending a Config Composition Data Get.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CompositionDataTemplate {
+
+    private static final int MAX_TEMPLATES = 64;
+    private static final Map<Key, CompositionDataTemplate> TEMPLATES = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int companyIdentifier;
+    private final int productIdentifier;
+    private final int versionIdentifier;
+    private final int crpl;
+    private final int features;
+    private final int[] locationDescriptors;
+    private final int[] sigModelCounts;
+    private final int[][] modelIdentifiers;
+    private final byte[] page;
+    private final Key key;
+
+    /**
+     * Identifies a template by the node identifiers and the hash of the page.
+     */
+    private static final class Key {
+        final int companyIdentifier;
+        final int productIdentifier;
+        final int versionIdentifier;
+        final int hash;
+
+        Key(final int companyIdentifier, final int productIdentifier, final int versionIdentifier, final int hash) {
+            this.companyIdentifier = companyIdentifier;
+            this.productIdentifier = productIdentifier;
+            this.versionIdentifier = versionIdentifier;
+            this.hash = hash;
+        }
+
+        boolean matches(final int companyIdentifier, final int productIdentifier, final int versionIdentifier) {
+            return this.companyIdentifier == companyIdentifier &&
+                    this.productIdentifier == productIdentifier &&
+                    this.versionIdentifier == versionIdentifier;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key key = (Key) o;
+            return hash == key.hash && matches(key.companyIdentifier, key.productIdentifier, key.versionIdentifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((companyIdentifier * 31 + productIdentifier) * 31 + versionIdentifier) * 31 + hash;
+        }
+    }
+
+    /**
+     * Constructs the template from Composition Data Page 0.
+     *
+     * @param page Page 0 without the page number, starting with the company identifier.
+     */
+    private CompositionDataTemplate(@NonNull final byte[] page, @NonNull final Key key) {
+        this.page = page;
+        this.key = key;
+        companyIdentifier = MeshParserUtils.unsignedBytesToInt(page[0], page[1]);
+        productIdentifier = MeshParserUtils.unsignedBytesToInt(page[2], page[3]);
+        versionIdentifier = MeshParserUtils.unsignedBytesToInt(page[4], page[5]);
+        crpl = MeshParserUtils.unsignedBytesToInt(page[6], page[7]);
+        features = MeshParserUtils.unsignedBytesToInt(page[8], page[9]);
+
+        final List<int[]> elements = new ArrayList<>();
+        final List<Integer> locations = new ArrayList<>();
+        final List<Integer> sigCounts = new ArrayList<>();
+        int offset = 10;
+        while (offset < page.length) {
+            locations.add(MeshParserUtils.unsignedBytesToInt(page[offset], page[offset + 1]));
+            final int numSigModelIds = page[offset + 2];
+            final int numVendorModelIds = page[offset + 3];
+            offset += 4;
+            final int[] models = new int[numSigModelIds + numVendorModelIds];
+            for (int i = 0; i < numSigModelIds; i++) {
+                // sig models are 16-bit
+                models[i] = MeshParserUtils.unsignedBytesToInt(page[offset], page[offset + 1]);
+                offset += 2;
+            }
+            for (int i = numSigModelIds; i < models.length; i++) {
+                // vendor models are 32-bit that contains a 16-bit company identifier and a 16-bit model identifier
+                final int companyIdentifier = MeshParserUtils.unsignedBytesToInt(page[offset], page[offset + 1]);
+                final int modelIdentifier = MeshParserUtils.unsignedBytesToInt(page[offset + 2], page[offset + 3]);
+                models[i] = companyIdentifier << 16 | modelIdentifier;
+                offset += 4;
+            }
+            sigCounts.add(numSigModelIds);
+            elements.add(models);
+        }
+        locationDescriptors = new int[elements.size()];
+        sigModelCounts = new int[elements.size()];
+        modelIdentifiers = new int[elements.size()][];
+        for (int i = 0; i < elements.size(); i++) {
+            locationDescriptors[i] = locations.get(i);
+            sigModelCounts[i] = sigCounts.get(i);
+            modelIdentifiers[i] = elements.get(i);
+        }
+    }
+
+    /**
+     * Returns the cached template of Composition Data Page 0, creating it if the page has not been seen before.
+     *
+     * @param data   Buffer containing the page
+     * @param offset Offset of the company identifier in the buffer
+     */
+    @NonNull
+    static CompositionDataTemplate obtain(@NonNull final byte[] data, final int offset) {
+        final byte[] page = Arrays.copyOfRange(data, offset, data.length);
+        final Key key = new Key(MeshParserUtils.unsignedBytesToInt(page[0], page[1]),
+                MeshParserUtils.unsignedBytesToInt(page[2], page[3]),
+                MeshParserUtils.unsignedBytesToInt(page[4], page[5]),
+                Arrays.hashCode(page));
+        synchronized (TEMPLATES) {
+            final CompositionDataTemplate template = TEMPLATES.get(key);
+            if (template != null && Arrays.equals(template.page, page))
+                return template;
+        }
+        final CompositionDataTemplate template = new CompositionDataTemplate(page, key);
+        synchronized (TEMPLATES) {
+            TEMPLATES.put(key, template);
+            if (TEMPLATES.size() > MAX_TEMPLATES) {
+                final Iterator<CompositionDataTemplate> iterator = TEMPLATES.values().iterator();
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Returns the most recently used template for the given identifiers.
+     *
+     * @param companyIdentifier Company identifier
+     * @param productIdentifier Product identifier
+     * @param versionIdentifier Version identifier
+     */
+    @Nullable
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static CompositionDataTemplate find(final int companyIdentifier, final int productIdentifier, final int versionIdentifier) {
+        synchronized (TEMPLATES) {
+            CompositionDataTemplate result = null;
+            //Entries are in access order, the last match is the most recently used
+            for (Map.Entry<Key, CompositionDataTemplate> entry : TEMPLATES.entrySet()) {
+                if (entry.getKey().matches(companyIdentifier, productIdentifier, versionIdentifier)) {
+                    result = entry.getValue();
+                }
+            }
+            if (result != null) {
+                TEMPLATES.get(result.key);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Creates new elements and models of a node from the template.
+     *
+     * @param unicastAddress Unicast address of the primary element of the node
+     */
+    @NonNull
+    Map<Integer, Element> createElements(final int unicastAddress) {
+        final Map<Integer, Element> elements = new LinkedHashMap<>();
+        for (int i = 0; i < modelIdentifiers.length; i++) {
+            final Map<Integer, MeshModel> models = new LinkedHashMap<>();
+            final int[] identifiers = modelIdentifiers[i];
+            for (int j = 0; j < identifiers.length; j++) {
+                final int modelId = identifiers[j];
+                models.put(modelId, j < sigModelCounts[i] ? SigModelParser.getSigModel(modelId) : new VendorModel(modelId));
+            }
+            final int elementAddress = unicastAddress + i;
+            elements.put(elementAddress, new Element(elementAddress, locationDescriptors[i], models));
+        }
+        return elements;
+    }
+
+    /**
+     * Returns the 16-bit company identifier assigned by Bluetooth SIG.
+     */
+    public int getCompanyIdentifier() {
+        return companyIdentifier;
+    }
+
+    /**
+     * Returns the 16-bit vendor assigned product identifier.
+     */
+    public int getProductIdentifier() {
+        return productIdentifier;
+    }
+
+    /**
+     * Returns the 16-bit vendor assigned product version identifier.
+     */
+    public int getVersionIdentifier() {
+        return versionIdentifier;
+    }
+
+    /**
+     * Returns the minimum number of replay protection list entries in a device.
+     */
+    public int getCrpl() {
+        return crpl;
+    }
+
+    /**
+     * Returns the 16-bit features field indicating the device features.
+     */
+    public int getFeatures() {
+        return features;
+    }
+
+    /**
+     * Returns if the relay feature is supported.
+     */
+    public boolean isRelayFeatureSupported() {
+        return DeviceFeatureUtils.supportsRelayFeature(features);
+    }
+
+    /**
+     * Returns if the proxy feature is supported.
+     */
+    public boolean isProxyFeatureSupported() {
+        return DeviceFeatureUtils.supportsProxyFeature(features);
+    }
+
+    /**
+     * Returns if the friend feature is supported.
+     */
+    public boolean isFriendFeatureSupported() {
+        return DeviceFeatureUtils.supportsFriendFeature(features);
+    }
+
+    /**
+     * Returns if the low power feature is supported.
+     */
+    public boolean isLowPowerFeatureSupported() {
+        return DeviceFeatureUtils.supportsLowPowerFeature(features);
+    }
+
+    /**
+     * Returns the number of elements of a node running this firmware.
+     */
+    public int getElementCount() {
+        return modelIdentifiers.length;
+    }
+}
@@ -22,8 +22,6 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 
 import java.nio.ByteBuffer;
@@ -32,6 +30,7 @@ import java.nio.ByteOrder;
 import no.nordicsemi.android.mesh.ApplicationKey;
 import no.nordicsemi.android.mesh.NetworkKey;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -90,8 +89,8 @@ public class ConfigAppKeyAdd extends ConfigMessage {
 
     @Override
     void assembleMessageParameters() {
-        Log.v(TAG, "NetKeyIndex: " + mNetKey.getKeyIndex());
-        Log.v(TAG, "AppKeyIndex: " + mAppKey.getKeyIndex());
+        MeshLogger.v(TAG, () -> "NetKeyIndex: " + mNetKey.getKeyIndex());
+        MeshLogger.v(TAG, () -> "AppKeyIndex: " + mAppKey.getKeyIndex());
         final byte[] netKeyIndex = MeshParserUtils.addKeyIndexPadding(mNetKey.getKeyIndex());
         final byte[] appKeyIndex = MeshParserUtils.addKeyIndexPadding(mAppKey.getKeyIndex());
         final ByteBuffer paramsBuffer = ByteBuffer.allocate(19).order(ByteOrder.LITTLE_ENDIAN);
@@ -22,11 +22,10 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.NetworkKey;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -56,7 +55,7 @@ public class ConfigAppKeyGet extends ConfigMessage {
 
     @Override
     void assembleMessageParameters() {
-        Log.v(TAG, "NetKeyIndex: " + mNetKey.getKeyIndex());
+        MeshLogger.v(TAG, () -> "NetKeyIndex: " + mNetKey.getKeyIndex());
         final byte[] netKeyIndex = MeshParserUtils.addKeyIndexPadding(mNetKey.getKeyIndex());
         mParameters = new byte[]{netKeyIndex[1], (byte) ((netKeyIndex[0] & 0xFF) & 0x0F)};
     }
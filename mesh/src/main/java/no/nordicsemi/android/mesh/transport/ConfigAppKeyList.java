@@ -24,13 +24,13 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * Creates the ConfigAppKeyList Message.
@@ -74,10 +74,10 @@ public class ConfigAppKeyList extends ConfigStatusMessage implements Parcelable
         mStatusCode = mParameters[0];
         mStatusCodeName = getStatusCodeName(mStatusCode);
         mNetKeyIndex = decode(3, 1).get(0);
-        Log.v(TAG, "NetKey Index: " + Integer.toHexString(mNetKeyIndex));
+        MeshLogger.v(TAG, () -> "NetKey Index: " + Integer.toHexString(mNetKeyIndex));
         mKeyIndexes.addAll(decode(mParameters.length, 3));
         for (Integer keyIndex : mKeyIndexes) {
-            Log.v(TAG, "AppKey Index: " + Integer.toHexString(keyIndex));
+            MeshLogger.v(TAG, () -> "AppKey Index: " + Integer.toHexString(keyIndex));
         }
     }
 
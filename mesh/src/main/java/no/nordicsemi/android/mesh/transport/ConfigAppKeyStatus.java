@@ -24,12 +24,12 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * To be used as a wrapper class for when creating the ConfigAppKeyStatus Message.
@@ -76,10 +76,10 @@ public class ConfigAppKeyStatus extends ConfigStatusMessage implements Parcelabl
         mNetKeyIndex = keyIndexes.get(0);
         mAppKeyIndex = keyIndexes.get(1);
 
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.v(TAG, "Net key index: " + Integer.toHexString(mNetKeyIndex));
-        Log.v(TAG, "App key index: " + Integer.toHexString(mAppKeyIndex));
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.v(TAG, () -> "Net key index: " + Integer.toHexString(mNetKeyIndex));
+        MeshLogger.v(TAG, () -> "App key index: " + Integer.toHexString(mAppKeyIndex));
     }
 
     @Override
@@ -1,10 +1,8 @@
 package no.nordicsemi.android.mesh.transport;
 
-
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -31,7 +29,7 @@ public class ConfigBeaconStatus extends ConfigStatusMessage {
     @Override
     void parseStatusParameters() {
         enable = MeshParserUtils.unsignedByteToInt(mParameters[0]) == ProvisionedBaseMeshNode.ENABLED;
-        Log.d(TAG, "Secure Network Beacon State: " + enable);
+        MeshLogger.d(TAG, () -> "Secure Network Beacon State: " + enable);
     }
 
     @Override
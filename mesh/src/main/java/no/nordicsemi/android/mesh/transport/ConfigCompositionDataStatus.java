@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -33,10 +32,9 @@ import java.util.Locale;
 import java.util.Map;
 
 import androidx.annotation.NonNull;
-import no.nordicsemi.android.mesh.models.SigModelParser;
-import no.nordicsemi.android.mesh.models.VendorModel;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.DeviceFeatureUtils;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -47,7 +45,7 @@ public class ConfigCompositionDataStatus extends ConfigStatusMessage implements
 
     private static final String TAG = ConfigCompositionDataStatus.class.getSimpleName();
     private static final int OP_CODE = ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS;
-    private static final int ELEMENTS_OFFSET = 12;
+    private static final int PAGE_OFFSET = 2;
     private int companyIdentifier;
     private int productIdentifier;
     private int versionIdentifier;
@@ -57,6 +55,7 @@ public class ConfigCompositionDataStatus extends ConfigStatusMessage implements
     private boolean proxyFeatureSupported;
     private boolean friendFeatureSupported;
     private boolean lowPowerFeatureSupported;
+    private CompositionDataTemplate mTemplate;
     private Map<Integer, Element> mElements = new LinkedHashMap<>();
 
     private static final Creator<ConfigCompositionDataStatus> CREATOR = new Creator<ConfigCompositionDataStatus>() {
@@ -97,35 +96,35 @@ public class ConfigCompositionDataStatus extends ConfigStatusMessage implements
 
         //Bluetooth SIG 16-bit company identifier
         companyIdentifier = MeshParserUtils.unsignedBytesToInt(accessPayload[2], accessPayload[3]);
-        Log.v(TAG, "Company identifier: " + String.format(Locale.US, "%04X", companyIdentifier));
+        MeshLogger.v(TAG, () -> "Company identifier: " + String.format(Locale.US, "%04X", companyIdentifier));
 
         //16-bit vendor-assigned product identifier;
         productIdentifier = MeshParserUtils.unsignedBytesToInt(accessPayload[4], accessPayload[5]);
-        Log.v(TAG, "Product identifier: " + String.format(Locale.US, "%04X", productIdentifier));
+        MeshLogger.v(TAG, () -> "Product identifier: " + String.format(Locale.US, "%04X", productIdentifier));
 
         //16-bit vendor-assigned product version identifier;
         versionIdentifier = MeshParserUtils.unsignedBytesToInt(accessPayload[6], accessPayload[7]);
-        Log.v(TAG, "Version identifier: " + String.format(Locale.US, "%04X", versionIdentifier));
+        MeshLogger.v(TAG, () -> "Version identifier: " + String.format(Locale.US, "%04X", versionIdentifier));
 
         //16-bit representation of the minimum number of replay protection list entries in a device
         crpl = MeshParserUtils.unsignedBytesToInt(accessPayload[8], accessPayload[9]);
-        Log.v(TAG, "crpl: " + String.format(Locale.US, "%04X", crpl));
+        MeshLogger.v(TAG, () -> "crpl: " + String.format(Locale.US, "%04X", crpl));
 
         //16-bit device features
         features = MeshParserUtils.unsignedBytesToInt(accessPayload[10], accessPayload[11]);
-        Log.v(TAG, "Features: " + String.format(Locale.US, "%04X", features));
+        MeshLogger.v(TAG, () -> "Features: " + String.format(Locale.US, "%04X", features));
 
         relayFeatureSupported = DeviceFeatureUtils.supportsRelayFeature(features);
-        Log.v(TAG, "Relay feature: " + relayFeatureSupported);
+        MeshLogger.v(TAG, () -> "Relay feature: " + relayFeatureSupported);
 
         proxyFeatureSupported = DeviceFeatureUtils.supportsProxyFeature(features);
-        Log.v(TAG, "Proxy feature: " + proxyFeatureSupported);
+        MeshLogger.v(TAG, () -> "Proxy feature: " + proxyFeatureSupported);
 
         friendFeatureSupported = DeviceFeatureUtils.supportsFriendFeature(features);
-        Log.v(TAG, "Friend feature: " + friendFeatureSupported);
+        MeshLogger.v(TAG, () -> "Friend feature: " + friendFeatureSupported);
 
         lowPowerFeatureSupported = DeviceFeatureUtils.supportsLowPowerFeature(features);
-        Log.v(TAG, "Low power feature: " + lowPowerFeatureSupported);
+        MeshLogger.v(TAG, () -> "Low power feature: " + lowPowerFeatureSupported);
 
         // Parsing the elements which is a variable number of octets
         // Elements contain following
@@ -134,65 +133,10 @@ public class ConfigCompositionDataStatus extends ConfigStatusMessage implements
         // Number of vendor model in this element
         // SIG model ID octents - Variable
         // Vendor model ID octents - Variable
-        parseElements(accessPayload, message.getSrc());
-        Log.v(TAG, "Number of elements: " + mElements.size());
-    }
-
-    /**
-     * Parses the elements within the composition data status
-     *
-     * @param accessPayload underlying payload containing the elements
-     * @param src           source address
-     */
-    private void parseElements(final byte[] accessPayload, final int src) {
-        int tempOffset = ELEMENTS_OFFSET;
-        int counter = 0;
-        int elementAddress = 0;
-        while (tempOffset < accessPayload.length) {
-            final Map<Integer, MeshModel> models = new LinkedHashMap<>();
-            final int locationDescriptor = MeshParserUtils.unsignedBytesToInt(accessPayload[tempOffset], accessPayload[tempOffset + 1]);
-            Log.v(TAG, "Location identifier: " + String.format(Locale.US, "%04X", locationDescriptor));
-
-            tempOffset = tempOffset + 2;
-            final int numSigModelIds = accessPayload[tempOffset];
-            Log.v(TAG, "Number of sig models: " + String.format(Locale.US, "%04X", numSigModelIds));
-
-            tempOffset = tempOffset + 1;
-            final int numVendorModelIds = accessPayload[tempOffset];
-            Log.v(TAG, "Number of vendor models: " + String.format(Locale.US, "%04X", numVendorModelIds));
-
-            tempOffset = tempOffset + 1;
-            if (numSigModelIds > 0) {
-                for (int i = 0; i < numSigModelIds; i++) {
-                    final int modelId = MeshParserUtils.unsignedBytesToInt(accessPayload[tempOffset], accessPayload[tempOffset + 1]);
-                    models.put(modelId, SigModelParser.getSigModel(modelId)); // sig models are 16-bit
-                    Log.v(TAG, "Sig model ID " + i + " : " + String.format(Locale.US, "%04X", modelId));
-                    tempOffset = tempOffset + 2;
-                }
-            }
-
-            if (numVendorModelIds > 0) {
-                for (int i = 0; i < numVendorModelIds; i++) {
-                    // vendor models are 32-bit that contains a 16-bit company identifier and a 16-bit model identifier
-                    final int companyIdentifier = MeshParserUtils.unsignedBytesToInt(accessPayload[tempOffset], accessPayload[tempOffset + 1]);
-                    final int modelIdentifier = MeshParserUtils.unsignedBytesToInt(accessPayload[tempOffset + 2], accessPayload[tempOffset + 3]);
-                    final int vendorModelIdentifier = companyIdentifier << 16 | modelIdentifier;
-                    models.put(vendorModelIdentifier, new VendorModel(vendorModelIdentifier));
-                    Log.v(TAG, "Vendor - model ID " + i + " : " + String.format(Locale.US, "%08X", vendorModelIdentifier));
-                    tempOffset = tempOffset + 4;
-                }
-            }
-
-            if (counter == 0) {
-                elementAddress = src;
-            } else {
-                elementAddress++;
-            }
-            counter++;
-            final Element element = new Element(elementAddress, locationDescriptor, models);
-            final int unicastAddress = elementAddress;
-            mElements.put(unicastAddress, element);
-        }
+        // Nodes running the same firmware share the parsed layout of the page
+        mTemplate = CompositionDataTemplate.obtain(accessPayload, PAGE_OFFSET);
+        mElements = mTemplate.createElements(message.getSrc());
+        MeshLogger.v(TAG, () -> "Number of elements: " + mElements.size());
     }
 
     /**
@@ -285,6 +229,14 @@ public class ConfigCompositionDataStatus extends ConfigStatusMessage implements
         return mElements;
     }
 
+    /**
+     * Returns the template of the composition data, shared by all nodes running the same firmware.
+     */
+    @NonNull
+    public CompositionDataTemplate getTemplate() {
+        return mTemplate;
+    }
+
     private int parseCompanyIdentifier(final short companyIdentifier) {
         return ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN).putShort(companyIdentifier).getShort(0);
     }
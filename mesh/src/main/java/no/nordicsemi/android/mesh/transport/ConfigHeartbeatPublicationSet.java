@@ -22,8 +22,6 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -31,6 +29,7 @@ import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.Features;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static no.nordicsemi.android.mesh.utils.Heartbeat.isValidHeartbeatPeriodLog;
 import static no.nordicsemi.android.mesh.utils.MeshAddress.isValidHeartbeatPublicationDestination;
@@ -103,12 +102,12 @@ public class ConfigHeartbeatPublicationSet extends ConfigMessage {
 
     @Override
     void assembleMessageParameters() {
-        Log.d(TAG, "Destination address: " + Integer.toHexString(dstAddress));
-        Log.d(TAG, "Count Log: " + Integer.toHexString(countLog));
-        Log.d(TAG, "Period Log: " + Integer.toHexString(periodLog));
-        Log.d(TAG, "TTL: " + Integer.toHexString(dstAddress));
-        Log.d(TAG, "Features: " + features.toString());
-        Log.d(TAG, "Net key index: " + Integer.toHexString(netKeyIndex));
+        MeshLogger.d(TAG, () -> "Destination address: " + Integer.toHexString(dstAddress));
+        MeshLogger.d(TAG, () -> "Count Log: " + Integer.toHexString(countLog));
+        MeshLogger.d(TAG, () -> "Period Log: " + Integer.toHexString(periodLog));
+        MeshLogger.d(TAG, () -> "TTL: " + Integer.toHexString(dstAddress));
+        MeshLogger.d(TAG, () -> "Features: " + features.toString());
+        MeshLogger.d(TAG, () -> "Net key index: " + Integer.toHexString(netKeyIndex));
         final byte[] netKeyIndex = addKeyIndexPadding(this.netKeyIndex);
         final ByteBuffer paramsBuffer = ByteBuffer.allocate(9).order(ByteOrder.LITTLE_ENDIAN);
         paramsBuffer.putShort((short) dstAddress);
@@ -24,13 +24,13 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.Features;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.DeviceFeatureUtils;
 import no.nordicsemi.android.mesh.utils.HeartbeatPublication;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -89,9 +89,9 @@ public class ConfigHeartbeatPublicationStatus extends ConfigStatusMessage implem
                 DeviceFeatureUtils.getRelayFeature(featuresInt));
         final int netKeyIndex = MeshParserUtils.unsignedBytesToInt((mParameters[8]), mParameters[9]);
         heartbeatPublication = new HeartbeatPublication(dst, (byte) countLog, (byte) periodLog, ttl, features, netKeyIndex);
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.d(TAG, "Heartbeat publication: " + heartbeatPublication.toString());
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.d(TAG, () -> "Heartbeat publication: " + heartbeatPublication.toString());
     }
 
     @Override
@@ -22,12 +22,11 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static no.nordicsemi.android.mesh.utils.Heartbeat.PERIOD_LOG_MIN;
 import static no.nordicsemi.android.mesh.utils.Heartbeat.isValidHeartbeatPeriodLog;
@@ -85,9 +84,9 @@ public class ConfigHeartbeatSubscriptionSet extends ConfigMessage {
 
     @Override
     void assembleMessageParameters() {
-        Log.d(TAG, "Source address: " + Integer.toHexString(srcAddress));
-        Log.d(TAG, "Destination address: " + Integer.toHexString(dstAddress));
-        Log.d(TAG, "Period Log: " + Integer.toHexString(periodLog));
+        MeshLogger.d(TAG, () -> "Source address: " + Integer.toHexString(srcAddress));
+        MeshLogger.d(TAG, () -> "Destination address: " + Integer.toHexString(dstAddress));
+        MeshLogger.d(TAG, () -> "Period Log: " + Integer.toHexString(periodLog));
         final ByteBuffer paramsBuffer = ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN);
         paramsBuffer.putShort((short) srcAddress);
         paramsBuffer.putShort((short) dstAddress);
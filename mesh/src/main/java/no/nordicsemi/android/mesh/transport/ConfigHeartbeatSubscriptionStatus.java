@@ -24,11 +24,11 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.HeartbeatSubscription;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -83,9 +83,9 @@ public class ConfigHeartbeatSubscriptionStatus extends ConfigStatusMessage imple
         final int maxHops = MeshParserUtils.unsignedByteToInt(mParameters[8]);
 
         heartbeatSubscription = new HeartbeatSubscription(srcAddress, dstAddress, (byte)periodLog, (byte)countLog, minHops, maxHops);
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.d(TAG, "Heartbeat subscription: " + heartbeatSubscription.toString());
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.d(TAG, () -> "Heartbeat subscription: " + heartbeatSubscription.toString());
     }
 
     @Override
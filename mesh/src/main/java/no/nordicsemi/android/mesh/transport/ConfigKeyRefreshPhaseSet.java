@@ -22,10 +22,9 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.NetworkKey;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 import static no.nordicsemi.android.mesh.NetworkKey.KeyRefreshPhaseTransition;
@@ -60,7 +59,7 @@ public class ConfigKeyRefreshPhaseSet extends ConfigMessage {
 
     @Override
     void assembleMessageParameters() {
-        Log.d(TAG, "NetKeyIndex: " + mNetKey.getKeyIndex());
+        MeshLogger.d(TAG, () -> "NetKeyIndex: " + mNetKey.getKeyIndex());
         final byte[] netKeyIndex = MeshParserUtils.addKeyIndexPadding(mNetKey.getKeyIndex());
         mParameters = new byte[]{netKeyIndex[1], (byte) ((netKeyIndex[0] & 0xFF) & 0x0F), (byte) transition};
     }
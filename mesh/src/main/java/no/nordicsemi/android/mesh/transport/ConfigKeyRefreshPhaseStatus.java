@@ -24,11 +24,11 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 
 import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static no.nordicsemi.android.mesh.NetworkKey.KeyRefreshPhase;
 import static no.nordicsemi.android.mesh.NetworkKey.KeyRefreshPhaseTransition;
@@ -79,10 +79,10 @@ public class ConfigKeyRefreshPhaseStatus extends ConfigStatusMessage implements
         mNetKeyIndex = keyIndexes.get(0);
         transition = mParameters[3];
 
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.v(TAG, "Net key index: " + Integer.toHexString(mNetKeyIndex));
-        Log.v(TAG, "Transition: " + transition);
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.v(TAG, () -> "Net key index: " + Integer.toHexString(mNetKeyIndex));
+        MeshLogger.v(TAG, () -> "Transition: " + transition);
     }
 
     @Override
@@ -25,13 +25,13 @@ package no.nordicsemi.android.mesh.transport;
 import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.annotation.NonNull;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -92,11 +92,11 @@ public class ConfigModelAppStatus extends ConfigStatusMessage implements Parcela
             mModelIdentifier = ByteBuffer.wrap(modelIdentifier).order(ByteOrder.BIG_ENDIAN).getInt();
         }
 
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.v(TAG, "Element address: " + MeshAddress.formatAddress(mElementAddress, false));
-        Log.v(TAG, "App key index: " + MeshParserUtils.bytesToHex(appKeyIndex, false));
-        Log.v(TAG, "Model identifier: " + Integer.toHexString(mModelIdentifier));
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.v(TAG, () -> "Element address: " + MeshAddress.formatAddress(mElementAddress, false));
+        MeshLogger.v(TAG, () -> "App key index: " + MeshParserUtils.bytesToHex(appKeyIndex, false));
+        MeshLogger.v(TAG, () -> "Model identifier: " + Integer.toHexString(mModelIdentifier));
     }
 
     @Override
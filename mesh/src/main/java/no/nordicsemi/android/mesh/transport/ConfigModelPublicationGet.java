@@ -22,14 +22,13 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.CompositionDataParser;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * To be used as a wrapper class to create a ConfigModelPublicationSet message.
@@ -71,8 +70,8 @@ public class ConfigModelPublicationGet extends ConfigMessage {
     @Override
     void assembleMessageParameters() {
         final ByteBuffer paramsBuffer;
-        Log.v(TAG, "Element address: " + MeshAddress.formatAddress(elementAddress, true));
-        Log.v(TAG, "Model: " + CompositionDataParser.formatModelIdentifier(modelIdentifier, false));
+        MeshLogger.v(TAG, () -> "Element address: " + MeshAddress.formatAddress(elementAddress, true));
+        MeshLogger.v(TAG, () -> "Model: " + CompositionDataParser.formatModelIdentifier(modelIdentifier, false));
 
         //We check if the model identifier value is within the range of a 16-bit value here. If it is then it is a sigmodel
         if (modelIdentifier >= Short.MIN_VALUE && modelIdentifier <= Short.MAX_VALUE) {
@@ -22,12 +22,11 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 import static no.nordicsemi.android.mesh.utils.MeshAddress.UNASSIGNED_ADDRESS;
@@ -126,15 +125,15 @@ public class ConfigModelPublicationSet extends ConfigMessage {
     void assembleMessageParameters() {
         final ByteBuffer paramsBuffer;
         final byte[] applicationKeyIndex = MeshParserUtils.addKeyIndexPadding(appKeyIndex);
-        Log.v(TAG, "AppKeyIndex: " + appKeyIndex);
-        Log.v(TAG, "Element address: " + formatAddress(elementAddress, true));
-        Log.v(TAG, "Publish address: " + formatAddress(publishAddress, true));
-        Log.v(TAG, "Publish ttl: " + publishTtl);
-        Log.v(TAG, "Publish steps: " + publicationSteps);
-        Log.v(TAG, "Publish resolution: " + publicationResolution);
-        Log.v(TAG, "Retransmission count: " + publishRetransmitCount);
-        Log.v(TAG, "Retransmission interval steps: " + publishRetransmitIntervalSteps);
-        Log.v(TAG, "Model: " + MeshParserUtils.bytesToHex(addressIntToBytes(modelIdentifier), false));
+        MeshLogger.v(TAG, () -> "AppKeyIndex: " + appKeyIndex);
+        MeshLogger.v(TAG, () -> "Element address: " + formatAddress(elementAddress, true));
+        MeshLogger.v(TAG, () -> "Publish address: " + formatAddress(publishAddress, true));
+        MeshLogger.v(TAG, () -> "Publish ttl: " + publishTtl);
+        MeshLogger.v(TAG, () -> "Publish steps: " + publicationSteps);
+        MeshLogger.v(TAG, () -> "Publish resolution: " + publicationResolution);
+        MeshLogger.v(TAG, () -> "Retransmission count: " + publishRetransmitCount);
+        MeshLogger.v(TAG, () -> "Retransmission interval steps: " + publishRetransmitIntervalSteps);
+        MeshLogger.v(TAG, () -> "Model: " + MeshParserUtils.bytesToHex(addressIntToBytes(modelIdentifier), false));
 
         final int rfu = 0; // We ignore the rfu here
         final int octet5 = (applicationKeyIndex[0] | (credentialFlag ? 0b01 : 0b00) << 4);
@@ -169,7 +168,7 @@ public class ConfigModelPublicationSet extends ConfigMessage {
             paramsBuffer.put(modelIdentifier[2]);
             mParameters = paramsBuffer.array();
         }
-        Log.v(TAG, "Publication set: " + MeshParserUtils.bytesToHex(mParameters, false));
+        MeshLogger.v(TAG, () -> "Publication set: " + MeshParserUtils.bytesToHex(mParameters, false));
     }
 
     /**
@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -32,6 +31,7 @@ import java.nio.ByteOrder;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -105,18 +105,18 @@ public class ConfigModelPublicationStatus extends ConfigStatusMessage implements
             mModelIdentifier = ByteBuffer.wrap(modelIdentifier).order(ByteOrder.BIG_ENDIAN).getInt();
         }
 
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.v(TAG, "Element address: " + MeshAddress.formatAddress(mElementAddress, false));
-        Log.v(TAG, "Publish Address: " + MeshAddress.formatAddress(publishAddress, false));
-        Log.v(TAG, "App key index: " + MeshParserUtils.bytesToHex(appKeyIndex, false));
-        Log.v(TAG, "Credential Flag: " + credentialFlag);
-        Log.v(TAG, "Publish TTL: " + publishTtl);
-        Log.v(TAG, "Publish Period where steps: " + publicationSteps + " and resolution: " + publicationResolution);
-        Log.v(TAG, "Publish Retransmit Count: " + publishRetransmitCount);
-        Log.v(TAG, "Publish Retransmit Interval Steps: " + publishRetransmitIntervalSteps);
-        Log.v(TAG, "Model Identifier: " + Integer.toHexString(mModelIdentifier));
-        Log.v(TAG, "Publication status: " + MeshParserUtils.bytesToHex(mParameters, false));
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.v(TAG, () -> "Element address: " + MeshAddress.formatAddress(mElementAddress, false));
+        MeshLogger.v(TAG, () -> "Publish Address: " + MeshAddress.formatAddress(publishAddress, false));
+        MeshLogger.v(TAG, () -> "App key index: " + MeshParserUtils.bytesToHex(appKeyIndex, false));
+        MeshLogger.v(TAG, () -> "Credential Flag: " + credentialFlag);
+        MeshLogger.v(TAG, () -> "Publish TTL: " + publishTtl);
+        MeshLogger.v(TAG, () -> "Publish Period where steps: " + publicationSteps + " and resolution: " + publicationResolution);
+        MeshLogger.v(TAG, () -> "Publish Retransmit Count: " + publishRetransmitCount);
+        MeshLogger.v(TAG, () -> "Publish Retransmit Interval Steps: " + publishRetransmitIntervalSteps);
+        MeshLogger.v(TAG, () -> "Model Identifier: " + Integer.toHexString(mModelIdentifier));
+        MeshLogger.v(TAG, () -> "Publication status: " + MeshParserUtils.bytesToHex(mParameters, false));
     }
 
     @Override
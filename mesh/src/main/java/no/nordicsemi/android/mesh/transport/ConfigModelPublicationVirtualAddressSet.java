@@ -22,8 +22,6 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.UUID;
@@ -31,6 +29,7 @@ import java.util.UUID;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -107,15 +106,15 @@ public class ConfigModelPublicationVirtualAddressSet extends ConfigMessage {
     void assembleMessageParameters() {
         final ByteBuffer paramsBuffer;
         final byte[] applicationKeyIndex = MeshParserUtils.addKeyIndexPadding(appKeyIndex);
-        Log.v(TAG, "AppKeyIndex: " + appKeyIndex);
-        Log.v(TAG, "Element address: " + MeshAddress.formatAddress(elementAddress, true));
-        Log.v(TAG, "Label UUID: " + labelUuid.toString());
-        Log.v(TAG, "Publish ttl: " + publishTtl);
-        Log.v(TAG, "Publish steps: " + publicationSteps);
-        Log.v(TAG, "Publish resolution: " + publicationResolution);
-        Log.v(TAG, "Retransmission count: " + publishRetransmitCount);
-        Log.v(TAG, "Retransmission interval: " + publishRetransmitIntervalSteps);
-        Log.v(TAG, "Model: " + MeshParserUtils.bytesToHex(MeshAddress.addressIntToBytes(modelIdentifier), false));
+        MeshLogger.v(TAG, () -> "AppKeyIndex: " + appKeyIndex);
+        MeshLogger.v(TAG, () -> "Element address: " + MeshAddress.formatAddress(elementAddress, true));
+        MeshLogger.v(TAG, () -> "Label UUID: " + labelUuid.toString());
+        MeshLogger.v(TAG, () -> "Publish ttl: " + publishTtl);
+        MeshLogger.v(TAG, () -> "Publish steps: " + publicationSteps);
+        MeshLogger.v(TAG, () -> "Publish resolution: " + publicationResolution);
+        MeshLogger.v(TAG, () -> "Retransmission count: " + publishRetransmitCount);
+        MeshLogger.v(TAG, () -> "Retransmission interval: " + publishRetransmitIntervalSteps);
+        MeshLogger.v(TAG, () -> "Model: " + MeshParserUtils.bytesToHex(MeshAddress.addressIntToBytes(modelIdentifier), false));
         final byte[] publishAddress = MeshParserUtils.uuidToBytes(labelUuid);
         final int rfu = 0; // We ignore the rfu here
         final int octet5 = applicationKeyIndex[0] | ((credentialFlag ? 0b01 : 0b00) << 4);
@@ -150,7 +149,7 @@ public class ConfigModelPublicationVirtualAddressSet extends ConfigMessage {
             paramsBuffer.put(modelIdentifier[2]);
             mParameters = paramsBuffer.array();
         }
-        Log.v(TAG, "Publication set: " + MeshParserUtils.bytesToHex(mParameters, false));
+        MeshLogger.v(TAG, () -> "Publication set: " + MeshParserUtils.bytesToHex(mParameters, false));
     }
 
     /**
@@ -24,13 +24,13 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * Creates the ConfigNetKeyList Message.
@@ -72,7 +72,7 @@ public class ConfigNetKeyList extends ConfigStatusMessage implements Parcelable
     final void parseStatusParameters() {
         mKeyIndexes.addAll(decode(mParameters.length, 0));
         for (Integer keyIndex : mKeyIndexes) {
-            Log.v(TAG, "Key Index: " + Integer.toHexString(keyIndex));
+            MeshLogger.v(TAG, () -> "Key Index: " + Integer.toHexString(keyIndex));
         }
     }
 
@@ -1,11 +1,9 @@
 package no.nordicsemi.android.mesh.transport;
 
-
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.NetworkKey;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 import static no.nordicsemi.android.mesh.transport.ProvisionedBaseMeshNode.NodeIdentityState;
@@ -40,7 +38,7 @@ public class ConfigNodeIdentitySet extends ConfigMessage {
 
     @Override
     void assembleMessageParameters() {
-        Log.d(TAG, "Node Identity: " + nodeIdentityState);
+        MeshLogger.d(TAG, () -> "Node Identity: " + nodeIdentityState);
         final byte[] netKeyIndex = MeshParserUtils.addKeyIndexPadding(networkKey.getKeyIndex());
         mParameters = new byte[]{netKeyIndex[1], (byte) ((netKeyIndex[0] & 0xFF) & 0x0F), (byte) nodeIdentityState};
     }
@@ -1,13 +1,11 @@
 package no.nordicsemi.android.mesh.transport;
 
-
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 import static no.nordicsemi.android.mesh.transport.ProvisionedBaseMeshNode.NodeIdentityState;
@@ -40,8 +38,8 @@ public class ConfigNodeIdentityStatus extends ConfigStatusMessage {
         final byte[] netKeyIndex = new byte[]{(byte) (mParameters[2] & 0x0F), mParameters[1]};
         this.netKeyIndex = ByteBuffer.wrap(netKeyIndex).order(ByteOrder.BIG_ENDIAN).getShort();
         nodeIdentityState = MeshParserUtils.unsignedByteToInt(mParameters[3]);
-        Log.d(TAG, "Status: " + mStatusCode);
-        Log.d(TAG, "Node Identity State: " + nodeIdentityState);
+        MeshLogger.d(TAG, () -> "Status: " + mStatusCode);
+        MeshLogger.d(TAG, () -> "Node Identity State: " + nodeIdentityState);
     }
 
     @Override
@@ -22,14 +22,13 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.CompositionDataParser;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * Creates a ConfigSigModelAppGet message.
@@ -70,8 +69,8 @@ public class ConfigSigModelAppGet extends ConfigMessage {
     @Override
     void assembleMessageParameters() {
         final ByteBuffer paramsBuffer;
-        Log.v(TAG, "Element address: " + MeshAddress.formatAddress(elementAddress, true));
-        Log.v(TAG, "Model: " + CompositionDataParser.formatModelIdentifier(modelIdentifier, false));
+        MeshLogger.v(TAG, () -> "Element address: " + MeshAddress.formatAddress(elementAddress, true));
+        MeshLogger.v(TAG, () -> "Model: " + CompositionDataParser.formatModelIdentifier(modelIdentifier, false));
         paramsBuffer = ByteBuffer.allocate(SIG_MODEL_APP_GET_PARAMS_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
         paramsBuffer.putShort((short) elementAddress);
         paramsBuffer.putShort((short) modelIdentifier);
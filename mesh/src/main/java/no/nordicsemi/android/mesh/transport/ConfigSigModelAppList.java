@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,6 +32,7 @@ import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.CompositionDataParser;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -80,14 +80,14 @@ public class ConfigSigModelAppList extends ConfigStatusMessage implements Parcel
         mElementAddress = MeshParserUtils.unsignedBytesToInt(mParameters[1], mParameters[2]);
         mModelIdentifier = MeshParserUtils.unsignedBytesToInt(mParameters[3], mParameters[4]);
 
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.v(TAG, "Element address: " + MeshAddress.formatAddress(mElementAddress, false));
-        Log.v(TAG, "Model identifier: " + CompositionDataParser.formatModelIdentifier(mModelIdentifier, false));
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.v(TAG, () -> "Element address: " + MeshAddress.formatAddress(mElementAddress, false));
+        MeshLogger.v(TAG, () -> "Model identifier: " + CompositionDataParser.formatModelIdentifier(mModelIdentifier, false));
 
         mKeyIndexes.addAll(decode(mParameters.length, 5));
         for (Integer keyIndex : mKeyIndexes) {
-            Log.v(TAG, "AppKey Index: " + Integer.toHexString(keyIndex));
+            MeshLogger.v(TAG, () -> "AppKey Index: " + Integer.toHexString(keyIndex));
         }
     }
 
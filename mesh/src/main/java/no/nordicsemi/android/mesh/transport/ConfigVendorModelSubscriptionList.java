@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +31,7 @@ import java.util.List;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -81,15 +81,15 @@ public class ConfigVendorModelSubscriptionList extends ConfigStatusMessage imple
         mElementAddress = MeshParserUtils.unsignedBytesToInt(mParameters[1], mParameters[2]);
         mModelIdentifier = MeshParserUtils.bytesToInt(new byte[]{mParameters[4], mParameters[3], mParameters[6], mParameters[5]});
 
-        Log.v(TAG, "Status code: " + mStatusCode);
-        Log.v(TAG, "Status message: " + mStatusCodeName);
-        Log.v(TAG, "Element Address: " + MeshAddress.formatAddress(mElementAddress, true));
-        Log.v(TAG, "Model Identifier: " + Integer.toHexString(mModelIdentifier));
+        MeshLogger.v(TAG, () -> "Status code: " + mStatusCode);
+        MeshLogger.v(TAG, () -> "Status message: " + mStatusCodeName);
+        MeshLogger.v(TAG, () -> "Element Address: " + MeshAddress.formatAddress(mElementAddress, true));
+        MeshLogger.v(TAG, () -> "Model Identifier: " + Integer.toHexString(mModelIdentifier));
 
         for (int i = 7; i < mParameters.length; i += 2) {
             final int address = MeshParserUtils.unsignedBytesToInt(mParameters[i], mParameters[i + 1]);
             mSubscriptionAddresses.add(address);
-            Log.v(TAG, "Subscription Address: " + MeshAddress.formatAddress(address, false));
+            MeshLogger.v(TAG, () -> "Subscription Address: " + MeshAddress.formatAddress(address, false));
         }
     }
 
@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +20,8 @@ import no.nordicsemi.android.mesh.opcodes.ConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.opcodes.ProxyConfigMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.AddressArray;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.NetworkTransmitSettings;
 import no.nordicsemi.android.mesh.utils.ProxyFilter;
@@ -71,404 +71,478 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     parseControlMessage((ControlMessage) message);
                 }
             } else {
-                Log.v(TAG, "Message reassembly may not be completed yet!");
+                MeshLogger.v(TAG, "Message reassembly may not be completed yet!");
             }
         } catch (ExtendedInvalidCipherTextException e) {
-            Log.e(TAG, "Decryption failed in " + e.getTag() + " : " + e.getMessage());
+            MeshLogger.e(TAG, () -> "Decryption failed in " + e.getTag() + " : " + e.getMessage());
             mMeshStatusCallbacks.onMessageDecryptionFailed(e.getTag(), e.getMessage());
         }
     }
 
+    /**
+     * Handler for a built in status message, invoked on the state the message was received on.
+     */
+    private interface StatusHandler {
+
+        /**
+         * Handles the access message received.
+         *
+         * @param state   State the message was received on
+         * @param message Access message received
+         * @param node    Node the message was received from
+         */
+        void handle(@NonNull final DefaultNoOperationMessageState state,
+                    @NonNull final AccessMessage message,
+                    final ProvisionedMeshNode node);
+    }
+
+    /**
+     * Built in status message handlers keyed by opcode.
+     */
+    private static final OpCodeTable<StatusHandler> STATUS_HANDLERS = new OpCodeTable<>();
+
+    static {
+        //Configuration messages
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS, DefaultNoOperationMessageState::onCompositionDataStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_HEARTBEAT_PUBLICATION_STATUS, DefaultNoOperationMessageState::onHeartbeatPublicationStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_STATUS, DefaultNoOperationMessageState::onDefaultTtlStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_NETKEY_STATUS, DefaultNoOperationMessageState::onNetKeyStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_NETKEY_LIST, DefaultNoOperationMessageState::onNetKeyList);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_APPKEY_STATUS, DefaultNoOperationMessageState::onAppKeyStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_APPKEY_LIST, DefaultNoOperationMessageState::onAppKeyList);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS, DefaultNoOperationMessageState::onModelAppStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_SIG_MODEL_APP_LIST, DefaultNoOperationMessageState::onSigModelAppList);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_APP_LIST, DefaultNoOperationMessageState::onVendorModelAppList);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_STATUS, DefaultNoOperationMessageState::onModelPublicationStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS, DefaultNoOperationMessageState::onModelSubscriptionStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_SIG_MODEL_SUBSCRIPTION_LIST, DefaultNoOperationMessageState::onSigModelSubscriptionList);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_SUBSCRIPTION_LIST, DefaultNoOperationMessageState::onVendorModelSubscriptionList);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_HEARTBEAT_SUBSCRIPTION_STATUS, DefaultNoOperationMessageState::onHeartbeatSubscriptionStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_NODE_IDENTITY_STATUS, DefaultNoOperationMessageState::onNodeIdentityStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS, DefaultNoOperationMessageState::onNodeResetStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_STATUS, DefaultNoOperationMessageState::onNetworkTransmitStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_RELAY_STATUS, DefaultNoOperationMessageState::onRelayStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_BEACON_STATUS, DefaultNoOperationMessageState::onBeaconStatus);
+        STATUS_HANDLERS.put(ConfigMessageOpCodes.CONFIG_FRIEND_STATUS, DefaultNoOperationMessageState::onFriendStatus);
+        registerStatus(ConfigMessageOpCodes.CONFIG_KEY_REFRESH_PHASE_STATUS, ConfigKeyRefreshPhaseStatus::new);
+        registerStatus(ConfigMessageOpCodes.CONFIG_GATT_PROXY_STATUS, ConfigProxyStatus::new);
+        registerStatus(ConfigMessageOpCodes.CONFIG_LOW_POWER_NODE_POLLTIMEOUT_STATUS, ConfigLowPowerNodePollTimeoutStatus::new);
+
+        //Generic and light messages
+        registerStatus(ApplicationMessageOpCodes.GENERIC_ON_OFF_STATUS, GenericOnOffStatus::new);
+        registerStatus(ApplicationMessageOpCodes.GENERIC_LEVEL_STATUS, GenericLevelStatus::new);
+        registerStatus(ApplicationMessageOpCodes.LIGHT_LIGHTNESS_STATUS, LightLightnessStatus::new);
+        registerStatus(ApplicationMessageOpCodes.LIGHT_CTL_STATUS, LightCtlStatus::new);
+        registerStatus(ApplicationMessageOpCodes.LIGHT_HSL_STATUS, LightHslStatus::new);
+        registerStatus(ApplicationMessageOpCodes.LIGHT_LC_MODE_STATUS, LightLCModeStatus::new);
+        registerStatus(ApplicationMessageOpCodes.LIGHT_LC_OCCUPANCY_MODE_STATUS, LightLCOccupancyModeStatus::new);
+        registerStatus(ApplicationMessageOpCodes.LIGHT_LC_LIGHT_ON_OFF_STATUS, LightLCLightOnOffStatus::new);
+        registerStatus(ApplicationMessageOpCodes.LIGHT_LC_PROPERTY_STATUS, LightLCPropertyStatus::new);
+
+        //Scene messages
+        STATUS_HANDLERS.put(ApplicationMessageOpCodes.SCENE_STATUS, DefaultNoOperationMessageState::onSceneStatus);
+        STATUS_HANDLERS.put(ApplicationMessageOpCodes.SCENE_REGISTER_STATUS, DefaultNoOperationMessageState::onSceneRegisterStatus);
+
+        //Sensor messages
+        registerStatus(ApplicationMessageOpCodes.SENSOR_DESCRIPTOR_STATUS, SensorDescriptorStatus::new);
+        registerStatus(ApplicationMessageOpCodes.SENSOR_CADENCE_STATUS, SensorCadenceStatus::new);
+        registerStatus(ApplicationMessageOpCodes.SENSOR_SETTINGS_STATUS, SensorSettingsStatus::new);
+        registerStatus(ApplicationMessageOpCodes.SENSOR_SETTING_STATUS, SensorSettingStatus::new);
+        registerStatus(ApplicationMessageOpCodes.SENSOR_STATUS, SensorStatus::new);
+        registerStatus(ApplicationMessageOpCodes.SENSOR_COLUMN_STATUS, SensorColumnStatus::new);
+        registerStatus(ApplicationMessageOpCodes.SENSOR_SERIES_STATUS, SensorSeriesStatus::new);
+    }
+
+    /**
+     * Notifies the status message received to the outbound scheduler and the application
+     *
+     * @param src    Source address of the status message
+     * @param status Status message received
+     */
+    private void notifyMeshMessageReceived(final int src, @NonNull final MeshMessage status) {
+        mMeshStatusCallbacks.onMeshMessageReceived(src, status);
+        meshMessageHandlerCallbacks.onMeshMessageReceived(src, status);
+    }
+
+    /**
+     * Registers a status message that does not change the state of the node
+     *
+     * @param opCode Opcode of the status message
+     * @param parser Parser creating the status message
+     */
+    private static void registerStatus(final int opCode, @NonNull final AccessMessageHandler parser) {
+        STATUS_HANDLERS.put(opCode, (state, message, node) -> state.onStatusReceived(message, parser.onAccessMessageReceived(message)));
+    }
+
+    /**
+     * Returns true if the opcode is handled by one of the built in status handlers
+     *
+     * @param opCode opcode of the access message
+     */
+    static boolean isHandled(final int opCode) {
+        return STATUS_HANDLERS.get(opCode) != null;
+    }
+
     /**
      * Parses Access message received
      *
      * @param message access message received by the acccess layer
      */
     private void parseAccessMessage(final AccessMessage message) {
-        final ProvisionedMeshNode node = mInternalTransportCallbacks.getNode(message.getSrc());
-        final int opCodeLength = MeshParserUtils.getOpCodeLength(message.getAccessPdu()[0] & 0xFF);
-        //OpCode length
-        switch (opCodeLength) {
-            case 1:
-                if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_COMPOSITION_DATA_STATUS) {
-                    final ConfigCompositionDataStatus status = new ConfigCompositionDataStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        node.setCompositionData(status);
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SCENE_STATUS) {
-                    final SceneStatus sceneStatus = new SceneStatus(message);
-                    if (sceneStatus.isSuccessful()) {
-                        final MeshModel model = getMeshModel(node, sceneStatus.getSrc(), SCENE_SERVER);
-                        if (model != null) {
-                            final SceneServer sceneServer = ((SceneServer) model);
-                            sceneServer.currentScene = sceneStatus.getCurrentScene();
-                            sceneServer.targetScene = sceneStatus.getTargetScene();
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(sceneStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), sceneStatus);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_HEARTBEAT_PUBLICATION_STATUS) {
-                    final ConfigHeartbeatPublicationStatus status = new ConfigHeartbeatPublicationStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            final ConfigurationServerModel model = (ConfigurationServerModel) getMeshModel(node, status.getSrc(), CONFIGURATION_SERVER);
-                            if (model != null) {
-                                model.setHeartbeatPublication(!isValidUnassignedAddress(status.getHeartbeatPublication().getDst()) ?
-                                        status.getHeartbeatPublication() : null);
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_DESCRIPTOR_STATUS) {
-                    final SensorDescriptorStatus status = new SensorDescriptorStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_CADENCE_STATUS) {
-                    final SensorCadenceStatus status = new SensorCadenceStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_SETTINGS_STATUS) {
-                    final SensorSettingsStatus status = new SensorSettingsStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_SETTING_STATUS) {
-                    final SensorSettingStatus status = new SensorSettingStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_STATUS) {
-                    final SensorStatus status = new SensorStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_COLUMN_STATUS) {
-                    final SensorColumnStatus status = new SensorColumnStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SENSOR_SERIES_STATUS) {
-                    final SensorSeriesStatus status = new SensorSeriesStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+        final StatusHandler statusHandler = STATUS_HANDLERS.get(message.getOpCode());
+        if (statusHandler != null) {
+            statusHandler.handle(this, message, mInternalTransportCallbacks.getNode(message.getSrc()));
+            return;
+        }
+
+        final AccessMessageHandler handler = meshMessageHandlerCallbacks.getAccessMessageHandler(message.getOpCode());
+        if (handler != null) {
+            final MeshMessage status = handler.onAccessMessageReceived(message);
+            if (status != null) {
+                notifyMeshMessageReceived(message.getSrc(), status);
+                return;
+            }
+        } else if (MeshParserUtils.getOpCodeLength(message.getAccessPdu()[0] & 0xFF) == 3) {
+            if (mMeshMessage instanceof VendorModelMessageAcked) {
+                final VendorModelMessageAcked vendorModelMessageAcked = (VendorModelMessageAcked) mMeshMessage;
+                final VendorModelMessageStatus status = new VendorModelMessageStatus(message, vendorModelMessageAcked.getModelIdentifier());
+                notifyMeshMessageReceived(message.getSrc(), status);
+                MeshLogger.v(TAG, () -> "Vendor model Access PDU Received: " + MeshParserUtils.bytesToHex(message.getAccessPdu(), false));
+                return;
+            } else if (mMeshMessage instanceof VendorModelMessageUnacked) {
+                final VendorModelMessageUnacked vendorModelMessageUnacked = (VendorModelMessageUnacked) mMeshMessage;
+                final VendorModelMessageStatus status = new VendorModelMessageStatus(message, vendorModelMessageUnacked.getModelIdentifier());
+                notifyMeshMessageReceived(message.getSrc(), status);
+                return;
+            }
+        }
+        handleUnknownPdu(message);
+    }
+
+    private void onStatusReceived(@NonNull final AccessMessage message, @Nullable final MeshMessage status) {
+        if (status == null) {
+            handleUnknownPdu(message);
+            return;
+        }
+        mInternalTransportCallbacks.updateMeshNetwork(status);
+        notifyMeshMessageReceived(message.getSrc(), status);
+    }
+
+    /**
+     * Handles a status message that has changed the state of the node it was received from
+     *
+     * @param message Access message received
+     * @param status  Status message received
+     * @param node    Node the status message was received from
+     */
+    private void onNodeStatusReceived(@NonNull final AccessMessage message, @NonNull final MeshMessage status,
+                                      @NonNull final ProvisionedMeshNode node) {
+        if (!isReceivedViaProxyFilter(message)) {
+            mInternalTransportCallbacks.onNodeUpdated(node);
+        }
+        onStatusReceived(message, status);
+    }
+
+    private void onCompositionDataStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigCompositionDataStatus status = new ConfigCompositionDataStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            node.setCompositionData(status);
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onSceneStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final SceneStatus sceneStatus = new SceneStatus(message);
+        if (sceneStatus.isSuccessful()) {
+            final MeshModel model = getMeshModel(node, sceneStatus.getSrc(), SCENE_SERVER);
+            if (model != null) {
+                final SceneServer sceneServer = ((SceneServer) model);
+                sceneServer.currentScene = sceneStatus.getCurrentScene();
+                sceneServer.targetScene = sceneStatus.getTargetScene();
+            }
+        }
+        onNodeStatusReceived(message, sceneStatus, node);
+    }
+
+    private void onHeartbeatPublicationStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigHeartbeatPublicationStatus status = new ConfigHeartbeatPublicationStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                final ConfigurationServerModel model = (ConfigurationServerModel) getMeshModel(node, status.getSrc(), CONFIGURATION_SERVER);
+                if (model != null) {
+                    model.setHeartbeatPublication(!isValidUnassignedAddress(status.getHeartbeatPublication().getDst()) ?
+                            status.getHeartbeatPublication() : null);
+                }
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onDefaultTtlStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigDefaultTtlStatus status = new ConfigDefaultTtlStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            node.setTtl(status.getTtl());
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onNetKeyStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigNetKeyStatus status = new ConfigNetKeyStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                if (mMeshMessage instanceof ConfigNetKeyAdd) {
+                    node.setAddedNetKeyIndex(status.getNetKeyIndex());
+                } else if (mMeshMessage instanceof ConfigNetKeyUpdate) {
+                    node.updateAddedNetKey(status.getNetKeyIndex());
+                } else if (mMeshMessage instanceof ConfigNetKeyDelete) {
+                    node.removeAddedNetKeyIndex(status.getNetKeyIndex());
+                }
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onNetKeyList(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigNetKeyList netKeyList = new ConfigNetKeyList(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (netKeyList.isSuccessful()) {
+                node.updateNetKeyList(netKeyList.getKeyIndexes());
+            }
+        }
+        onNodeStatusReceived(message, netKeyList, node);
+    }
+
+    private void onAppKeyStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigAppKeyStatus status = new ConfigAppKeyStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                if (mMeshMessage instanceof ConfigAppKeyAdd) {
+                    node.setAddedAppKeyIndex(status.getAppKeyIndex());
+                } else if (mMeshMessage instanceof ConfigAppKeyUpdate) {
+                    node.updateAddedAppKey(status.getAppKeyIndex());
+                } else if (mMeshMessage instanceof ConfigAppKeyDelete) {
+                    node.removeAddedAppKeyIndex(status.getAppKeyIndex());
+                }
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onAppKeyList(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigAppKeyList appKeyList = new ConfigAppKeyList(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (appKeyList.isSuccessful()) {
+                node.updateAppKeyList(appKeyList.getNetKeyIndex(), appKeyList.getKeyIndexes(),
+                        mInternalTransportCallbacks.getApplicationKeys(appKeyList.getNetKeyIndex()));
+            }
+        }
+        onNodeStatusReceived(message, appKeyList, node);
+    }
+
+    private void onModelAppStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigModelAppStatus status = new ConfigModelAppStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                if (mMeshMessage instanceof ConfigModelAppBind) {
+                    node.setAppKeyBindStatus(status);
                 } else {
-                    handleUnknownPdu(message);
+                    node.setAppKeyUnbindStatus(status);
                 }
-                break;
-            case 2:
-                if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_DEFAULT_TTL_STATUS) {
-                    final ConfigDefaultTtlStatus status = new ConfigDefaultTtlStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        node.setTtl(status.getTtl());
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_NETKEY_STATUS) {
-                    final ConfigNetKeyStatus status = new ConfigNetKeyStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            if (mMeshMessage instanceof ConfigNetKeyAdd) {
-                                node.setAddedNetKeyIndex(status.getNetKeyIndex());
-                            } else if (mMeshMessage instanceof ConfigNetKeyUpdate) {
-                                node.updateAddedNetKey(status.getNetKeyIndex());
-                            } else if (mMeshMessage instanceof ConfigNetKeyDelete) {
-                                node.removeAddedNetKeyIndex(status.getNetKeyIndex());
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_NETKEY_LIST) {
-                    final ConfigNetKeyList netKeyList = new ConfigNetKeyList(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (netKeyList.isSuccessful()) {
-                            node.updateNetKeyList(netKeyList.getKeyIndexes());
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(netKeyList);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), netKeyList);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_APPKEY_STATUS) {
-                    final ConfigAppKeyStatus status = new ConfigAppKeyStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            if (mMeshMessage instanceof ConfigAppKeyAdd) {
-                                node.setAddedAppKeyIndex(status.getAppKeyIndex());
-                            } else if (mMeshMessage instanceof ConfigAppKeyUpdate) {
-                                node.updateAddedAppKey(status.getAppKeyIndex());
-                            } else if (mMeshMessage instanceof ConfigAppKeyDelete) {
-                                node.removeAddedAppKeyIndex(status.getAppKeyIndex());
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_APPKEY_LIST) {
-                    final ConfigAppKeyList appKeyList = new ConfigAppKeyList(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (appKeyList.isSuccessful()) {
-                            node.updateAppKeyList(appKeyList.getNetKeyIndex(), appKeyList.getKeyIndexes(),
-                                    mInternalTransportCallbacks.getApplicationKeys(appKeyList.getNetKeyIndex()));
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(appKeyList);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), appKeyList);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_MODEL_APP_STATUS) {
-                    final ConfigModelAppStatus status = new ConfigModelAppStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            if (mMeshMessage instanceof ConfigModelAppBind) {
-                                node.setAppKeyBindStatus(status);
-                            } else {
-                                node.setAppKeyUnbindStatus(status);
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_SIG_MODEL_APP_LIST) {
-                    final ConfigSigModelAppList appKeyList = new ConfigSigModelAppList(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (appKeyList.isSuccessful()) {
-                            final MeshModel model = getMeshModel(node, appKeyList.getElementAddress(), appKeyList.getModelIdentifier());
-                            if (model != null) {
-                                model.setBoundAppKeyIndexes(appKeyList.getKeyIndexes());
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(appKeyList);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), appKeyList);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_APP_LIST) {
-                    final ConfigVendorModelAppList appKeyList = new ConfigVendorModelAppList(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (appKeyList.isSuccessful()) {
-                            final MeshModel model = getMeshModel(node, appKeyList.getElementAddress(), appKeyList.getModelIdentifier());
-                            if (model != null) {
-                                model.setBoundAppKeyIndexes(appKeyList.getKeyIndexes());
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(appKeyList);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), appKeyList);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_MODEL_PUBLICATION_STATUS) {
-                    final ConfigModelPublicationStatus status = new ConfigModelPublicationStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
-                            if (model != null) {
-                                if (mMeshMessage instanceof ConfigModelPublicationGet) {
-                                    model.updatePublicationStatus(status);
-                                } else if (mMeshMessage instanceof ConfigModelPublicationSet) {
-                                    model.setPublicationStatus(status, null);
-                                } else if (mMeshMessage instanceof ConfigModelPublicationVirtualAddressSet) {
-                                    final UUID labelUUID = ((ConfigModelPublicationVirtualAddressSet) mMeshMessage).
-                                            getLabelUuid();
-                                    model.setPublicationStatus(status, labelUUID);
-                                }
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_MODEL_SUBSCRIPTION_STATUS) {
-                    final ConfigModelSubscriptionStatus status = new ConfigModelSubscriptionStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
-                            if (model != null) {
-                                if (mMeshMessage instanceof ConfigModelSubscriptionAdd) {
-                                    model.addSubscriptionAddress(status.getSubscriptionAddress());
-                                } else if (mMeshMessage instanceof ConfigModelSubscriptionVirtualAddressAdd) {
-                                    model.addSubscriptionAddress(((ConfigModelSubscriptionVirtualAddressAdd) mMeshMessage).
-                                            getLabelUuid(), status.getSubscriptionAddress());
-                                } else if (mMeshMessage instanceof ConfigModelSubscriptionOverwrite) {
-                                    model.overwriteSubscriptionAddress(status.getSubscriptionAddress());
-                                } else if (mMeshMessage instanceof ConfigModelSubscriptionVirtualAddressOverwrite) {
-                                    model.overwriteSubscriptionAddress(((ConfigModelSubscriptionVirtualAddressOverwrite) mMeshMessage).
-                                            getLabelUuid(), status.getSubscriptionAddress());
-                                } else if (mMeshMessage instanceof ConfigModelSubscriptionDelete) {
-                                    model.removeSubscriptionAddress(status.getSubscriptionAddress());
-                                } else if (mMeshMessage instanceof ConfigModelSubscriptionVirtualAddressDelete) {
-                                    model.removeSubscriptionAddress(((ConfigModelSubscriptionVirtualAddressDelete) mMeshMessage).
-                                            getLabelUuid(), status.getSubscriptionAddress());
-                                } else if (mMeshMessage instanceof ConfigModelSubscriptionDeleteAll) {
-                                    model.removeAllSubscriptionAddresses();
-                                }
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_SIG_MODEL_SUBSCRIPTION_LIST) {
-                    final ConfigSigModelSubscriptionList status = new ConfigSigModelSubscriptionList(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
-                            if (model != null) {
-                                model.updateSubscriptionAddressesList(status.getSubscriptionAddresses());
-                            }
-                            createGroups(status.getSubscriptionAddresses());
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_VENDOR_MODEL_SUBSCRIPTION_LIST) {
-                    final ConfigVendorModelSubscriptionList status = new ConfigVendorModelSubscriptionList(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
-                            if (model != null) {
-                                model.updateSubscriptionAddressesList(status.getSubscriptionAddresses());
-                            }
-                            createGroups(status.getSubscriptionAddresses());
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_HEARTBEAT_SUBSCRIPTION_STATUS) {
-                    final ConfigHeartbeatSubscriptionStatus status = new ConfigHeartbeatSubscriptionStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        if (status.isSuccessful()) {
-                            final MeshModel model = getMeshModel(node, message.getSrc(), CONFIGURATION_SERVER);
-                            if (model != null) {
-                                ((ConfigurationServerModel) model).
-                                        setHeartbeatSubscription((!isValidUnassignedAddress(status.getHeartbeatSubscription().getSrc()) ||
-                                                !isValidUnassignedAddress(status.getHeartbeatSubscription().getDst()))
-                                                ? status.getHeartbeatSubscription() : null);
-                            }
-                        }
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_NODE_IDENTITY_STATUS) {
-                    final ConfigNodeIdentityStatus status = new ConfigNodeIdentityStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        node.nodeIdentityState = status.getNodeIdentityState();
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_NODE_RESET_STATUS) {
-                    final ConfigNodeResetStatus status = new ConfigNodeResetStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        mInternalTransportCallbacks.onMeshNodeReset(node);
-                    }
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_NETWORK_TRANSMIT_STATUS) {
-                    final ConfigNetworkTransmitStatus status = new ConfigNetworkTransmitStatus(message);
-                    final NetworkTransmitSettings networkTransmitSettings =
-                            new NetworkTransmitSettings(status.getNetworkTransmitCount(), status.getNetworkTransmitIntervalSteps());
-                    node.setNetworkTransmitSettings(networkTransmitSettings);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_RELAY_STATUS) {
-                    final ConfigRelayStatus status = new ConfigRelayStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        final RelaySettings relaySettings =
-                                new RelaySettings(status.getRelayRetransmitCount(), status.getRelayRetransmitIntervalSteps());
-                        node.setRelaySettings(relaySettings);
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_BEACON_STATUS) {
-                    final ConfigBeaconStatus status = new ConfigBeaconStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        node.setSecureNetworkBeaconSupported(status.isEnable());
-                    }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_FRIEND_STATUS) {
-                    final ConfigFriendStatus status = new ConfigFriendStatus(message);
-                    if (!isReceivedViaProxyFilter(message)) {
-                        node.getNodeFeatures().setFriend(status.isEnable() ? Features.ENABLED : Features.DISABLED);
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onSigModelAppList(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigSigModelAppList appKeyList = new ConfigSigModelAppList(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (appKeyList.isSuccessful()) {
+                final MeshModel model = getMeshModel(node, appKeyList.getElementAddress(), appKeyList.getModelIdentifier());
+                if (model != null) {
+                    model.setBoundAppKeyIndexes(appKeyList.getKeyIndexes());
+                }
+            }
+        }
+        onNodeStatusReceived(message, appKeyList, node);
+    }
+
+    private void onVendorModelAppList(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigVendorModelAppList appKeyList = new ConfigVendorModelAppList(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (appKeyList.isSuccessful()) {
+                final MeshModel model = getMeshModel(node, appKeyList.getElementAddress(), appKeyList.getModelIdentifier());
+                if (model != null) {
+                    model.setBoundAppKeyIndexes(appKeyList.getKeyIndexes());
+                }
+            }
+        }
+        onNodeStatusReceived(message, appKeyList, node);
+    }
+
+    private void onModelPublicationStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigModelPublicationStatus status = new ConfigModelPublicationStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
+                if (model != null) {
+                    if (mMeshMessage instanceof ConfigModelPublicationGet) {
+                        model.updatePublicationStatus(status);
+                    } else if (mMeshMessage instanceof ConfigModelPublicationSet) {
+                        model.setPublicationStatus(status, null);
+                    } else if (mMeshMessage instanceof ConfigModelPublicationVirtualAddressSet) {
+                        final UUID labelUUID = ((ConfigModelPublicationVirtualAddressSet) mMeshMessage).
+                                getLabelUuid();
+                        model.setPublicationStatus(status, labelUUID);
                     }
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_KEY_REFRESH_PHASE_STATUS) {
-                    final ConfigKeyRefreshPhaseStatus status = new ConfigKeyRefreshPhaseStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_GATT_PROXY_STATUS) {
-                    final ConfigProxyStatus status = new ConfigProxyStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ConfigMessageOpCodes.CONFIG_LOW_POWER_NODE_POLLTIMEOUT_STATUS) {
-                    final ConfigLowPowerNodePollTimeoutStatus status = new ConfigLowPowerNodePollTimeoutStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.GENERIC_ON_OFF_STATUS) {
-                    final GenericOnOffStatus status = new GenericOnOffStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.GENERIC_LEVEL_STATUS) {
-                    final GenericLevelStatus genericLevelStatus = new GenericLevelStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(genericLevelStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), genericLevelStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_LIGHTNESS_STATUS) {
-                    final LightLightnessStatus lightLightnessStatus = new LightLightnessStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightLightnessStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightLightnessStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_CTL_STATUS) {
-                    final LightCtlStatus lightCtlStatus = new LightCtlStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightCtlStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightCtlStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_HSL_STATUS) {
-                    final LightHslStatus lightHslStatus = new LightHslStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightHslStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightHslStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_LC_MODE_STATUS) {
-                    final LightLCModeStatus lightLcModeStatus = new LightLCModeStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightLcModeStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightLcModeStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_LC_OCCUPANCY_MODE_STATUS) {
-                    final LightLCOccupancyModeStatus lightLcOccupancyModeStatus = new LightLCOccupancyModeStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightLcOccupancyModeStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightLcOccupancyModeStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_LC_LIGHT_ON_OFF_STATUS) {
-                    final LightLCLightOnOffStatus lightLcLightOnOffStatus = new LightLCLightOnOffStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(lightLcLightOnOffStatus);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), lightLcLightOnOffStatus);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.LIGHT_LC_PROPERTY_STATUS) {
-                    final LightLCPropertyStatus status = new LightLCPropertyStatus(message);
-                    mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else if (message.getOpCode() == ApplicationMessageOpCodes.SCENE_REGISTER_STATUS) {
-                    if (mMeshMessage instanceof SceneStore) {
-                        final SceneRegisterStatus status = new SceneRegisterStatus(message);
-                        storeScene(node, status);
-                        mInternalTransportCallbacks.updateMeshNetwork(status);
-                        mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                    } else if (mMeshMessage instanceof SceneRecall) {
-                        final SceneStatus status = new SceneStatus(message);
-                        storeScene(node, status);
-                        mInternalTransportCallbacks.updateMeshNetwork(status);
-                        mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                    } else if (mMeshMessage instanceof SceneDelete) {
-                        final SceneRegisterStatus status = new SceneRegisterStatus(message);
-                        deleteScene(node, status);
-                        mInternalTransportCallbacks.updateMeshNetwork(status);
-                        mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
+                }
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onModelSubscriptionStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigModelSubscriptionStatus status = new ConfigModelSubscriptionStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
+                if (model != null) {
+                    if (mMeshMessage instanceof ConfigModelSubscriptionAdd) {
+                        model.addSubscriptionAddress(status.getSubscriptionAddress());
+                    } else if (mMeshMessage instanceof ConfigModelSubscriptionVirtualAddressAdd) {
+                        model.addSubscriptionAddress(((ConfigModelSubscriptionVirtualAddressAdd) mMeshMessage).
+                                getLabelUuid(), status.getSubscriptionAddress());
+                    } else if (mMeshMessage instanceof ConfigModelSubscriptionOverwrite) {
+                        model.overwriteSubscriptionAddress(status.getSubscriptionAddress());
+                    } else if (mMeshMessage instanceof ConfigModelSubscriptionVirtualAddressOverwrite) {
+                        model.overwriteSubscriptionAddress(((ConfigModelSubscriptionVirtualAddressOverwrite) mMeshMessage).
+                                getLabelUuid(), status.getSubscriptionAddress());
+                    } else if (mMeshMessage instanceof ConfigModelSubscriptionDelete) {
+                        model.removeSubscriptionAddress(status.getSubscriptionAddress());
+                    } else if (mMeshMessage instanceof ConfigModelSubscriptionVirtualAddressDelete) {
+                        model.removeSubscriptionAddress(((ConfigModelSubscriptionVirtualAddressDelete) mMeshMessage).
+                                getLabelUuid(), status.getSubscriptionAddress());
+                    } else if (mMeshMessage instanceof ConfigModelSubscriptionDeleteAll) {
+                        model.removeAllSubscriptionAddresses();
                     }
-                } else {
-                    handleUnknownPdu(message);
                 }
-                break;
-            case 3:
-                if (mMeshMessage instanceof VendorModelMessageAcked) {
-                    final VendorModelMessageAcked vendorModelMessageAcked = (VendorModelMessageAcked) mMeshMessage;
-                    final VendorModelMessageStatus status = new VendorModelMessageStatus(message, vendorModelMessageAcked.getModelIdentifier());
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                    Log.v(TAG, "Vendor model Access PDU Received: " + MeshParserUtils.bytesToHex(message.getAccessPdu(), false));
-                } else if (mMeshMessage instanceof VendorModelMessageUnacked) {
-                    final VendorModelMessageUnacked vendorModelMessageUnacked = (VendorModelMessageUnacked) mMeshMessage;
-                    final VendorModelMessageStatus status = new VendorModelMessageStatus(message, vendorModelMessageUnacked.getModelIdentifier());
-                    mMeshStatusCallbacks.onMeshMessageReceived(message.getSrc(), status);
-                } else {
-                    handleUnknownPdu(message);
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onSigModelSubscriptionList(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigSigModelSubscriptionList status = new ConfigSigModelSubscriptionList(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
+                if (model != null) {
+                    model.updateSubscriptionAddressesList(status.getSubscriptionAddresses());
                 }
-                break;
+                createGroups(status.getSubscriptionAddresses());
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onVendorModelSubscriptionList(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigVendorModelSubscriptionList status = new ConfigVendorModelSubscriptionList(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                final MeshModel model = getMeshModel(node, status.getElementAddress(), status.getModelIdentifier());
+                if (model != null) {
+                    model.updateSubscriptionAddressesList(status.getSubscriptionAddresses());
+                }
+                createGroups(status.getSubscriptionAddresses());
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onHeartbeatSubscriptionStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigHeartbeatSubscriptionStatus status = new ConfigHeartbeatSubscriptionStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            if (status.isSuccessful()) {
+                final MeshModel model = getMeshModel(node, message.getSrc(), CONFIGURATION_SERVER);
+                if (model != null) {
+                    ((ConfigurationServerModel) model).
+                            setHeartbeatSubscription((!isValidUnassignedAddress(status.getHeartbeatSubscription().getSrc()) ||
+                                    !isValidUnassignedAddress(status.getHeartbeatSubscription().getDst()))
+                                    ? status.getHeartbeatSubscription() : null);
+                }
+            }
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onNodeIdentityStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigNodeIdentityStatus status = new ConfigNodeIdentityStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            node.nodeIdentityState = status.getNodeIdentityState();
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onNodeResetStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigNodeResetStatus status = new ConfigNodeResetStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            mInternalTransportCallbacks.onMeshNodeReset(node);
+        }
+        notifyMeshMessageReceived(message.getSrc(), status);
+    }
+
+    private void onNetworkTransmitStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigNetworkTransmitStatus status = new ConfigNetworkTransmitStatus(message);
+        final NetworkTransmitSettings networkTransmitSettings =
+                new NetworkTransmitSettings(status.getNetworkTransmitCount(), status.getNetworkTransmitIntervalSteps());
+        node.setNetworkTransmitSettings(networkTransmitSettings);
+        mInternalTransportCallbacks.onNodeUpdated(node);
+        onStatusReceived(message, status);
+    }
+
+    private void onRelayStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigRelayStatus status = new ConfigRelayStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            final RelaySettings relaySettings =
+                    new RelaySettings(status.getRelayRetransmitCount(), status.getRelayRetransmitIntervalSteps());
+            node.setRelaySettings(relaySettings);
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onBeaconStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigBeaconStatus status = new ConfigBeaconStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            node.setSecureNetworkBeaconSupported(status.isEnable());
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onFriendStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        final ConfigFriendStatus status = new ConfigFriendStatus(message);
+        if (!isReceivedViaProxyFilter(message)) {
+            node.getNodeFeatures().setFriend(status.isEnable() ? Features.ENABLED : Features.DISABLED);
+        }
+        onNodeStatusReceived(message, status, node);
+    }
+
+    private void onSceneRegisterStatus(@NonNull final AccessMessage message, final ProvisionedMeshNode node) {
+        if (mMeshMessage instanceof SceneStore) {
+            final SceneRegisterStatus status = new SceneRegisterStatus(message);
+            storeScene(node, status);
+            onNodeStatusReceived(message, status, node);
+        } else if (mMeshMessage instanceof SceneRecall) {
+            final SceneStatus status = new SceneStatus(message);
+            storeScene(node, status);
+            onNodeStatusReceived(message, status, node);
+        } else if (mMeshMessage instanceof SceneDelete) {
+            final SceneRegisterStatus status = new SceneRegisterStatus(message);
+            deleteScene(node, status);
+            onNodeStatusReceived(message, status, node);
         }
     }
 
     private void handleUnknownPdu(final AccessMessage message) {
-        Log.v(TAG, "Unknown Access PDU Received: " + MeshParserUtils.bytesToHex(message.getAccessPdu(), false));
+        MeshLogger.v(TAG, () -> "Unknown Access PDU Received: " + MeshParserUtils.bytesToHex(message.getAccessPdu(), false));
         mMeshStatusCallbacks.onUnknownPduReceived(message.getSrc(), message.getAccessPdu());
     }
 
@@ -483,12 +557,13 @@ class DefaultNoOperationMessageState extends MeshMessageState {
         if (controlMessage.getPduType() == MeshManagerApi.PDU_TYPE_NETWORK) {
             final TransportControlMessage transportControlMessage = controlMessage.getTransportControlMessage();
             if (transportControlMessage.getState() == TransportControlMessage.TransportControlMessageState.LOWER_TRANSPORT_BLOCK_ACKNOWLEDGEMENT) {
-                Log.v(TAG, "Acknowledgement payload: " + MeshParserUtils.bytesToHex(controlMessage.getTransportControlPdu(), false));
+                MeshLogger.v(TAG, () -> "Acknowledgement payload: " + MeshParserUtils.bytesToHex(controlMessage.getTransportControlPdu(), false));
                 final ArrayList<Integer> retransmitPduIndexes = BlockAcknowledgementMessage.getSegmentsToBeRetransmitted(controlMessage.getTransportControlPdu(), segmentCount);
+                MeshMetrics.onBlockAckReceived();
                 mMeshStatusCallbacks.onBlockAcknowledgementReceived(controlMessage.getSrc(), controlMessage);
                 executeResend(retransmitPduIndexes);
             } else {
-                Log.v(TAG, "Unexpected control message received, ignoring message");
+                MeshLogger.v(TAG, "Unexpected control message received, ignoring message");
                 mMeshStatusCallbacks.onUnknownPduReceived(controlMessage.getSrc(), controlMessage.getTransportControlPdu());
             }
         } else if (controlMessage.getPduType() == MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION) {
@@ -499,7 +574,7 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     filter = new ProxyFilter(status.getFilterType());
                     mInternalTransportCallbacks.setProxyFilter(filter);
                     mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(controlMessage.getSrc(), status);
+                    notifyMeshMessageReceived(controlMessage.getSrc(), status);
                 } else if (mMeshMessage instanceof ProxyConfigAddAddressToFilter) {
                     filter = updateProxyFilter(mInternalTransportCallbacks.getProxyFilter(), status.getFilterType());
                     final ProxyConfigAddAddressToFilter addAddressToFilter = (ProxyConfigAddAddressToFilter) mMeshMessage;
@@ -508,7 +583,7 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     }
                     mInternalTransportCallbacks.setProxyFilter(filter);
                     mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(controlMessage.getSrc(), status);
+                    notifyMeshMessageReceived(controlMessage.getSrc(), status);
 
                 } else if (mMeshMessage instanceof ProxyConfigRemoveAddressFromFilter) {
                     filter = updateProxyFilter(mInternalTransportCallbacks.getProxyFilter(), status.getFilterType());
@@ -518,7 +593,7 @@ class DefaultNoOperationMessageState extends MeshMessageState {
                     }
                     mInternalTransportCallbacks.setProxyFilter(filter);
                     mInternalTransportCallbacks.updateMeshNetwork(status);
-                    mMeshStatusCallbacks.onMeshMessageReceived(controlMessage.getSrc(), status);
+                    notifyMeshMessageReceived(controlMessage.getSrc(), status);
                 }
             }
         }
@@ -0,0 +1,310 @@
+package no.nordicsemi.android.mesh.transport;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import no.nordicsemi.android.mesh.Features;
+import no.nordicsemi.android.mesh.models.ConfigurationServerModel;
+import no.nordicsemi.android.mesh.models.SigModelParser;
+import no.nordicsemi.android.mesh.models.VendorModel;
+import no.nordicsemi.android.mesh.utils.HeartbeatPublication;
+import no.nordicsemi.android.mesh.utils.HeartbeatSubscription;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+/**
+ * Encodes the elements of a node for the database.
+ * <p>
+ * Elements are stored in a compact binary form, hex encoded in the elements column. Decoding is deferred until the elements of a
+ * node are first accessed, so loading a network does not depend on the number of models in it. Elements stored as json by earlier
+ * versions of the library are decoded as before and stored in the binary form the next time the node is written.
+ * </p>
+ * <p>
+ * The binary form starts with a version and the number of elements, followed by the elements. Each element holds its address,
+ * location descriptor, name and models, each model holds its identifier, bound application keys, subscriptions, label UUIDs,
+ * scene numbers, publication and, for the Configuration Server, the heartbeat publication and subscription.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class ElementsCodec {
+
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 3;
+    private static final Type ELEMENTS_TYPE = new TypeToken<Map<Integer, Element>>() {
+    }.getType();
+    private static final Gson LEGACY_GSON = new GsonBuilder().
+            excludeFieldsWithoutExposeAnnotation().
+            registerTypeAdapter(Element.class, new ElementDbMigrator()).
+            registerTypeAdapter(MeshModel.class, new InternalMeshModelDeserializer()).
+            create();
+
+    private ElementsCodec() {
+    }
+
+    /**
+     * Encodes the elements of a node. Elements that have been loaded but not accessed are returned as they were stored.
+     *
+     * @param elements Elements of a node
+     */
+    @Nullable
+    public static String encode(@Nullable final Map<Integer, Element> elements) {
+        if (elements == null)
+            return null;
+        if (elements instanceof LazyElementMap) {
+            final String encoded = ((LazyElementMap) elements).getEncoded();
+            if (encoded != null)
+                return encoded;
+        }
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeShort(elements.size());
+            for (Map.Entry<Integer, Element> entry : elements.entrySet()) {
+                writeElement(out, entry.getKey(), entry.getValue());
+            }
+            out.flush();
+            return MeshParserUtils.bytesToHex(bytes.toByteArray(), false);
+        } catch (IOException ex) {
+            //Writing to a byte array does not fail
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Returns the elements of a node which are decoded when first accessed.
+     *
+     * @param encoded Encoded elements
+     */
+    @Nullable
+    public static Map<Integer, Element> decode(@Nullable final String encoded) {
+        if (encoded == null)
+            return null;
+        return new LazyElementMap(encoded, getElementCount(encoded));
+    }
+
+    /**
+     * Returns the number of elements read from the header of the binary form or -1 if it is not known without decoding.
+     */
+    private static int getElementCount(@NonNull final String encoded) {
+        if (encoded.length() < HEADER_LENGTH * 2 || encoded.charAt(0) == '{')
+            return -1;
+        try {
+            return Integer.parseInt(encoded.substring(2, HEADER_LENGTH * 2), 16);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Decodes the elements of a node.
+     *
+     * @param encoded Encoded elements
+     */
+    @NonNull
+    static Map<Integer, Element> decodeElements(@NonNull final String encoded) {
+        if (encoded.isEmpty() || encoded.charAt(0) == '{' || encoded.equals("null")) {
+            final Map<Integer, Element> elements = LEGACY_GSON.fromJson(encoded, ELEMENTS_TYPE);
+            return elements == null ? new LinkedHashMap<Integer, Element>() : elements;
+        }
+        try {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(MeshParserUtils.toByteArray(encoded)));
+            final int version = in.readUnsignedByte();
+            if (version != VERSION)
+                throw new IllegalArgumentException("Unsupported elements version: " + version);
+            final int count = in.readUnsignedShort();
+            final Map<Integer, Element> elements = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                final Element element = readElement(in);
+                elements.put(element.elementAddress, element);
+            }
+            return elements;
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid elements", ex);
+        }
+    }
+
+    private static void writeElement(@NonNull final DataOutputStream out, final int address, @NonNull final Element element)
+            throws IOException {
+        out.writeShort(address);
+        out.writeShort(element.locationDescriptor);
+        writeNullableString(out, element.name);
+        out.writeShort(element.meshModels.size());
+        for (MeshModel model : element.meshModels.values()) {
+            writeModel(out, model);
+        }
+    }
+
+    private static Element readElement(@NonNull final DataInputStream in) throws IOException {
+        final int address = in.readUnsignedShort();
+        final int locationDescriptor = in.readUnsignedShort();
+        final String name = readNullableString(in);
+        final int count = in.readUnsignedShort();
+        final Map<Integer, MeshModel> models = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            final MeshModel model = readModel(in);
+            models.put(model.getModelId(), model);
+        }
+        if (name == null)
+            return new Element(address, locationDescriptor, models);
+        return new Element(address, locationDescriptor, models, name);
+    }
+
+    private static void writeModel(@NonNull final DataOutputStream out, @NonNull final MeshModel model) throws IOException {
+        out.writeBoolean(model instanceof VendorModel);
+        out.writeInt(model.getModelId());
+        writeIntegers(out, model.mBoundAppKeyIndexes);
+        writeIntegers(out, model.subscriptionAddresses);
+        out.writeShort(model.labelUuids.size());
+        for (UUID uuid : model.labelUuids) {
+            writeUuid(out, uuid);
+        }
+        writeIntegers(out, model.sceneNumbers);
+
+        final PublicationSettings settings = model.mPublicationSettings;
+        out.writeBoolean(settings != null);
+        if (settings != null) {
+            out.writeShort(settings.getPublishAddress());
+            out.writeBoolean(settings.getLabelUUID() != null);
+            if (settings.getLabelUUID() != null) {
+                writeUuid(out, settings.getLabelUUID());
+            }
+            out.writeShort(settings.getAppKeyIndex());
+            out.writeBoolean(settings.getCredentialFlag());
+            out.writeByte(settings.getPublishTtl());
+            out.writeByte(settings.getPublicationSteps());
+            out.writeByte(settings.getPublicationResolution());
+            out.writeByte(settings.getPublishRetransmitCount());
+            out.writeByte(settings.getPublishRetransmitIntervalSteps());
+        }
+
+        if (model instanceof ConfigurationServerModel) {
+            final HeartbeatPublication publication = ((ConfigurationServerModel) model).getHeartbeatPublication();
+            out.writeBoolean(publication != null);
+            if (publication != null) {
+                out.writeShort(publication.getDst());
+                out.writeByte(publication.getCountLog());
+                out.writeByte(publication.getPeriodLog());
+                out.writeByte(publication.getTtl());
+                final Features features = publication.getFeatures();
+                out.writeByte(features.getFriend());
+                out.writeByte(features.getLowPower());
+                out.writeByte(features.getProxy());
+                out.writeByte(features.getRelay());
+                out.writeShort(publication.getNetKeyIndex());
+            }
+            final HeartbeatSubscription subscription = ((ConfigurationServerModel) model).getHeartbeatSubscription();
+            out.writeBoolean(subscription != null);
+            if (subscription != null) {
+                out.writeShort(subscription.getSrc());
+                out.writeShort(subscription.getDst());
+                out.writeByte(subscription.getPeriodLog());
+                out.writeByte(subscription.getCountLog());
+                out.writeByte(subscription.getMinHops());
+                out.writeByte(subscription.getMaxHops());
+            }
+        }
+    }
+
+    private static MeshModel readModel(@NonNull final DataInputStream in) throws IOException {
+        final boolean vendorModel = in.readBoolean();
+        final int modelId = in.readInt();
+        final MeshModel model = vendorModel ? new VendorModel(modelId) : SigModelParser.getSigModel(modelId);
+        readIntegers(in, model.mBoundAppKeyIndexes);
+        readIntegers(in, model.subscriptionAddresses);
+        final int labels = in.readUnsignedShort();
+        for (int i = 0; i < labels; i++) {
+            model.labelUuids.add(readUuid(in));
+        }
+        readIntegers(in, model.sceneNumbers);
+
+        if (in.readBoolean()) {
+            final int publishAddress = in.readUnsignedShort();
+            final UUID labelUuid = in.readBoolean() ? readUuid(in) : null;
+            final int appKeyIndex = in.readUnsignedShort();
+            final boolean credentialFlag = in.readBoolean();
+            final int publishTtl = in.readUnsignedByte();
+            final int publicationSteps = in.readUnsignedByte();
+            final int publicationResolution = in.readUnsignedByte();
+            final int publishRetransmitCount = in.readUnsignedByte();
+            final int publishRetransmitIntervalSteps = in.readUnsignedByte();
+            model.mPublicationSettings = new PublicationSettings(publishAddress, appKeyIndex, credentialFlag, publishTtl,
+                    publicationSteps, publicationResolution, publishRetransmitCount, publishRetransmitIntervalSteps);
+            model.mPublicationSettings.setLabelUUID(labelUuid);
+        }
+
+        if (model instanceof ConfigurationServerModel) {
+            if (in.readBoolean()) {
+                final int dst = in.readUnsignedShort();
+                final byte countLog = in.readByte();
+                final byte periodLog = in.readByte();
+                final int ttl = in.readUnsignedByte();
+                final Features features = new Features(in.readUnsignedByte(), in.readUnsignedByte(),
+                        in.readUnsignedByte(), in.readUnsignedByte());
+                final int netKeyIndex = in.readUnsignedShort();
+                ((ConfigurationServerModel) model).setHeartbeatPublication(
+                        new HeartbeatPublication(dst, countLog, periodLog, ttl, features, netKeyIndex));
+            }
+            if (in.readBoolean()) {
+                final int src = in.readUnsignedShort();
+                final int dst = in.readUnsignedShort();
+                final byte periodLog = in.readByte();
+                final byte countLog = in.readByte();
+                final int minHops = in.readUnsignedByte();
+                final int maxHops = in.readUnsignedByte();
+                ((ConfigurationServerModel) model).setHeartbeatSubscription(
+                        new HeartbeatSubscription(src, dst, periodLog, countLog, minHops, maxHops));
+            }
+        }
+        return model;
+    }
+
+    private static void writeIntegers(@NonNull final DataOutputStream out, @NonNull final List<Integer> values) throws IOException {
+        out.writeShort(values.size());
+        for (Integer value : values) {
+            out.writeShort(value);
+        }
+    }
+
+    private static void readIntegers(@NonNull final DataInputStream in, @NonNull final List<Integer> values) throws IOException {
+        final int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUnsignedShort());
+        }
+    }
+
+    private static void writeUuid(@NonNull final DataOutputStream out, @NonNull final UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(@NonNull final DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeNullableString(@NonNull final DataOutputStream out, @Nullable final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Nullable
+    private static String readNullableString(@NonNull final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
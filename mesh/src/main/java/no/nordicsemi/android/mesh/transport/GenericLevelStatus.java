@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -32,6 +31,7 @@ import java.nio.ByteOrder;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -74,19 +74,19 @@ public final class GenericLevelStatus extends ApplicationStatusMessage implement
 
     @Override
     void parseStatusParameters() {
-        Log.v(TAG, "Received generic level status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
+        MeshLogger.v(TAG, () -> "Received generic level status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
         final ByteBuffer buffer = ByteBuffer.wrap(mParameters).order(ByteOrder.LITTLE_ENDIAN);
         mPresentLevel = (int) (buffer.getShort());
-        Log.v(TAG, "Present level: " + mPresentLevel);
+        MeshLogger.v(TAG, () -> "Present level: " + mPresentLevel);
         if (buffer.limit() > GENERIC_LEVEL_STATUS_MANDATORY_LENGTH) {
             mTargetLevel = (int) (buffer.getShort());
             final int remainingTime = buffer.get() & 0xFF;
             mTransitionSteps = (remainingTime & 0x3F);
             mTransitionResolution = (remainingTime >> 6);
-            Log.v(TAG, "Target level: " + mTargetLevel);
-            Log.v(TAG, "Remaining time, transition number of steps: " + mTransitionSteps);
-            Log.v(TAG, "Remaining time, transition number of step resolution: " + mTransitionResolution);
-            Log.v(TAG, "Remaining time: " + MeshParserUtils.getRemainingTime(remainingTime));
+            MeshLogger.v(TAG, () -> "Target level: " + mTargetLevel);
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of steps: " + mTransitionSteps);
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of step resolution: " + mTransitionResolution);
+            MeshLogger.v(TAG, () -> "Remaining time: " + MeshParserUtils.getRemainingTime(remainingTime));
         }
     }
 
@@ -98,7 +98,7 @@ public final class InternalMeshModelDeserializer implements JsonDeserializer<Mes
                     final int publishRetransmitCount = jsonPublicationSettings.get("publishRetransmitCount").getAsInt();
                     final int publishRetransmitIntervalSteps = jsonPublicationSettings.
                             get("publishRetransmitIntervalSteps").getAsInt();
-                    final int publishTtl = jsonPublicationSettings.get("publishRetransmitIntervalSteps").getAsByte();
+                    final int publishTtl = getPublishTtl(jsonPublicationSettings);
 
                     meshModel.mPublicationSettings = new PublicationSettings(publishAddress,
                             appKeyIndex, credentialFlag, publishTtl, publicationSteps,
@@ -277,7 +277,7 @@ public final class InternalMeshModelDeserializer implements JsonDeserializer<Mes
 
                     final int publishRetransmitCount = jsonPublicationSettings.get("publishRetransmitCount").getAsInt();
                     final int publishRetransmitIntervalSteps = jsonPublicationSettings.get("publishRetransmitIntervalSteps").getAsInt();
-                    final int publishTtl = jsonPublicationSettings.get("publishRetransmitIntervalSteps").getAsByte();
+                    final int publishTtl = getPublishTtl(jsonPublicationSettings);
                     meshModel.mPublicationSettings = new PublicationSettings(publishAddress,
                             appKeyIndex, credentialFlag, publishTtl, publicationSteps,
                             publicationResolution, publishRetransmitCount, publishRetransmitIntervalSteps);
@@ -288,6 +288,17 @@ public final class InternalMeshModelDeserializer implements JsonDeserializer<Mes
         return meshModel;
     }
 
+    /**
+     * Returns the publish ttl of the publication settings, falling back to the member previously read as the ttl if it is missing.
+     *
+     * @param jsonPublicationSettings json publication settings
+     */
+    private int getPublishTtl(final JsonObject jsonPublicationSettings) {
+        if (jsonPublicationSettings.has("publishTtl"))
+            return jsonPublicationSettings.get("publishTtl").getAsInt();
+        return jsonPublicationSettings.get("publishRetransmitIntervalSteps").getAsByte();
+    }
+
     private byte[] getKey(final JsonArray array) {
         final byte[] key = new byte[array.size()];
         for (int i = 0; i < array.size(); i++) {
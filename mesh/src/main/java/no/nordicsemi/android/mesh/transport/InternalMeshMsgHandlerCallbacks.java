@@ -22,6 +22,9 @@
 
 package no.nordicsemi.android.mesh.transport;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 /**
  * Callbacks to notify the mesh message handler to notify events from transport layers.
  */
@@ -34,4 +37,20 @@ interface InternalMeshMsgHandlerCallbacks {
      */
     void onIncompleteTimerExpired(final int address);
 
+    /**
+     * Returns the access message handler registered by the application for the given opcode
+     *
+     * @param opCode opcode of the access message
+     */
+    @Nullable
+    AccessMessageHandler getAccessMessageHandler(final int opCode);
+
+    /**
+     * Callback to notify a status message has been received and delivered to the application
+     *
+     * @param src         source address of the message
+     * @param meshMessage status message received
+     */
+    void onMeshMessageReceived(final int src, @NonNull final MeshMessage meshMessage);
+
 }
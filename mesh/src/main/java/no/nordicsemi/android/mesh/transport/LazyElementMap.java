@@ -0,0 +1,112 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Elements of a node loaded from the database, decoded by {@link ElementsCodec} when first accessed.
+ * <p>
+ * The number of elements is known without decoding, and the encoded form is written back unchanged for as long as the elements have
+ * not been accessed.
+ * </p>
+ */
+final class LazyElementMap extends AbstractMap<Integer, Element> {
+
+    private String encoded;
+    private final int count;
+    private Map<Integer, Element> elements;
+
+    /**
+     * Constructs the map.
+     *
+     * @param encoded Encoded elements
+     * @param count   Number of elements or -1 if it is not known without decoding
+     */
+    LazyElementMap(@NonNull final String encoded, final int count) {
+        this.encoded = encoded;
+        this.count = count;
+    }
+
+    /**
+     * Returns the encoded elements if they have not been accessed, or null otherwise.
+     */
+    @Nullable
+    synchronized String getEncoded() {
+        return elements == null ? encoded : null;
+    }
+
+    private synchronized Map<Integer, Element> elements() {
+        if (elements == null) {
+            elements = ElementsCodec.decodeElements(encoded);
+            encoded = null;
+        }
+        return elements;
+    }
+
+    @Override
+    public int size() {
+        synchronized (this) {
+            if (elements == null && count >= 0)
+                return count;
+        }
+        return elements().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return elements().containsKey(key);
+    }
+
+    @Override
+    public Element get(final Object key) {
+        return elements().get(key);
+    }
+
+    @Override
+    public Element put(final Integer key, final Element value) {
+        return elements().put(key, value);
+    }
+
+    @Override
+    public Element remove(final Object key) {
+        return elements().remove(key);
+    }
+
+    @Override
+    public void putAll(@NonNull final Map<? extends Integer, ? extends Element> map) {
+        elements().putAll(map);
+    }
+
+    @Override
+    public void clear() {
+        elements().clear();
+    }
+
+    @NonNull
+    @Override
+    public Set<Integer> keySet() {
+        return elements().keySet();
+    }
+
+    @NonNull
+    @Override
+    public Collection<Element> values() {
+        return elements().values();
+    }
+
+    @NonNull
+    @Override
+    public Set<Entry<Integer, Element>> entrySet() {
+        return elements().entrySet();
+    }
+}
@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -32,6 +31,7 @@ import java.nio.ByteOrder;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -77,23 +77,23 @@ public final class LightCtlStatus extends ApplicationStatusMessage implements Pa
 
     @Override
     void parseStatusParameters() {
-        Log.v(TAG, "Received light ctl status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
+        MeshLogger.v(TAG, () -> "Received light ctl status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
         final ByteBuffer buffer = ByteBuffer.wrap(mParameters).order(ByteOrder.LITTLE_ENDIAN);
         mPresentCtlLightness = buffer.getShort() & 0xFFFF;
         mPresentCtlTemperature = buffer.getShort() & 0xFFFF;
-        Log.v(TAG, "Present lightness: " + mPresentCtlLightness);
-        Log.v(TAG, "Present temperature: " + mPresentCtlTemperature);
+        MeshLogger.v(TAG, () -> "Present lightness: " + mPresentCtlLightness);
+        MeshLogger.v(TAG, () -> "Present temperature: " + mPresentCtlTemperature);
         if (buffer.limit() > LIGHT_CTL_STATUS_MANDATORY_LENGTH) {
             mTargetCtlLightness = buffer.getShort() & 0xFFFF;
             mTargetCtlTemperature = buffer.getShort() & 0xFFFF;
             final int remainingTime = buffer.get() & 0xFF;
             mTransitionSteps = (remainingTime & 0x3F);
             mTransitionResolution = (remainingTime >> 6);
-            Log.v(TAG, "Target lightness: " + mTargetCtlLightness);
-            Log.v(TAG, "Target temperature: " + mTargetCtlTemperature);
-            Log.v(TAG, "Remaining time, transition number of steps: " + mTransitionSteps);
-            Log.v(TAG, "Remaining time, transition number of step resolution: " + mTransitionResolution);
-            Log.v(TAG, "Remaining time: " + MeshParserUtils.getRemainingTime(remainingTime));
+            MeshLogger.v(TAG, () -> "Target lightness: " + mTargetCtlLightness);
+            MeshLogger.v(TAG, () -> "Target temperature: " + mTargetCtlTemperature);
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of steps: " + mTransitionSteps);
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of step resolution: " + mTransitionResolution);
+            MeshLogger.v(TAG, () -> "Remaining time: " + MeshParserUtils.getRemainingTime(remainingTime));
         }
     }
 
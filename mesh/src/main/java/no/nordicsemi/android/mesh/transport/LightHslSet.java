@@ -1,8 +1,5 @@
 package no.nordicsemi.android.mesh.transport;
 
-
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -10,6 +7,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import no.nordicsemi.android.mesh.ApplicationKey;
 import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
 
 /**
@@ -97,10 +95,10 @@ public class LightHslSet extends ApplicationMessage {
     void assembleMessageParameters() {
         mAid = SecureUtils.calculateK4(mAppKey.getKey() );
         final ByteBuffer paramsBuffer;
-        Log.v(TAG, "Lightness: " + mLightness);
-        Log.v(TAG, "Hue: " + mHue);
-        Log.v(TAG, "Saturation: " + mSaturation);
-        Log.v(TAG, "TID: " + tId);
+        MeshLogger.v(TAG, () -> "Lightness: " + mLightness);
+        MeshLogger.v(TAG, () -> "Hue: " + mHue);
+        MeshLogger.v(TAG, () -> "Saturation: " + mSaturation);
+        MeshLogger.v(TAG, () -> "TID: " + tId);
         if (mTransitionSteps == null || mTransitionResolution == null || mDelay == null) {
             paramsBuffer = ByteBuffer.allocate(LIGHT_LIGHTNESS_SET_PARAMS_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
             paramsBuffer.putShort((short) mLightness);
@@ -108,8 +106,8 @@ public class LightHslSet extends ApplicationMessage {
             paramsBuffer.putShort((short) mSaturation);
             paramsBuffer.put((byte) tId);
         } else {
-            Log.v(TAG, "Transition steps: " + mTransitionSteps);
-            Log.v(TAG, "Transition step resolution: " + mTransitionResolution);
+            MeshLogger.v(TAG, () -> "Transition steps: " + mTransitionSteps);
+            MeshLogger.v(TAG, () -> "Transition step resolution: " + mTransitionResolution);
             paramsBuffer = ByteBuffer.allocate(LIGHT_LIGHTNESS_SET_TRANSITION_PARAMS_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
             paramsBuffer.putShort((short) mLightness);
             paramsBuffer.putShort((short) mHue);
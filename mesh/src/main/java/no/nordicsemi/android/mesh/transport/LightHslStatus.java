@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -32,6 +31,7 @@ import java.nio.ByteOrder;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -75,21 +75,21 @@ public final class LightHslStatus extends ApplicationStatusMessage implements Pa
 
     @Override
     void parseStatusParameters() {
-        Log.v(TAG, "Received light hsl status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
+        MeshLogger.v(TAG, () -> "Received light hsl status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
         final ByteBuffer buffer = ByteBuffer.wrap(mParameters).order(ByteOrder.LITTLE_ENDIAN);
         mPresentHslLightness = buffer.getShort() & 0xFFFF;
         mPresentHslHue = buffer.getShort() & 0xFFFF;
         mPresentHslSaturation = buffer.getShort() & 0xFFFF;
-        Log.v(TAG, "Present lightness: " + mPresentHslLightness);
-        Log.v(TAG, "Present hue: " + mPresentHslHue);
-        Log.v(TAG, "Present saturation: " + mPresentHslSaturation);
+        MeshLogger.v(TAG, () -> "Present lightness: " + mPresentHslLightness);
+        MeshLogger.v(TAG, () -> "Present hue: " + mPresentHslHue);
+        MeshLogger.v(TAG, () -> "Present saturation: " + mPresentHslSaturation);
         if (buffer.limit() > LIGHT_CTL_STATUS_MANDATORY_LENGTH) {
             final int remainingTime = buffer.get() & 0xFF;
             mTransitionSteps = (remainingTime & 0x3F);
             mTransitionResolution = (remainingTime >> 6);
-            Log.v(TAG, "Remaining time, transition number of steps: " + mTransitionSteps);
-            Log.v(TAG, "Remaining time, transition number of step resolution: " + mTransitionResolution);
-            Log.v(TAG, "Remaining time: " + MeshParserUtils.getRemainingTime(remainingTime));
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of steps: " + mTransitionSteps);
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of step resolution: " + mTransitionResolution);
+            MeshLogger.v(TAG, () -> "Remaining time: " + MeshParserUtils.getRemainingTime(remainingTime));
         }
     }
 
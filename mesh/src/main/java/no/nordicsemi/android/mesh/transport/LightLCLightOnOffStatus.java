@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -32,6 +31,7 @@ import java.nio.ByteOrder;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -75,20 +75,20 @@ public final class LightLCLightOnOffStatus extends ApplicationStatusMessage impl
 
     @Override
     void parseStatusParameters() {
-        Log.v(TAG, "Received light lc light on off status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
+        MeshLogger.v(TAG, () -> "Received light lc light on off status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
         final ByteBuffer buffer = ByteBuffer.wrap(mParameters).order(ByteOrder.LITTLE_ENDIAN);
         buffer.position(0);
         mPresentOn = buffer.get() == GENERIC_ON_OFF_STATE_ON;
-        Log.v(TAG, "Present on: " + mPresentOn);
+        MeshLogger.v(TAG, () -> "Present on: " + mPresentOn);
         if (buffer.limit() > 1) {
             mTargetOn = buffer.get() == GENERIC_ON_OFF_STATE_ON;
             mRemainingTime = buffer.get() & 0xFF;
             mTransitionSteps = (mRemainingTime & 0x3F);
             mTransitionResolution = (mRemainingTime >> 6);
-            Log.v(TAG, "Target on: " + mTargetOn);
-            Log.v(TAG, "Remaining time, transition number of steps: " + mTransitionSteps);
-            Log.v(TAG, "Remaining time, transition number of step resolution: " + mTransitionResolution);
-            Log.v(TAG, "Remaining time: " + MeshParserUtils.getRemainingTime(mRemainingTime));
+            MeshLogger.v(TAG, () -> "Target on: " + mTargetOn);
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of steps: " + mTransitionSteps);
+            MeshLogger.v(TAG, () -> "Remaining time, transition number of step resolution: " + mTransitionResolution);
+            MeshLogger.v(TAG, () -> "Remaining time: " + MeshParserUtils.getRemainingTime(mRemainingTime));
         }
     }
 
@@ -24,11 +24,11 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * LightLCModeStatus
@@ -66,7 +66,7 @@ public final class LightLCModeStatus extends ApplicationStatusMessage implements
 
     @Override
     void parseStatusParameters() {
-        Log.v(TAG, "Received light lc mode status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
+        MeshLogger.v(TAG, () -> "Received light lc mode status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
         status = (mParameters[0] & 0xFF) == 0x01;
     }
 
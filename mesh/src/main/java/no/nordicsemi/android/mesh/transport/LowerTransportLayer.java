@@ -22,7 +22,6 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
 import android.util.SparseArray;
 
 import java.nio.ByteBuffer;
@@ -35,7 +34,10 @@ import no.nordicsemi.android.mesh.control.BlockAcknowledgementMessage;
 import no.nordicsemi.android.mesh.opcodes.TransportLayerOpCodes;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
 
 /**
  * LowerTransportLayer implementation of the mesh network architecture as per the mesh profile specification.
@@ -55,28 +57,15 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
     private static final int UNSEGMENTED_ACK_MESSAGE_HEADER_LENGTH = 3;
     private static final long INCOMPLETE_TIMER_DELAY = 10 * 1000; // According to the spec the incomplete timer must be a minimum of 10 seconds.
 
-    private final SparseArray<byte[]> segmentedAccessMessageMap = new SparseArray<>();
-    private final SparseArray<byte[]> segmentedControlMessageMap = new SparseArray<>();
     LowerTransportLayerCallbacks mLowerTransportLayerCallbacks;
-    private boolean mSegmentedAccessAcknowledgementTimerStarted;
-    private Integer mSegmentedAccessBlockAck;
-    private boolean mSegmentedControlAcknowledgementTimerStarted;
-    private Integer mSegmentedControlBlockAck;
-    private boolean mIncompleteTimerStarted;
-    private boolean mBlockAckSent;
-    private long mDuration;
-
-    /**
-     * Runnable for incomplete timer
-     */
-    private final Runnable mIncompleteTimerRunnable = new Runnable() {
+    private final ReassemblyTable mReassemblyTable = new ReassemblyTable(new ReassemblyTable.EvictionListener() {
         @Override
-        public void run() {
-            mLowerTransportLayerCallbacks.onIncompleteTimerExpired();
-            //Reset the incomplete timer flag once it expires
-            mIncompleteTimerStarted = false;
+        public void onEntryEvicted(@NonNull final ReassemblyTable.Entry entry) {
+            MeshLogger.v(TAG, () -> "Dropping incomplete segmented message from src: " + MeshAddress.formatAddress(entry.src, false));
+            cancelAcknowledgementTimer(entry);
+            cancelIncompleteTimer(entry);
         }
-    };
+    });
 
     /**
      * Sets the lower transport layer callbacks
@@ -143,10 +132,10 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
             case MeshManagerApi.PDU_TYPE_NETWORK:
                 final byte[] transportControlPdu = message.getTransportControlPdu();
                 if (transportControlPdu.length <= MAX_UNSEGMENTED_CONTROL_PAYLOAD_LENGTH) {
-                    Log.v(TAG, "Creating unsegmented transport control");
+                    MeshLogger.v(TAG, "Creating unsegmented transport control");
                     createUnsegmentedControlMessage(message);
                 } else {
-                    Log.v(TAG, "Creating segmented transport control");
+                    MeshLogger.v(TAG, "Creating segmented transport control");
                     createSegmentedControlMessage(message);
                 }
         }
@@ -248,7 +237,7 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
         lowerTransportBuffer.put(header);
         lowerTransportBuffer.put(encryptedUpperTransportPDU);
         final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-        Log.v(TAG, "Unsegmented Lower transport access PDU " + MeshParserUtils.bytesToHex(lowerTransportPDU, false));
+        MeshLogger.v(TAG, () -> "Unsegmented Lower transport access PDU " + MeshParserUtils.bytesToHex(lowerTransportPDU, false));
         return lowerTransportPDU;
     }
 
@@ -282,7 +271,8 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
             offset += length;
 
             final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-            Log.v(TAG, "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + segO + " of " + numberOfSegments);
+            final int segment = segO;
+            MeshLogger.v(TAG, () -> "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + segment + " of " + numberOfSegments);
             lowerTransportPduMap.put(segO, lowerTransportPDU);
         }
         return lowerTransportPduMap;
@@ -315,7 +305,7 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
 
         lowerTransportBuffer.put(upperTransportControlPDU);
         final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-        Log.v(TAG, "Unsegmented Lower transport control PDU " + MeshParserUtils.bytesToHex(lowerTransportPDU, false));
+        MeshLogger.v(TAG, () -> "Unsegmented Lower transport control PDU " + MeshParserUtils.bytesToHex(lowerTransportPDU, false));
         final SparseArray<byte[]> lowerTransportControlPduMap = new SparseArray<>();
         lowerTransportControlPduMap.put(0, lowerTransportPDU);
         message.setLowerTransportControlPdu(lowerTransportControlPduMap);
@@ -351,7 +341,8 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
             offset += length;
 
             final byte[] lowerTransportPDU = lowerTransportBuffer.array();
-            Log.v(TAG, "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + segO + " of " + numberOfSegments);
+            final int segment = segO;
+            MeshLogger.v(TAG, () -> "Segmented Lower transport access PDU: " + MeshParserUtils.bytesToHex(lowerTransportPDU, false) + " " + segment + " of " + numberOfSegments);
             lowerTransportControlPduMap.put(segO, lowerTransportPDU);
         }
         controlMessage.setLowerTransportControlPdu(lowerTransportControlPduMap);
@@ -386,16 +377,8 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
         final int akf = (header >> 6) & 0x01;
         final int aid = header & 0x3F;
         if (seg == 0) { //Unsegmented message
-            Log.d(TAG, "IV Index of received message: " + ivIndex);
-            final int seqAuth = (ivIndex << 24) | MeshParserUtils.convert24BitsToInt(sequenceNumber);
-            final byte[] src = MeshParserUtils.getSrcAddress(pdu);
-            final int srcAdd = MeshParserUtils.unsignedBytesToInt(src[1], src[0]);
-            Log.d(TAG, "SeqAuth: " + seqAuth);
-            if (!isValidSeqAuth(seqAuth, srcAdd)) {
-                return null;
-            }
-            mMeshNode.setSeqAuth(srcAdd, seqAuth);
-            mMeshNode.setSequenceNumber(MeshParserUtils.convert24BitsToInt(sequenceNumber));
+            //Replayed pdus have already been discarded by the replay protection list of the network
+            MeshLogger.d(TAG, () -> "IV Index of received message: " + ivIndex);
             message = new AccessMessage();
             if (akf == 0) {// device key was used to encrypt
                 final int lowerTransportPduLength = pdu.length - 10;
@@ -430,12 +413,14 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
      * Parses a segmented lower transport access pdu.
      *
      * @param ttl            TTL of the acknowledgement
+     * @param networkPdu     Network pdu the segment was received in.
      * @param pdu            The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
      * @param ivIndex        Current IV Index of the network
      * @param sequenceNumber Sequence number
      */
     /*package*/
     final AccessMessage parseSegmentedAccessLowerTransportPDU(final int ttl,
+                                                              @NonNull final byte[] networkPdu,
                                                               @NonNull final byte[] pdu,
                                                               final int ivIndex,
                                                               @NonNull final byte[] sequenceNumber) {
@@ -454,99 +439,106 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
         final int blockAckSrc = MeshParserUtils.unsignedBytesToInt(dst[1], dst[0]); //Destination of the received packet would be the source for the ack
         final int blockAckDst = MeshParserUtils.unsignedBytesToInt(src[1], src[0]); //Source of the received packet would be the destination for the ack
 
-        Log.v(TAG, "SEG O: " + segO);
-        Log.v(TAG, "SEG N: " + segN);
+        MeshLogger.v(TAG, () -> "SEG O: " + segO);
+        MeshLogger.v(TAG, () -> "SEG N: " + segN);
+
+        if (segO > segN) {
+            MeshLogger.w(TAG, () -> "Dropping segment " + segO + " of a message with " + (segN + 1) + " segments");
+            return null;
+        }
 
         final int seqNumber = getTransportLayerSequenceNumber(MeshParserUtils.convert24BitsToInt(sequenceNumber), seqZero);
         final int seqAuth = ivIndex << 24 | seqNumber;
-        final Integer lastSeqAuth = mMeshNode.getSeqAuth(blockAckDst);
-        if (lastSeqAuth != null)
-            Log.v(TAG, "Last SeqAuth value " + lastSeqAuth);
+        MeshLogger.v(TAG, () -> "Current SeqAuth value " + seqAuth);
 
-        Log.v(TAG, "Current SeqAuth value " + seqAuth);
+        final ReassemblyTable.Entry existing = mReassemblyTable.get(blockAckDst, seqAuth);
+        final ReassemblyTable.Entry entry;
+        if (existing == null) {
+            if (!acceptSeqAuth(blockAckDst, seqAuth))
+                return null;
+            //A new segmented message, start the incomplete timer for it
+            entry = mReassemblyTable.create(blockAckDst, seqAuth, seqZero, segN);
+            entry.ttl = ttl;
+            entry.blockAckSrc = blockAckSrc;
+            entry.blockAckDst = blockAckDst;
+            MeshLogger.v(TAG, () -> "Starting incomplete timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
+        } else if (existing.segN != segN) {
+            //All segments of a message carry the same SegN
+            MeshLogger.w(TAG, () -> "Dropping segment with SegN " + segN + " of a message with SegN " + existing.segN);
+            return null;
+        } else {
+            entry = existing;
+            MeshLogger.v(TAG, () -> "Restarting incomplete timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
+        }
 
         final int payloadLength = pdu.length - 10;
-        final ByteBuffer payloadBuffer = ByteBuffer.allocate(payloadLength);
-        payloadBuffer.put(pdu, 10, payloadLength);
-
-        //Check if the current SeqAuth value is greater than the last and if the incomplete timer has not started, start it!
-        if ((lastSeqAuth == null || lastSeqAuth < seqAuth)) {
-            mMeshNode.setSequenceNumber(seqNumber);
-            segmentedAccessMessageMap.clear();
-            segmentedAccessMessageMap.put(segO, payloadBuffer.array());
-            mMeshNode.setSeqAuth(blockAckDst, seqAuth);
-
-            Log.v(TAG, "Starting incomplete timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
-            initIncompleteTimer();
-
+        final byte[] payload = new byte[payloadLength];
+        System.arraycopy(pdu, 10, payload, 0, payloadLength);
+        entry.addSegment(segO, payload, networkPdu);
+        MeshMetrics.onSegmentReceived();
+        MeshLogger.v(TAG, () -> "Received segment message count: " + entry.segments.size());
+
+        if (!entry.isComplete()) {
+            restartIncompleteTimer(entry);
             //Start acknowledgement calculation and timer only for messages directed to a unicast address.
+            //We also have to make sure we restart the acknowledgement timer only if the acknowledgement timer is not active
             if (MeshAddress.isValidUnicastAddress(dst)) {
-                // Calculate the initial block acknowledgement value
-                mSegmentedAccessBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(null, segO);
                 //Start the block acknowledgement timer irrespective of which segment was received first
-                initSegmentedAccessAcknowledgementTimer(seqZero, ttl, blockAckSrc, blockAckDst, segN);
+                initAcknowledgementTimer(entry);
             }
+            return null;
+        }
+
+        mReassemblyTable.remove(entry);
+        MeshMetrics.recordReassemblyTime(entry.startTime);
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            handleImmediateBlockAcks(entry);
         } else {
-            //if the seqauth values are the same and the init complete timer has already started for a received segmented message, we need to restart the incomplete timer
-            if (lastSeqAuth == seqAuth) {
-                if (mIncompleteTimerStarted) {
-                    if (segmentedAccessMessageMap.get(segO) == null) {
-                        segmentedAccessMessageMap.put(segO, payloadBuffer.array());
-                    }
-                    final int receivedSegmentedMessageCount = segmentedAccessMessageMap.size();
-                    Log.v(TAG, "Received segment message count: " + receivedSegmentedMessageCount);
-                    //Add +1 to segN since its zero based
-                    if (receivedSegmentedMessageCount != (segN + 1)) {
-                        restartIncompleteTimer();
-                        mSegmentedAccessBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(mSegmentedAccessBlockAck, segO);
-                        Log.v(TAG, "Restarting incomplete timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
-
-                        //Start acknowledgement calculation and timer only for messages directed to a unicast address.
-                        //We also have to make sure we restart the acknowledgement timer only if the acknowledgement timer is not active and the incomplete timer is active
-                        if (MeshAddress.isValidUnicastAddress(dst) && !mSegmentedAccessAcknowledgementTimerStarted) {
-                            Log.v(TAG, "Restarting block acknowledgement timer for src: " + MeshAddress.formatAddress(blockAckDst, false));
-                            //Start the block acknowledgement timer irrespective of which segment was received first
-                            initSegmentedAccessAcknowledgementTimer(seqZero, ttl, blockAckSrc, blockAckDst, segN);
-                        }
-                    } else {
-                        if (MeshAddress.isValidUnicastAddress(dst)) {
-                            mSegmentedAccessBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(mSegmentedAccessBlockAck, segO);
-                            handleImmediateBlockAcks(seqZero, ttl, blockAckSrc, blockAckDst, segN);
-                        } else {
-                            //We should cancel the incomplete timer since we have received all segments
-                            cancelIncompleteTimer();
-                        }
-
-                        final AccessMessage accessMessage = new AccessMessage();
-                        accessMessage.setAszmic(szmic);
-                        accessMessage.setSequenceNumber(MeshParserUtils.getSequenceNumberBytes(seqNumber));
-                        accessMessage.setAkf(akf);
-                        accessMessage.setAid(aid);
-                        accessMessage.setSegmented(true);
-                        final SparseArray<byte[]> segmentedMessages = segmentedAccessMessageMap.clone();
-                        accessMessage.setLowerTransportAccessPdu(segmentedMessages);
-                        return accessMessage;
-                    }
-                } else {
-                    Log.v(TAG, "Ignoring message since the incomplete timer has expired and all messages have been received");
-                }
+            //We should cancel the incomplete timer since we have received all segments
+            cancelIncompleteTimer(entry);
+        }
+
+        final AccessMessage accessMessage = new AccessMessage();
+        accessMessage.setAszmic(szmic);
+        accessMessage.setSequenceNumber(MeshParserUtils.getSequenceNumberBytes(seqNumber));
+        accessMessage.setAkf(akf);
+        accessMessage.setAid(aid);
+        accessMessage.setSegmented(true);
+        accessMessage.setLowerTransportAccessPdu(entry.segments);
+        accessMessage.setNetworkLayerPdu(entry.networkPdus);
+        return accessMessage;
+    }
+
+    /**
+     * Records the SeqAuth of a new segmented message, unless a message with the same or a later SeqAuth has already been
+     * received from the source or its incomplete timer has expired, in which case the segment is a late duplicate.
+     *
+     * @param src     Source address of the segmented message
+     * @param seqAuth SeqAuth of the segmented message
+     * @return true if the segment starts a new segmented message or false if it must be ignored
+     */
+    private boolean acceptSeqAuth(final int src, final int seqAuth) {
+        final Integer lastSeqAuth = mMeshNode.getSeqAuth(src);
+        if (lastSeqAuth != null) {
+            MeshLogger.v(TAG, () -> "Last SeqAuth value " + lastSeqAuth);
+            if (lastSeqAuth >= seqAuth) {
+                MeshLogger.v(TAG, "Ignoring segment since the message has already been received or the incomplete timer has expired");
+                return false;
             }
         }
-        return null;
+        mMeshNode.setSeqAuth(src, seqAuth);
+        return true;
     }
 
     /**
      * Send immediate block acknowledgement
      *
-     * @param seqZero seqzero of the message
-     * @param ttl     ttl of the message
-     * @param src     source address of the message
-     * @param dst     destination address of the message
-     * @param segN    total segment count
+     * @param entry Reassembly entry of the segmented message
      */
-    private void handleImmediateBlockAcks(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        cancelIncompleteTimer();
-        sendBlockAck(seqZero, ttl, src, dst, segN);
+    private void handleImmediateBlockAcks(@NonNull final ReassemblyTable.Entry entry) {
+        cancelIncompleteTimer(entry);
+        cancelAcknowledgementTimer(entry);
+        sendBlockAck(entry);
     }
 
     /**
@@ -587,10 +579,14 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
     /**
      * Parses a segmented lower transport control pdu.
      *
-     * @param pdu The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
+     * @param networkPdu Network pdu the segment was received in.
+     * @param pdu        The complete pdu was received from the node. This is already de-obfuscated and decrypted at network layer.
+     * @param ivIndex    IV Index of the received pdu
      */
     /*package*/
-    final ControlMessage parseSegmentedControlLowerTransportPDU(@NonNull final byte[] pdu) {
+    final ControlMessage parseSegmentedControlLowerTransportPDU(@NonNull final byte[] networkPdu,
+                                                                @NonNull final byte[] pdu,
+                                                                final int ivIndex) {
 
         final byte header = pdu[10]; //Lower transport pdu starts here
         final int akf = (header >> 6) & 0x01;
@@ -608,150 +604,157 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
         final int blockAckSrc = MeshParserUtils.unsignedBytesToInt(dst[1], dst[0]); //Destination of the received packet would be the source for the ack
         final int blockAckDst = MeshParserUtils.unsignedBytesToInt(src[1], src[0]); //Source of the received packet would be the destination for the ack
 
-        Log.v(TAG, "SEG O: " + segO);
-        Log.v(TAG, "SEG N: " + segN);
+        MeshLogger.v(TAG, () -> "SEG O: " + segO);
+        MeshLogger.v(TAG, () -> "SEG N: " + segN);
 
-        //Start the timer irrespective of which segment was received first
-        initSegmentedControlAcknowledgementTimer(seqZero, ttl, blockAckDst, blockAckSrc, segN);
-        mSegmentedControlBlockAck = BlockAcknowledgementMessage.calculateBlockAcknowledgement(mSegmentedControlBlockAck, segO);
-        Log.v(TAG, "Block acknowledgement value for " + mSegmentedControlBlockAck + " Seg O " + segO);
+        if (segO > segN) {
+            MeshLogger.w(TAG, () -> "Dropping segment " + segO + " of a message with " + (segN + 1) + " segments");
+            return null;
+        }
 
-        final int payloadLength = pdu.length - 10;
+        final int upperTransportSequenceNumber = getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
+        final int seqAuth = ivIndex << 24 | upperTransportSequenceNumber;
+        final ReassemblyTable.Entry existing = mReassemblyTable.get(blockAckDst, seqAuth);
+        final ReassemblyTable.Entry entry;
+        if (existing == null) {
+            if (!acceptSeqAuth(blockAckDst, seqAuth))
+                return null;
+            entry = mReassemblyTable.create(blockAckDst, seqAuth, seqZero, segN);
+            entry.ttl = ttl;
+            entry.blockAckSrc = blockAckSrc;
+            entry.blockAckDst = blockAckDst;
+        } else if (existing.segN != segN) {
+            //All segments of a message carry the same SegN
+            MeshLogger.w(TAG, () -> "Dropping segment with SegN " + segN + " of a message with SegN " + existing.segN);
+            return null;
+        } else {
+            entry = existing;
+        }
 
-        final ByteBuffer payloadBuffer = ByteBuffer.allocate(payloadLength);
-        payloadBuffer.put(pdu, 10, payloadLength);
-        segmentedControlMessageMap.put(segO, payloadBuffer.array());
-
-        //Check the message count against the zero-based segN;
-        final int receivedSegmentedMessageCount = segmentedControlMessageMap.size() - 1;
-        if (segN == receivedSegmentedMessageCount) {
-            Log.v(TAG, "All segments received");
-            //Remove the incomplete timer if all segments were received
-            mHandler.removeCallbacks(mIncompleteTimerRunnable);
-            Log.v(TAG, "Block ack sent? " + mBlockAckSent);
-            if (mDuration > System.currentTimeMillis() && !mBlockAckSent) {
-                if (MeshAddress.isValidUnicastAddress(dst)) {
-                    mHandler.removeCallbacksAndMessages(null);
-                    Log.v(TAG, "Cancelling Scheduled block ack and incomplete timer, sending an immediate block ack");
-                    sendBlockAck(seqZero, ttl, blockAckSrc, blockAckDst, segN);
-                    //mBlockAckSent = false;
-                }
+        final int payloadLength = pdu.length - 10;
+        final byte[] payload = new byte[payloadLength];
+        System.arraycopy(pdu, 10, payload, 0, payloadLength);
+        entry.addSegment(segO, payload, networkPdu);
+        MeshMetrics.onSegmentReceived();
+        MeshLogger.v(TAG, () -> "Block acknowledgement value for " + entry.blockAck + " Seg O " + segO);
+
+        if (!entry.isComplete()) {
+            restartIncompleteTimer(entry);
+            //Start the timer irrespective of which segment was received first
+            if (MeshAddress.isValidUnicastAddress(dst)) {
+                initAcknowledgementTimer(entry);
             }
-            final int upperTransportSequenceNumber = getTransportLayerSequenceNumber(MeshParserUtils.getSequenceNumberFromPDU(pdu), seqZero);
-            final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(upperTransportSequenceNumber);
-            final ControlMessage message = new ControlMessage();
-            message.setAszmic(szmic);
-            message.setSequenceNumber(sequenceNumber);
-            message.setAkf(akf);
-            message.setAid(aid);
-            message.setSegmented(true);
-            final SparseArray<byte[]> segmentedMessages = segmentedControlMessageMap.clone();
-            segmentedControlMessageMap.clear();
-            message.setLowerTransportControlPdu(segmentedMessages);
-            return message;
+            return null;
         }
 
-        return null;
-    }
-
-    /**
-     * Start incomplete timer for segmented messages.
-     */
-    private void initIncompleteTimer() {
-        mHandler.postDelayed(mIncompleteTimerRunnable, INCOMPLETE_TIMER_DELAY);
-        mIncompleteTimerStarted = true;
+        MeshLogger.v(TAG, "All segments received");
+        mReassemblyTable.remove(entry);
+        MeshMetrics.recordReassemblyTime(entry.startTime);
+        if (MeshAddress.isValidUnicastAddress(dst)) {
+            MeshLogger.v(TAG, "Cancelling Scheduled block ack and incomplete timer, sending an immediate block ack");
+            handleImmediateBlockAcks(entry);
+        } else {
+            cancelIncompleteTimer(entry);
+        }
+        final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(upperTransportSequenceNumber);
+        final ControlMessage message = new ControlMessage();
+        message.setAszmic(szmic);
+        message.setSequenceNumber(sequenceNumber);
+        message.setAkf(akf);
+        message.setAid(aid);
+        message.setSegmented(true);
+        message.setLowerTransportControlPdu(entry.segments);
+        message.setNetworkLayerPdu(entry.networkPdus);
+        return message;
     }
 
     /**
-     * Restarts the incomplete timer
+     * Restarts the incomplete timer of a segmented message, starting it if it was not started already.
+     *
+     * @param entry Reassembly entry of the segmented message
      */
-    private void restartIncompleteTimer() {
-        //Remove the existing incomplete timer
-        if (mIncompleteTimerStarted) {
-            mHandler.removeCallbacks(mIncompleteTimerRunnable);
+    private void restartIncompleteTimer(@NonNull final ReassemblyTable.Entry entry) {
+        if (entry.incompleteTimer == null) {
+            entry.incompleteTimer = new TimingWheel.Timer(() -> {
+                MeshLogger.v(TAG, () -> "Incomplete timer expired for src: " + MeshAddress.formatAddress(entry.src, false));
+                mReassemblyTable.remove(entry);
+                cancelAcknowledgementTimer(entry);
+                mLowerTransportLayerCallbacks.onIncompleteTimerExpired();
+            });
         }
-        //Call init to start the timer again
-        initIncompleteTimer();
+        //Rescheduling replaces the existing incomplete timer
+        mTimingWheel.schedule(entry.incompleteTimer, INCOMPLETE_TIMER_DELAY);
     }
 
     /**
      * Cancels an already started the incomplete timer
+     *
+     * @param entry Reassembly entry of the segmented message
      */
-    private void cancelIncompleteTimer() {
-        //Remove the existing incomplete timer
-        mIncompleteTimerStarted = false;
-        mHandler.removeCallbacks(mIncompleteTimerRunnable);
+    private void cancelIncompleteTimer(@NonNull final ReassemblyTable.Entry entry) {
+        if (entry.incompleteTimer != null) {
+            mTimingWheel.cancel(entry.incompleteTimer);
+        }
     }
 
     /**
-     * Start acknowledgement timer for segmented messages.
+     * Start acknowledgement timer for segmented messages if it has not been started already.
      *
-     * @param seqZero Seqzero of the segmented messages.
-     * @param ttl     TTL of the segmented messages.
-     * @param dst     Destination address.
+     * @param entry Reassembly entry of the segmented message
      */
-    private void initSegmentedAccessAcknowledgementTimer(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        if (!mSegmentedAccessAcknowledgementTimerStarted) {
-            mSegmentedAccessAcknowledgementTimerStarted = true;
-            Log.v(TAG, "TTL: " + ttl);
-            final int duration = (BLOCK_ACK_TIMER + (50 * ttl));
-            Log.v(TAG, "Duration: " + duration);
-            mDuration = System.currentTimeMillis() + duration;
-            mHandler.postDelayed(() -> {
-                Log.v(TAG, "Acknowledgement timer expiring");
-                sendBlockAck(seqZero, ttl, src, dst, segN);
-            }, duration);
+    private void initAcknowledgementTimer(@NonNull final ReassemblyTable.Entry entry) {
+        if (entry.acknowledgementTimer == null) {
+            entry.acknowledgementTimer = new TimingWheel.Timer(() -> {
+                MeshLogger.v(TAG, "Acknowledgement timer expiring");
+                sendBlockAck(entry);
+            });
+        }
+        if (!entry.acknowledgementTimer.isScheduled()) {
+            MeshLogger.v(TAG, () -> "TTL: " + entry.ttl);
+            final int duration = (BLOCK_ACK_TIMER + (50 * entry.ttl));
+            MeshLogger.v(TAG, () -> "Duration: " + duration);
+            mTimingWheel.schedule(entry.acknowledgementTimer, duration);
         }
     }
 
     /**
-     * Start acknowledgement timer for segmented messages.
+     * Cancels an already started acknowledgement timer
      *
-     * @param seqZero Seqzero of the segmented messages.
-     * @param ttl     TTL of the segmented messages.
-     * @param src     Source address which is the element address
-     * @param dst     Destination address.
+     * @param entry Reassembly entry of the segmented message
      */
-    private void initSegmentedControlAcknowledgementTimer(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        if (!mSegmentedControlAcknowledgementTimerStarted) {
-            mSegmentedControlAcknowledgementTimerStarted = true;
-            final int duration = BLOCK_ACK_TIMER + (50 * ttl);
-            mDuration = System.currentTimeMillis() + duration;
-            mHandler.postDelayed(() -> sendBlockAck(seqZero, ttl, src, dst, segN), duration);
+    private void cancelAcknowledgementTimer(@NonNull final ReassemblyTable.Entry entry) {
+        if (entry.acknowledgementTimer != null) {
+            mTimingWheel.cancel(entry.acknowledgementTimer);
         }
     }
 
     /**
      * Send block acknowledgement
      *
-     * @param seqZero Seqzero of the segmented messages.
-     * @param ttl     TTL of the segmented messages.
-     * @param src     Source address which is the element address
-     * @param dst     Destination address.
+     * @param entry Reassembly entry of the segmented message
      */
-    private void sendBlockAck(final int seqZero, final int ttl, final int src, final int dst, final int segN) {
-        final int blockAck = mSegmentedAccessBlockAck;
-        if (BlockAcknowledgementMessage.hasAllSegmentsBeenReceived(blockAck, segN)) {
-            Log.v(TAG, "All segments received cancelling incomplete timer");
-            cancelIncompleteTimer();
+    private void sendBlockAck(@NonNull final ReassemblyTable.Entry entry) {
+        final int blockAck = entry.blockAck;
+        if (BlockAcknowledgementMessage.hasAllSegmentsBeenReceived(blockAck, entry.segN)) {
+            MeshLogger.v(TAG, "All segments received cancelling incomplete timer");
+            cancelIncompleteTimer(entry);
         }
 
-        final byte[] upperTransportControlPdu = createAcknowledgementPayload(seqZero, blockAck);
-        Log.v(TAG, "Block acknowledgement payload: " + MeshParserUtils.bytesToHex(upperTransportControlPdu, false));
+        final byte[] upperTransportControlPdu = createAcknowledgementPayload(entry.seqZero, blockAck);
+        MeshLogger.v(TAG, () -> "Block acknowledgement payload: " + MeshParserUtils.bytesToHex(upperTransportControlPdu, false));
         final ControlMessage controlMessage = new ControlMessage();
         controlMessage.setOpCode(TransportLayerOpCodes.SAR_ACK_OPCODE);
         controlMessage.setTransportControlPdu(upperTransportControlPdu);
-        controlMessage.setTtl(ttl);
+        controlMessage.setTtl(entry.ttl);
         controlMessage.setPduType(MeshManagerApi.PDU_TYPE_NETWORK);
-        controlMessage.setSrc(src);
-        controlMessage.setDst(dst);
+        controlMessage.setSrc(entry.blockAckSrc);
+        controlMessage.setDst(entry.blockAckDst);
         controlMessage.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
-        final int sequenceNumber = mUpperTransportLayerCallbacks.getNode(controlMessage.getSrc()).incrementSequenceNumber();
+        final int sequenceNumber = mUpperTransportLayerCallbacks.getNextSequenceNumber(controlMessage.getSrc());
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
         controlMessage.setSequenceNumber(sequenceNum);
-        mBlockAckSent = true;
+        MeshMetrics.onBlockAckSent();
         mLowerTransportLayerCallbacks.sendSegmentAcknowledgementMessage(controlMessage);
-        mSegmentedAccessAcknowledgementTimerStarted = false;
     }
 
     /**
@@ -789,16 +792,4 @@ abstract class LowerTransportLayer extends UpperTransportLayer {
         }
 
     }
-
-    /**
-     * Validates Sequence authentication value.
-     *
-     * @param seqAuth Sequence authentication.
-     * @param src     Source address.
-     */
-    private boolean isValidSeqAuth(final int seqAuth,
-                                   final int src) {
-        final Integer lastSeqAuth = mMeshNode.getSeqAuth(src);
-        return lastSeqAuth == null || lastSeqAuth < seqAuth;
-    }
 }
@@ -0,0 +1,240 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
+
+/**
+ * Completion of a mesh message sent through the outbound scheduler.
+ * <p>
+ * An acknowledged message completes with the status message received from the destination, an unacknowledged message completes
+ * with null once it has been sent. If no status is received after the configured number of retries {@link #get()} throws an
+ * {@link ExecutionException} caused by a {@link TimeoutException}, and if the message could not be sent, i.e. the source node is
+ * no longer in the network, by the exception it failed with.
+ * </p>
+ * <p>
+ * Status messages are processed on the transport thread, therefore {@link #get()} must not be called from the transport thread,
+ * i.e. from the callbacks of an {@link AccessMessageHandler}. Use {@link #setListener(Listener)} instead.
+ * </p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MeshMessageFuture implements Future<MeshMessage> {
+
+    /**
+     * Status opcode to be used for messages that are not acknowledged.
+     */
+    public static final int NO_STATUS = -1;
+
+    private static final int PENDING = 0;
+    private static final int COMPLETED = 1;
+    private static final int TIMED_OUT = 2;
+    private static final int CANCELLED = 3;
+    private static final int FAILED = 4;
+
+    final int src;
+    final int dst;
+    final UUID label;
+    final MeshMessage meshMessage;
+    final int statusOpCode;
+    final TimingWheel.Timer timeoutTimer;
+    //Only incremented on the transport thread, volatile as it is read by the application
+    volatile int attempts;
+    //Time the last attempt was sent at, as returned by System.nanoTime()
+    long sentTime;
+    private final OutboundScheduler scheduler;
+    private Listener listener;
+    private int state = PENDING;
+    private MeshMessage status;
+    private Throwable cause;
+
+    /**
+     * Listener notified when a message completes.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked when the message has completed, failed, timed out or has been cancelled. Completions and timeouts are notified on the
+         * transport thread.
+         *
+         * @param future Completed future
+         */
+        void onCompleted(@NonNull final MeshMessageFuture future);
+    }
+
+    MeshMessageFuture(@NonNull final OutboundScheduler scheduler,
+                      final int src,
+                      final int dst,
+                      @Nullable final UUID label,
+                      @NonNull final MeshMessage meshMessage,
+                      final int statusOpCode) {
+        this.scheduler = scheduler;
+        this.src = src;
+        this.dst = dst;
+        this.label = label;
+        this.meshMessage = meshMessage;
+        this.statusOpCode = statusOpCode;
+        timeoutTimer = new TimingWheel.Timer(new Runnable() {
+            @Override
+            public void run() {
+                scheduler.onTimeout(MeshMessageFuture.this);
+            }
+        });
+    }
+
+    /**
+     * Returns the destination address of the message.
+     */
+    public int getDst() {
+        return dst;
+    }
+
+    /**
+     * Returns the message sent.
+     */
+    @NonNull
+    public MeshMessage getMeshMessage() {
+        return meshMessage;
+    }
+
+    /**
+     * Returns the opcode of the status expected from the destination or {@link #NO_STATUS} for unacknowledged messages.
+     */
+    public int getStatusOpCode() {
+        return statusOpCode;
+    }
+
+    /**
+     * Returns the number of times the message has been sent.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Returns the status message received or null if the message has not completed or is not acknowledged.
+     */
+    @Nullable
+    public synchronized MeshMessage getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the exception the message could not be sent with or null if it has not failed.
+     */
+    @Nullable
+    public synchronized Throwable getFailureCause() {
+        return cause;
+    }
+
+    /**
+     * Returns true if no status was received after all retries.
+     */
+    public synchronized boolean isTimedOut() {
+        return state == TIMED_OUT;
+    }
+
+    /**
+     * Sets the listener to be notified when the message completes. If the message has already completed the listener is notified
+     * immediately.
+     *
+     * @param listener Listener
+     */
+    public void setListener(@NonNull final Listener listener) {
+        synchronized (this) {
+            if (state == PENDING) {
+                this.listener = listener;
+                return;
+            }
+        }
+        listener.onCompleted(this);
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        if (!setState(CANCELLED, null, null))
+            return false;
+        scheduler.cancel(this);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return state != PENDING;
+    }
+
+    @Override
+    public synchronized MeshMessage get() throws InterruptedException, ExecutionException {
+        while (state == PENDING) {
+            wait();
+        }
+        return getResult();
+    }
+
+    @Override
+    public synchronized MeshMessage get(final long timeout, @NonNull final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (state == PENDING) {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0)
+                throw new TimeoutException();
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return getResult();
+    }
+
+    private MeshMessage getResult() throws ExecutionException {
+        switch (state) {
+            case CANCELLED:
+                throw new CancellationException();
+            case TIMED_OUT:
+                throw new ExecutionException(new TimeoutException("No status received from 0x" + Integer.toHexString(dst)
+                        + " after " + attempts + " attempts"));
+            case FAILED:
+                throw new ExecutionException(cause);
+            default:
+                return status;
+        }
+    }
+
+    boolean complete(@Nullable final MeshMessage status) {
+        return setState(COMPLETED, status, null);
+    }
+
+    boolean timeOut() {
+        return setState(TIMED_OUT, null, null);
+    }
+
+    boolean fail(@NonNull final Throwable cause) {
+        return setState(FAILED, null, cause);
+    }
+
+    private boolean setState(final int state, @Nullable final MeshMessage status, @Nullable final Throwable cause) {
+        final Listener listener;
+        synchronized (this) {
+            if (this.state != PENDING)
+                return false;
+            this.state = state;
+            this.status = status;
+            this.cause = cause;
+            listener = this.listener;
+            this.listener = null;
+            notifyAll();
+        }
+        if (listener != null) {
+            listener.onCompleted(this);
+        }
+        return true;
+    }
+}
@@ -1,13 +1,13 @@
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.util.List;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import no.nordicsemi.android.mesh.InternalTransportCallbacks;
 import no.nordicsemi.android.mesh.MeshStatusCallbacks;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -24,7 +24,7 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
 
     MeshMessage mMeshMessage;
     final MeshTransport mMeshTransport;
-    private final InternalMeshMsgHandlerCallbacks meshMessageHandlerCallbacks;
+    final InternalMeshMsgHandlerCallbacks meshMessageHandlerCallbacks;
     protected InternalTransportCallbacks mInternalTransportCallbacks;
     MeshStatusCallbacks mMeshStatusCallbacks;
     int mSrc;
@@ -113,8 +113,9 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
                 final int segO = retransmitPduIndexes.get(i);
                 if (message.getNetworkLayerPdu().get(segO) != null) {
                     final byte[] pdu = message.getNetworkLayerPdu().get(segO);
-                    Log.v(TAG, "Resending segment " + segO + " : " + MeshParserUtils.bytesToHex(pdu, false));
+                    MeshLogger.v(TAG, () -> "Resending segment " + segO + " : " + MeshParserUtils.bytesToHex(pdu, false));
                     final Message retransmitMeshMessage = mMeshTransport.createRetransmitMeshMessage(message, segO);
+                    MeshMetrics.onSegmentRetransmitted();
                     mInternalTransportCallbacks.onMeshPduCreated(mDst, retransmitMeshMessage.getNetworkLayerPdu().get(segO));
                 }
             }
@@ -123,7 +124,7 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
 
     @Override
     public void onIncompleteTimerExpired() {
-        Log.v(TAG, "Incomplete timer has expired, all segments were not received!");
+        MeshLogger.v(TAG, "Incomplete timer has expired, all segments were not received!");
         if (meshMessageHandlerCallbacks != null) {
             meshMessageHandlerCallbacks.onIncompleteTimerExpired(mDst);
 
@@ -142,7 +143,7 @@ abstract class MeshMessageState implements LowerTransportLayerCallbacks {
     public void sendSegmentAcknowledgementMessage(final ControlMessage controlMessage) {
         //We don't send acknowledgements here
         final ControlMessage message = mMeshTransport.createSegmentBlockAcknowledgementMessage(controlMessage);
-        Log.v(TAG, "Sending acknowledgement: " + MeshParserUtils.bytesToHex(message.getNetworkLayerPdu().get(0), false));
+        MeshLogger.v(TAG, () -> "Sending acknowledgement: " + MeshParserUtils.bytesToHex(message.getNetworkLayerPdu().get(0), false));
         mInternalTransportCallbacks.onMeshPduCreated(message.getDst(), message.getNetworkLayerPdu().get(0));
         mMeshStatusCallbacks.onBlockAcknowledgementProcessed(message.getDst(), controlMessage);
     }
@@ -142,6 +142,7 @@ public final class MeshModelListDeserializer implements JsonSerializer<List<Mesh
         final PublicationSettings publicationSettings = new PublicationSettings();
         publicationSettings.setPublishAddress(publishAddress);
         publicationSettings.setLabelUUID(uuid);
+        publicationSettings.setAppKeyIndex(index);
         publicationSettings.setPublishTtl(ttl);
         publicationSettings.setPublicationSteps(publicationSteps);
         publicationSettings.setPublicationResolution(publicationResolution);
@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.content.Context;
 import android.os.Handler;
-import android.util.Log;
 
 import java.util.UUID;
 
@@ -34,7 +33,9 @@ import androidx.annotation.VisibleForTesting;
 import no.nordicsemi.android.mesh.ApplicationKey;
 import no.nordicsemi.android.mesh.MeshManagerApi;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
 
 /**
  * MeshTransport class is responsible for building the configuration and application layer mesh messages.
@@ -50,8 +51,18 @@ final class MeshTransport extends NetworkLayer {
      * @param context context
      */
     MeshTransport(@NonNull final Context context) {
+        this(context, new TimingWheel(new Handler(context.getMainLooper())));
+    }
+
+    /**
+     * Constructs the MeshTransport
+     *
+     * @param context     context
+     * @param timingWheel Timing wheel of the transport thread driving the segmentation and reassembly timers
+     */
+    MeshTransport(@NonNull final Context context, @NonNull final TimingWheel timingWheel) {
         this.mContext = context;
-        initHandler();
+        this.mTimingWheel = timingWheel;
     }
 
     /**
@@ -62,15 +73,8 @@ final class MeshTransport extends NetworkLayer {
      */
     @VisibleForTesting(otherwise = VisibleForTesting.PROTECTED)
     MeshTransport(@NonNull final Context context, @NonNull final ProvisionedMeshNode node) {
-        super();
-        this.mContext = context;
+        this(context);
         this.mMeshNode = node;
-        initHandler();
-    }
-
-    @Override
-    protected final void initHandler() {
-        this.mHandler = new Handler(mContext.getMainLooper());
     }
 
     @Override
@@ -126,18 +130,18 @@ final class MeshTransport extends NetworkLayer {
                                           final int accessOpCode,
                                           final byte[] accessMessageParameters) {
         final ProvisionedMeshNode node = mUpperTransportLayerCallbacks.getNode(src);
-        final int sequenceNumber = node.incrementSequenceNumber();
+        final int sequenceNumber = mUpperTransportLayerCallbacks.getNextSequenceNumber(src);
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
 
-        Log.v(TAG, "Src address: " + MeshAddress.formatAddress(src, false));
-        Log.v(TAG, "Dst address: " + MeshAddress.formatAddress(dst, false));
-        Log.v(TAG, "Key: " + MeshParserUtils.bytesToHex(key, false));
-        Log.v(TAG, "akf: " + akf);
-        Log.v(TAG, "aid: " + aid);
-        Log.v(TAG, "aszmic: " + aszmic);
-        Log.v(TAG, "Sequence number: " + sequenceNumber);
-        Log.v(TAG, "Access message opcode: " + Integer.toHexString(accessOpCode));
-        Log.v(TAG, "Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
+        MeshLogger.v(TAG, () -> "Src address: " + MeshAddress.formatAddress(src, false));
+        MeshLogger.v(TAG, () -> "Dst address: " + MeshAddress.formatAddress(dst, false));
+        MeshLogger.v(TAG, () -> "Key: " + MeshParserUtils.bytesToHex(key, false));
+        MeshLogger.v(TAG, () -> "akf: " + akf);
+        MeshLogger.v(TAG, () -> "aid: " + aid);
+        MeshLogger.v(TAG, () -> "aszmic: " + aszmic);
+        MeshLogger.v(TAG, () -> "Sequence number: " + sequenceNumber);
+        MeshLogger.v(TAG, () -> "Access message opcode: " + Integer.toHexString(accessOpCode));
+        MeshLogger.v(TAG, () -> "Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
 
         final AccessMessage message = new AccessMessage();
         message.setSrc(src);
@@ -185,18 +189,18 @@ final class MeshTransport extends NetworkLayer {
                                           final int accessOpCode,
                                           @Nullable final byte[] accessMessageParameters) {
         final ProvisionedMeshNode node = mUpperTransportLayerCallbacks.getNode(src);
-        final int sequenceNumber = node.incrementSequenceNumber();
+        final int sequenceNumber = mUpperTransportLayerCallbacks.getNextSequenceNumber(src);
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
 
-        Log.v(TAG, "Src address: " + MeshAddress.formatAddress(src, false));
-        Log.v(TAG, "Dst address: " + MeshAddress.formatAddress(dst, false));
-        Log.v(TAG, "Key: " + MeshParserUtils.bytesToHex(key.getKey(), false));
-        Log.v(TAG, "akf: " + akf);
-        Log.v(TAG, "aid: " + aid);
-        Log.v(TAG, "aszmic: " + aszmic);
-        Log.v(TAG, "Sequence number: " + sequenceNumber);
-        Log.v(TAG, "Access message opcode: " + Integer.toHexString(accessOpCode));
-        Log.v(TAG, "Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
+        MeshLogger.v(TAG, () -> "Src address: " + MeshAddress.formatAddress(src, false));
+        MeshLogger.v(TAG, () -> "Dst address: " + MeshAddress.formatAddress(dst, false));
+        MeshLogger.v(TAG, () -> "Key: " + MeshParserUtils.bytesToHex(key.getKey(), false));
+        MeshLogger.v(TAG, () -> "akf: " + akf);
+        MeshLogger.v(TAG, () -> "aid: " + aid);
+        MeshLogger.v(TAG, () -> "aszmic: " + aszmic);
+        MeshLogger.v(TAG, () -> "Sequence number: " + sequenceNumber);
+        MeshLogger.v(TAG, () -> "Access message opcode: " + Integer.toHexString(accessOpCode));
+        MeshLogger.v(TAG, () -> "Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
 
         final AccessMessage message = new AccessMessage();
         message.setSrc(src);
@@ -248,18 +252,18 @@ final class MeshTransport extends NetworkLayer {
                                                 final int accessOpCode,
                                                 @Nullable final byte[] accessMessageParameters) {
         final ProvisionedMeshNode node = mUpperTransportLayerCallbacks.getNode(src);
-        final int sequenceNumber = node.incrementSequenceNumber();
+        final int sequenceNumber = mUpperTransportLayerCallbacks.getNextSequenceNumber(src);
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
 
-        Log.v(TAG, "Src address: " + MeshAddress.formatAddress(src, false));
-        Log.v(TAG, "Dst address: " + MeshAddress.formatAddress(dst, false));
-        Log.v(TAG, "Key: " + MeshParserUtils.bytesToHex(key.getKey(), false));
-        Log.v(TAG, "akf: " + akf);
-        Log.v(TAG, "aid: " + aid);
-        Log.v(TAG, "aszmic: " + aszmic);
-        Log.v(TAG, "Sequence number: " + sequenceNumber);
-        Log.v(TAG, "Access message opcode: " + Integer.toHexString(accessOpCode));
-        Log.v(TAG, "Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
+        MeshLogger.v(TAG, () -> "Src address: " + MeshAddress.formatAddress(src, false));
+        MeshLogger.v(TAG, () -> "Dst address: " + MeshAddress.formatAddress(dst, false));
+        MeshLogger.v(TAG, () -> "Key: " + MeshParserUtils.bytesToHex(key.getKey(), false));
+        MeshLogger.v(TAG, () -> "akf: " + akf);
+        MeshLogger.v(TAG, () -> "aid: " + aid);
+        MeshLogger.v(TAG, () -> "aszmic: " + aszmic);
+        MeshLogger.v(TAG, () -> "Sequence number: " + sequenceNumber);
+        MeshLogger.v(TAG, () -> "Access message opcode: " + Integer.toHexString(accessOpCode));
+        MeshLogger.v(TAG, () -> "Access message parameters: " + MeshParserUtils.bytesToHex(accessMessageParameters, false));
 
         final AccessMessage message = new AccessMessage();
         message.setCompanyIdentifier(companyIdentifier);
@@ -296,14 +300,14 @@ final class MeshTransport extends NetworkLayer {
                                                          final int dst,
                                                          final int opcode, final byte[] parameters) {
         final ProvisionedMeshNode node = mUpperTransportLayerCallbacks.getNode(src);
-        final int sequenceNumber = node.incrementSequenceNumber();
+        final int sequenceNumber = mUpperTransportLayerCallbacks.getNextSequenceNumber(src);
         final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(sequenceNumber);
 
-        Log.v(TAG, "Src address: " + MeshAddress.formatAddress(src, false));
-        Log.v(TAG, "Dst address: " + MeshAddress.formatAddress(dst, false));
-        Log.v(TAG, "Sequence number: " + sequenceNumber);
-        Log.v(TAG, "Control message opcode: " + Integer.toHexString(opcode));
-        Log.v(TAG, "Control message parameters: " + MeshParserUtils.bytesToHex(parameters, false));
+        MeshLogger.v(TAG, () -> "Src address: " + MeshAddress.formatAddress(src, false));
+        MeshLogger.v(TAG, () -> "Dst address: " + MeshAddress.formatAddress(dst, false));
+        MeshLogger.v(TAG, () -> "Sequence number: " + sequenceNumber);
+        MeshLogger.v(TAG, () -> "Control message opcode: " + Integer.toHexString(opcode));
+        MeshLogger.v(TAG, () -> "Control message parameters: " + MeshParserUtils.bytesToHex(parameters, false));
 
         final ControlMessage message = new ControlMessage();
         message.setSrc(src);
@@ -21,15 +21,12 @@
  */
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
 import android.util.SparseArray;
 
 import org.spongycastle.crypto.InvalidCipherTextException;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.ArrayList;
-import java.util.List;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -39,6 +36,7 @@ import no.nordicsemi.android.mesh.NetworkKey;
 import no.nordicsemi.android.mesh.Provisioner;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
 
@@ -52,8 +50,6 @@ abstract class NetworkLayer extends LowerTransportLayer {
 
     private static final String TAG = NetworkLayer.class.getSimpleName();
     NetworkLayerCallbacks mNetworkLayerCallbacks;
-    private SparseArray<byte[]> segmentedAccessMessagesMessages;
-    private SparseArray<byte[]> segmentedControlMessagesMessages;
 
     /**
      * Set network layer callbacks
@@ -95,10 +91,9 @@ abstract class NetworkLayer extends LowerTransportLayer {
         final SecureUtils.K2Output k2Output = getK2Output(message);
         final int nid = k2Output.getNid();
         final byte[] encryptionKey = k2Output.getEncryptionKey();
-        Log.v(TAG, "Encryption key: " + MeshParserUtils.bytesToHex(encryptionKey, false));
-
         final byte[] privacyKey = k2Output.getPrivacyKey();
-        Log.v(TAG, "Privacy key: " + MeshParserUtils.bytesToHex(privacyKey, false));
+        MeshLogger.v(TAG, () -> "Encryption key: " + MeshParserUtils.bytesToHex(encryptionKey, false));
+        MeshLogger.v(TAG, () -> "Privacy key: " + MeshParserUtils.bytesToHex(privacyKey, false));
         final int ctl = message.getCtl();
         final int ttl = message.getTtl();
         final int ivi = message.getIvIndex()[3] & 0x01; // least significant bit of IV Index
@@ -106,11 +101,10 @@ abstract class NetworkLayer extends LowerTransportLayer {
         final byte ctlTTL = (byte) ((ctl << 7) | ttl);
 
         final int src = message.getSrc();
+        final int netMicLength = SecureUtils.getNetMicLength(message.getCtl());
         final SparseArray<byte[]> lowerTransportPduMap;
-        final SparseArray<byte[]> encryptedPduPayload = new SparseArray<>();
-        final List<byte[]> sequenceNumbers = new ArrayList<>();
-
-        final ProvisionedMeshNode node = mUpperTransportLayerCallbacks.getNode(message.getSrc());
+        final SparseArray<byte[]> pduArray = new SparseArray<>();
+        final NetworkPduCodec codec = NetworkPduCodec.get();
 
         final int pduType = message.getPduType();
         switch (message.getPduType()) {
@@ -123,52 +117,32 @@ abstract class NetworkLayer extends LowerTransportLayer {
                 for (int i = 0; i < lowerTransportPduMap.size(); i++) {
                     final byte[] lowerTransportPdu = lowerTransportPduMap.get(i);
                     if (i != 0) {
-                        node.setSequenceNumber(MeshParserUtils.convert24BitsToInt(message.getSequenceNumber()));
-                        final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(node.incrementSequenceNumber());
+                        final byte[] sequenceNumber = MeshParserUtils.getSequenceNumberBytes(mUpperTransportLayerCallbacks.getNextSequenceNumber(src));
                         message.setSequenceNumber(sequenceNumber);
                     }
-                    sequenceNumbers.add(message.getSequenceNumber());
-                    Log.v(TAG, "Sequence Number: " + MeshParserUtils.bytesToHex(sequenceNumbers.get(i), false));
-                    final byte[] nonce = createNetworkNonce(ctlTTL, sequenceNumbers.get(i), src, message.getIvIndex());
-                    final byte[] encryptedPayload = encryptPdu(lowerTransportPdu, encryptionKey, nonce, message.getDst(), SecureUtils.getNetMicLength(message.getCtl()));
-                    encryptedPduPayload.put(i, encryptedPayload);
-                    Log.v(TAG, "Encrypted Network payload: " + MeshParserUtils.bytesToHex(encryptedPayload, false));
+                    MeshLogger.v(TAG, () -> "Sequence Number: " + MeshParserUtils.bytesToHex(message.getSequenceNumber(), false));
+                    final byte[] pdu = new byte[NetworkPduCodec.getNetworkPduLength(lowerTransportPdu.length, netMicLength)];
+                    codec.encodeNetworkPdu(pduType, iviNID, ctlTTL, message.getSequenceNumber(), src, message.getDst(), lowerTransportPdu,
+                            message.getIvIndex(), encryptionKey, privacyKey, netMicLength, pdu, 0);
+                    pduArray.put(i, pdu);
+                    message.setNetworkLayerPdu(pduArray);
                 }
                 break;
             case MeshManagerApi.PDU_TYPE_PROXY_CONFIGURATION:
                 lowerTransportPduMap = ((ControlMessage) message).getLowerTransportControlPdu();
                 for (int i = 0; i < lowerTransportPduMap.size(); i++) {
                     final byte[] lowerTransportPdu = lowerTransportPduMap.get(i);
-                    final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(node.incrementSequenceNumber());
+                    final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(mUpperTransportLayerCallbacks.getNextSequenceNumber(src));
                     message.setSequenceNumber(sequenceNum);
-                    sequenceNumbers.add(message.getSequenceNumber());
-                    final byte[] nonce = createProxyNonce(message.getSequenceNumber(), src, message.getIvIndex());
-                    final byte[] encryptedPayload = encryptPdu(lowerTransportPdu, encryptionKey, nonce, message.getDst(), SecureUtils.getNetMicLength(message.getCtl()));
-                    encryptedPduPayload.put(i, encryptedPayload);
-                    Log.v(TAG, "Encrypted Network payload: " + MeshParserUtils.bytesToHex(encryptedPayload, false));
+                    final byte[] pdu = new byte[NetworkPduCodec.getNetworkPduLength(lowerTransportPdu.length, netMicLength)];
+                    codec.encodeNetworkPdu(pduType, iviNID, ctlTTL, sequenceNum, src, message.getDst(), lowerTransportPdu,
+                            message.getIvIndex(), encryptionKey, privacyKey, netMicLength, pdu, 0);
+                    pduArray.put(i, pdu);
+                    message.setNetworkLayerPdu(pduArray);
                 }
                 break;
         }
 
-        final SparseArray<byte[]> pduArray = new SparseArray<>();
-        for (int i = 0; i < encryptedPduPayload.size(); i++) {
-            //Create the privacy random
-            final byte[] encryptedPayload = encryptedPduPayload.get(i);
-            final byte[] privacyRandom = createPrivacyRandom(encryptedPayload);
-            //Next we create the PECB
-            final byte[] pecb = createPECB(message.getIvIndex(), privacyRandom, privacyKey);
-
-            final byte[] header = obfuscateNetworkHeader(ctlTTL, sequenceNumbers.get(i), src, pecb);
-            final byte[] pdu = ByteBuffer.allocate(1 + 1 + header.length + encryptedPayload.length).order(ByteOrder.BIG_ENDIAN)
-                    .put((byte) pduType)
-                    .put(iviNID)
-                    .put(header)
-                    .put(encryptedPayload)
-                    .array();
-            pduArray.put(i, pdu);
-            message.setNetworkLayerPdu(pduArray);
-        }
-
         return message;
     }
 
@@ -177,10 +151,9 @@ abstract class NetworkLayer extends LowerTransportLayer {
         final SecureUtils.K2Output k2Output = getK2Output(message);
         final int nid = k2Output.getNid();
         final byte[] encryptionKey = k2Output.getEncryptionKey();
-        Log.v(TAG, "Encryption key: " + MeshParserUtils.bytesToHex(encryptionKey, false));
-
         final byte[] privacyKey = k2Output.getPrivacyKey();
-        Log.v(TAG, "Privacy key: " + MeshParserUtils.bytesToHex(privacyKey, false));
+        MeshLogger.v(TAG, () -> "Encryption key: " + MeshParserUtils.bytesToHex(encryptionKey, false));
+        MeshLogger.v(TAG, () -> "Privacy key: " + MeshParserUtils.bytesToHex(privacyKey, false));
         final int ctl = message.getCtl();
         final int ttl = message.getTtl();
         final int ivi = message.getIvIndex()[3] & 0x01; // least significant bit of IV Index
@@ -195,41 +168,23 @@ abstract class NetworkLayer extends LowerTransportLayer {
             lowerTransportPduMap = ((ControlMessage) message).getLowerTransportControlPdu();
         }
 
-        byte[] encryptedNetworkPayload = null;
         final int pduType = message.getPduType();
         if (message.getPduType() == MeshManagerApi.PDU_TYPE_NETWORK) {
-            final ProvisionedMeshNode node = mUpperTransportLayerCallbacks.getNode(message.getSrc());
             final byte[] lowerTransportPdu = lowerTransportPduMap.get(segment);
-            node.setSequenceNumber(MeshParserUtils.convert24BitsToInt(message.getSequenceNumber()));
-            //final int sequenceNumber = node.incrementSequenceNumber();//incrementSequenceNumber(mNetworkLayerCallbacks.getProvisioner(), message.getSequenceNumber());
-            final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(node.incrementSequenceNumber());
+            //Retransmitted segments are sent with a new sequence number, the SeqZero of the segment remains the same
+            final byte[] sequenceNum = MeshParserUtils.getSequenceNumberBytes(mUpperTransportLayerCallbacks.getNextSequenceNumber(src));
             message.setSequenceNumber(sequenceNum);
 
-            Log.v(TAG, "Sequence Number: " + MeshParserUtils.bytesToHex(sequenceNum, false));
+            MeshLogger.v(TAG, () -> "Sequence Number: " + MeshParserUtils.bytesToHex(sequenceNum, false));
 
-            final byte[] nonce = createNetworkNonce(ctlTTL, sequenceNum, src, message.getIvIndex());
-            encryptedNetworkPayload = encryptPdu(lowerTransportPdu, encryptionKey, nonce, message.getDst(), SecureUtils.getNetMicLength(message.getCtl()));
-            if (encryptedNetworkPayload == null)
-                return null;
-            Log.v(TAG, "Encrypted Network payload: " + MeshParserUtils.bytesToHex(encryptedNetworkPayload, false));
+            final int netMicLength = SecureUtils.getNetMicLength(message.getCtl());
+            final byte[] pdu = new byte[NetworkPduCodec.getNetworkPduLength(lowerTransportPdu.length, netMicLength)];
+            NetworkPduCodec.get().encodeNetworkPdu(pduType, iviNID, ctlTTL, sequenceNum, src, message.getDst(), lowerTransportPdu,
+                    message.getIvIndex(), encryptionKey, privacyKey, netMicLength, pdu, 0);
+            message.getNetworkLayerPdu().put(segment, pdu);
+            return message;
         }
-
-        if (encryptedNetworkPayload == null)
-            return null;
-
-        final byte[] privacyRandom = createPrivacyRandom(encryptedNetworkPayload);
-        //Next we create the PECB
-        final byte[] pecb = createPECB(message.getIvIndex(), privacyRandom, privacyKey);
-
-        final byte[] header = obfuscateNetworkHeader(ctlTTL, message.getSequenceNumber(), src, pecb);
-        final byte[] pdu = ByteBuffer.allocate(1 + 1 + header.length + encryptedNetworkPayload.length).order(ByteOrder.BIG_ENDIAN)
-                .put((byte) pduType)
-                .put(iviNID)
-                .put(header)
-                .put(encryptedNetworkPayload)
-                .array();
-        message.getNetworkLayerPdu().put(segment, pdu);
-        return message;
+        return null;
     }
 
     /**
@@ -258,10 +213,10 @@ abstract class NetworkLayer extends LowerTransportLayer {
         final int ctlTtl = networkHeader[0];
         final int ctl = (ctlTtl >> 7) & 0x01;
         final int ttl = ctlTtl & 0x7F;
-        Log.v(TAG, "TTL for received message: " + ttl);
+        MeshLogger.v(TAG, () -> "TTL for received message: " + ttl);
         final int src = MeshParserUtils.unsignedBytesToInt(networkHeader[5], networkHeader[4]);
         if (ctl == 1) {
-            return parseControlMessage(key, provisioner.getProvisionerAddress(), data, networkHeader, decryptedNetworkPayload, src, sequenceNumber);
+            return parseControlMessage(key, provisioner.getProvisionerAddress(), data, networkHeader, decryptedNetworkPayload, src, sequenceNumber, ivIndex);
         } else {
             return parseAccessMessage(key, data, networkHeader, decryptedNetworkPayload, src, sequenceNumber, ivIndex);
         }
@@ -290,25 +245,18 @@ abstract class NetworkLayer extends LowerTransportLayer {
         try {
             int receivedTtl = networkHeader[0] & 0x7F;
             final int dst = MeshParserUtils.unsignedBytesToInt(decryptedNetworkPayload[1], decryptedNetworkPayload[0]);
-            Log.v(TAG, "Dst: " + MeshAddress.formatAddress(dst, true));
+            MeshLogger.v(TAG, () -> "Dst: " + MeshAddress.formatAddress(dst, true));
 
             if (isSegmentedMessage(decryptedNetworkPayload[2])) {
-                Log.v(TAG, "Received a segmented access message from: " + MeshAddress.formatAddress(src, false));
+                MeshLogger.v(TAG, () -> "Received a segmented access message from: " + MeshAddress.formatAddress(src, false));
 
                 //Check if the received segmented message is from the same src as the previous segment
                 //Ideal case this check is not needed but let's leave it for now.
                 if (!mMeshNode.hasUnicastAddress(src)) {
-                    Log.v(TAG, "Segment received is from a different src than the one we are processing, let's drop it");
+                    MeshLogger.v(TAG, "Segment received is from a different src than the one we are processing, let's drop it");
                     return null;
                 }
 
-                if (segmentedAccessMessagesMessages == null) {
-                    segmentedAccessMessagesMessages = new SparseArray<>();
-                    segmentedAccessMessagesMessages.put(0, data);
-                } else {
-                    final int k = segmentedAccessMessagesMessages.size();
-                    segmentedAccessMessagesMessages.put(k, data);
-                }
                 //Removing the mDst here
                 final byte[] pdu = ByteBuffer.allocate(2 + networkHeader.length + decryptedNetworkPayload.length)
                         .order(ByteOrder.BIG_ENDIAN)
@@ -321,14 +269,11 @@ abstract class NetworkLayer extends LowerTransportLayer {
                 // If the received segments were sent with TTL set to 0, it is recommended that the
                 // corresponding Segment Acknowledgment message is sent with TTL set to 0.
                 final int ttl = receivedTtl == 0 ? receivedTtl : mNetworkLayerCallbacks.getProvisioner().getGlobalTtl();
-                final AccessMessage message = parseSegmentedAccessLowerTransportPDU(ttl, pdu, ivIndex, sequenceNumber);
+                final AccessMessage message = parseSegmentedAccessLowerTransportPDU(ttl, data, pdu, ivIndex, sequenceNumber);
 
                 if (message != null) {
-                    final SparseArray<byte[]> segmentedMessages = segmentedAccessMessagesMessages.clone();
-                    segmentedAccessMessagesMessages = null;
                     message.setNetworkKey(key);
                     message.setIvIndex(MeshParserUtils.intToBytes(ivIndex));
-                    message.setNetworkLayerPdu(segmentedMessages);
                     message.setTtl(receivedTtl);
                     message.setSrc(src);
                     message.setDst(dst);
@@ -377,6 +322,7 @@ abstract class NetworkLayer extends LowerTransportLayer {
      * @param decryptedNetworkPayload Decrypted network payload.
      * @param src                     Source address where the pdu originated from.
      * @param sequenceNumber          Sequence number of the received message.
+     * @param ivIndex                 IV Index used for decryption.
      * @return a complete {@link ControlMessage} or null if the message was unable to parsed
      */
     private ControlMessage parseControlMessage(@NonNull final NetworkKey key,
@@ -385,7 +331,8 @@ abstract class NetworkLayer extends LowerTransportLayer {
                                                @NonNull final byte[] networkHeader,
                                                @NonNull final byte[] decryptedNetworkPayload,
                                                final int src,
-                                               @NonNull final byte[] sequenceNumber) throws ExtendedInvalidCipherTextException {
+                                               @NonNull final byte[] sequenceNumber,
+                                               final int ivIndex) throws ExtendedInvalidCipherTextException {
         try {
             final int ttl = networkHeader[0] & 0x7F;
             final int dst = MeshParserUtils.unsignedBytesToInt(decryptedNetworkPayload[1], decryptedNetworkPayload[0]);
@@ -410,12 +357,12 @@ abstract class NetworkLayer extends LowerTransportLayer {
 
                     //Check if the message is directed to us, if its not ignore the message
                     if (provisionerAddress != dst) {
-                        Log.v(TAG, "Received a control message that was not directed to us, so we drop it");
+                        MeshLogger.v(TAG, "Received a control message that was not directed to us, so we drop it");
                         return null;
                     }
 
                     if (isSegmentedMessage(decryptedNetworkPayload[2])) {
-                        return parseSegmentedControlMessage(key, data, decryptedProxyPdu, ttl, src, dst);
+                        return parseSegmentedControlMessage(key, data, decryptedProxyPdu, ttl, src, dst, ivIndex);
                     } else {
                         return parseUnsegmentedControlMessage(key, data, decryptedProxyPdu, ttl, src, dst, sequenceNumber);
                     }
@@ -474,24 +421,15 @@ abstract class NetworkLayer extends LowerTransportLayer {
      * @param ttl               TTL of the pdu
      * @param src               Source address where the pdu originated from
      * @param dst               Destination address to which the pdu was sent
+     * @param ivIndex           IV Index used for decryption
      * @return a complete {@link ControlMessage} or null if the message was unable to parsed
      */
-    private ControlMessage parseSegmentedControlMessage(@NonNull final NetworkKey key, @NonNull final byte[] data, @NonNull final byte[] decryptedProxyPdu, final int ttl, final int src, final int dst) {
-        if (segmentedControlMessagesMessages == null) {
-            segmentedControlMessagesMessages = new SparseArray<>();
-            segmentedControlMessagesMessages.put(0, data);
-        } else {
-            final int k = segmentedControlMessagesMessages.size();
-            segmentedAccessMessagesMessages.put(k, data);
-        }
-
-        final ControlMessage message = parseSegmentedControlLowerTransportPDU(decryptedProxyPdu);
+    private ControlMessage parseSegmentedControlMessage(@NonNull final NetworkKey key, @NonNull final byte[] data, @NonNull final byte[] decryptedProxyPdu,
+                                                       final int ttl, final int src, final int dst, final int ivIndex) {
+        final ControlMessage message = parseSegmentedControlLowerTransportPDU(data, decryptedProxyPdu, ivIndex);
         if (message != null) {
-            final SparseArray<byte[]> segmentedMessages = segmentedControlMessagesMessages.clone();
-            segmentedControlMessagesMessages = null;
             message.setNetworkKey(key);
             message.setIvIndex(mUpperTransportLayerCallbacks.getIvIndex());
-            message.setNetworkLayerPdu(segmentedMessages);
             message.setTtl(ttl);
             message.setSrc(src);
             message.setDst(dst);
@@ -514,141 +452,4 @@ abstract class NetworkLayer extends LowerTransportLayer {
         }
         return networkKey.getTxDerivatives();
     }
-
-    /**
-     * Obfuscates the network header
-     *
-     * @param ctlTTL         Message type and ttl bit
-     * @param sequenceNumber Sequence number of the message
-     * @param src            Source address
-     * @param pecb           Value derived from the privacy random
-     * @return Obfuscated network header
-     */
-    private byte[] obfuscateNetworkHeader(final byte ctlTTL, @NonNull final byte[] sequenceNumber, final int src, @NonNull final byte[] pecb) {
-
-        final ByteBuffer buffer = ByteBuffer.allocate(1 + sequenceNumber.length + 2).order(ByteOrder.BIG_ENDIAN);
-        buffer.put(ctlTTL);
-        buffer.put(sequenceNumber);   //sequence number
-        buffer.putShort((short) src);       //source address
-
-        final byte[] headerBuffer = buffer.array();
-
-        final ByteBuffer bufferPECB = ByteBuffer.allocate(6);
-        bufferPECB.put(pecb, 0, 6);
-
-        final byte[] obfuscated = new byte[6];
-        for (int i = 0; i < 6; i++)
-            obfuscated[i] = (byte) (headerBuffer[i] ^ pecb[i]);
-
-        return obfuscated;
-    }
-
-    /**
-     * De-obfuscates the network header
-     *
-     * @param pdu Received from the node
-     * @return Obfuscated network header
-     */
-    static byte[] deObfuscateNetworkHeader(@NonNull final byte[] pdu,
-                                           @NonNull final byte[] ivIndex,
-                                           @NonNull final byte[] privacyKey) {
-        final ByteBuffer obfuscatedNetworkBuffer = ByteBuffer.allocate(6);
-        obfuscatedNetworkBuffer.order(ByteOrder.BIG_ENDIAN);
-        obfuscatedNetworkBuffer.put(pdu, 2, 6);
-        final byte[] obfuscatedData = obfuscatedNetworkBuffer.array();
-
-        final ByteBuffer privacyRandomBuffer = ByteBuffer.allocate(7);
-        privacyRandomBuffer.order(ByteOrder.BIG_ENDIAN);
-        privacyRandomBuffer.put(pdu, 8, 7);
-        final byte[] privacyRandom = createPrivacyRandom(privacyRandomBuffer.array());
-
-        final byte[] pecb = createPECB(ivIndex, privacyRandom, privacyKey);
-        final byte[] deObfuscatedData = new byte[6];
-
-        for (int i = 0; i < 6; i++)
-            deObfuscatedData[i] = (byte) (obfuscatedData[i] ^ pecb[i]);
-
-        return deObfuscatedData;
-    }
-
-    /**
-     * Creates the privacy random.
-     *
-     * @param encryptedUpperTransportPDU Encrypted transport pdu
-     * @return Privacy random
-     */
-    private static byte[] createPrivacyRandom(@NonNull final byte[] encryptedUpperTransportPDU) {
-        final byte[] privacyRandom = new byte[7];
-        System.arraycopy(encryptedUpperTransportPDU, 0, privacyRandom, 0, privacyRandom.length);
-        return privacyRandom;
-    }
-
-    private static byte[] createPECB(@NonNull final byte[] ivIndex, @NonNull final byte[] privacyRandom, @NonNull final byte[] privacyKey) {
-        final ByteBuffer buffer = ByteBuffer.allocate(5 + privacyRandom.length + ivIndex.length);
-        buffer.order(ByteOrder.BIG_ENDIAN);
-        buffer.put(new byte[]{0x00, 0x00, 0x00, 0x00, 0x00});
-        buffer.put(ivIndex);
-        buffer.put(privacyRandom);
-        final byte[] temp = buffer.array();
-        return SecureUtils.encryptWithAES(temp, privacyKey);
-    }
-
-    /**
-     * Creates the network nonce
-     *
-     * @param ctlTTL         Combined ctl and ttl value
-     * @param sequenceNumber Sequence number of the message
-     * @param src            Source address
-     * @return Network nonce
-     */
-    static byte[] createNetworkNonce(final byte ctlTTL, @NonNull final byte[] sequenceNumber, final int src, @NonNull final byte[] ivIndex) {
-        final ByteBuffer networkNonce = ByteBuffer.allocate(13);
-        networkNonce.put((byte) NONCE_TYPE_NETWORK); //Nonce type
-        networkNonce.put(ctlTTL); // CTL and TTL
-        networkNonce.put(sequenceNumber);
-        networkNonce.putShort((short) src);
-        networkNonce.put(new byte[]{PAD_NETWORK_NONCE, PAD_NETWORK_NONCE}); //PAD
-        networkNonce.put(ivIndex);
-        return networkNonce.array();
-    }
-
-    /**
-     * Creates the proxy nonce
-     *
-     * @param sequenceNumber Sequence number of the message
-     * @param src            Source address
-     * @return Proxy nonce
-     */
-    static byte[] createProxyNonce(@NonNull final byte[] sequenceNumber, final int src, @NonNull final byte[] ivIndex) {
-        final ByteBuffer applicationNonceBuffer = ByteBuffer.allocate(13);
-        applicationNonceBuffer.put((byte) NONCE_TYPE_PROXY); //Nonce type
-        applicationNonceBuffer.put((byte) PAD_PROXY_NONCE); //PAD
-        applicationNonceBuffer.put(sequenceNumber);
-        applicationNonceBuffer.putShort((short) src);
-        applicationNonceBuffer.put(new byte[]{PAD_PROXY_NONCE, PAD_PROXY_NONCE});
-        applicationNonceBuffer.put(ivIndex);
-        return applicationNonceBuffer.array();
-    }
-
-    /**
-     * Encrypts the pdu
-     *
-     * @param lowerTransportPdu lower transport pdu to be encrypted
-     * @param encryptionKey     Encryption key
-     * @param nonce             nonce depending on the pdu type
-     * @param dst               Destination address
-     * @param micLength         Message integrity check length
-     */
-    private byte[] encryptPdu(@NonNull final byte[] lowerTransportPdu,
-                              @NonNull final byte[] encryptionKey,
-                              @NonNull final byte[] nonce,
-                              final int dst,
-                              final int micLength) {
-        //Adding the destination address on network layer
-        final byte[] unencryptedNetworkPayload = ByteBuffer.allocate(2 + lowerTransportPdu.length).order(ByteOrder.BIG_ENDIAN)
-                .putShort((short) dst)
-                .put(lowerTransportPdu).array();
-        //Network layer encryption
-        return SecureUtils.encryptCCM(unencryptedNetworkPayload, encryptionKey, nonce, micLength);
-    }
 }
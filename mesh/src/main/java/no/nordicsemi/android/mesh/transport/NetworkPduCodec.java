@@ -0,0 +1,255 @@
+package no.nordicsemi.android.mesh.transport;
+
+import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.MeshManagerApi;
+import no.nordicsemi.android.mesh.utils.CryptoContext;
+
+/**
+ * Thread confined workspace for encoding and decoding network pdus.
+ * <p>
+ * Nonces, the PECB and network headers are written in to fixed size arrays that are reused for every pdu, and a complete network pdu
+ * can be encoded in to a caller supplied buffer, so that no memory is allocated per pdu once the workspace of a thread exists.
+ * The arrays returned by this class are overwritten by the next call of the same kind on the same thread and must not be retained.
+ * </p>
+ * <p>
+ * A NetworkPduCodec is not thread safe, use {@link #get()} to obtain the instance bound to the calling thread.
+ * </p>
+ */
+public final class NetworkPduCodec {
+
+    private static final int NONCE_LENGTH = 13;
+    private static final int BLOCK_SIZE = 16;
+    private static final int NETWORK_HEADER_LENGTH = 6;
+    private static final int PRIVACY_RANDOM_LENGTH = 7;
+    private static final int IV_INDEX_LENGTH = 4;
+    //Zero padding at the start of the PECB input
+    private static final int PECB_PADDING_LENGTH = 5;
+    //Offset of the obfuscated header following the pdu type and the IVI NID octet
+    private static final int NETWORK_HEADER_OFFSET = 2;
+    //Offset of the encrypted destination address and transport pdu
+    private static final int ENCRYPTED_PAYLOAD_OFFSET = NETWORK_HEADER_OFFSET + NETWORK_HEADER_LENGTH;
+    private static final ThreadLocal<NetworkPduCodec> CODEC = new ThreadLocal<NetworkPduCodec>() {
+        @Override
+        protected NetworkPduCodec initialValue() {
+            return new NetworkPduCodec();
+        }
+    };
+
+    private final byte[] networkNonce = new byte[NONCE_LENGTH];
+    private final byte[] proxyNonce = new byte[NONCE_LENGTH];
+    private final byte[] applicationNonce = new byte[NONCE_LENGTH];
+    private final byte[] deviceNonce = new byte[NONCE_LENGTH];
+    private final byte[] pecb = new byte[BLOCK_SIZE];
+    private final byte[] networkHeader = new byte[NETWORK_HEADER_LENGTH];
+
+    private NetworkPduCodec() {
+    }
+
+    /**
+     * Returns the NetworkPduCodec bound to the calling thread.
+     */
+    @NonNull
+    public static NetworkPduCodec get() {
+        return CODEC.get();
+    }
+
+    /**
+     * Returns the length of a network pdu.
+     *
+     * @param lowerTransportPduLength Length of the lower transport pdu
+     * @param netMicLength            Length of the network message integrity check
+     */
+    public static int getNetworkPduLength(final int lowerTransportPduLength, final int netMicLength) {
+        return ENCRYPTED_PAYLOAD_OFFSET + 2 + lowerTransportPduLength + netMicLength;
+    }
+
+    /**
+     * Encodes a network pdu in to the given buffer.
+     *
+     * @param pduType           Proxy pdu type, network pdu or proxy configuration
+     * @param iviNid            Least significant bit of the IV Index and the NID
+     * @param ctlTtl            Combined ctl and ttl value
+     * @param sequenceNumber    24-bit sequence number
+     * @param src               Source address
+     * @param dst               Destination address
+     * @param lowerTransportPdu Lower transport pdu
+     * @param ivIndex           IV Index
+     * @param encryptionKey     Encryption key of the network key
+     * @param privacyKey        Privacy key of the network key
+     * @param netMicLength      Length of the network message integrity check
+     * @param out               Output buffer, must have {@link #getNetworkPduLength(int, int)} bytes available from outOff
+     * @param outOff            Offset in the output buffer
+     * @return number of bytes written to the output buffer
+     */
+    public int encodeNetworkPdu(final int pduType,
+                                final int iviNid,
+                                final byte ctlTtl,
+                                @NonNull final byte[] sequenceNumber,
+                                final int src,
+                                final int dst,
+                                @NonNull final byte[] lowerTransportPdu,
+                                @NonNull final byte[] ivIndex,
+                                @NonNull final byte[] encryptionKey,
+                                @NonNull final byte[] privacyKey,
+                                final int netMicLength,
+                                @NonNull final byte[] out,
+                                final int outOff) {
+        out[outOff] = (byte) pduType;
+        out[outOff + 1] = (byte) iviNid;
+
+        //The destination address and the transport pdu are encrypted in place
+        final int payloadOffset = outOff + ENCRYPTED_PAYLOAD_OFFSET;
+        out[payloadOffset] = (byte) (dst >> 8);
+        out[payloadOffset + 1] = (byte) dst;
+        System.arraycopy(lowerTransportPdu, 0, out, payloadOffset + 2, lowerTransportPdu.length);
+        final byte[] nonce = pduType == MeshManagerApi.PDU_TYPE_NETWORK ?
+                createNetworkNonce(ctlTtl, sequenceNumber, src, ivIndex) :
+                createProxyNonce(sequenceNumber, src, ivIndex);
+        final int encryptedLength = CryptoContext.get().encryptCCM(encryptionKey, nonce, null,
+                out, payloadOffset, 2 + lowerTransportPdu.length, out, payloadOffset, netMicLength);
+
+        //The header is obfuscated with the PECB derived from the privacy random, the start of the encrypted payload
+        createPECB(ivIndex, out, payloadOffset, privacyKey);
+        final int headerOffset = outOff + NETWORK_HEADER_OFFSET;
+        out[headerOffset] = (byte) (ctlTtl ^ pecb[0]);
+        out[headerOffset + 1] = (byte) (sequenceNumber[0] ^ pecb[1]);
+        out[headerOffset + 2] = (byte) (sequenceNumber[1] ^ pecb[2]);
+        out[headerOffset + 3] = (byte) (sequenceNumber[2] ^ pecb[3]);
+        out[headerOffset + 4] = (byte) ((src >> 8) ^ pecb[4]);
+        out[headerOffset + 5] = (byte) (src ^ pecb[5]);
+        return ENCRYPTED_PAYLOAD_OFFSET + encryptedLength;
+    }
+
+    /**
+     * De-obfuscates the network header of a received pdu.
+     *
+     * @param pdu        Received from the node
+     * @param ivIndex    IV Index
+     * @param privacyKey Privacy key of the network key
+     * @return De-obfuscated network header containing the ctl and ttl, sequence number and source address
+     */
+    @NonNull
+    public byte[] deObfuscateNetworkHeader(@NonNull final byte[] pdu,
+                                           @NonNull final byte[] ivIndex,
+                                           @NonNull final byte[] privacyKey) {
+        createPECB(ivIndex, pdu, ENCRYPTED_PAYLOAD_OFFSET, privacyKey);
+        for (int i = 0; i < NETWORK_HEADER_LENGTH; i++) {
+            networkHeader[i] = (byte) (pdu[NETWORK_HEADER_OFFSET + i] ^ pecb[i]);
+        }
+        return networkHeader;
+    }
+
+    /**
+     * Creates the network nonce
+     *
+     * @param ctlTtl         Combined ctl and ttl value
+     * @param sequenceNumber Sequence number of the message
+     * @param src            Source address
+     * @param ivIndex        IV Index
+     * @return Network nonce
+     */
+    @NonNull
+    public byte[] createNetworkNonce(final byte ctlTtl,
+                                     @NonNull final byte[] sequenceNumber,
+                                     final int src,
+                                     @NonNull final byte[] ivIndex) {
+        networkNonce[0] = (byte) UpperTransportLayer.NONCE_TYPE_NETWORK;
+        networkNonce[1] = ctlTtl;
+        writeNonce(networkNonce, sequenceNumber, src, UpperTransportLayer.PAD_NETWORK_NONCE, ivIndex);
+        return networkNonce;
+    }
+
+    /**
+     * Creates the proxy nonce
+     *
+     * @param sequenceNumber Sequence number of the message
+     * @param src            Source address
+     * @param ivIndex        IV Index
+     * @return Proxy nonce
+     */
+    @NonNull
+    public byte[] createProxyNonce(@NonNull final byte[] sequenceNumber,
+                                   final int src,
+                                   @NonNull final byte[] ivIndex) {
+        proxyNonce[0] = (byte) UpperTransportLayer.NONCE_TYPE_PROXY;
+        proxyNonce[1] = (byte) UpperTransportLayer.PAD_PROXY_NONCE;
+        writeNonce(proxyNonce, sequenceNumber, src, UpperTransportLayer.PAD_PROXY_NONCE, ivIndex);
+        return proxyNonce;
+    }
+
+    /**
+     * Creates the application nonce
+     *
+     * @param aszmic         aszmic (szmic if a segmented access message)
+     * @param sequenceNumber sequence number of the message
+     * @param src            source address
+     * @param dst            destination address
+     * @param ivIndex        IV Index
+     * @return Application nonce
+     */
+    @NonNull
+    public byte[] createApplicationNonce(final int aszmic,
+                                         @NonNull final byte[] sequenceNumber,
+                                         final int src,
+                                         final int dst,
+                                         @NonNull final byte[] ivIndex) {
+        applicationNonce[0] = (byte) UpperTransportLayer.NONCE_TYPE_APPLICATION;
+        applicationNonce[1] = (byte) ((aszmic << 7) | UpperTransportLayer.PAD_APPLICATION_DEVICE_NONCE);
+        writeNonce(applicationNonce, sequenceNumber, src, dst, ivIndex);
+        return applicationNonce;
+    }
+
+    /**
+     * Creates the device nonce
+     *
+     * @param aszmic         aszmic (szmic if a segmented access message)
+     * @param sequenceNumber sequence number of the message
+     * @param src            source address
+     * @param dst            destination address
+     * @param ivIndex        IV Index
+     * @return Device nonce
+     */
+    @NonNull
+    public byte[] createDeviceNonce(final int aszmic,
+                                    @NonNull final byte[] sequenceNumber,
+                                    final int src,
+                                    final int dst,
+                                    @NonNull final byte[] ivIndex) {
+        deviceNonce[0] = (byte) UpperTransportLayer.NONCE_TYPE_DEVICE;
+        deviceNonce[1] = (byte) ((aszmic << 7) | UpperTransportLayer.PAD_APPLICATION_DEVICE_NONCE);
+        writeNonce(deviceNonce, sequenceNumber, src, dst, ivIndex);
+        return deviceNonce;
+    }
+
+    /**
+     * Writes the sequence number, source address, the destination address or padding and the IV Index following the first two
+     * octets that differ between the nonce types.
+     */
+    private static void writeNonce(@NonNull final byte[] nonce,
+                                   @NonNull final byte[] sequenceNumber,
+                                   final int src,
+                                   final int dstOrPadding,
+                                   @NonNull final byte[] ivIndex) {
+        System.arraycopy(sequenceNumber, 0, nonce, 2, 3);
+        nonce[5] = (byte) (src >> 8);
+        nonce[6] = (byte) src;
+        nonce[7] = (byte) (dstOrPadding >> 8);
+        nonce[8] = (byte) dstOrPadding;
+        System.arraycopy(ivIndex, 0, nonce, 9, IV_INDEX_LENGTH);
+    }
+
+    /**
+     * Calculates the PECB in place from the IV Index and the privacy random, i.e. the first 7 octets of the encrypted payload.
+     */
+    private void createPECB(@NonNull final byte[] ivIndex,
+                            @NonNull final byte[] encryptedPayload,
+                            final int offset,
+                            @NonNull final byte[] privacyKey) {
+        for (int i = 0; i < PECB_PADDING_LENGTH; i++) {
+            pecb[i] = 0;
+        }
+        System.arraycopy(ivIndex, 0, pecb, PECB_PADDING_LENGTH, IV_INDEX_LENGTH);
+        System.arraycopy(encryptedPayload, offset, pecb, PECB_PADDING_LENGTH + IV_INDEX_LENGTH, PRIVACY_RANDOM_LENGTH);
+        CryptoContext.get().encryptBlock(privacyKey, pecb, 0, pecb, 0);
+    }
+}
@@ -0,0 +1,161 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.NetworkKey;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+/**
+ * Table of the network key derivatives indexed by NID used to decode received network pdus.
+ * <p>
+ * Each network key contributes the derivatives of its current key and, during a key refresh procedure, its old key. The candidate
+ * keys for a received pdu are resolved with a single array lookup on the NID instead of going through every network key. The table
+ * also caches the byte form of the IV indexes a pdu may be received on. It is rebuilt only when the network keys, their derivatives
+ * or the IV index change.
+ * </p>
+ */
+final class NidTable {
+
+    private static final int NID_COUNT = 128;
+
+    private final Entry[] entries = new Entry[NID_COUNT];
+    private NetworkKey[] keys = new NetworkKey[0];
+    private SecureUtils.K2Output[] derivatives = new SecureUtils.K2Output[0];
+    private SecureUtils.K2Output[] oldDerivatives = new SecureUtils.K2Output[0];
+    private int ivIndex = -1;
+    private byte[] ivIndexBytes;
+    private byte[] previousIvIndexBytes;
+    private byte[] nextIvIndexBytes;
+
+    /**
+     * Network key derivatives matching a NID, entries with colliding NIDs are chained.
+     */
+    static final class Entry {
+        final NetworkKey networkKey;
+        final SecureUtils.K2Output k2Output;
+        final Entry next;
+
+        Entry(@NonNull final NetworkKey networkKey, @NonNull final SecureUtils.K2Output k2Output, @Nullable final Entry next) {
+            this.networkKey = networkKey;
+            this.k2Output = k2Output;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Updates the table if the network keys or the IV index have changed since it was last built.
+     *
+     * @param networkKeys Network keys of the mesh network
+     * @param ivIndex     Current IV index of the mesh network
+     */
+    void update(@NonNull final List<NetworkKey> networkKeys, final int ivIndex) {
+        if (hasChanged(networkKeys)) {
+            rebuild(networkKeys);
+        }
+        if (this.ivIndex != ivIndex) {
+            this.ivIndex = ivIndex;
+            ivIndexBytes = MeshParserUtils.intToBytes(ivIndex);
+            previousIvIndexBytes = ivIndex == 0 ? null : MeshParserUtils.intToBytes(ivIndex - 1);
+            nextIvIndexBytes = MeshParserUtils.intToBytes(ivIndex + 1);
+        }
+    }
+
+    /**
+     * Returns the first network key derivative matching the given NID or null if none match.
+     *
+     * @param nid NID of the received pdu
+     */
+    @Nullable
+    Entry get(final int nid) {
+        return entries[nid & 0x7F];
+    }
+
+    /**
+     * Returns the IV index a pdu received with the given IVI is decrypted with first.
+     * <p>
+     * The IVI bit contains the least significant bit of the IV index used to secure the pdu. If it matches the current IV index the
+     * current IV index is used, otherwise the previous one, or the next one if the current IV index is 0.
+     * </p>
+     *
+     * @param ivi IVI bit of the received pdu
+     */
+    int getIvIndex(final int ivi) {
+        if ((ivIndex & 0x01) == ivi)
+            return ivIndex;
+        return ivIndex > 0 ? ivIndex - 1 : ivIndex + 1;
+    }
+
+    /**
+     * Returns the IV index a pdu received with the given IVI is decrypted with if it could not be decrypted with
+     * {@link #getIvIndex(int)}, or -1 if there is no other candidate.
+     * <p>
+     * A pdu with an IVI not matching the current IV index may have been sent by a node that has already moved to the next IV index.
+     * </p>
+     *
+     * @param ivi IVI bit of the received pdu
+     */
+    int getAlternativeIvIndex(final int ivi) {
+        if ((ivIndex & 0x01) == ivi || ivIndex == 0)
+            return -1;
+        return ivIndex + 1;
+    }
+
+    /**
+     * Returns the byte form of the given IV index, which must be the current IV index or adjacent to it.
+     *
+     * @param ivIndex IV index
+     */
+    @NonNull
+    byte[] getIvIndexBytes(final int ivIndex) {
+        if (ivIndex == this.ivIndex)
+            return ivIndexBytes;
+        else if (ivIndex == this.ivIndex - 1 && previousIvIndexBytes != null)
+            return previousIvIndexBytes;
+        else if (ivIndex == this.ivIndex + 1)
+            return nextIvIndexBytes;
+        return MeshParserUtils.intToBytes(ivIndex);
+    }
+
+    private boolean hasChanged(@NonNull final List<NetworkKey> networkKeys) {
+        final int size = networkKeys.size();
+        if (size != keys.length)
+            return true;
+        for (int i = 0; i < size; i++) {
+            final NetworkKey key = networkKeys.get(i);
+            if (key != keys[i] || key.getDerivatives() != derivatives[i] || key.getOldDerivatives() != oldDerivatives[i])
+                return true;
+        }
+        return false;
+    }
+
+    private void rebuild(@NonNull final List<NetworkKey> networkKeys) {
+        final int size = networkKeys.size();
+        keys = new NetworkKey[size];
+        derivatives = new SecureUtils.K2Output[size];
+        oldDerivatives = new SecureUtils.K2Output[size];
+        for (int i = 0; i < NID_COUNT; i++) {
+            entries[i] = null;
+        }
+        //Add the keys in reverse so that the chains are in the same order as the network keys
+        for (int i = size - 1; i >= 0; i--) {
+            final NetworkKey key = networkKeys.get(i);
+            keys[i] = key;
+            derivatives[i] = key.getDerivatives();
+            oldDerivatives[i] = key.getOldDerivatives();
+            if (oldDerivatives[i] != null) {
+                add(key, oldDerivatives[i]);
+            }
+            if (derivatives[i] != null) {
+                add(key, derivatives[i]);
+            }
+        }
+    }
+
+    private void add(@NonNull final NetworkKey key, @NonNull final SecureUtils.K2Output k2Output) {
+        final int nid = k2Output.getNid() & 0x7F;
+        entries[nid] = new Entry(key, k2Output, entries[nid]);
+    }
+}
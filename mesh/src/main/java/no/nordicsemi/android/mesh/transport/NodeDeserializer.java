@@ -45,184 +45,205 @@ public final class NodeDeserializer implements JsonSerializer<List<ProvisionedMe
         final List<ProvisionedMeshNode> nodes = new ArrayList<>();
         final JsonArray jsonArray = json.getAsJsonArray();
         for (int i = 0; i < jsonArray.size(); i++) {
-            JsonObject jsonObject = jsonArray.get(i).getAsJsonObject();
-            final ProvisionedMeshNode node = new ProvisionedMeshNode();
-            final String uuid = MeshParserUtils.formatUuid(jsonObject.get("UUID").getAsString());
-            if (uuid == null)
-                throw new IllegalArgumentException("Invalid Mesh Provisioning/Configuration " +
-                        "Database, invalid node UUID.");
-            node.uuid = uuid;
-            if (jsonObject.has("deviceKey") && jsonObject.get("deviceKey") != null) {
-                node.deviceKey = MeshParserUtils.toByteArray(jsonObject.get("deviceKey").getAsString());
-            }
-            final int unicastAddress = Integer.parseInt(jsonObject.get("unicastAddress").getAsString(), 16);
-            node.unicastAddress = unicastAddress;
-            final String jsonSecurity = jsonObject.get("security").getAsString();
-            final boolean security = jsonSecurity.equalsIgnoreCase("secure") ||
-                    /*Maintaining backwards compatibility */jsonSecurity.equalsIgnoreCase("high");
-            node.security = security ? 1 : 0;
-            node.mAddedNetKeys = deserializeAddedIndexes(jsonObject.get("netKeys").getAsJsonArray());
-            node.isConfigured = jsonObject.get("configComplete").getAsBoolean();
-
-            if (jsonObject.has("cid"))
-                node.companyIdentifier = Integer.parseInt(jsonObject.get("cid").getAsString(), 16);
-            if (jsonObject.has("pid"))
-                node.productIdentifier = Integer.parseInt(jsonObject.get("pid").getAsString(), 16);
-
-            if (jsonObject.has("vid"))
-                node.versionIdentifier = Integer.parseInt(jsonObject.get("vid").getAsString(), 16);
-
-            if (jsonObject.has("crpl"))
-                node.crpl = Integer.parseInt(jsonObject.get("crpl").getAsString(), 16);
-
-            if (jsonObject.has("features")) {
-                final JsonObject featuresJson = jsonObject.get("features").getAsJsonObject();
-                node.nodeFeatures = new Features(featuresJson.get("friend").getAsInt(),
-                        featuresJson.get("lowPower").getAsInt(),
-                        featuresJson.get("relay").getAsInt(),
-                        featuresJson.get("proxy").getAsInt());
-            }
+            nodes.add(deserializeNode(jsonArray.get(i).getAsJsonObject(), context));
+        }
 
-            if (jsonObject.has("secureNetworkBeacon")) {
-                node.setSecureNetworkBeaconSupported(jsonObject.get("secureNetworkBeacon").getAsBoolean());
-            }
+        return nodes;
+    }
 
-            if (jsonObject.has("defaultTTL") && !jsonObject.get("defaultTTL").isJsonNull()) {
-                node.ttl = jsonObject.get("defaultTTL").getAsInt();
-            }
+    @Override
+    public JsonElement serialize(final List<ProvisionedMeshNode> nodes, final Type typeOfSrc,
+                                 final JsonSerializationContext context) {
+        final JsonArray jsonArray = new JsonArray();
+        for (ProvisionedMeshNode node : nodes) {
+            jsonArray.add(serializeNode(node, context));
+        }
+        return jsonArray;
+    }
 
-            if (jsonObject.has("networkTransmit")) {
-                final JsonObject jsonNetTransmit = jsonObject.getAsJsonObject("networkTransmit");
-                int count = jsonNetTransmit.get("count").getAsInt();
-                int interval = jsonNetTransmit.get("interval").getAsInt();
-                if (count < 1 || count > 8)
-                    throw new IllegalArgumentException("Error while deserializing Network Transmit on : " +
-                            formatAddress(unicastAddress, true) + ", Network Transmit count must be in range 1-8.");
-
-                if (count != 0 && interval != 0) {
-                    final NetworkTransmitSettings networkTransmitSettings;
-                    // Some versions of nRF Mesh lib for Android were exporting interval
-                    // as number of steps, not the interval, therefore we can try to fix that.
-                    if (interval % 10 != 0 && interval <= 32) {
-                        // Interval that was exported as intervalSteps are imported as it is.
-                        networkTransmitSettings = new NetworkTransmitSettings(count, interval);
-                        node.setNetworkTransmitSettings(networkTransmitSettings);
-                    } else if (interval % 10 == 0) {
-                        // Interval that was exported as intervalSteps are decoded to intervalSteps.
-                        final int steps = NetworkTransmitSettings.decodeNetworkTransmissionInterval(interval);
-                        networkTransmitSettings = new NetworkTransmitSettings(count, steps);
-                        node.setNetworkTransmitSettings(networkTransmitSettings);
-                    }
+    /**
+     * Returns a node de-serialized from its json object, allowing nodes to be read one at a time from a stream.
+     *
+     * @param jsonObject Json object of the node
+     * @param context    Deserializer context
+     */
+    @NonNull
+    public ProvisionedMeshNode deserializeNode(@NonNull final JsonObject jsonObject, @NonNull final JsonDeserializationContext context) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        final String uuid = MeshParserUtils.formatUuid(jsonObject.get("UUID").getAsString());
+        if (uuid == null)
+            throw new IllegalArgumentException("Invalid Mesh Provisioning/Configuration " +
+                    "Database, invalid node UUID.");
+        node.uuid = uuid;
+        if (jsonObject.has("deviceKey") && jsonObject.get("deviceKey") != null) {
+            node.deviceKey = MeshParserUtils.toByteArray(jsonObject.get("deviceKey").getAsString());
+        }
+        final int unicastAddress = Integer.parseInt(jsonObject.get("unicastAddress").getAsString(), 16);
+        node.unicastAddress = unicastAddress;
+        final String jsonSecurity = jsonObject.get("security").getAsString();
+        final boolean security = jsonSecurity.equalsIgnoreCase("secure") ||
+                /*Maintaining backwards compatibility */jsonSecurity.equalsIgnoreCase("high");
+        node.security = security ? 1 : 0;
+        node.mAddedNetKeys = deserializeAddedIndexes(jsonObject.get("netKeys").getAsJsonArray());
+        node.isConfigured = jsonObject.get("configComplete").getAsBoolean();
+
+        if (jsonObject.has("cid"))
+            node.companyIdentifier = Integer.parseInt(jsonObject.get("cid").getAsString(), 16);
+        if (jsonObject.has("pid"))
+            node.productIdentifier = Integer.parseInt(jsonObject.get("pid").getAsString(), 16);
+
+        if (jsonObject.has("vid"))
+            node.versionIdentifier = Integer.parseInt(jsonObject.get("vid").getAsString(), 16);
+
+        if (jsonObject.has("crpl"))
+            node.crpl = Integer.parseInt(jsonObject.get("crpl").getAsString(), 16);
+
+        if (jsonObject.has("features")) {
+            final JsonObject featuresJson = jsonObject.get("features").getAsJsonObject();
+            node.nodeFeatures = new Features(featuresJson.get("friend").getAsInt(),
+                    featuresJson.get("lowPower").getAsInt(),
+                    featuresJson.get("relay").getAsInt(),
+                    featuresJson.get("proxy").getAsInt());
+        }
+
+        if (jsonObject.has("secureNetworkBeacon")) {
+            node.setSecureNetworkBeaconSupported(jsonObject.get("secureNetworkBeacon").getAsBoolean());
+        }
+
+        if (jsonObject.has("defaultTTL") && !jsonObject.get("defaultTTL").isJsonNull()) {
+            node.ttl = jsonObject.get("defaultTTL").getAsInt();
+        }
+
+        if (jsonObject.has("networkTransmit")) {
+            final JsonObject jsonNetTransmit = jsonObject.getAsJsonObject("networkTransmit");
+            int count = jsonNetTransmit.get("count").getAsInt();
+            int interval = jsonNetTransmit.get("interval").getAsInt();
+            if (count < 1 || count > 8)
+                throw new IllegalArgumentException("Error while deserializing Network Transmit on : " +
+                        formatAddress(unicastAddress, true) + ", Network Transmit count must be in range 1-8.");
+
+            if (count != 0 && interval != 0) {
+                final NetworkTransmitSettings networkTransmitSettings;
+                // Some versions of nRF Mesh lib for Android were exporting interval
+                // as number of steps, not the interval, therefore we can try to fix that.
+                if (interval % 10 != 0 && interval <= 32) {
+                    // Interval that was exported as intervalSteps are imported as it is.
+                    networkTransmitSettings = new NetworkTransmitSettings(count, interval);
+                    node.setNetworkTransmitSettings(networkTransmitSettings);
+                } else if (interval % 10 == 0) {
+                    // Interval that was exported as intervalSteps are decoded to intervalSteps.
+                    final int steps = NetworkTransmitSettings.decodeNetworkTransmissionInterval(interval);
+                    networkTransmitSettings = new NetworkTransmitSettings(count, steps);
+                    node.setNetworkTransmitSettings(networkTransmitSettings);
                 }
             }
+        }
 
-            if (jsonObject.has("relayRetransmit")) {
-                final JsonObject jsonRelay = jsonObject.getAsJsonObject("relayRetransmit");
-                int count = jsonRelay.get("count").getAsInt();
-                int interval = jsonRelay.get("interval").getAsInt();
-                if (count != 0 && interval != 0) {
-                    if (count < 1 || count > 8)
-                        throw new IllegalArgumentException("Error while deserializing Relay Retransmit on : " +
-                                formatAddress(unicastAddress, true) + " Relay Retransmit count must be in range 1-8.");
-                    final RelaySettings relaySettings;
-                    // Some versions of nRF Mesh lib for Android were exporting interval
-                    // as number of steps, not the interval, therefore we can try to fix that.
-                    if (interval % 10 != 0 && interval <= 32) {
-                        // Interval that was exported as intervalSteps are imported as it is.
-                        relaySettings = new RelaySettings(count, interval);
-                        node.setRelaySettings(relaySettings);
-                    } else if (interval % 10 == 0) {
-                        // Interval that was exported as intervalSteps are imported as it is.
-                        final int steps = RelaySettings.decodeRelayRetransmitInterval(interval);
-                        relaySettings = new RelaySettings(count, steps);
-                        node.setRelaySettings(relaySettings);
-                    }
+        if (jsonObject.has("relayRetransmit")) {
+            final JsonObject jsonRelay = jsonObject.getAsJsonObject("relayRetransmit");
+            int count = jsonRelay.get("count").getAsInt();
+            int interval = jsonRelay.get("interval").getAsInt();
+            if (count != 0 && interval != 0) {
+                if (count < 1 || count > 8)
+                    throw new IllegalArgumentException("Error while deserializing Relay Retransmit on : " +
+                            formatAddress(unicastAddress, true) + " Relay Retransmit count must be in range 1-8.");
+                final RelaySettings relaySettings;
+                // Some versions of nRF Mesh lib for Android were exporting interval
+                // as number of steps, not the interval, therefore we can try to fix that.
+                if (interval % 10 != 0 && interval <= 32) {
+                    // Interval that was exported as intervalSteps are imported as it is.
+                    relaySettings = new RelaySettings(count, interval);
+                    node.setRelaySettings(relaySettings);
+                } else if (interval % 10 == 0) {
+                    // Interval that was exported as intervalSteps are imported as it is.
+                    final int steps = RelaySettings.decodeRelayRetransmitInterval(interval);
+                    relaySettings = new RelaySettings(count, steps);
+                    node.setRelaySettings(relaySettings);
                 }
             }
+        }
 
-            if (jsonObject.has("appKeys"))
-                node.mAddedAppKeys = deserializeAddedIndexes(jsonObject.get("appKeys").getAsJsonArray());
-
-            if (jsonObject.has("elements")) {
-                final List<Element> elements = deserializeElements(context, jsonObject);
-                final Map<Integer, Element> elementMap = populateElements(unicastAddress, elements);
-                node.mElements.clear();
-                node.mElements.putAll(elementMap);
-            }
+        if (jsonObject.has("appKeys"))
+            node.mAddedAppKeys = deserializeAddedIndexes(jsonObject.get("appKeys").getAsJsonArray());
 
-            if (jsonObject.has("blacklisted")) {
-                node.setExcluded(jsonObject.get("blacklisted").getAsBoolean());
-            } else if (jsonObject.has("excluded")) {
-                node.setExcluded(jsonObject.get("excluded").getAsBoolean());
-            }
+        if (jsonObject.has("elements")) {
+            final List<Element> elements = deserializeElements(context, jsonObject);
+            final Map<Integer, Element> elementMap = populateElements(unicastAddress, elements);
+            node.mElements.clear();
+            node.mElements.putAll(elementMap);
+        }
 
-            if (jsonObject.has("name"))
-                node.nodeName = jsonObject.get("name").getAsString();
-            deserializeHeartbeat(jsonObject, node);
-            nodes.add(node);
+        if (jsonObject.has("blacklisted")) {
+            node.setExcluded(jsonObject.get("blacklisted").getAsBoolean());
+        } else if (jsonObject.has("excluded")) {
+            node.setExcluded(jsonObject.get("excluded").getAsBoolean());
         }
 
-        return nodes;
+        if (jsonObject.has("name"))
+            node.nodeName = jsonObject.get("name").getAsString();
+        deserializeHeartbeat(jsonObject, node);
+        return node;
     }
 
-    @Override
-    public JsonElement serialize(final List<ProvisionedMeshNode> nodes, final Type typeOfSrc,
-                                 final JsonSerializationContext context) {
-        final JsonArray jsonArray = new JsonArray();
-        for (ProvisionedMeshNode node : nodes) {
-            final JsonObject nodeJson = new JsonObject();
-            nodeJson.addProperty("UUID", node.getUuid().toUpperCase(Locale.US)/*MeshParserUtils.uuidToHex(node.getUuid())*/);
-            nodeJson.addProperty("name", node.getNodeName());
-            nodeJson.addProperty("deviceKey", MeshParserUtils.bytesToHex(node.getDeviceKey(), false));
-            nodeJson.addProperty("unicastAddress", MeshParserUtils.bytesToHex(addressIntToBytes(node.getUnicastAddress()), false));
-            nodeJson.addProperty("security", (node.getSecurity() == ProvisionedBaseMeshNode.HIGH) ? "secure" : "insecure");
-            nodeJson.addProperty("configComplete", node.isConfigured());
-
-            if (node.getCompanyIdentifier() != null)
-                nodeJson.addProperty("cid", CompositionDataParser.formatCompanyIdentifier(node.getCompanyIdentifier(), false));
-            if (node.getProductIdentifier() != null)
-                nodeJson.addProperty("pid", CompositionDataParser.formatProductIdentifier(node.getProductIdentifier(), false));
-            if (node.getVersionIdentifier() != null)
-                nodeJson.addProperty("vid", CompositionDataParser.formatVersionIdentifier(node.getVersionIdentifier(), false));
-            if (node.getCrpl() != null)
-                nodeJson.addProperty("crpl", CompositionDataParser.formatReplayProtectionCount(node.getCrpl(), false));
-
-            if (node.getNodeFeatures() != null) {
-                final JsonObject json = new JsonObject();
-                json.addProperty("friend", node.getNodeFeatures().getFriend());
-                json.addProperty("lowPower", node.getNodeFeatures().getLowPower());
-                json.addProperty("proxy", node.getNodeFeatures().getProxy());
-                json.addProperty("relay", node.getNodeFeatures().getRelay());
-                nodeJson.add("features", json);
-            }
-
-            if (node.isSecureNetworkBeaconSupported() != null) {
-                nodeJson.addProperty("secureNetworkBeacon", node.isSecureNetworkBeaconSupported());
-            }
+    /**
+     * Returns the json object of a node, allowing nodes to be written one at a time to a stream.
+     *
+     * @param node    Node
+     * @param context Serializer context
+     */
+    @NonNull
+    public JsonObject serializeNode(@NonNull final ProvisionedMeshNode node, @NonNull final JsonSerializationContext context) {
+        final JsonObject nodeJson = new JsonObject();
+        nodeJson.addProperty("UUID", node.getUuid().toUpperCase(Locale.US)/*MeshParserUtils.uuidToHex(node.getUuid())*/);
+        nodeJson.addProperty("name", node.getNodeName());
+        nodeJson.addProperty("deviceKey", MeshParserUtils.bytesToHex(node.getDeviceKey(), false));
+        nodeJson.addProperty("unicastAddress", MeshParserUtils.bytesToHex(addressIntToBytes(node.getUnicastAddress()), false));
+        nodeJson.addProperty("security", (node.getSecurity() == ProvisionedBaseMeshNode.HIGH) ? "secure" : "insecure");
+        nodeJson.addProperty("configComplete", node.isConfigured());
+
+        if (node.getCompanyIdentifier() != null)
+            nodeJson.addProperty("cid", CompositionDataParser.formatCompanyIdentifier(node.getCompanyIdentifier(), false));
+        if (node.getProductIdentifier() != null)
+            nodeJson.addProperty("pid", CompositionDataParser.formatProductIdentifier(node.getProductIdentifier(), false));
+        if (node.getVersionIdentifier() != null)
+            nodeJson.addProperty("vid", CompositionDataParser.formatVersionIdentifier(node.getVersionIdentifier(), false));
+        if (node.getCrpl() != null)
+            nodeJson.addProperty("crpl", CompositionDataParser.formatReplayProtectionCount(node.getCrpl(), false));
+
+        if (node.getNodeFeatures() != null) {
+            final JsonObject json = new JsonObject();
+            json.addProperty("friend", node.getNodeFeatures().getFriend());
+            json.addProperty("lowPower", node.getNodeFeatures().getLowPower());
+            json.addProperty("proxy", node.getNodeFeatures().getProxy());
+            json.addProperty("relay", node.getNodeFeatures().getRelay());
+            nodeJson.add("features", json);
+        }
 
-            nodeJson.addProperty("defaultTTL", node.getTtl());
+        if (node.isSecureNetworkBeaconSupported() != null) {
+            nodeJson.addProperty("secureNetworkBeacon", node.isSecureNetworkBeaconSupported());
+        }
 
-            if (node.getNetworkTransmitSettings() != null) {
-                final JsonObject json = new JsonObject();
-                json.addProperty("count", node.getNetworkTransmitSettings().getNetworkTransmitCount());
-                json.addProperty("interval", node.getNetworkTransmitSettings().getNetworkTransmissionInterval());
-                nodeJson.add("networkTransmit", json);
-            }
-            if (node.getRelaySettings() != null) {
-                final JsonObject json = new JsonObject();
-                json.addProperty("count", node.getRelaySettings().getRelayTransmitCount());
-                json.addProperty("interval", node.getRelaySettings().getRetransmissionIntervals());
-                nodeJson.add("relayRetransmit", json);
-            }
+        nodeJson.addProperty("defaultTTL", node.getTtl());
 
-            nodeJson.add("netKeys", serializeAddedIndexes(node.getAddedNetKeys()));
-            nodeJson.add("appKeys", serializeAddedIndexes(node.getAddedAppKeys()));
-            nodeJson.add("elements", serializeElements(context, node.getElements()));
-            nodeJson.addProperty("excluded", node.isExcluded());
-            serializeHeartbeat(nodeJson, node);
-            jsonArray.add(nodeJson);
+        if (node.getNetworkTransmitSettings() != null) {
+            final JsonObject json = new JsonObject();
+            json.addProperty("count", node.getNetworkTransmitSettings().getNetworkTransmitCount());
+            json.addProperty("interval", node.getNetworkTransmitSettings().getNetworkTransmissionInterval());
+            nodeJson.add("networkTransmit", json);
         }
-        return jsonArray;
+        if (node.getRelaySettings() != null) {
+            final JsonObject json = new JsonObject();
+            json.addProperty("count", node.getRelaySettings().getRelayTransmitCount());
+            json.addProperty("interval", node.getRelaySettings().getRetransmissionIntervals());
+            nodeJson.add("relayRetransmit", json);
+        }
+
+        nodeJson.add("netKeys", serializeAddedIndexes(node.getAddedNetKeys()));
+        nodeJson.add("appKeys", serializeAddedIndexes(node.getAddedAppKeys()));
+        nodeJson.add("elements", serializeElements(context, node.getElements()));
+        nodeJson.addProperty("excluded", node.isExcluded());
+        serializeHeartbeat(nodeJson, node);
+        return nodeJson;
     }
 
     /**
@@ -0,0 +1,149 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Open addressing hash table mapping opcodes to handlers.
+ * <p>
+ * Opcodes are stored as primitive ints in a power of two sized table using linear probing, so a lookup costs a hash and a few
+ * array reads regardless of the number of opcodes registered and does not allocate.
+ * </p>
+ * <p>
+ * The table is not thread safe and must be confined to a single thread.
+ * </p>
+ *
+ * @param <T> Handler type
+ */
+final class OpCodeTable<T> {
+
+    private static final int EMPTY = -1;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    OpCodeTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    OpCodeTable(final int expectedSize) {
+        int capacity = 8;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static int hash(final int opCode) {
+        final int h = opCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(final int opCode) {
+        final int mask = keys.length - 1;
+        int index = hash(opCode) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == opCode)
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the handler registered for the opcode or null if none is registered.
+     *
+     * @param opCode Opcode
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    T get(final int opCode) {
+        final int index = indexOf(opCode);
+        return index < 0 ? null : (T) values[index];
+    }
+
+    /**
+     * Registers a handler for the opcode, replacing any existing handler.
+     *
+     * @param opCode  Opcode
+     * @param handler Handler
+     */
+    void put(final int opCode, @NonNull final T handler) {
+        if (opCode < 0)
+            throw new IllegalArgumentException("Invalid opcode: " + opCode);
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        final int mask = keys.length - 1;
+        int index = hash(opCode) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == opCode) {
+                values[index] = handler;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = opCode;
+        values[index] = handler;
+        size++;
+    }
+
+    /**
+     * Removes the handler registered for the opcode.
+     *
+     * @param opCode Opcode
+     * @return true if a handler was removed
+     */
+    @SuppressWarnings("unchecked")
+    boolean remove(final int opCode) {
+        int index = indexOf(opCode);
+        if (index < 0)
+            return false;
+        final int mask = keys.length - 1;
+        keys[index] = EMPTY;
+        values[index] = null;
+        size--;
+        //Shift back the entries following the removed one so that lookups do not stop at the gap
+        int next = (index + 1) & mask;
+        while (keys[next] != EMPTY) {
+            final int key = keys[next];
+            final Object value = values[next];
+            keys[next] = EMPTY;
+            values[next] = null;
+            size--;
+            put(key, (T) value);
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of registered opcodes.
+     */
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], (T) oldValues[i]);
+            }
+        }
+    }
+}
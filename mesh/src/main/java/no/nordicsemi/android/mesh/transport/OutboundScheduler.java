@@ -0,0 +1,286 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
+
+/**
+ * Schedules outbound mesh messages so that many destinations can be configured in parallel without overrunning the proxy.
+ * <p>
+ * Messages are sent in FIFO order for each destination. An acknowledged message stays in flight until a status with the expected
+ * opcode is received from its destination, or it times out after the configured number of retries. The number of messages in flight
+ * is limited globally, and to one for each destination, as the message handler interprets a received status against the last message
+ * sent to its source. For the same reason an unacknowledged message to a unicast address waits until the acknowledged message in
+ * flight to that destination completes. Unacknowledged messages do not take an in flight slot and complete once sent.
+ * </p>
+ * <p>
+ * The scheduler must be used on the thread of the timing wheel it is constructed with, which is the thread messages are received on.
+ * </p>
+ */
+final class OutboundScheduler {
+
+    private static final String TAG = OutboundScheduler.class.getSimpleName();
+
+    static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    static final long DEFAULT_TIMEOUT = 10 * 1000;
+    static final int DEFAULT_RETRIES = 2;
+
+    private final TimingWheel mTimingWheel;
+    private final Sender mSender;
+    private final ArrayDeque<MeshMessageFuture> mQueue = new ArrayDeque<>();
+    private final List<MeshMessageFuture> mInFlight = new ArrayList<>();
+    private final Set<Integer> mBlocked = new HashSet<>();
+    private int mMaxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private long mTimeout = DEFAULT_TIMEOUT;
+    private int mRetries = DEFAULT_RETRIES;
+
+    /**
+     * Sends a mesh message.
+     */
+    interface Sender {
+
+        /**
+         * Sends the mesh message.
+         *
+         * @param src         Source address
+         * @param dst         Destination address
+         * @param label       Label UUID of the destination address
+         * @param meshMessage Mesh message
+         * @throws IllegalArgumentException if the message can not be created, in which case the message fails
+         */
+        void send(final int src, final int dst, @Nullable final UUID label, @NonNull final MeshMessage meshMessage) throws IllegalArgumentException;
+    }
+
+    /**
+     * Constructs the scheduler.
+     *
+     * @param timingWheel Timing wheel of the thread messages are received on, used for the response timeouts.
+     * @param sender      Sender used to send the messages.
+     */
+    OutboundScheduler(@NonNull final TimingWheel timingWheel, @NonNull final Sender sender) {
+        mTimingWheel = timingWheel;
+        mSender = sender;
+    }
+
+    /**
+     * Sets the number of acknowledged messages that may be in flight to all destinations.
+     *
+     * @param maxInFlight Maximum number of messages in flight to all destinations
+     */
+    void setWindow(final int maxInFlight) {
+        if (maxInFlight < 1)
+            throw new IllegalArgumentException("In flight window must be at least 1");
+        mMaxInFlight = maxInFlight;
+        dispatch();
+    }
+
+    /**
+     * Sets the time to wait for a status and the number of times a message is resent before it times out.
+     *
+     * @param timeout Time to wait for a status in milliseconds
+     * @param retries Number of retries
+     */
+    void setTimeout(final long timeout, final int retries) {
+        if (timeout <= 0 || retries < 0)
+            throw new IllegalArgumentException("Invalid timeout or retries");
+        mTimeout = timeout;
+        mRetries = retries;
+    }
+
+    /**
+     * Queues a mesh message to be sent.
+     *
+     * @param src          Source address
+     * @param dst          Destination address
+     * @param label        Label UUID of the destination address
+     * @param meshMessage  Mesh message
+     * @param statusOpCode Opcode of the status expected from the destination or {@link MeshMessageFuture#NO_STATUS}
+     */
+    @NonNull
+    MeshMessageFuture enqueue(final int src, final int dst, @Nullable final UUID label, @NonNull final MeshMessage meshMessage, final int statusOpCode) {
+        final MeshMessageFuture future = new MeshMessageFuture(this, src, dst, label, meshMessage, statusOpCode);
+        mQueue.add(future);
+        dispatch();
+        return future;
+    }
+
+    /**
+     * Completes the first message in flight waiting for the received status.
+     *
+     * @param src    Source address of the status
+     * @param status Status message received
+     */
+    void onMeshMessageReceived(final int src, @NonNull final MeshMessage status) {
+        final int opCode = status.getOpCode();
+        for (int i = 0; i < mInFlight.size(); i++) {
+            final MeshMessageFuture future = mInFlight.get(i);
+            //Any node may respond to a message sent to a group or virtual address
+            if (future.statusOpCode == opCode && (future.dst == src || !MeshAddress.isValidUnicastAddress(future.dst))) {
+                release(i);
+                MeshMetrics.recordRoundTripTime(future.meshMessage.getOpCode(), future.sentTime);
+                future.complete(status);
+                dispatch();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Resends the message or times it out if there are no retries left.
+     *
+     * @param future Message in flight
+     */
+    void onTimeout(@NonNull final MeshMessageFuture future) {
+        final int index = mInFlight.indexOf(future);
+        if (index < 0)
+            return;
+        if (future.attempts <= mRetries) {
+            MeshLogger.v(TAG, () -> "No status received from 0x" + Integer.toHexString(future.dst) + ", retrying");
+            MeshMetrics.onMessageRetried();
+            if (!send(future)) {
+                dispatch();
+            }
+            return;
+        }
+        release(index);
+        future.timeOut();
+        dispatch();
+    }
+
+    /**
+     * Removes a cancelled message, may be called from any thread.
+     *
+     * @param future Cancelled message
+     */
+    void cancel(@NonNull final MeshMessageFuture future) {
+        mTimingWheel.getHandler().post(new Runnable() {
+            @Override
+            public void run() {
+                if (!mQueue.remove(future)) {
+                    final int index = mInFlight.indexOf(future);
+                    if (index >= 0) {
+                        release(index);
+                        dispatch();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels all queued messages and messages in flight.
+     */
+    void cancelAll() {
+        final List<MeshMessageFuture> futures = new ArrayList<>(mInFlight);
+        futures.addAll(mQueue);
+        for (int i = mInFlight.size() - 1; i >= 0; i--) {
+            release(i);
+        }
+        mQueue.clear();
+        for (MeshMessageFuture future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Returns the number of acknowledged messages in flight.
+     */
+    int getInFlightCount() {
+        return mInFlight.size();
+    }
+
+    /**
+     * Returns the number of messages waiting to be sent.
+     */
+    int getQueuedCount() {
+        return mQueue.size();
+    }
+
+    /**
+     * Sends the queued messages in order while the in flight window allows it. A destination is blocked for the rest of the pass once
+     * one of its messages can not be sent, which keeps the messages of each destination in order.
+     */
+    private void dispatch() {
+        mBlocked.clear();
+        final Iterator<MeshMessageFuture> iterator = mQueue.iterator();
+        while (iterator.hasNext()) {
+            final MeshMessageFuture future = iterator.next();
+            if (future.isDone()) {
+                iterator.remove();
+                continue;
+            }
+            if (mBlocked.contains(future.dst))
+                continue;
+            //Unacknowledged messages to group and virtual addresses have no message state that could be replaced
+            if (isInFlight(future.dst) && (future.statusOpCode != MeshMessageFuture.NO_STATUS || MeshAddress.isValidUnicastAddress(future.dst))) {
+                mBlocked.add(future.dst);
+                continue;
+            }
+            if (future.statusOpCode == MeshMessageFuture.NO_STATUS) {
+                iterator.remove();
+                if (send(future)) {
+                    future.complete(null);
+                }
+                continue;
+            }
+            if (mInFlight.size() >= mMaxInFlight)
+                break;
+            iterator.remove();
+            mInFlight.add(future);
+            MeshMetrics.addMessagesInFlight(1);
+            send(future);
+        }
+    }
+
+    private boolean isInFlight(final int dst) {
+        for (int i = 0; i < mInFlight.size(); i++) {
+            if (mInFlight.get(i).dst == dst)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sends a message, failing it if it can not be created.
+     *
+     * @param future Message to be sent
+     * @return true if the message was sent or false if it has failed
+     */
+    private boolean send(@NonNull final MeshMessageFuture future) {
+        future.attempts++;
+        //The status answers the last attempt, the earlier ones have timed out
+        future.sentTime = System.nanoTime();
+        if (future.statusOpCode != MeshMessageFuture.NO_STATUS) {
+            mTimingWheel.schedule(future.timeoutTimer, mTimeout);
+        }
+        try {
+            mSender.send(future.src, future.dst, future.label, future.meshMessage);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            MeshLogger.e(TAG, "Sending message to 0x" + Integer.toHexString(future.dst) + " failed", ex);
+            final int index = mInFlight.indexOf(future);
+            if (index >= 0) {
+                release(index);
+            }
+            future.fail(ex);
+            return false;
+        }
+    }
+
+    private void release(final int index) {
+        final MeshMessageFuture future = mInFlight.remove(index);
+        MeshMetrics.addMessagesInFlight(-1);
+        mTimingWheel.cancel(future.timeoutTimer);
+    }
+}
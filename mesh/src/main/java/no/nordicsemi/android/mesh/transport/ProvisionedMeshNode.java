@@ -494,17 +494,32 @@ public final class ProvisionedMeshNode extends ProvisionedBaseMeshNode {
         productIdentifier = configCompositionDataStatus.getProductIdentifier();
         versionIdentifier = configCompositionDataStatus.getVersionIdentifier();
         crpl = configCompositionDataStatus.getCrpl();
-        final boolean relayFeatureSupported = configCompositionDataStatus.isRelayFeatureSupported();
-        final boolean proxyFeatureSupported = configCompositionDataStatus.isProxyFeatureSupported();
-        final boolean friendFeatureSupported = configCompositionDataStatus.isFriendFeatureSupported();
-        final boolean lowPowerFeatureSupported = configCompositionDataStatus.isLowPowerFeatureSupported();
-        nodeFeatures = new Features(friendFeatureSupported ? Features.ENABLED : Features.UNSUPPORTED,
-                lowPowerFeatureSupported ? Features.ENABLED : Features.UNSUPPORTED,
-                proxyFeatureSupported ? Features.ENABLED : Features.UNSUPPORTED,
-                relayFeatureSupported ? Features.ENABLED : Features.UNSUPPORTED);
+        setNodeFeatures(configCompositionDataStatus.getTemplate());
         mElements.putAll(configCompositionDataStatus.getElements());
     }
 
+    /**
+     * Sets the composition data from a template, i.e. for a node provisioned again with known firmware.
+     *
+     * @param template Composition data template
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public final void setCompositionData(@NonNull final CompositionDataTemplate template) {
+        companyIdentifier = template.getCompanyIdentifier();
+        productIdentifier = template.getProductIdentifier();
+        versionIdentifier = template.getVersionIdentifier();
+        crpl = template.getCrpl();
+        setNodeFeatures(template);
+        mElements.putAll(template.createElements(unicastAddress));
+    }
+
+    private void setNodeFeatures(@NonNull final CompositionDataTemplate template) {
+        nodeFeatures = new Features(template.isFriendFeatureSupported() ? Features.ENABLED : Features.UNSUPPORTED,
+                template.isLowPowerFeatureSupported() ? Features.ENABLED : Features.UNSUPPORTED,
+                template.isProxyFeatureSupported() ? Features.ENABLED : Features.UNSUPPORTED,
+                template.isRelayFeatureSupported() ? Features.ENABLED : Features.UNSUPPORTED);
+    }
+
     private int getFeatureState(final Boolean feature) {
         if (feature != null && feature) {
             return 2;
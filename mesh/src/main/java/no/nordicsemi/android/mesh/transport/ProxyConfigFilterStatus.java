@@ -1,9 +1,8 @@
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ProxyConfigMessageOpCodes;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.ProxyFilterType;
 
@@ -39,8 +38,8 @@ public class ProxyConfigFilterStatus extends ProxyConfigStatusMessage {
         mFilterType = new ProxyFilterType(MeshParserUtils.unsignedByteToInt(mParameters[0]));
         //Note proxy protocol is in big endian
         mAddressListSize = MeshParserUtils.unsignedBytesToInt(mParameters[2], mParameters[1]);
-        Log.d(TAG, "Filter type: " + mFilterType.getFilterTypeName());
-        Log.d(TAG, "Filter size: " + mAddressListSize);
+        MeshLogger.d(TAG, () -> "Filter type: " + mFilterType.getFilterTypeName());
+        MeshLogger.d(TAG, () -> "Filter size: " + mAddressListSize);
     }
 
     /**
@@ -0,0 +1,206 @@
+package no.nordicsemi.android.mesh.transport;
+
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
+
+/**
+ * Reassembly table for segmented lower transport pdus.
+ * <p>
+ * Each segmented message in progress is tracked in its own {@link Entry} keyed by the source address and SeqAuth of the message,
+ * holding the received segments, the block acknowledgement bitmap and the timers for that message. This allows segmented messages
+ * from different sources to be reassembled in parallel. The table is bounded and evicts the least recently used entry once full.
+ * </p>
+ */
+final class ReassemblyTable {
+
+    /**
+     * Default maximum number of segmented messages that can be reassembled concurrently.
+     */
+    static final int DEFAULT_CAPACITY = 32;
+
+    private final int mCapacity;
+    private final EvictionListener mEvictionListener;
+    private final LinkedHashMap<Long, Entry> mEntries;
+
+    /**
+     * Listener notified when an entry is removed from the table without completing.
+     */
+    interface EvictionListener {
+
+        /**
+         * Invoked when an incomplete entry is evicted to make room for a new one or superseded by a newer SeqAuth from the same source.
+         *
+         * @param entry Entry that was evicted.
+         */
+        void onEntryEvicted(@NonNull final Entry entry);
+    }
+
+    /**
+     * State of a single segmented message being reassembled.
+     */
+    static final class Entry {
+        final int src;
+        final int seqAuth;
+        final int seqZero;
+        final int segN;
+        final long startTime = System.nanoTime();
+        final SparseArray<byte[]> segments = new SparseArray<>();
+        final SparseArray<byte[]> networkPdus = new SparseArray<>();
+        int ttl;
+        int blockAckSrc;
+        int blockAckDst;
+        int blockAck;
+        TimingWheel.Timer acknowledgementTimer;
+        TimingWheel.Timer incompleteTimer;
+
+        Entry(final int src, final int seqAuth, final int seqZero, final int segN) {
+            this.src = src;
+            this.seqAuth = seqAuth;
+            this.seqZero = seqZero;
+            this.segN = segN;
+        }
+
+        /**
+         * Stores a received segment and marks it in the block acknowledgement bitmap.
+         *
+         * @param segO       Segment offset.
+         * @param segment    Lower transport pdu of the segment.
+         * @param networkPdu Network pdu the segment was received in, may be null.
+         * @return true if the segment was not received before.
+         */
+        boolean addSegment(final int segO, @NonNull final byte[] segment, @Nullable final byte[] networkPdu) {
+            if (segments.get(segO) != null)
+                return false;
+            segments.put(segO, segment);
+            if (networkPdu != null) {
+                networkPdus.put(segO, networkPdu);
+            }
+            blockAck |= 1 << segO;
+            return true;
+        }
+
+        /**
+         * Returns true if all the segments have been received.
+         */
+        boolean isComplete() {
+            return segments.size() == segN + 1;
+        }
+    }
+
+    /**
+     * Constructs the reassembly table with the {@link #DEFAULT_CAPACITY}.
+     *
+     * @param listener Listener to be notified of evicted entries.
+     */
+    ReassemblyTable(@NonNull final EvictionListener listener) {
+        this(DEFAULT_CAPACITY, listener);
+    }
+
+    /**
+     * Constructs the reassembly table.
+     *
+     * @param capacity Maximum number of entries.
+     * @param listener Listener to be notified of evicted entries.
+     */
+    ReassemblyTable(final int capacity, @NonNull final EvictionListener listener) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        mCapacity = capacity;
+        mEvictionListener = listener;
+        mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static long key(final int src, final int seqAuth) {
+        return ((long) (src & 0xFFFF) << 32) | (seqAuth & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the entry for the given source and SeqAuth or null if none is in progress.
+     *
+     * @param src     Source address.
+     * @param seqAuth SeqAuth of the message.
+     */
+    @Nullable
+    Entry get(final int src, final int seqAuth) {
+        return mEntries.get(key(src, seqAuth));
+    }
+
+    /**
+     * Creates a new entry for the given source and SeqAuth.
+     * <p>
+     * Any older entry from the same source is superseded and evicted. If the table is full the least recently used entry is evicted.
+     * </p>
+     *
+     * @param src     Source address.
+     * @param seqAuth SeqAuth of the message.
+     * @param seqZero SeqZero of the message.
+     * @param segN    Zero based segment count.
+     * @return the new entry.
+     */
+    @NonNull
+    Entry create(final int src, final int seqAuth, final int seqZero, final int segN) {
+        final List<Entry> evicted = new ArrayList<>();
+        final Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.src == src) {
+                iterator.remove();
+                evicted.add(entry);
+            }
+        }
+
+        if (mEntries.size() >= mCapacity) {
+            final Iterator<Map.Entry<Long, Entry>> eldest = mEntries.entrySet().iterator();
+            evicted.add(eldest.next().getValue());
+            eldest.remove();
+        }
+
+        final Entry entry = new Entry(src, seqAuth, seqZero, segN);
+        mEntries.put(key(src, seqAuth), entry);
+        MeshMetrics.addReassembliesInProgress(1 - evicted.size());
+        for (Entry e : evicted) {
+            mEvictionListener.onEntryEvicted(e);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes an entry from the table.
+     *
+     * @param entry Entry to be removed.
+     */
+    void remove(@NonNull final Entry entry) {
+        if (mEntries.remove(key(entry.src, entry.seqAuth)) != null) {
+            MeshMetrics.addReassembliesInProgress(-1);
+        }
+    }
+
+    /**
+     * Returns the number of segmented messages currently being reassembled.
+     */
+    int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * Removes all entries and notifies the eviction listener for each of them.
+     */
+    void clear() {
+        final List<Entry> entries = new ArrayList<>(mEntries.values());
+        mEntries.clear();
+        MeshMetrics.addReassembliesInProgress(-entries.size());
+        for (Entry entry : entries) {
+            mEvictionListener.onEntryEvicted(entry);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Replay protection list of a mesh network.
+ * <p>
+ * Holds the IV Index and the sequence number of the last network pdu accepted from each unicast source address. A network pdu is
+ * only accepted if it was secured with a higher IV Index, or the same IV Index and a higher sequence number, than the last pdu
+ * accepted from the same source. Entries are kept in primitive arrays indexed by the source address which grow to the highest
+ * source address seen, so that a lookup never allocates.
+ * </p>
+ * <p>
+ * Every accepted pdu is reported to the {@link Listener} so that the list can be persisted without writing the node it was
+ * received from.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class ReplayProtectionList {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_UNICAST_ADDRESS = 0x7FFF;
+    //Marks an address from which no pdu has been accepted yet, sequence numbers are 24-bit
+    private static final int NO_SEQUENCE_NUMBER = -1;
+
+    private int[] ivIndices = new int[0];
+    private int[] sequenceNumbers = new int[0];
+    private int size;
+    private Listener listener;
+
+    /**
+     * Listener notified when an entry of the list is updated.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked when a pdu has been accepted from a source address.
+         *
+         * @param src            Source address.
+         * @param ivIndex        IV Index the pdu was secured with.
+         * @param sequenceNumber Sequence number of the pdu.
+         */
+        void onEntryUpdated(final int src, final int ivIndex, final int sequenceNumber);
+    }
+
+    /**
+     * Visits the entries of the list.
+     */
+    public interface Visitor {
+
+        /**
+         * Invoked for each entry of the list.
+         *
+         * @param src            Source address.
+         * @param ivIndex        IV Index of the last accepted pdu.
+         * @param sequenceNumber Sequence number of the last accepted pdu.
+         */
+        void visit(final int src, final int ivIndex, final int sequenceNumber);
+    }
+
+    /**
+     * Sets the listener notified of the accepted pdus.
+     *
+     * @param listener {@link Listener} or null to remove the current one.
+     */
+    public synchronized void setListener(@Nullable final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Checks a received network pdu against the list and records it if it is not a replay.
+     *
+     * @param src            Source address of the pdu.
+     * @param ivIndex        IV Index the pdu was secured with.
+     * @param sequenceNumber Sequence number of the pdu.
+     * @return true if the pdu is accepted or false if it is a replayed or an old pdu.
+     */
+    public synchronized boolean accept(final int src, final int ivIndex, final int sequenceNumber) {
+        if (src < 1 || src > MAX_UNICAST_ADDRESS)
+            return false;
+
+        if (src < sequenceNumbers.length && sequenceNumbers[src] != NO_SEQUENCE_NUMBER) {
+            final int lastIvIndex = ivIndices[src];
+            if (ivIndex < lastIvIndex || (ivIndex == lastIvIndex && sequenceNumber <= sequenceNumbers[src]))
+                return false;
+        }
+        put(src, ivIndex, sequenceNumber);
+        if (listener != null) {
+            listener.onEntryUpdated(src, ivIndex, sequenceNumber);
+        }
+        return true;
+    }
+
+    /**
+     * Restores an entry of the list without notifying the listener.
+     *
+     * @param src            Source address.
+     * @param ivIndex        IV Index of the last accepted pdu.
+     * @param sequenceNumber Sequence number of the last accepted pdu.
+     */
+    public synchronized void restore(final int src, final int ivIndex, final int sequenceNumber) {
+        if (src < 1 || src > MAX_UNICAST_ADDRESS || sequenceNumber < 0)
+            return;
+        put(src, ivIndex, sequenceNumber);
+    }
+
+    /**
+     * Returns the sequence number of the last pdu accepted from a source address or -1 if none.
+     *
+     * @param src Source address.
+     */
+    public synchronized int getSequenceNumber(final int src) {
+        if (src < 1 || src >= sequenceNumbers.length)
+            return NO_SEQUENCE_NUMBER;
+        return sequenceNumbers[src];
+    }
+
+    /**
+     * Returns the IV Index of the last pdu accepted from a source address or -1 if none.
+     *
+     * @param src Source address.
+     */
+    public synchronized int getIvIndex(final int src) {
+        if (src < 1 || src >= sequenceNumbers.length || sequenceNumbers[src] == NO_SEQUENCE_NUMBER)
+            return -1;
+        return ivIndices[src];
+    }
+
+    /**
+     * Returns the number of source addresses in the list.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Visits the entries of the list in the order of their source addresses.
+     *
+     * @param visitor {@link Visitor}
+     */
+    public synchronized void forEach(@NonNull final Visitor visitor) {
+        for (int src = 1; src < sequenceNumbers.length; src++) {
+            if (sequenceNumbers[src] != NO_SEQUENCE_NUMBER) {
+                visitor.visit(src, ivIndices[src], sequenceNumbers[src]);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the list.
+     */
+    public synchronized void clear() {
+        ivIndices = new int[0];
+        sequenceNumbers = new int[0];
+        size = 0;
+    }
+
+    private void put(final int src, final int ivIndex, final int sequenceNumber) {
+        if (src >= sequenceNumbers.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, sequenceNumbers.length);
+            while (capacity <= src) {
+                capacity <<= 1;
+            }
+            capacity = Math.min(capacity, MAX_UNICAST_ADDRESS + 1);
+            final int oldLength = sequenceNumbers.length;
+            ivIndices = Arrays.copyOf(ivIndices, capacity);
+            sequenceNumbers = Arrays.copyOf(sequenceNumbers, capacity);
+            Arrays.fill(sequenceNumbers, oldLength, capacity, NO_SEQUENCE_NUMBER);
+        }
+        if (sequenceNumbers[src] == NO_SEQUENCE_NUMBER) {
+            size++;
+        }
+        ivIndices[src] = ivIndex;
+        sequenceNumbers[src] = sequenceNumber;
+    }
+}
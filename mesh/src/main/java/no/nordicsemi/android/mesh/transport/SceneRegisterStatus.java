@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -33,6 +32,7 @@ import java.util.ArrayList;
 import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * To be used as a wrapper class for when creating the GenericOnOffStatus Message.
@@ -73,19 +73,19 @@ public final class SceneRegisterStatus extends ApplicationStatusMessage implemen
 
     @Override
     void parseStatusParameters() {
-        Log.v(TAG, "Received scene register status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
+        MeshLogger.v(TAG, () -> "Received scene register status from: " + MeshAddress.formatAddress(mMessage.getSrc(), true));
         final ByteBuffer buffer = ByteBuffer.wrap(mParameters).order(ByteOrder.LITTLE_ENDIAN);
         buffer.position(0);
         mStatus = buffer.get() & 0xFF;
         mCurrentScene = buffer.getShort() & 0xFFFF;
-        Log.v(TAG, "Status: " + mStatus);
-        Log.v(TAG, "Current Scene: " + mCurrentScene);
+        MeshLogger.v(TAG, () -> "Status: " + mStatus);
+        MeshLogger.v(TAG, () -> "Current Scene: " + mCurrentScene);
         if (buffer.limit() > SCENE_REGISTER_STATUS_MANDATORY_LENGTH) {
             int sceneCount = (buffer.limit() - SCENE_REGISTER_STATUS_MANDATORY_LENGTH) / 2;
             for (int i = 0; i < sceneCount; i++) {
                 mSceneList.add(buffer.getShort() & 0xFFFF);
             }
-            Log.v(TAG, "Scenes stored: " + sceneCount);
+            MeshLogger.v(TAG, () -> "Scenes stored: " + sceneCount);
         }
     }
 
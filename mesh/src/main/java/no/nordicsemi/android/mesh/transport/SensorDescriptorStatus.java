@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,6 +32,7 @@ import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.sensorutils.DeviceProperty;
 import no.nordicsemi.android.mesh.sensorutils.SensorDescriptor;
 import no.nordicsemi.android.mesh.sensorutils.SensorSamplingFunction;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 import static no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes.SENSOR_DESCRIPTOR_STATUS;
 import static no.nordicsemi.android.mesh.utils.MeshParserUtils.bytesToInt;
@@ -97,7 +97,7 @@ public final class SensorDescriptorStatus extends ApplicationStatusMessage imple
                 updateInterval = mParameters[offset + 7];
                 final SensorDescriptor descriptor = new SensorDescriptor(property, positiveTolerance, negativeTolerance,
                         samplingFunction, measurementPeriod, updateInterval);
-                Log.d(TAG, "Sensor Descriptor: " + descriptor.toString());
+                MeshLogger.d(TAG, () -> "Sensor Descriptor: " + descriptor.toString());
                 sensorDescriptors.add(descriptor);
                 offset += 8;
             }
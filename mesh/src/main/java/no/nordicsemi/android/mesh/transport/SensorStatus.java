@@ -24,7 +24,6 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -33,6 +32,7 @@ import androidx.annotation.NonNull;
 import no.nordicsemi.android.mesh.sensorutils.DeviceProperty;
 import no.nordicsemi.android.mesh.sensorutils.MarshalledPropertyId;
 import no.nordicsemi.android.mesh.sensorutils.MarshalledSensorData;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.SensorFormat;
 
 import static no.nordicsemi.android.mesh.opcodes.ApplicationMessageOpCodes.SENSOR_STATUS;
@@ -98,7 +98,7 @@ public final class SensorStatus extends ApplicationStatusMessage implements Parc
             final MarshalledPropertyId marshalledPropertyId = new MarshalledPropertyId(sensorFormat, length, DeviceProperty.from(sensorFormat, propertyId));
             final byte[] raw = Arrays.copyOfRange(mParameters, offset, offset + length);
             final MarshalledSensorData marshalledSensorData = new MarshalledSensorData(marshalledPropertyId, raw);
-            Log.d(TAG, "Result: " + marshalledSensorData.toString());
+            MeshLogger.d(TAG, () -> "Result: " + marshalledSensorData.toString());
             marshalledSensorDataList.add(marshalledSensorData);
             offset += length;
         }
@@ -0,0 +1,146 @@
+package no.nordicsemi.android.mesh.transport;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
+
+/**
+ * Allocates the sequence numbers of a local source address from durably reserved blocks.
+ * <p>
+ * Sequence numbers are handed out from an atomic counter, and only the upper limit of the reserved block is persisted, with a
+ * single write per block. The next block is reserved in the background once half of the current block has been used, so the
+ * counter only waits for a reservation during bursts longer than half a block. After a restart the counter continues from the
+ * persisted limit, skipping whatever remained of the last block, so that a sequence number is never reused after the process
+ * has been killed.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class SequenceNumberAllocator {
+
+    private static final String TAG = SequenceNumberAllocator.class.getSimpleName();
+
+    /**
+     * Default number of sequence numbers reserved with a single write.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 512;
+
+    private final int mAddress;
+    private final int mBlockSize;
+    private final Reservations mReservations;
+    private final Executor mExecutor;
+    private final AtomicInteger mNextSequenceNumber;
+    //Sequence numbers below the limit are durably reserved
+    private volatile int mReservedLimit;
+    private boolean mReservingAhead;
+
+    /**
+     * Durable storage of the reserved sequence number blocks.
+     */
+    public interface Reservations {
+
+        /**
+         * Durably stores the upper limit of the sequence numbers reserved for a source address, the method must not return
+         * before the limit has been written.
+         *
+         * @param address Source address.
+         * @param limit   Sequence numbers below the limit may have been used.
+         * @throws IOException if the limit could not be stored.
+         */
+        void reserve(final int address, final int limit) throws IOException;
+    }
+
+    /**
+     * Constructs the allocator.
+     *
+     * @param address            Source address the sequence numbers are allocated for.
+     * @param reservedLimit      Limit persisted by the last reservation, the first sequence number allocated is not below it.
+     * @param lastSequenceNumber Last sequence number known to be used by the address.
+     * @param blockSize          Number of sequence numbers reserved at a time.
+     * @param reservations       {@link Reservations} the reserved blocks are written to.
+     * @param executor           Executor used to reserve the next block in the background.
+     */
+    public SequenceNumberAllocator(final int address,
+                                   final int reservedLimit,
+                                   final int lastSequenceNumber,
+                                   final int blockSize,
+                                   @NonNull final Reservations reservations,
+                                   @NonNull final Executor executor) {
+        if (blockSize < 2)
+            throw new IllegalArgumentException("Block size must be at least 2");
+        mAddress = address;
+        mBlockSize = blockSize;
+        mReservations = reservations;
+        mExecutor = executor;
+        mNextSequenceNumber = new AtomicInteger(Math.max(reservedLimit, lastSequenceNumber + 1));
+        mReservedLimit = reservedLimit;
+    }
+
+    /**
+     * Returns the next sequence number.
+     */
+    public int allocate() {
+        final int sequenceNumber = mNextSequenceNumber.getAndIncrement();
+        if (sequenceNumber >= mReservedLimit) {
+            reserve(sequenceNumber);
+        } else if (mReservedLimit - sequenceNumber == mBlockSize / 2) {
+            reserveAhead();
+        }
+        return sequenceNumber;
+    }
+
+    /**
+     * Returns the last sequence number that has been allocated.
+     */
+    public int getSequenceNumber() {
+        return mNextSequenceNumber.get() - 1;
+    }
+
+    /**
+     * Restarts the allocation after the given sequence number, i.e. when the IV Index has been incremented or the sequence
+     * number has been set manually.
+     *
+     * @param lastSequenceNumber Sequence number the next allocated sequence number follows.
+     */
+    public synchronized void reset(final int lastSequenceNumber) {
+        final int next = lastSequenceNumber + 1;
+        mNextSequenceNumber.set(next);
+        writeLimit(next + mBlockSize);
+    }
+
+    private synchronized void reserve(final int sequenceNumber) {
+        //Another thread may have reserved a block covering the sequence number in the meantime
+        if (sequenceNumber < mReservedLimit)
+            return;
+        writeLimit(sequenceNumber + mBlockSize);
+    }
+
+    private void reserveAhead() {
+        synchronized (this) {
+            if (mReservingAhead)
+                return;
+            mReservingAhead = true;
+        }
+        mExecutor.execute(() -> {
+            synchronized (SequenceNumberAllocator.this) {
+                mReservingAhead = false;
+                if (mNextSequenceNumber.get() < mReservedLimit) {
+                    writeLimit(mReservedLimit + mBlockSize);
+                }
+            }
+        });
+    }
+
+    private void writeLimit(final int limit) {
+        try {
+            mReservations.reserve(mAddress, limit);
+        } catch (IOException ex) {
+            //Sequence numbers are still handed out, they may be reused if the process is killed before the next reservation
+            MeshLogger.e(TAG, "Reserving sequence numbers failed", ex);
+        }
+        mReservedLimit = limit;
+    }
+}
@@ -22,7 +22,6 @@
 
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
 
 import org.spongycastle.crypto.InvalidCipherTextException;
 
@@ -37,6 +36,7 @@ import no.nordicsemi.android.mesh.Group;
 import no.nordicsemi.android.mesh.MeshManagerApi;
 import no.nordicsemi.android.mesh.utils.ExtendedInvalidCipherTextException;
 import no.nordicsemi.android.mesh.utils.MeshAddress;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 import no.nordicsemi.android.mesh.utils.SecureUtils;
 
@@ -62,9 +62,9 @@ abstract class UpperTransportLayer extends AccessLayer {
     static final int PAD_PROXY_NONCE = 0x00;
     static final int APPLICATION_KEY_IDENTIFIER = 0; //Identifies that the device key is to be used
     private static final int MAX_UNSEGMENTED_ACCESS_PAYLOAD_LENGTH = 15;
-    private static final int NONCE_TYPE_APPLICATION = 0x01;
-    private static final int NONCE_TYPE_DEVICE = 0x02;
-    private static final int PAD_APPLICATION_DEVICE_NONCE = 0b0000000;
+    static final int NONCE_TYPE_APPLICATION = 0x01;
+    static final int NONCE_TYPE_DEVICE = 0x02;
+    static final int PAD_APPLICATION_DEVICE_NONCE = 0b0000000;
     private static final int SZMIC = 1; //Transmic becomes 8 bytes
     private static final int TRANSPORT_SAR_SEQZERO_MASK = 8191;
     private static final int DEFAULT_UNSEGMENTED_MIC_LENGTH = 4; //octets
@@ -114,7 +114,7 @@ abstract class UpperTransportLayer extends AccessLayer {
             super.createMeshMessage(message);
             final AccessMessage accessMessage = (AccessMessage) message;
             final byte[] encryptedTransportPDU = encryptUpperTransportPDU(accessMessage);
-            Log.v(TAG, "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
+            MeshLogger.v(TAG, () -> "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
             accessMessage.setUpperTransportPdu(encryptedTransportPDU);
         } else {
             createUpperTransportPDU(message);
@@ -130,7 +130,7 @@ abstract class UpperTransportLayer extends AccessLayer {
         super.createVendorMeshMessage(message);
         final AccessMessage accessMessage = (AccessMessage) message;
         final byte[] encryptedTransportPDU = encryptUpperTransportPDU(accessMessage);
-        Log.v(TAG, "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
+        MeshLogger.v(TAG, () -> "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
         accessMessage.setUpperTransportPdu(encryptedTransportPDU);
     }
 
@@ -145,7 +145,7 @@ abstract class UpperTransportLayer extends AccessLayer {
             //Access message
             final AccessMessage accessMessage = (AccessMessage) message;
             final byte[] encryptedTransportPDU = encryptUpperTransportPDU(accessMessage);
-            Log.v(TAG, "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
+            MeshLogger.v(TAG, () -> "Encrypted upper transport pdu: " + MeshParserUtils.bytesToHex(encryptedTransportPDU, false));
             accessMessage.setUpperTransportPdu(encryptedTransportPDU);
         } else {
             final ControlMessage controlMessage = (ControlMessage) message;
@@ -163,7 +163,7 @@ abstract class UpperTransportLayer extends AccessLayer {
             }
             final byte[] accessPdu = accessMessageBuffer.array();
 
-            Log.v(TAG, "Created Transport Control PDU " + MeshParserUtils.bytesToHex(accessPdu, false));
+            MeshLogger.v(TAG, () -> "Created Transport Control PDU " + MeshParserUtils.bytesToHex(accessPdu, false));
             controlMessage.setTransportControlPdu(accessPdu);
         }
     }
@@ -225,12 +225,12 @@ abstract class UpperTransportLayer extends AccessLayer {
         byte[] nonce;
         if (akf == APPLICATION_KEY_IDENTIFIER) {
             key = message.getDeviceKey();
-            nonce = createDeviceNonce(aszmic, sequenceNumber, src, dst, ivIndex);
-            Log.v(TAG, "Device nonce: " + MeshParserUtils.bytesToHex(nonce, false));
+            nonce = NetworkPduCodec.get().createDeviceNonce(aszmic, sequenceNumber, src, dst, ivIndex);
+            MeshLogger.v(TAG, () -> "Device nonce: " + MeshParserUtils.bytesToHex(nonce, false));
         } else {
             key = message.getApplicationKey().getKey();
-            nonce = createApplicationNonce(aszmic, sequenceNumber, src, dst, ivIndex);
-            Log.v(TAG, "Application nonce: " + MeshParserUtils.bytesToHex(nonce, false));
+            nonce = NetworkPduCodec.get().createApplicationNonce(aszmic, sequenceNumber, src, dst, ivIndex);
+            MeshLogger.v(TAG, () -> "Application nonce: " + MeshParserUtils.bytesToHex(nonce, false));
         }
 
         int transMicLength;
@@ -262,14 +262,14 @@ abstract class UpperTransportLayer extends AccessLayer {
         if (APPLICATION_KEY_IDENTIFIER == accessMessage.getAkf()) {
             key = mMeshNode.getDeviceKey();
             //If its a device key that was used to encrypt the message we need to create a device nonce to decrypt it
-            nonce = createDeviceNonce(accessMessage.getAszmic(), accessMessage.getSequenceNumber(), accessMessage.getSrc(), accessMessage.getDst(), accessMessage.getIvIndex());
+            nonce = NetworkPduCodec.get().createDeviceNonce(accessMessage.getAszmic(), accessMessage.getSequenceNumber(), accessMessage.getSrc(), accessMessage.getDst(), accessMessage.getIvIndex());
             decryptedUpperTransportPDU = SecureUtils.decryptCCM(accessMessage.getUpperTransportPdu(), key, nonce, transportMicLength);
         } else {
             final List<ApplicationKey> keys = mUpperTransportLayerCallbacks.getApplicationKeys(accessMessage.getNetworkKey().getKeyIndex());
             if (keys.isEmpty())
                 throw new IllegalArgumentException("Unable to find the app key to decrypt the message");
 
-            nonce = createApplicationNonce(accessMessage.getAszmic(), accessMessage.getSequenceNumber(), accessMessage.getSrc(),
+            nonce = NetworkPduCodec.get().createApplicationNonce(accessMessage.getAszmic(), accessMessage.getSequenceNumber(), accessMessage.getSrc(),
                     accessMessage.getDst(), accessMessage.getIvIndex());
 
             if (MeshAddress.isValidVirtualAddress(accessMessage.getDst())) {
@@ -340,54 +340,6 @@ abstract class UpperTransportLayer extends AccessLayer {
         return null;
     }
 
-    /**
-     * Creates the application nonce
-     *
-     * @param aszmic         aszmic (szmic if a segmented access message)
-     * @param sequenceNumber sequence number of the message
-     * @param src            source address
-     * @param dst            destination address
-     * @return Application nonce
-     */
-    private byte[] createApplicationNonce(final int aszmic,
-                                          @NonNull final byte[] sequenceNumber,
-                                          final int src,
-                                          final int dst,
-                                          @NonNull final byte[] ivIndex) {
-        final ByteBuffer applicationNonceBuffer = ByteBuffer.allocate(13);
-        applicationNonceBuffer.put((byte) NONCE_TYPE_APPLICATION); //Nonce type
-        applicationNonceBuffer.put((byte) ((aszmic << 7) | PAD_APPLICATION_DEVICE_NONCE)); //ASZMIC (SZMIC if a segmented access message) and PAD
-        applicationNonceBuffer.put(sequenceNumber);
-        applicationNonceBuffer.putShort((short) src);
-        applicationNonceBuffer.putShort((short) dst);
-        applicationNonceBuffer.put(ivIndex);
-        return applicationNonceBuffer.array();
-    }
-
-    /**
-     * Creates the device nonce
-     *
-     * @param aszmic         aszmic (szmic if a segmented access message)
-     * @param sequenceNumber sequence number of the message
-     * @param src            source address
-     * @param dst            destination address
-     * @return Device  nonce
-     */
-    private byte[] createDeviceNonce(final int aszmic,
-                                     @NonNull final byte[] sequenceNumber,
-                                     final int src,
-                                     final int dst,
-                                     @NonNull final byte[] ivIndex) {
-        final ByteBuffer deviceNonceBuffer = ByteBuffer.allocate(13);
-        deviceNonceBuffer.put((byte) NONCE_TYPE_DEVICE); //Nonce type
-        deviceNonceBuffer.put((byte) ((aszmic << 7) | PAD_APPLICATION_DEVICE_NONCE)); //ASZMIC (SZMIC if a segmented access message) and PAD
-        deviceNonceBuffer.put(sequenceNumber);
-        deviceNonceBuffer.putShort((short) src);
-        deviceNonceBuffer.putShort((short) dst);
-        deviceNonceBuffer.put(ivIndex);
-        return deviceNonceBuffer.array();
-    }
-
     /**
      * Derives the original transport layer sequence number from the network layer sequence number that was received with every segment
      *
@@ -60,6 +60,14 @@ public interface UpperTransportLayerCallbacks {
      */
     List<ApplicationKey> getApplicationKeys(final int boundNetKeyIndex);
 
+    /**
+     * Returns the next sequence number to be used by a local source address.
+     *
+     * @param src Unicast address of the provisioner sending the message
+     * @throws IllegalArgumentException if there is no node with the source address in the network
+     */
+    int getNextSequenceNumber(final int src) throws IllegalArgumentException;
+
     /**
      * Returns the list of groups
      */
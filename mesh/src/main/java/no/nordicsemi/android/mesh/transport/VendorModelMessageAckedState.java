@@ -1,12 +1,11 @@
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 /**
  * State class for handling VendorModelMessageAckedState messages.
@@ -75,7 +74,7 @@ class VendorModelMessageAckedState extends ApplicationMessageState {
 
     @Override
     public void executeSend() {
-        Log.v(TAG, "Sending acknowledged vendor model message");
+        MeshLogger.v(TAG, "Sending acknowledged vendor model message");
         super.executeSend();
     }
 }
@@ -24,9 +24,9 @@ package no.nordicsemi.android.mesh.transport;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 import no.nordicsemi.android.mesh.utils.MeshParserUtils;
 
 /**
@@ -67,7 +67,7 @@ public final class VendorModelMessageStatus extends ApplicationStatusMessage imp
 
     @Override
     void parseStatusParameters() {
-        Log.v(TAG, "Received Vendor model status: " + MeshParserUtils.bytesToHex(mParameters, false));
+        MeshLogger.v(TAG, () -> "Received Vendor model status: " + MeshParserUtils.bytesToHex(mParameters, false));
     }
 
     @Override
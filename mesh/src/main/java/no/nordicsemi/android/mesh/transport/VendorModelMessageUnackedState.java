@@ -1,12 +1,11 @@
 package no.nordicsemi.android.mesh.transport;
 
-import android.util.Log;
-
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import no.nordicsemi.android.mesh.ApplicationKey;
+import no.nordicsemi.android.mesh.utils.MeshLogger;
 
 class VendorModelMessageUnackedState extends ApplicationMessageState {
 
@@ -72,7 +71,7 @@ class VendorModelMessageUnackedState extends ApplicationMessageState {
 
     @Override
     public void executeSend() {
-        Log.v(TAG, "Sending acknowledged vendor model message");
+        MeshLogger.v(TAG, "Sending acknowledged vendor model message");
         super.executeSend();
     }
 }
@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh.utils;
 
-import android.util.Log;
-
 import java.util.ArrayList;
 
 /**
@@ -58,7 +56,7 @@ public enum AlgorithmType {
         for (AlgorithmType algorithmType : algorithmTypes) {
             if ((algorithmTypeValue & algorithmType.ordinal()) == algorithmType.ordinal()) {
                 supportedAlgorithms.add(algorithmType);
-                Log.v(TAG, "Supported output oob action type: " + getAlgorithmTypeDescription(algorithmType));
+                MeshLogger.v(TAG, () -> "Supported output oob action type: " + getAlgorithmTypeDescription(algorithmType));
             }
         }
         return supportedAlgorithms;
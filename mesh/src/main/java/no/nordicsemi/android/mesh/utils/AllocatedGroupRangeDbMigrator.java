@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh.utils;
 
-import android.util.Log;
-
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -35,7 +33,7 @@ final class AllocatedGroupRangeDbMigrator implements JsonDeserializer<List<Alloc
                 }
             }
         } catch (Exception ex) {
-            Log.e(TAG, "Error while de-serializing Allocated group range: " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Error while de-serializing Allocated group range: " + ex.getMessage());
         }
         return groupRanges;
     }
@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh.utils;
 
-import android.util.Log;
-
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -35,7 +33,7 @@ final class AllocatedUnicastRangeDbMigrator implements JsonDeserializer<List<All
                 }
             }
         } catch (Exception ex) {
-            Log.e(TAG, "Error while de-serializing allocated unicast range: " + ex.getMessage());
+            MeshLogger.e(TAG, () -> "Error while de-serializing allocated unicast range: " + ex.getMessage());
         }
         return unicastRanges;
     }
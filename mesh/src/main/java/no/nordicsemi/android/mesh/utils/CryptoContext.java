@@ -0,0 +1,368 @@
+package no.nordicsemi.android.mesh.utils;
+
+import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.engines.AESEngine;
+import org.spongycastle.crypto.macs.CMac;
+import org.spongycastle.crypto.params.KeyParameter;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Thread confined cache of initialized AES ciphers used by the mesh security functions.
+ * <p>
+ * The same network, application and device keys are used for every pdu, therefore expanding the AES key schedule and deriving
+ * the CMAC sub keys for each operation is wasteful. A CryptoContext keeps a small least recently used set of ciphers already
+ * initialized with their keys and implements AES-CCM, AES-CMAC and AES-ECB on top of them, writing in to caller supplied buffers.
+ * </p>
+ * <p>
+ * A CryptoContext is not thread safe, use {@link #get()} to obtain the instance bound to the calling thread.
+ * </p>
+ */
+public final class CryptoContext {
+
+    private static final int BLOCK_SIZE = 16;
+    private static final int MAX_CACHED_KEYS = 16;
+    private static final ThreadLocal<CryptoContext> CONTEXT = new ThreadLocal<CryptoContext>() {
+        @Override
+        protected CryptoContext initialValue() {
+            return new CryptoContext();
+        }
+    };
+
+    //Incremented to discard the cached keys of every thread's context
+    private static volatile int sGeneration;
+
+    private final KeySlot[] slots = new KeySlot[MAX_CACHED_KEYS];
+    private final byte[] mac = new byte[BLOCK_SIZE];
+    private final byte[] counter = new byte[BLOCK_SIZE];
+    private final byte[] keyStream = new byte[BLOCK_SIZE];
+    private final byte[] receivedMic = new byte[BLOCK_SIZE];
+    private long accessCount;
+    private int generation = sGeneration;
+
+    /**
+     * Cipher state initialized for a single key.
+     */
+    private static final class KeySlot {
+        final byte[] key = new byte[BLOCK_SIZE];
+        final AESEngine engine = new AESEngine();
+        CMac cmac;
+        long lastAccess;
+
+        void init(@NonNull final byte[] key) {
+            System.arraycopy(key, 0, this.key, 0, BLOCK_SIZE);
+            engine.init(true, new KeyParameter(key));
+            cmac = null;
+        }
+
+        /**
+         * Compares the contents of the key, as a caller may reuse the same array for a different key.
+         */
+        boolean matches(@NonNull final byte[] key) {
+            return Arrays.equals(key, this.key);
+        }
+
+        void clear() {
+            Arrays.fill(key, (byte) 0);
+            cmac = null;
+        }
+
+        CMac getCmac() {
+            if (cmac == null) {
+                cmac = new CMac(new AESEngine());
+                cmac.init(new KeyParameter(key));
+            }
+            return cmac;
+        }
+    }
+
+    private CryptoContext() {
+    }
+
+    /**
+     * Returns the CryptoContext bound to the calling thread.
+     */
+    @NonNull
+    public static CryptoContext get() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * Discards the keys cached by the contexts of all threads, i.e. when the mesh network is reset.
+     * <p>
+     * The contexts of other threads drop their keys the next time they are used.
+     * </p>
+     */
+    public static synchronized void clearAll() {
+        sGeneration++;
+    }
+
+    private void clearIfDiscarded() {
+        final int current = sGeneration;
+        if (generation == current)
+            return;
+        generation = current;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                slots[i].clear();
+                slots[i] = null;
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getCachedKeyCount() {
+        clearIfDiscarded();
+        int count = 0;
+        for (KeySlot slot : slots) {
+            if (slot != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private KeySlot getSlot(@NonNull final byte[] key) {
+        if (key.length != BLOCK_SIZE)
+            throw new IllegalArgumentException("Key must be 16 bytes");
+        clearIfDiscarded();
+        accessCount++;
+        KeySlot eldest = null;
+        for (int i = 0; i < slots.length; i++) {
+            KeySlot slot = slots[i];
+            if (slot == null) {
+                slot = new KeySlot();
+                slots[i] = slot;
+                slot.init(key);
+                slot.lastAccess = accessCount;
+                return slot;
+            }
+            if (slot.matches(key)) {
+                slot.lastAccess = accessCount;
+                return slot;
+            }
+            if (eldest == null || slot.lastAccess < eldest.lastAccess) {
+                eldest = slot;
+            }
+        }
+        //noinspection ConstantConditions
+        eldest.init(key);
+        eldest.lastAccess = accessCount;
+        return eldest;
+    }
+
+    /**
+     * Encrypts a single 16 byte block using AES-128 in ECB mode.
+     *
+     * @param key    128-bit key
+     * @param in     input buffer
+     * @param inOff  offset of the block in the input buffer
+     * @param out    output buffer
+     * @param outOff offset in the output buffer
+     */
+    public void encryptBlock(@NonNull final byte[] key,
+                             @NonNull final byte[] in, final int inOff,
+                             @NonNull final byte[] out, final int outOff) {
+        getSlot(key).engine.processBlock(in, inOff, out, outOff);
+    }
+
+    /**
+     * Calculates the AES-CMAC of the given data.
+     *
+     * @param key    128-bit key
+     * @param data   input buffer
+     * @param offset offset of the data in the input buffer
+     * @param length length of the data
+     * @param out    output buffer, must have 16 bytes available from outOff
+     * @param outOff offset in the output buffer
+     */
+    public void calculateCMAC(@NonNull final byte[] key,
+                              @NonNull final byte[] data, final int offset, final int length,
+                              @NonNull final byte[] out, final int outOff) {
+        final CMac cmac = getSlot(key).getCmac();
+        cmac.update(data, offset, length);
+        cmac.doFinal(out, outOff);
+    }
+
+    /**
+     * Encrypts and authenticates the given data using AES-CCM.
+     * <p>
+     * The output contains the encrypted data followed by the message integrity check and may overlap with the input.
+     * </p>
+     *
+     * @param key            128-bit key
+     * @param nonce          nonce, 7 to 13 bytes
+     * @param additionalData additional authenticated data, may be null
+     * @param in             input buffer
+     * @param inOff          offset of the data in the input buffer
+     * @param length         length of the data
+     * @param out            output buffer, must have length + micSize bytes available from outOff
+     * @param outOff         offset in the output buffer
+     * @param micSize        size of the message integrity check in bytes
+     * @return number of bytes written to the output buffer
+     */
+    public int encryptCCM(@NonNull final byte[] key,
+                          @NonNull final byte[] nonce,
+                          @Nullable final byte[] additionalData,
+                          @NonNull final byte[] in, final int inOff, final int length,
+                          @NonNull final byte[] out, final int outOff,
+                          final int micSize) {
+        final AESEngine engine = getSlot(key).engine;
+        calculateCbcMac(engine, nonce, additionalData, in, inOff, length, micSize);
+        applyKeyStream(engine, nonce, in, inOff, length, out, outOff);
+        //Encrypt the CBC-MAC using the first key stream block
+        initCounter(nonce, 0);
+        engine.processBlock(counter, 0, keyStream, 0);
+        for (int i = 0; i < micSize; i++) {
+            out[outOff + length + i] = (byte) (mac[i] ^ keyStream[i]);
+        }
+        return length + micSize;
+    }
+
+    /**
+     * Decrypts and verifies the given data using AES-CCM.
+     * <p>
+     * The output may overlap with the input.
+     * </p>
+     *
+     * @param key            128-bit key
+     * @param nonce          nonce, 7 to 13 bytes
+     * @param additionalData additional authenticated data, may be null
+     * @param in             input buffer containing the encrypted data followed by the message integrity check
+     * @param inOff          offset of the data in the input buffer
+     * @param length         length of the encrypted data including the message integrity check
+     * @param out            output buffer, must have length - micSize bytes available from outOff
+     * @param outOff         offset in the output buffer
+     * @param micSize        size of the message integrity check in bytes
+     * @return number of bytes written to the output buffer
+     * @throws InvalidCipherTextException if the message integrity check does not match
+     */
+    public int decryptCCM(@NonNull final byte[] key,
+                          @NonNull final byte[] nonce,
+                          @Nullable final byte[] additionalData,
+                          @NonNull final byte[] in, final int inOff, final int length,
+                          @NonNull final byte[] out, final int outOff,
+                          final int micSize) throws InvalidCipherTextException {
+        if (length < micSize)
+            throw new InvalidCipherTextException("data too short");
+        final int decrypted = tryDecryptCCM(key, nonce, additionalData, in, inOff, length, out, outOff, micSize);
+        if (decrypted < 0)
+            throw new InvalidCipherTextException("mac check in CCM failed");
+        return decrypted;
+    }
+
+    /**
+     * Decrypts and verifies the given data using AES-CCM without throwing if the message integrity check does not match.
+     * <p>
+     * This is to be used when trying several keys on the same pdu where a mismatch is expected. The output may overlap with the input.
+     * </p>
+     *
+     * @param key            128-bit key
+     * @param nonce          nonce, 7 to 13 bytes
+     * @param additionalData additional authenticated data, may be null
+     * @param in             input buffer containing the encrypted data followed by the message integrity check
+     * @param inOff          offset of the data in the input buffer
+     * @param length         length of the encrypted data including the message integrity check
+     * @param out            output buffer, must have length - micSize bytes available from outOff
+     * @param outOff         offset in the output buffer
+     * @param micSize        size of the message integrity check in bytes
+     * @return number of bytes written to the output buffer or -1 if the data is too short or the message integrity check does not match
+     */
+    public int tryDecryptCCM(@NonNull final byte[] key,
+                             @NonNull final byte[] nonce,
+                             @Nullable final byte[] additionalData,
+                             @NonNull final byte[] in, final int inOff, final int length,
+                             @NonNull final byte[] out, final int outOff,
+                             final int micSize) {
+        final int dataLength = length - micSize;
+        if (dataLength < 0)
+            return -1;
+        final AESEngine engine = getSlot(key).engine;
+        //Decrypt the received MIC before the input may be overwritten
+        initCounter(nonce, 0);
+        engine.processBlock(counter, 0, keyStream, 0);
+        for (int i = 0; i < micSize; i++) {
+            receivedMic[i] = (byte) (in[inOff + dataLength + i] ^ keyStream[i]);
+        }
+        applyKeyStream(engine, nonce, in, inOff, dataLength, out, outOff);
+        calculateCbcMac(engine, nonce, additionalData, out, outOff, dataLength, micSize);
+        int difference = 0;
+        for (int i = 0; i < micSize; i++) {
+            difference |= receivedMic[i] ^ mac[i];
+        }
+        if (difference != 0)
+            return -1;
+        return dataLength;
+    }
+
+    private void calculateCbcMac(@NonNull final AESEngine engine,
+                                 @NonNull final byte[] nonce,
+                                 @Nullable final byte[] additionalData,
+                                 @NonNull final byte[] data, final int offset, final int length,
+                                 final int micSize) {
+        final int l = 15 - nonce.length;
+        final boolean hasAdditionalData = additionalData != null && additionalData.length > 0;
+        //B0
+        mac[0] = (byte) ((hasAdditionalData ? 0x40 : 0x00) | (((micSize - 2) / 2) << 3) | (l - 1));
+        System.arraycopy(nonce, 0, mac, 1, nonce.length);
+        int q = length;
+        for (int i = BLOCK_SIZE - 1; i > nonce.length; i--) {
+            mac[i] = (byte) q;
+            q >>>= 8;
+        }
+        engine.processBlock(mac, 0, mac, 0);
+
+        if (hasAdditionalData) {
+            //Additional data is prefixed with its 2 byte length
+            mac[0] ^= (byte) (additionalData.length >> 8);
+            mac[1] ^= (byte) additionalData.length;
+            int position = 2;
+            for (byte b : additionalData) {
+                if (position == BLOCK_SIZE) {
+                    engine.processBlock(mac, 0, mac, 0);
+                    position = 0;
+                }
+                mac[position++] ^= b;
+            }
+            engine.processBlock(mac, 0, mac, 0);
+        }
+
+        for (int i = 0; i < length; i += BLOCK_SIZE) {
+            final int blockLength = Math.min(BLOCK_SIZE, length - i);
+            for (int j = 0; j < blockLength; j++) {
+                mac[j] ^= data[offset + i + j];
+            }
+            engine.processBlock(mac, 0, mac, 0);
+        }
+    }
+
+    private void applyKeyStream(@NonNull final AESEngine engine,
+                                @NonNull final byte[] nonce,
+                                @NonNull final byte[] in, final int inOff, final int length,
+                                @NonNull final byte[] out, final int outOff) {
+        int blockCounter = 1;
+        for (int i = 0; i < length; i += BLOCK_SIZE) {
+            initCounter(nonce, blockCounter++);
+            engine.processBlock(counter, 0, keyStream, 0);
+            final int blockLength = Math.min(BLOCK_SIZE, length - i);
+            for (int j = 0; j < blockLength; j++) {
+                out[outOff + i + j] = (byte) (in[inOff + i + j] ^ keyStream[j]);
+            }
+        }
+    }
+
+    private void initCounter(@NonNull final byte[] nonce, final int blockCounter) {
+        final int l = 15 - nonce.length;
+        counter[0] = (byte) (l - 1);
+        System.arraycopy(nonce, 0, counter, 1, nonce.length);
+        int value = blockCounter;
+        for (int i = BLOCK_SIZE - 1; i > nonce.length; i--) {
+            counter[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh.utils;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
@@ -82,7 +80,7 @@ public enum InputOOBAction {
         for (InputOOBAction action : inputActions) {
             if ((inputAction & action.inputOOBAction) == action.inputOOBAction) {
                 supportedActionValues.add(action);
-                Log.v(TAG, "Input oob action type value: " + getInputOOBActionDescription(action));
+                MeshLogger.v(TAG, () -> "Input oob action type value: " + getInputOOBActionDescription(action));
             }
         }
         return supportedActionValues;
@@ -0,0 +1,217 @@
+package no.nordicsemi.android.mesh.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Logging facade used by the library.
+ * <p>
+ * Messages below the log level are dropped before they are built. Messages that are built from variables, i.e. hex dumps of pdus,
+ * are passed as a {@link Message} which is only invoked if the level is enabled. Messages of {@link Log#INFO} and above are logged
+ * by default, applications may change the log level at runtime using {@link #setLogLevel(int)}, i.e. to {@link Log#VERBOSE} to
+ * follow every pdu. Logs are written to the Android log unless a different {@link Logger} is set using {@link #setLogger(Logger)}.
+ * </p>
+ */
+@SuppressWarnings("unused")
+public final class MeshLogger {
+
+    /**
+     * Receives the log messages of the library.
+     */
+    public interface Logger {
+
+        /**
+         * Logs a message.
+         *
+         * @param priority  Priority of the message, one of the {@link Log} priority constants
+         * @param tag       Tag of the class logging the message
+         * @param message   Message
+         * @param throwable Exception to log, may be null
+         */
+        void log(final int priority, @NonNull final String tag, @NonNull final String message, @Nullable final Throwable throwable);
+    }
+
+    /**
+     * Builds a log message when the log level is enabled.
+     */
+    public interface Message {
+
+        /**
+         * Returns the message.
+         */
+        String get();
+    }
+
+    private static final Logger ANDROID_LOGGER = (priority, tag, message, throwable) -> {
+        if (throwable != null) {
+            Log.println(priority, tag, message + '\n' + Log.getStackTraceString(throwable));
+        } else {
+            Log.println(priority, tag, message);
+        }
+    };
+
+    private static volatile Logger sLogger = ANDROID_LOGGER;
+    private static volatile int sLogLevel = Log.INFO;
+
+    private MeshLogger() {
+    }
+
+    /**
+     * Sets the logger the messages are written to.
+     *
+     * @param logger {@link Logger} or null to write to the Android log
+     */
+    public static void setLogger(@Nullable final Logger logger) {
+        sLogger = logger == null ? ANDROID_LOGGER : logger;
+    }
+
+    /**
+     * Sets the lowest priority of messages that are logged, {@link Log#VERBOSE} logs everything, {@link Log#ASSERT} disables logging.
+     *
+     * @param logLevel One of the {@link Log} priority constants
+     */
+    public static void setLogLevel(final int logLevel) {
+        sLogLevel = logLevel;
+    }
+
+    /**
+     * Returns the lowest priority of messages that are logged.
+     */
+    public static int getLogLevel() {
+        return sLogLevel;
+    }
+
+    /**
+     * Returns true if messages of the given priority are logged.
+     *
+     * @param priority One of the {@link Log} priority constants
+     */
+    public static boolean isLoggable(final int priority) {
+        return priority >= sLogLevel;
+    }
+
+    /**
+     * Logs a verbose message.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Message
+     */
+    public static void v(@NonNull final String tag, @NonNull final String message) {
+        log(Log.VERBOSE, tag, message, null);
+    }
+
+    /**
+     * Logs a verbose message that is only built if messages of {@link Log#VERBOSE} are logged.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Builds the message
+     */
+    public static void v(@NonNull final String tag, @NonNull final Message message) {
+        log(Log.VERBOSE, tag, message);
+    }
+
+    /**
+     * Logs a debug message.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Message
+     */
+    public static void d(@NonNull final String tag, @NonNull final String message) {
+        log(Log.DEBUG, tag, message, null);
+    }
+
+    /**
+     * Logs a debug message that is only built if messages of {@link Log#DEBUG} are logged.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Builds the message
+     */
+    public static void d(@NonNull final String tag, @NonNull final Message message) {
+        log(Log.DEBUG, tag, message);
+    }
+
+    /**
+     * Logs an info message.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Message
+     */
+    public static void i(@NonNull final String tag, @NonNull final String message) {
+        log(Log.INFO, tag, message, null);
+    }
+
+    /**
+     * Logs an info message that is only built if messages of {@link Log#INFO} are logged.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Builds the message
+     */
+    public static void i(@NonNull final String tag, @NonNull final Message message) {
+        log(Log.INFO, tag, message);
+    }
+
+    /**
+     * Logs a warning message.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Message
+     */
+    public static void w(@NonNull final String tag, @NonNull final String message) {
+        log(Log.WARN, tag, message, null);
+    }
+
+    /**
+     * Logs a warning message that is only built if messages of {@link Log#WARN} are logged.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Builds the message
+     */
+    public static void w(@NonNull final String tag, @NonNull final Message message) {
+        log(Log.WARN, tag, message);
+    }
+
+    /**
+     * Logs an error message.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Message
+     */
+    public static void e(@NonNull final String tag, @NonNull final String message) {
+        log(Log.ERROR, tag, message, null);
+    }
+
+    /**
+     * Logs an error message that is only built if messages of {@link Log#ERROR} are logged.
+     *
+     * @param tag     Tag of the class logging the message
+     * @param message Builds the message
+     */
+    public static void e(@NonNull final String tag, @NonNull final Message message) {
+        log(Log.ERROR, tag, message);
+    }
+
+    /**
+     * Logs an error message with an exception.
+     *
+     * @param tag       Tag of the class logging the message
+     * @param message   Message
+     * @param throwable Exception to log, may be null
+     */
+    public static void e(@NonNull final String tag, @NonNull final String message, @Nullable final Throwable throwable) {
+        log(Log.ERROR, tag, message, throwable);
+    }
+
+    private static void log(final int priority, @NonNull final String tag, @NonNull final Message message) {
+        if (isLoggable(priority)) {
+            sLogger.log(priority, tag, String.valueOf(message.get()), null);
+        }
+    }
+
+    private static void log(final int priority, @NonNull final String tag, @NonNull final String message, @Nullable final Throwable throwable) {
+        if (isLoggable(priority)) {
+            sLogger.log(priority, tag, message, throwable);
+        }
+    }
+}
@@ -0,0 +1,627 @@
+package no.nordicsemi.android.mesh.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Transport metrics of the library.
+ * <p>
+ * The layers of the library count the pdus sent and received per proxy pdu type, the received pdus that could not be matched to a
+ * network key or decrypted, the segments and block acknowledgements exchanged and the retransmissions. The time taken to process a
+ * received pdu, to reassemble a segmented message and to receive the status of a message sent through the outbound scheduler are
+ * recorded in histograms, the latter for each opcode. Writes of the network to the database are counted along with the rows they
+ * write and the time they take.
+ * </p>
+ * <p>
+ * Counters are lock free and histograms have fixed power of two buckets, so the metrics are cheap enough to be left enabled.
+ * Applications poll them using {@link #snapshot()}. Recording can be turned off using {@link #setEnabled(boolean)}.
+ * </p>
+ */
+public final class MeshMetrics {
+
+    /**
+     * Number of proxy pdu types, from {@code MeshManagerApi.PDU_TYPE_NETWORK} to {@code MeshManagerApi.PDU_TYPE_PROVISIONING}.
+     */
+    public static final int PDU_TYPE_COUNT = 4;
+
+    private static final AtomicLongArray sPdusReceived = new AtomicLongArray(PDU_TYPE_COUNT);
+    private static final AtomicLongArray sPdusSent = new AtomicLongArray(PDU_TYPE_COUNT);
+    private static final AtomicLong sNidMisses = new AtomicLong();
+    private static final AtomicLong sDecryptionFailures = new AtomicLong();
+    private static final AtomicLong sSegmentsReceived = new AtomicLong();
+    private static final AtomicLong sBlockAcksSent = new AtomicLong();
+    private static final AtomicLong sBlockAcksReceived = new AtomicLong();
+    private static final AtomicLong sSegmentsRetransmitted = new AtomicLong();
+    private static final AtomicLong sMessagesRetried = new AtomicLong();
+    private static final AtomicLong sNetworkFlushes = new AtomicLong();
+    private static final AtomicLong sRowsWritten = new AtomicLong();
+    private static final AtomicInteger sReassembliesInProgress = new AtomicInteger();
+    private static final AtomicInteger sMessagesInFlight = new AtomicInteger();
+    private static final Histogram sProcessingTime = new Histogram();
+    private static final Histogram sReassemblyTime = new Histogram();
+    private static final Histogram sFlushTime = new Histogram();
+    private static final OpCodeHistograms sRoundTripTimes = new OpCodeHistograms();
+    private static volatile boolean sEnabled = true;
+
+    private MeshMetrics() {
+    }
+
+    /**
+     * Enables or disables recording, the current values are kept.
+     *
+     * @param enabled true to record metrics
+     */
+    public static void setEnabled(final boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    /**
+     * Returns true if metrics are recorded.
+     */
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Returns a snapshot of the current values.
+     */
+    @NonNull
+    public static Snapshot snapshot() {
+        return new Snapshot();
+    }
+
+    /**
+     * Resets the counters and histograms. The number of reassemblies and messages in flight reflect the current state and are kept.
+     */
+    public static void reset() {
+        for (int i = 0; i < PDU_TYPE_COUNT; i++) {
+            sPdusReceived.set(i, 0);
+            sPdusSent.set(i, 0);
+        }
+        sNidMisses.set(0);
+        sDecryptionFailures.set(0);
+        sSegmentsReceived.set(0);
+        sBlockAcksSent.set(0);
+        sBlockAcksReceived.set(0);
+        sSegmentsRetransmitted.set(0);
+        sMessagesRetried.set(0);
+        sNetworkFlushes.set(0);
+        sRowsWritten.set(0);
+        sProcessingTime.reset();
+        sReassemblyTime.reset();
+        sFlushTime.reset();
+        sRoundTripTimes.clear();
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onPduReceived(final int pduType) {
+        if (sEnabled && pduType >= 0 && pduType < PDU_TYPE_COUNT) {
+            sPdusReceived.incrementAndGet(pduType);
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onPduSent(final int pduType) {
+        if (sEnabled && pduType >= 0 && pduType < PDU_TYPE_COUNT) {
+            sPdusSent.incrementAndGet(pduType);
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onNidMiss() {
+        if (sEnabled) {
+            sNidMisses.incrementAndGet();
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onDecryptionFailed() {
+        if (sEnabled) {
+            sDecryptionFailures.incrementAndGet();
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onSegmentReceived() {
+        if (sEnabled) {
+            sSegmentsReceived.incrementAndGet();
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onBlockAckSent() {
+        if (sEnabled) {
+            sBlockAcksSent.incrementAndGet();
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onBlockAckReceived() {
+        if (sEnabled) {
+            sBlockAcksReceived.incrementAndGet();
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onSegmentRetransmitted() {
+        if (sEnabled) {
+            sSegmentsRetransmitted.incrementAndGet();
+        }
+    }
+
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onMessageRetried() {
+        if (sEnabled) {
+            sMessagesRetried.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a write of the changes of a network to the database.
+     *
+     * @param rows      Number of rows written
+     * @param startTime Time the write started at as returned by {@link System#nanoTime()}
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void onNetworkFlushed(final int rows, final long startTime) {
+        if (sEnabled) {
+            sNetworkFlushes.incrementAndGet();
+            sRowsWritten.addAndGet(rows);
+            sFlushTime.record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Adjusts the number of segmented messages being reassembled. Gauges are updated even when recording is disabled so that they
+     * stay consistent when it is enabled again.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void addReassembliesInProgress(final int delta) {
+        sReassembliesInProgress.addAndGet(delta);
+    }
+
+    /**
+     * Adjusts the number of acknowledged messages waiting for a status.
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void addMessagesInFlight(final int delta) {
+        sMessagesInFlight.addAndGet(delta);
+    }
+
+    /**
+     * Records the time taken to process a received pdu.
+     *
+     * @param startTime Time processing started at as returned by {@link System#nanoTime()}
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void recordProcessingTime(final long startTime) {
+        if (sEnabled) {
+            sProcessingTime.record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Records the time taken to reassemble a segmented message.
+     *
+     * @param startTime Time the first segment was received at as returned by {@link System#nanoTime()}
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void recordReassemblyTime(final long startTime) {
+        if (sEnabled) {
+            sReassemblyTime.record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Records the time between sending a message and receiving its status.
+     *
+     * @param opCode    Opcode of the message sent
+     * @param startTime Time the message was first sent at as returned by {@link System#nanoTime()}
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY)
+    public static void recordRoundTripTime(final int opCode, final long startTime) {
+        if (sEnabled) {
+            sRoundTripTimes.get(opCode).record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Histogram of durations in microseconds. Bucket 0 counts durations below 1 µs, bucket i counts durations from 2^(i - 1) µs up
+     * to 2^i µs and the last bucket counts everything above.
+     */
+    static final class Histogram {
+
+        static final int BUCKET_COUNT = 28;
+
+        private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong mSum = new AtomicLong();
+        private final AtomicLong mMax = new AtomicLong();
+
+        static int getBucket(final long micros) {
+            return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+        }
+
+        void record(final long nanos) {
+            final long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+            mBuckets.incrementAndGet(getBucket(micros));
+            mSum.addAndGet(micros);
+            long max;
+            while (micros > (max = mMax.get()) && !mMax.compareAndSet(max, micros)) {
+                //Retry until the maximum is updated or exceeded by another thread
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mBuckets.set(i, 0);
+            }
+            mSum.set(0);
+            mMax.set(0);
+        }
+
+        @NonNull
+        HistogramSnapshot snapshot() {
+            final long[] buckets = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = mBuckets.get(i);
+            }
+            return new HistogramSnapshot(buckets, mSum.get(), mMax.get());
+        }
+    }
+
+    /**
+     * Histograms mapped to opcodes. The opcodes are kept in a sorted array that is copied when an opcode is added, which only
+     * happens for the first message of each opcode, so the histogram of a known opcode is found without locking or boxing.
+     */
+    static final class OpCodeHistograms {
+
+        private static final class Table {
+            final int[] opCodes;
+            final Histogram[] histograms;
+
+            Table(@NonNull final int[] opCodes, @NonNull final Histogram[] histograms) {
+                this.opCodes = opCodes;
+                this.histograms = histograms;
+            }
+        }
+
+        private volatile Table mTable = new Table(new int[0], new Histogram[0]);
+
+        /**
+         * Returns the histogram of an opcode, which is created if the opcode has not been recorded yet.
+         *
+         * @param opCode Opcode
+         */
+        @NonNull
+        Histogram get(final int opCode) {
+            final Table table = mTable;
+            final int index = Arrays.binarySearch(table.opCodes, opCode);
+            return index >= 0 ? table.histograms[index] : add(opCode);
+        }
+
+        private synchronized Histogram add(final int opCode) {
+            final Table table = mTable;
+            int index = Arrays.binarySearch(table.opCodes, opCode);
+            if (index >= 0)
+                return table.histograms[index];
+            index = -(index + 1);
+            final int length = table.opCodes.length;
+            final int[] opCodes = new int[length + 1];
+            final Histogram[] histograms = new Histogram[length + 1];
+            System.arraycopy(table.opCodes, 0, opCodes, 0, index);
+            System.arraycopy(table.histograms, 0, histograms, 0, index);
+            System.arraycopy(table.opCodes, index, opCodes, index + 1, length - index);
+            System.arraycopy(table.histograms, index, histograms, index + 1, length - index);
+            opCodes[index] = opCode;
+            histograms[index] = new Histogram();
+            mTable = new Table(opCodes, histograms);
+            return histograms[index];
+        }
+
+        synchronized void clear() {
+            mTable = new Table(new int[0], new Histogram[0]);
+        }
+
+        @NonNull
+        Map<Integer, HistogramSnapshot> snapshot() {
+            final Table table = mTable;
+            final Map<Integer, HistogramSnapshot> snapshots = new HashMap<>();
+            for (int i = 0; i < table.opCodes.length; i++) {
+                snapshots.put(table.opCodes[i], table.histograms[i].snapshot());
+            }
+            return Collections.unmodifiableMap(snapshots);
+        }
+    }
+
+    /**
+     * Values of a histogram of durations at the time of the snapshot. The counts of the buckets are read one by one while the
+     * histogram may be updated, so the snapshot may be off by the values recorded while it was taken.
+     */
+    public static final class HistogramSnapshot {
+
+        private final long[] mBuckets;
+        private final long mCount;
+        private final long mSum;
+        private final long mMax;
+
+        HistogramSnapshot(@NonNull final long[] buckets, final long sum, final long max) {
+            mBuckets = buckets;
+            long count = 0;
+            for (long bucket : buckets) {
+                count += bucket;
+            }
+            mCount = count;
+            mSum = sum;
+            mMax = max;
+        }
+
+        /**
+         * Returns the number of durations recorded.
+         */
+        public long getCount() {
+            return mCount;
+        }
+
+        /**
+         * Returns the sum of the durations recorded in microseconds.
+         */
+        public long getSum() {
+            return mSum;
+        }
+
+        /**
+         * Returns the longest duration recorded in microseconds.
+         */
+        public long getMax() {
+            return mMax;
+        }
+
+        /**
+         * Returns the mean of the durations recorded in microseconds or 0 if none has been recorded.
+         */
+        public long getMean() {
+            return mCount == 0 ? 0 : mSum / mCount;
+        }
+
+        /**
+         * Returns the number of buckets.
+         */
+        public int getBucketCount() {
+            return mBuckets.length;
+        }
+
+        /**
+         * Returns the number of durations recorded in a bucket.
+         *
+         * @param bucket Index of the bucket
+         */
+        public long getBucket(final int bucket) {
+            return mBuckets[bucket];
+        }
+
+        /**
+         * Returns the exclusive upper bound of a bucket in microseconds, {@link Long#MAX_VALUE} for the last bucket.
+         *
+         * @param bucket Index of the bucket
+         */
+        public long getBucketUpperBound(final int bucket) {
+            return bucket == mBuckets.length - 1 ? Long.MAX_VALUE : 1L << bucket;
+        }
+
+        /**
+         * Returns an upper bound of the duration below which the given fraction of the durations fall, in microseconds.
+         *
+         * @param fraction Fraction between 0 and 1, e.g. 0.99 for the 99th percentile
+         * @throws IllegalArgumentException if the fraction is outside of 0 and 1
+         */
+        public long getPercentile(final double fraction) {
+            if (fraction < 0 || fraction > 1)
+                throw new IllegalArgumentException("Fraction must be between 0 and 1");
+            final long rank = (long) Math.ceil(fraction * mCount);
+            long count = 0;
+            for (int i = 0; i < mBuckets.length; i++) {
+                count += mBuckets[i];
+                if (count >= rank && count > 0) {
+                    return Math.min(mMax, getBucketUpperBound(i));
+                }
+            }
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "count=" + mCount + ", mean=" + getMean() + "us, p50=" + getPercentile(0.5) + "us, p99=" + getPercentile(0.99)
+                    + "us, max=" + mMax + "us";
+        }
+    }
+
+    /**
+     * Values of the metrics at the time of the snapshot.
+     */
+    public static final class Snapshot {
+
+        private final long mTime = System.currentTimeMillis();
+        private final long[] mPdusReceived = new long[PDU_TYPE_COUNT];
+        private final long[] mPdusSent = new long[PDU_TYPE_COUNT];
+        private final long mNidMisses = sNidMisses.get();
+        private final long mDecryptionFailures = sDecryptionFailures.get();
+        private final long mSegmentsReceived = sSegmentsReceived.get();
+        private final long mBlockAcksSent = sBlockAcksSent.get();
+        private final long mBlockAcksReceived = sBlockAcksReceived.get();
+        private final long mSegmentsRetransmitted = sSegmentsRetransmitted.get();
+        private final long mMessagesRetried = sMessagesRetried.get();
+        private final long mNetworkFlushes = sNetworkFlushes.get();
+        private final long mRowsWritten = sRowsWritten.get();
+        private final int mReassembliesInProgress = sReassembliesInProgress.get();
+        private final int mMessagesInFlight = sMessagesInFlight.get();
+        private final HistogramSnapshot mProcessingTime = sProcessingTime.snapshot();
+        private final HistogramSnapshot mReassemblyTime = sReassemblyTime.snapshot();
+        private final HistogramSnapshot mFlushTime = sFlushTime.snapshot();
+        private final Map<Integer, HistogramSnapshot> mRoundTripTimes;
+
+        private Snapshot() {
+            for (int i = 0; i < PDU_TYPE_COUNT; i++) {
+                mPdusReceived[i] = sPdusReceived.get(i);
+                mPdusSent[i] = sPdusSent.get(i);
+            }
+            mRoundTripTimes = sRoundTripTimes.snapshot();
+        }
+
+        /**
+         * Returns the time the snapshot was taken at in milliseconds since the epoch.
+         */
+        public long getTime() {
+            return mTime;
+        }
+
+        /**
+         * Returns the number of pdus received of the given proxy pdu type.
+         *
+         * @param pduType Proxy pdu type, e.g. {@code MeshManagerApi.PDU_TYPE_NETWORK}
+         */
+        public long getPdusReceived(final int pduType) {
+            return mPdusReceived[pduType];
+        }
+
+        /**
+         * Returns the number of pdus sent of the given proxy pdu type.
+         *
+         * @param pduType Proxy pdu type, e.g. {@code MeshManagerApi.PDU_TYPE_NETWORK}
+         */
+        public long getPdusSent(final int pduType) {
+            return mPdusSent[pduType];
+        }
+
+        /**
+         * Returns the number of network pdus received with a NID that does not match any of the network keys.
+         */
+        public long getNidMisses() {
+            return mNidMisses;
+        }
+
+        /**
+         * Returns the number of network pdus that could not be decrypted with any of the network keys matching their NID.
+         */
+        public long getDecryptionFailures() {
+            return mDecryptionFailures;
+        }
+
+        /**
+         * Returns the number of segments of segmented messages received.
+         */
+        public long getSegmentsReceived() {
+            return mSegmentsReceived;
+        }
+
+        /**
+         * Returns the number of block acknowledgements sent.
+         */
+        public long getBlockAcksSent() {
+            return mBlockAcksSent;
+        }
+
+        /**
+         * Returns the number of block acknowledgements received.
+         */
+        public long getBlockAcksReceived() {
+            return mBlockAcksReceived;
+        }
+
+        /**
+         * Returns the number of segments resent after a block acknowledgement.
+         */
+        public long getSegmentsRetransmitted() {
+            return mSegmentsRetransmitted;
+        }
+
+        /**
+         * Returns the number of messages resent by the outbound scheduler after a status was not received in time.
+         */
+        public long getMessagesRetried() {
+            return mMessagesRetried;
+        }
+
+        /**
+         * Returns the number of times the changes of a network have been written to the database.
+         */
+        public long getNetworkFlushes() {
+            return mNetworkFlushes;
+        }
+
+        /**
+         * Returns the number of rows written to the database by the network flushes.
+         */
+        public long getRowsWritten() {
+            return mRowsWritten;
+        }
+
+        /**
+         * Returns the number of segmented messages being reassembled.
+         */
+        public int getReassembliesInProgress() {
+            return mReassembliesInProgress;
+        }
+
+        /**
+         * Returns the number of messages sent through the outbound scheduler waiting for a status.
+         */
+        public int getMessagesInFlight() {
+            return mMessagesInFlight;
+        }
+
+        /**
+         * Returns the time taken to process the received network and proxy configuration pdus, including the time spent in the
+         * status callbacks.
+         */
+        @NonNull
+        public HistogramSnapshot getProcessingTime() {
+            return mProcessingTime;
+        }
+
+        /**
+         * Returns the time between receiving the first and the last segment of the reassembled messages.
+         */
+        @NonNull
+        public HistogramSnapshot getReassemblyTime() {
+            return mReassemblyTime;
+        }
+
+        /**
+         * Returns the time taken to write the changes of a network to the database.
+         */
+        @NonNull
+        public HistogramSnapshot getFlushTime() {
+            return mFlushTime;
+        }
+
+        /**
+         * Returns the time between sending a message through the outbound scheduler and receiving its status, mapped to the opcode
+         * of the message sent.
+         */
+        @NonNull
+        public Map<Integer, HistogramSnapshot> getRoundTripTimes() {
+            return mRoundTripTimes;
+        }
+
+        /**
+         * Returns the round trip times of the messages sent with the given opcode or null if none has completed.
+         *
+         * @param opCode Opcode of the message sent
+         */
+        @Nullable
+        public HistogramSnapshot getRoundTripTime(final int opCode) {
+            return mRoundTripTimes.get(opCode);
+        }
+    }
+}
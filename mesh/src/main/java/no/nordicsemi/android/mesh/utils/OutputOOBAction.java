@@ -1,7 +1,5 @@
 package no.nordicsemi.android.mesh.utils;
 
-import android.util.Log;
-
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
@@ -96,7 +94,7 @@ public enum OutputOOBAction {
         for (OutputOOBAction action : outputActions) {
             if ((outputAction & action.outputOOBAction) == action.outputOOBAction) {
                 supportedActionValues.add(action);
-                Log.v(TAG, "Supported output oob action type: " + getOutputOOBActionDescription(action));
+                MeshLogger.v(TAG, () -> "Supported output oob action type: " + getOutputOOBActionDescription(action));
             }
         }
         return supportedActionValues;
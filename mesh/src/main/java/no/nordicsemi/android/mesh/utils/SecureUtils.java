@@ -24,19 +24,10 @@ package no.nordicsemi.android.mesh.utils;
 
 import android.os.Parcel;
 import android.os.Parcelable;
-import android.util.Log;
 
 import com.google.gson.annotations.Expose;
 
-import org.spongycastle.crypto.BlockCipher;
-import org.spongycastle.crypto.CipherParameters;
 import org.spongycastle.crypto.InvalidCipherTextException;
-import org.spongycastle.crypto.engines.AESEngine;
-import org.spongycastle.crypto.engines.AESLightEngine;
-import org.spongycastle.crypto.macs.CMac;
-import org.spongycastle.crypto.modes.CCMBlockCipher;
-import org.spongycastle.crypto.params.AEADParameters;
-import org.spongycastle.crypto.params.KeyParameter;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -144,14 +135,7 @@ public class SecureUtils {
 
     public static byte[] calculateCMAC(final byte[] data, final byte[] key) {
         final byte[] cmac = new byte[16];
-
-        CipherParameters cipherParameters = new KeyParameter(key);
-        BlockCipher blockCipher = new AESEngine();
-        CMac mac = new CMac(blockCipher);
-
-        mac.init(cipherParameters);
-        mac.update(data, 0, data.length);
-        mac.doFinal(cmac, 0);
+        CryptoContext.get().calculateCMAC(key, data, 0, data.length, cmac, 0);
         return cmac;
     }
 
@@ -160,18 +144,8 @@ public class SecureUtils {
                                     @NonNull final byte[] nonce,
                                     final int micSize) {
         final byte[] ccm = new byte[data.length + micSize];
-
-        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
-        final AEADParameters aeadParameters = new AEADParameters(new KeyParameter(key), micSize * 8, nonce);
-        ccmBlockCipher.init(true, aeadParameters);
-        ccmBlockCipher.processBytes(data, 0, data.length, ccm, data.length);
-        try {
-            ccmBlockCipher.doFinal(ccm, 0);
-            return ccm;
-        } catch (InvalidCipherTextException e) {
-            Log.e(TAG, "Error wile encrypting: " + e.getMessage());
-            return null;
-        }
+        CryptoContext.get().encryptCCM(key, nonce, null, data, 0, data.length, ccm, 0, micSize);
+        return ccm;
     }
 
     public static byte[] encryptCCM(@NonNull final byte[] data,
@@ -180,31 +154,18 @@ public class SecureUtils {
                                     @NonNull final byte[] additionalData,
                                     final int micSize) {
         final byte[] ccm = new byte[data.length + micSize];
-
-        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
-        final AEADParameters aeadParameters = new AEADParameters(new KeyParameter(key), micSize * 8, nonce, additionalData);
-        ccmBlockCipher.init(true, aeadParameters);
-        ccmBlockCipher.processBytes(data, 0, data.length, ccm, data.length);
-        try {
-            ccmBlockCipher.doFinal(ccm, 0);
-            return ccm;
-        } catch (InvalidCipherTextException e) {
-            Log.e(TAG, "Error wile encrypting: " + e.getMessage());
-            return null;
-        }
+        CryptoContext.get().encryptCCM(key, nonce, additionalData, data, 0, data.length, ccm, 0, micSize);
+        return ccm;
     }
 
     public static byte[] decryptCCM(@NonNull final byte[] data,
                                     @NonNull final byte[] key,
                                     @NonNull final byte[] nonce,
                                     final int micSize) throws InvalidCipherTextException {
+        if (data.length < micSize)
+            throw new InvalidCipherTextException("data too short");
         final byte[] ccm = new byte[data.length - micSize];
-
-        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
-        final AEADParameters aeadParameters = new AEADParameters(new KeyParameter(key), micSize * 8, nonce);
-        ccmBlockCipher.init(false, aeadParameters);
-        ccmBlockCipher.processBytes(data, 0, data.length, ccm, 0);
-        ccmBlockCipher.doFinal(ccm, 0);
+        CryptoContext.get().decryptCCM(key, nonce, null, data, 0, data.length, ccm, 0, micSize);
         return ccm;
     }
 
@@ -213,13 +174,10 @@ public class SecureUtils {
                                     @NonNull final byte[] nonce,
                                     @NonNull final byte[] additionalData,
                                     final int micSize) throws InvalidCipherTextException {
+        if (data.length < micSize)
+            throw new InvalidCipherTextException("data too short");
         final byte[] ccm = new byte[data.length - micSize];
-
-        final CCMBlockCipher ccmBlockCipher = new CCMBlockCipher(new AESEngine());
-        final AEADParameters aeadParameters = new AEADParameters(new KeyParameter(key), micSize * 8, nonce, additionalData);
-        ccmBlockCipher.init(false, aeadParameters);
-        ccmBlockCipher.processBytes(data, 0, data.length, ccm, 0);
-        ccmBlockCipher.doFinal(ccm, 0);
+        CryptoContext.get().decryptCCM(key, nonce, additionalData, data, 0, data.length, ccm, 0, micSize);
         return ccm;
     }
 
@@ -359,12 +317,26 @@ public class SecureUtils {
                                                            final int flags,
                                                            @NonNull final byte[] networkId,
                                                            final int ivIndex) {
+        return calculateSecureNetworkBeaconAuthValue(calculateBeaconKey(n), flags, networkId, ivIndex);
+    }
+
+    /**
+     * Calculates the authentication value of secure network beacon using a beacon key that has already been derived
+     *
+     * @param beaconKey beacon key derived from the network key
+     * @param flags     flags
+     * @param networkId network id of the network
+     * @param ivIndex   ivindex of the network
+     */
+    public static byte[] calculateSecureNetworkBeaconAuthValue(@NonNull final byte[] beaconKey,
+                                                               final int flags,
+                                                               @NonNull final byte[] networkId,
+                                                               final int ivIndex) {
         final int inputLength = 1 + networkId.length + 4;
         final ByteBuffer pBuffer = ByteBuffer.allocate(inputLength);
         pBuffer.put((byte) flags);
         pBuffer.put(networkId);
         pBuffer.putInt(ivIndex);
-        final byte[] beaconKey = calculateBeaconKey(n);
         return calculateCMAC(pBuffer.array(), beaconKey);
     }
 
@@ -446,11 +418,7 @@ public class SecureUtils {
 
     public static byte[] encryptWithAES(final byte[] data, final byte[] key) {
         final byte[] encrypted = new byte[data.length];
-        final CipherParameters cipherParameters = new KeyParameter(key);
-        final AESLightEngine engine = new AESLightEngine();
-        engine.init(true, cipherParameters);
-        engine.processBlock(data, 0, encrypted, 0);
-
+        CryptoContext.get().encryptBlock(key, data, 0, encrypted, 0);
         return encrypted;
     }
 
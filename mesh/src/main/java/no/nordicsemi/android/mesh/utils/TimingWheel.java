@@ -0,0 +1,254 @@
+package no.nordicsemi.android.mesh.utils;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Hashed timing wheel driving the segmentation and reassembly timers of the transport layers.
+ * <p>
+ * Timers are kept in a ring of buckets, one per tick, each holding an intrusive doubly linked list of the timers expiring in that
+ * tick of any revolution. Scheduling and cancelling a timer are constant time and do not allocate, and the timers are reused
+ * between runs. Instead of posting every timer to the message queue, the wheel posts a single runnable for the next tick that has
+ * timers in it, so thousands of concurrent reassemblies and outbound transactions do not flood the queue. Delays are rounded up
+ * to whole ticks, so timers expire up to one tick later than requested.
+ * </p>
+ * <p>
+ * The wheel is confined to the thread of the handler it is constructed with, and timers are run on that thread.
+ * </p>
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class TimingWheel {
+
+    /**
+     * Default duration of a tick in milliseconds.
+     */
+    public static final long DEFAULT_TICK_DURATION = 10;
+
+    /**
+     * Default number of buckets, a revolution of the wheel takes a little over 5 seconds with the default tick duration.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Handler mHandler;
+    private final long mTickDuration;
+    private final int mMask;
+    //The extra bucket at the end holds the timers expired in the tick being processed until they are run
+    private final Timer[] mBuckets;
+    private final int mExpired;
+    private long mStartTime;
+    private long mTick;
+    private long mNextTickTime;
+    private int mPending;
+    private boolean mTickScheduled;
+    private boolean mAdvancing;
+
+    private final Runnable mTickRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mTickScheduled = false;
+            advance(SystemClock.uptimeMillis());
+        }
+    };
+
+    /**
+     * Reusable timer running a task on the thread of the wheel it is scheduled on.
+     */
+    public static final class Timer {
+
+        private final Runnable mTask;
+        private Timer mPrev;
+        private Timer mNext;
+        private int mBucket = -1;
+        private long mDeadline;
+
+        /**
+         * Constructs a timer.
+         *
+         * @param task Task run when the timer expires.
+         */
+        public Timer(@NonNull final Runnable task) {
+            mTask = task;
+        }
+
+        /**
+         * Returns true if the timer has been scheduled and has neither expired nor been cancelled.
+         */
+        public boolean isScheduled() {
+            return mBucket >= 0;
+        }
+    }
+
+    /**
+     * Constructs a timing wheel with the {@link #DEFAULT_TICK_DURATION} and {@link #DEFAULT_WHEEL_SIZE}.
+     *
+     * @param handler Handler of the thread the timers run on.
+     */
+    public TimingWheel(@NonNull final Handler handler) {
+        this(handler, DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Constructs a timing wheel.
+     *
+     * @param handler      Handler of the thread the timers run on.
+     * @param tickDuration Duration of a tick in milliseconds.
+     * @param wheelSize    Number of buckets, must be a power of two.
+     */
+    public TimingWheel(@NonNull final Handler handler, final long tickDuration, final int wheelSize) {
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("Tick duration must be greater than 0");
+        if (wheelSize <= 0 || (wheelSize & (wheelSize - 1)) != 0)
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        mHandler = handler;
+        mTickDuration = tickDuration;
+        mMask = wheelSize - 1;
+        mBuckets = new Timer[wheelSize + 1];
+        mExpired = wheelSize;
+    }
+
+    /**
+     * Returns the handler of the thread the timers run on.
+     */
+    @NonNull
+    public Handler getHandler() {
+        return mHandler;
+    }
+
+    /**
+     * Returns the number of timers scheduled.
+     */
+    public int getPendingCount() {
+        return mPending;
+    }
+
+    /**
+     * Schedules a timer, rescheduling it if it is already scheduled.
+     *
+     * @param timer Timer to schedule.
+     * @param delay Delay in milliseconds.
+     */
+    public void schedule(@NonNull final Timer timer, final long delay) {
+        schedule(timer, delay, SystemClock.uptimeMillis());
+    }
+
+    @VisibleForTesting
+    void schedule(@NonNull final Timer timer, final long delay, final long now) {
+        cancel(timer);
+        if (mPending == 0 && !mAdvancing) {
+            //Ticks are counted from the time the wheel was last started
+            mStartTime = now;
+            mTick = 0;
+        }
+        final long deadline = Math.max(mTick, (now - mStartTime + Math.max(0, delay) + mTickDuration - 1) / mTickDuration);
+        timer.mDeadline = deadline;
+        link(timer, (int) (deadline & mMask));
+        mPending++;
+        if (!mAdvancing) {
+            scheduleTick(deadline, now);
+        }
+    }
+
+    /**
+     * Cancels a timer, does nothing if the timer is not scheduled.
+     *
+     * @param timer Timer to cancel.
+     */
+    public void cancel(@NonNull final Timer timer) {
+        if (!timer.isScheduled())
+            return;
+        unlink(timer);
+        mPending--;
+        if (mPending == 0 && mTickScheduled) {
+            mTickScheduled = false;
+            mHandler.removeCallbacks(mTickRunnable);
+        }
+    }
+
+    /**
+     * Runs the timers that have expired up to the given time and schedules the next tick.
+     *
+     * @param now Current time in milliseconds.
+     */
+    @VisibleForTesting
+    void advance(final long now) {
+        final long due = (now - mStartTime) / mTickDuration;
+        mAdvancing = true;
+        try {
+            while (mPending > 0 && mTick <= due) {
+                Timer timer = mBuckets[(int) (mTick & mMask)];
+                while (timer != null) {
+                    final Timer next = timer.mNext;
+                    if (timer.mDeadline <= mTick) {
+                        unlink(timer);
+                        link(timer, mExpired);
+                    }
+                    timer = next;
+                }
+                mTick++;
+                //Expired timers are unlinked one at a time so that a task may cancel or reschedule the others
+                while ((timer = mBuckets[mExpired]) != null) {
+                    unlink(timer);
+                    mPending--;
+                    timer.mTask.run();
+                }
+            }
+        } finally {
+            mAdvancing = false;
+        }
+        if (mPending > 0) {
+            scheduleTick(nextTick(), now);
+        }
+    }
+
+    /**
+     * Returns the next tick with timers in its bucket, which may belong to a later revolution.
+     */
+    private long nextTick() {
+        for (long tick = mTick; tick <= mTick + mMask; tick++) {
+            if (mBuckets[(int) (tick & mMask)] != null)
+                return tick;
+        }
+        return mTick;
+    }
+
+    private void scheduleTick(final long tick, final long now) {
+        final long time = mStartTime + tick * mTickDuration;
+        if (mTickScheduled) {
+            if (time >= mNextTickTime)
+                return;
+            mHandler.removeCallbacks(mTickRunnable);
+        }
+        mTickScheduled = true;
+        mNextTickTime = time;
+        mHandler.postDelayed(mTickRunnable, Math.max(0, time - now));
+    }
+
+    private void link(@NonNull final Timer timer, final int bucket) {
+        final Timer head = mBuckets[bucket];
+        timer.mBucket = bucket;
+        timer.mPrev = null;
+        timer.mNext = head;
+        if (head != null) {
+            head.mPrev = timer;
+        }
+        mBuckets[bucket] = timer;
+    }
+
+    private void unlink(@NonNull final Timer timer) {
+        if (timer.mPrev != null) {
+            timer.mPrev.mNext = timer.mNext;
+        } else {
+            mBuckets[timer.mBucket] = timer.mNext;
+        }
+        if (timer.mNext != null) {
+            timer.mNext.mPrev = timer.mPrev;
+        }
+        timer.mPrev = null;
+        timer.mNext = null;
+        timer.mBucket = -1;
+    }
+}
@@ -0,0 +1,120 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.List;
+
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.MeshModel;
+import no.nordicsemi.android.mesh.transport.PublicationSettings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GroupMembershipIndexTest {
+
+    private MeshNetwork network;
+
+    @Before
+    public void setUp() throws IOException {
+        network = importNetwork();
+    }
+
+    private MeshNetwork importNetwork() throws IOException {
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/mesh_network.json"), "UTF-8")) {
+            return new ImportExportUtils().importNetwork(reader);
+        }
+    }
+
+    private MeshModel getModel(final int address, final int modelId) {
+        return network.getNode(address).getElements().get(address).getMeshModels().get(modelId);
+    }
+
+    @Test
+    public void members_are_looked_up_by_group_address() {
+        final List<MeshModel> models = network.getModels(network.getGroup(0xC001));
+        assertEquals(2, models.size());
+        assertSame(getModel(0x0002, 0x1000), models.get(0));
+        assertSame(network.getNode(0x0002).getElements().get(0x0003).getMeshModels().get(0x1000), models.get(1));
+
+        final List<Element> elements = network.getElements(network.getGroup(0xC000));
+        assertEquals(1, elements.size());
+        assertEquals(0x0002, elements.get(0).getElementAddress());
+        assertTrue(network.getModels(network.getGroup(0xC003)).isEmpty());
+    }
+
+    @Test
+    public void groups_with_publishing_models_are_in_use() {
+        assertTrue(network.isGroupInUse(network.getGroup(0xC000)));
+        //Only published to
+        assertTrue(network.isGroupInUse(network.getGroup(0xC002)));
+        assertFalse(network.isGroupInUse(network.getGroup(0xC003)));
+    }
+
+    @Test
+    public void groups_in_use_are_not_removed() {
+        assertFalse(network.removeGroup(network.getGroup(0xC002)));
+        assertNotNull(network.getGroup(0xC002));
+        assertTrue(network.removeGroup(network.getGroup(0xC003)));
+        assertNull(network.getGroup(0xC003));
+    }
+
+    @Test
+    public void index_of_a_network_is_rebuilt_once_invalidated() throws IOException {
+        final MeshNetwork other = importNetwork();
+        final Group group = network.getGroup(0xC003);
+        assertFalse(network.isGroupInUse(group));
+        assertFalse(other.isGroupInUse(other.getGroup(0xC003)));
+
+        getModel(0x0002, 0x1001).setPublicationSettings(new PublicationSettings(0xC003, 0, false, 0, 0));
+        network.invalidateGroupMembershipIndex();
+        assertTrue(network.isGroupInUse(group));
+        //The model publishes to the group without subscribing to it
+        assertTrue(network.getModels(group).isEmpty());
+        //The index of another network is not affected
+        assertFalse(other.isGroupInUse(other.getGroup(0xC003)));
+    }
+
+    @Test
+    public void publication_changes_update_the_index_in_place() {
+        final Group group = network.getGroup(0xC003);
+        assertFalse(network.isGroupInUse(group));
+
+        final MeshModel model = getModel(0x0002, 0x1001);
+        model.setPublicationSettings(new PublicationSettings(0xC003, 0, false, 0, 0));
+        network.updateGroupMembership(0x0002, 0x1001);
+        assertTrue(network.isGroupInUse(group));
+
+        model.setPublicationSettings(null);
+        network.updateGroupMembership(0x0002, 0x1001);
+        assertFalse(network.isGroupInUse(group));
+        //The other addresses are not affected
+        assertEquals(2, network.getModels(network.getGroup(0xC001)).size());
+        assertTrue(network.isGroupInUse(network.getGroup(0xC002)));
+    }
+
+    @Test
+    public void scenes_are_looked_up_by_node_address() {
+        final Scene scene = network.getScene(1);
+        assertEquals(1, network.getStoredScenes(0x0002).size());
+        assertSame(scene, network.getStoredScenes(0x0004).get(0));
+        assertTrue(network.getStoredScenes(0x0001).isEmpty());
+
+        assertTrue(scene.addAddress(0x0001));
+        network.getGroupMembershipIndex().onSceneStored(scene, 0x0001);
+        assertSame(scene, network.getStoredScenes(0x0001).get(0));
+
+        assertTrue(scene.removeAddress(0x0002));
+        network.getGroupMembershipIndex().onSceneDeleted(scene, 0x0002);
+        assertTrue(network.getStoredScenes(0x0002).isEmpty());
+        assertEquals(1, network.getStoredScenes(0x0004).size());
+    }
+}
@@ -0,0 +1,203 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.MeshModel;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImportExportUtilsTest {
+
+    private final ImportExportUtils importExportUtils = new ImportExportUtils();
+    private MeshNetwork network;
+
+    @Before
+    public void setUp() throws IOException {
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/mesh_network.json"), "UTF-8")) {
+            network = importExportUtils.importNetwork(reader);
+        }
+    }
+
+    @Test
+    public void imported_network_matches_the_database() {
+        assertEquals("Test Network", network.getMeshName());
+        assertEquals(2, network.getNetKeys().size());
+        assertEquals(3, network.getAppKeys().size());
+        assertEquals(1, network.getProvisioners().size());
+        assertEquals(3, network.getNodes().size());
+        assertEquals(4, network.getGroups().size());
+        assertEquals(1, network.getScenes().size());
+
+        final MeshModel model = getModel(network, 0x0002, 0x1000);
+        assertEquals(addresses(0xC000, 0xC001), model.getSubscribedAddresses());
+        assertEquals(0xC001, model.getPublicationSettings().getPublishAddress());
+        assertEquals(1, model.getPublicationSettings().getAppKeyIndex());
+        assertNull(getModel(network, 0x0002, 0x1001).getPublicationSettings());
+    }
+
+    @Test
+    public void exported_network_is_imported_unchanged() throws IOException {
+        final StringWriter writer = new StringWriter();
+        importExportUtils.export(writer, network, false);
+        final MeshNetwork imported = importExportUtils.importNetwork(writer.toString());
+
+        assertEquals(network.getMeshUUID(), imported.getMeshUUID());
+        assertEquals(network.getMeshName(), imported.getMeshName());
+        assertFalse(imported.isPartial());
+        assertEquals(network.getNetKeys().size(), imported.getNetKeys().size());
+        assertEquals(network.getAppKeys().size(), imported.getAppKeys().size());
+        assertEquals(network.getNodes().size(), imported.getNodes().size());
+        for (ProvisionedMeshNode node : network.getNodes()) {
+            final ProvisionedMeshNode importedNode = imported.getNode(node.getUnicastAddress());
+            assertNotNull(importedNode);
+            assertEquals(node.getUuid(), importedNode.getUuid());
+            assertArrayEquals(node.getDeviceKey(), importedNode.getDeviceKey());
+            assertEquals(node.getElements().keySet(), importedNode.getElements().keySet());
+            for (Element element : node.getElements().values()) {
+                final Element importedElement = importedNode.getElements().get(element.getElementAddress());
+                for (MeshModel model : element.getMeshModels().values()) {
+                    final MeshModel importedModel = importedElement.getMeshModels().get(model.getModelId());
+                    assertEquals(model.getBoundAppKeyIndexes(), importedModel.getBoundAppKeyIndexes());
+                    assertEquals(model.getSubscribedAddresses(), importedModel.getSubscribedAddresses());
+                    assertEquals(model.getPublicationSettings() == null, importedModel.getPublicationSettings() == null);
+                }
+            }
+        }
+        assertEquals(network.getGroups().size(), imported.getGroups().size());
+        assertEquals(network.getScenes().get(0).getAddresses(), imported.getScenes().get(0).getAddresses());
+    }
+
+    @Test
+    public void export_without_device_keys_keeps_the_keys_of_the_network() {
+        final MeshNetwork imported = importExportUtils.importNetwork(export(
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithoutDeviceKey().build(),
+                new GroupsConfig.ExportAll().build(),
+                new ScenesConfig.ExportAll().build()));
+        assertTrue(imported.isPartial());
+        //Device keys are exported as empty strings
+        assertEquals(0, imported.getNode(0x0002).getDeviceKey().length);
+        assertNotNull(network.getNode(0x0002).getDeviceKey());
+    }
+
+    @Test
+    public void export_some_groups_removes_the_other_group_addresses() {
+        final List<Group> groups = Collections.singletonList(network.getGroup(0xC000));
+        final MeshNetwork imported = importExportUtils.importNetwork(export(
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithDeviceKey().build(),
+                new GroupsConfig.ExportSome(groups).build(),
+                new ScenesConfig.ExportAll().build()));
+        assertEquals(1, imported.getGroups().size());
+        final MeshModel model = getModel(imported, 0x0002, 0x1000);
+        assertEquals(addresses(0xC000), model.getSubscribedAddresses());
+        assertNull(model.getPublicationSettings());
+        //The network itself is not modified
+        assertEquals(addresses(0xC000, 0xC001), getModel(network, 0x0002, 0x1000).getSubscribedAddresses());
+    }
+
+    @Test
+    public void related_groups_are_exported_once() {
+        final MeshNetwork imported = importExportUtils.importNetwork(export(
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithDeviceKey().build(),
+                new GroupsConfig.ExportRelated().build(),
+                new ScenesConfig.ExportAll().build()));
+        final List<Integer> groupAddresses = new ArrayList<>();
+        for (Group group : imported.getGroups()) {
+            groupAddresses.add(group.getAddress());
+        }
+        assertEquals(addresses(0xC000, 0xC001, 0xC002), groupAddresses);
+    }
+
+    @Test
+    public void excluded_application_keys_are_removed_from_models() {
+        final List<ApplicationKey> appKeys = Collections.singletonList(network.getAppKey(0));
+        final MeshNetwork imported = importExportUtils.importNetwork(export(
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportSome(appKeys).build(),
+                new NodesConfig.ExportWithDeviceKey().build(),
+                new GroupsConfig.ExportAll().build(),
+                new ScenesConfig.ExportAll().build()));
+        final MeshModel model = getModel(imported, 0x0002, 0x1000);
+        assertEquals(addresses(0), model.getBoundAppKeyIndexes());
+        //The publication used an excluded key
+        assertNull(model.getPublicationSettings());
+        //Models without a publication are exported as well
+        assertEquals(addresses(0), getModel(imported, 0x0002, 0x1001).getBoundAppKeyIndexes());
+    }
+
+    @Test
+    public void scenes_only_contain_exported_nodes() {
+        final List<NetworkKey> netKeys = Collections.singletonList(network.getNetKey(0));
+        final MeshNetwork imported = importExportUtils.importNetwork(export(
+                new NetworkKeysConfig.ExportSome(netKeys).build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithDeviceKey().build(),
+                new GroupsConfig.ExportAll().build(),
+                new ScenesConfig.ExportAll().build()));
+        assertNull(imported.getNode(0x0004));
+        assertEquals(addresses(0x0002), imported.getScenes().get(0).getAddresses());
+    }
+
+    @Test
+    public void partial_export_to_a_writer_matches_the_string() throws IOException {
+        final List<Group> groups = Collections.singletonList(network.getGroup(0xC000));
+        final StringWriter writer = new StringWriter();
+        importExportUtils.export(writer, network,
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithoutDeviceKey().build(),
+                new ProvisionersConfig.ExportAll().build(),
+                new GroupsConfig.ExportSome(groups).build(),
+                new ScenesConfig.ExportAll().build());
+        assertEquals(export(
+                new NetworkKeysConfig.ExportAll().build(),
+                new ApplicationKeysConfig.ExportAll().build(),
+                new NodesConfig.ExportWithoutDeviceKey().build(),
+                new GroupsConfig.ExportSome(groups).build(),
+                new ScenesConfig.ExportAll().build()), writer.toString());
+    }
+
+    private String export(final NetworkKeysConfig networkKeysConfig,
+                          final ApplicationKeysConfig applicationKeysConfig,
+                          final NodesConfig nodesConfig,
+                          final GroupsConfig groupsConfig,
+                          final ScenesConfig scenesConfig) {
+        final String json = importExportUtils.export(network, networkKeysConfig, applicationKeysConfig, nodesConfig,
+                new ProvisionersConfig.ExportAll().build(), groupsConfig, scenesConfig);
+        assertNotNull(json);
+        return json;
+    }
+
+    private static MeshModel getModel(final MeshNetwork network, final int address, final int modelId) {
+        return network.getNode(address).getElements().get(address).getMeshModels().get(modelId);
+    }
+
+    private static List<Integer> addresses(final Integer... addresses) {
+        final List<Integer> list = new ArrayList<>();
+        Collections.addAll(list, addresses);
+        return list;
+    }
+}
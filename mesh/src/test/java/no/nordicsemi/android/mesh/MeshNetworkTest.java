@@ -0,0 +1,135 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.List;
+
+import no.nordicsemi.android.mesh.transport.AccessMessage;
+import no.nordicsemi.android.mesh.transport.CompositionDataTemplate;
+import no.nordicsemi.android.mesh.transport.ConfigCompositionDataStatus;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MeshNetworkTest {
+
+    private MeshNetwork network;
+
+    @Before
+    public void setUp() throws IOException {
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/mesh_network.json"), "UTF-8")) {
+            network = new ImportExportUtils().importNetwork(reader);
+        }
+    }
+
+    private ProvisionedMeshNode addNode(final String uuid, final int unicastAddress) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUuid(uuid);
+        node.setUnicastAddress(unicastAddress);
+        network.nodes.add(node);
+        network.invalidateNodeAddressIndex();
+        return node;
+    }
+
+    private CompositionDataTemplate getTemplate() {
+        //The template is learned from the composition data received from the node 0x0002 in the network
+        final AccessMessage message = new AccessMessage();
+        message.setSrc(0x0002);
+        message.setAccessPdu(MeshParserUtils.toByteArray("0200" + "59000100020008000300" + "000002000010" + "0110" + "0000010000" + "10"));
+        new ConfigCompositionDataStatus(message);
+        final CompositionDataTemplate template = network.getCompositionDataTemplate(0x0059, 0x0001, 0x0002);
+        assertNotNull(template);
+        return template;
+    }
+
+    @Test
+    public void composition_data_is_set_from_a_template() {
+        final ProvisionedMeshNode node = addNode("C1C2C3C4-C5C6-C7C8-C9CA-CBCCCDCECF00", 0x0010);
+        assertTrue(network.setCompositionData(node, getTemplate()));
+        assertEquals(2, node.getElements().size());
+        assertSame(node, network.getNode(0x0011));
+        assertEquals(Integer.valueOf(0x0059), node.getCompanyIdentifier());
+
+        //The node already has its elements
+        assertFalse(network.setCompositionData(node, getTemplate()));
+    }
+
+    @Test
+    public void template_of_other_firmware_is_rejected() {
+        final ProvisionedMeshNode node = addNode("C1C2C3C4-C5C6-C7C8-C9CA-CBCCCDCECF00", 0x0010);
+        node.setCompanyIdentifier(0x0060);
+        try {
+            network.setCompositionData(node, getTemplate());
+            fail("The template of another company must be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertTrue(node.getElements().isEmpty());
+    }
+
+    @Test
+    public void template_overlapping_another_node_is_rejected() {
+        final ProvisionedMeshNode node = addNode("C1C2C3C4-C5C6-C7C8-C9CA-CBCCCDCECF00", 0x0010);
+        addNode("D1D2D3D4-D5D6-D7D8-D9DA-DBDCDDDEDF00", 0x0011);
+        try {
+            network.setCompositionData(node, getTemplate());
+            fail("The elements of the template must not overlap with another node");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertTrue(node.getElements().isEmpty());
+    }
+
+    @Test
+    public void reserved_unicast_addresses_are_not_reserved_twice() {
+        final Provisioner provisioner = network.getProvisioners().get(0);
+        //0x0002 to 0x0004 are used by the elements of the nodes in the network
+        final int first = network.reserveUnicastAddress(2, provisioner);
+        assertEquals(0x0005, first);
+        final int second = network.reserveUnicastAddress(2, provisioner);
+        assertEquals(0x0007, second);
+
+        network.releaseUnicastAddress(first);
+        assertEquals(0x0005, network.reserveUnicastAddress(2, provisioner));
+    }
+
+    @Test
+    public void addresses_of_a_provisioned_node_stay_in_use_when_released() {
+        final Provisioner provisioner = network.getProvisioners().get(0);
+        final int address = network.reserveUnicastAddress(2, provisioner);
+        final ProvisionedMeshNode node = addNode("C1C2C3C4-C5C6-C7C8-C9CA-CBCCCDCECF00", address);
+        assertTrue(network.setCompositionData(node, getTemplate()));
+        network.releaseUnicastAddress(address);
+        assertEquals(address + 2, network.reserveUnicastAddress(2, provisioner));
+    }
+
+    @Test
+    public void nodes_and_scene_addresses_can_be_read_while_they_change() {
+        int count = 0;
+        for (ProvisionedMeshNode node : network.getNodes()) {
+            //Nodes are removed on the transport thread when they are reset
+            assertTrue(network.deleteNode(node));
+            count++;
+        }
+        assertEquals(3, count);
+        assertTrue(network.getNodes().isEmpty());
+        assertFalse(network.getNetworkExclusions().isEmpty());
+
+        final Scene scene = network.getScenes().get(0);
+        final List<Integer> addresses = scene.getAddresses();
+        assertFalse(scene.addAddress(0x0002));
+        assertTrue(scene.removeAddress(0x0002));
+        assertFalse(scene.removeAddress(0x0002));
+        //Addresses read before are not changed
+        assertTrue(addresses.contains(0x0002));
+        assertFalse(scene.getAddresses().contains(0x0002));
+    }
+}
@@ -0,0 +1,70 @@
+package no.nordicsemi.android.mesh;
+
+import android.os.Handler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkWriteCoalescerTest {
+
+    private final List<MeshNetwork> writtenNetworks = new ArrayList<>();
+    private final List<Integer> writtenEntities = new ArrayList<>();
+    private final NetworkWriteCoalescer coalescer = new NetworkWriteCoalescer(new Handler(), NetworkWriteCoalescer.DEFAULT_WINDOW,
+            (network, changes) -> {
+                writtenNetworks.add(network);
+                writtenEntities.add(changes.getEntities());
+            });
+
+    @Test
+    public void changes_within_the_window_are_written_together() {
+        final MeshNetwork network = new MeshNetwork("network");
+        network.markDirty(NetworkChanges.NETWORK);
+        coalescer.schedule(network);
+        network.markDirty(NetworkChanges.GROUPS);
+        coalescer.schedule(network);
+        assertTrue(writtenNetworks.isEmpty());
+
+        coalescer.flush();
+        assertEquals(1, writtenNetworks.size());
+        assertSame(network, writtenNetworks.get(0));
+        assertEquals(NetworkChanges.NETWORK | NetworkChanges.GROUPS, (int) writtenEntities.get(0));
+
+        //Nothing is left to be written
+        coalescer.flush();
+        assertEquals(1, writtenNetworks.size());
+    }
+
+    @Test
+    public void changes_of_the_previous_network_are_written_when_the_network_changes() {
+        final MeshNetwork first = new MeshNetwork("first");
+        final MeshNetwork second = new MeshNetwork("second");
+        first.markDirty(NetworkChanges.NETWORK);
+        coalescer.schedule(first);
+        second.markDirty(NetworkChanges.SCENES);
+        coalescer.schedule(second);
+        assertEquals(1, writtenNetworks.size());
+        assertSame(first, writtenNetworks.get(0));
+
+        coalescer.flush();
+        assertEquals(2, writtenNetworks.size());
+        assertSame(second, writtenNetworks.get(1));
+        assertEquals(NetworkChanges.SCENES, (int) writtenEntities.get(1));
+    }
+
+    @Test
+    public void cancel_discards_pending_changes() {
+        final MeshNetwork network = new MeshNetwork("network");
+        network.markDirty(NetworkChanges.NETWORK);
+        coalescer.schedule(network);
+        coalescer.cancel();
+        coalescer.flush();
+        assertTrue(writtenNetworks.isEmpty());
+        assertTrue(network.takePendingChanges().isEmpty());
+    }
+}
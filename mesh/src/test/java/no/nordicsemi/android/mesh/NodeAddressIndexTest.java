@@ -0,0 +1,106 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class NodeAddressIndexTest {
+
+    private final NodeAddressIndex index = new NodeAddressIndex();
+    private final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+
+    private static ProvisionedMeshNode node(final int unicastAddress, final int elementCount) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUnicastAddress(unicastAddress);
+        setElementCount(node, elementCount);
+        return node;
+    }
+
+    private static void setElementCount(final ProvisionedMeshNode node, final int elementCount) {
+        //Only the number of elements is used to compute the address range of a node
+        final Map<Integer, Element> elements = new LinkedHashMap<>();
+        for (int i = 0; i < elementCount; i++) {
+            elements.put(node.getUnicastAddress() + i, null);
+        }
+        node.setElements(elements);
+    }
+
+    @Test
+    public void nodes_are_found_by_any_of_their_element_addresses() {
+        final ProvisionedMeshNode first = node(0x0010, 3);
+        final ProvisionedMeshNode second = node(0x0001, 1);
+        final ProvisionedMeshNode third = node(0x0020, 2);
+        nodes.add(first);
+        nodes.add(second);
+        nodes.add(third);
+
+        assertSame(second, index.get(nodes, 0x0001));
+        assertNull(index.get(nodes, 0x0002));
+        assertSame(first, index.get(nodes, 0x0010));
+        assertSame(first, index.get(nodes, 0x0012));
+        assertNull(index.get(nodes, 0x0013));
+        assertSame(third, index.get(nodes, 0x0021));
+        assertNull(index.get(nodes, 0x0022));
+        assertNull(index.get(nodes, 0x0000));
+    }
+
+    @Test
+    public void invalidation_picks_up_changes() {
+        final ProvisionedMeshNode first = node(0x0001, 2);
+        nodes.add(first);
+        assertSame(first, index.get(nodes, 0x0002));
+
+        nodes.remove(first);
+        final ProvisionedMeshNode second = node(0x0002, 1);
+        nodes.add(second);
+        index.invalidate();
+        assertNull(index.get(nodes, 0x0001));
+        assertSame(second, index.get(nodes, 0x0002));
+
+        setElementCount(second, 4);
+        index.invalidate();
+        assertSame(second, index.get(nodes, 0x0005));
+    }
+
+    @Test
+    public void index_heals_changes_it_was_not_invalidated_for() {
+        final ProvisionedMeshNode first = node(0x0001, 2);
+        nodes.add(first);
+        assertSame(first, index.get(nodes, 0x0001));
+
+        //A node added without invalidating the index
+        final ProvisionedMeshNode second = node(0x0003, 1);
+        nodes.add(second);
+        assertSame(second, index.get(nodes, 0x0003));
+
+        //An address changed without invalidating the index
+        first.setUnicastAddress(0x0010);
+        setElementCount(first, 2);
+        assertNull(index.get(nodes, 0x0001));
+        assertSame(first, index.get(nodes, 0x0011));
+    }
+
+    @Test
+    public void overlapping_ranges_are_resolved() {
+        //Conflicting nodes, as may be found in an imported network
+        final ProvisionedMeshNode wide = node(0x0001, 8);
+        final ProvisionedMeshNode narrow = node(0x0003, 1);
+        nodes.add(wide);
+        nodes.add(narrow);
+
+        assertSame(wide, index.get(nodes, 0x0002));
+        assertSame(narrow, index.get(nodes, 0x0003));
+        assertSame(wide, index.get(nodes, 0x0004));
+        assertSame(wide, index.get(nodes, 0x0008));
+        assertNull(index.get(nodes, 0x0009));
+    }
+}
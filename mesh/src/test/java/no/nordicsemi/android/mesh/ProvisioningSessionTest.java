@@ -0,0 +1,70 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import no.nordicsemi.android.mesh.provisionerstates.UnprovisionedMeshNode;
+import no.nordicsemi.android.mesh.utils.MeshAddress;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ProvisioningSessionTest {
+
+    private final MeshManagerApi meshManagerApi = mock(MeshManagerApi.class);
+    private final MeshProvisioningHandler provisioningHandler = mock(MeshProvisioningHandler.class);
+    private final UnprovisionedMeshNode node = new UnprovisionedMeshNode(UUID.randomUUID());
+    private ProvisioningSession session;
+
+    @Before
+    public void setUp() throws IOException {
+        final MeshNetwork network;
+        try (Reader reader = new InputStreamReader(getClass().getResourceAsStream("/mesh_network.json"), "UTF-8")) {
+            network = new ImportExportUtils().importNetwork(reader);
+        }
+        network.selectProvisioner(network.getProvisioners().get(0));
+        when(meshManagerApi.getMeshNetwork()).thenReturn(network);
+        doAnswer(invocation -> ((Callable<?>) invocation.getArgument(0)).call()).when(meshManagerApi).callOnTransportThread(any());
+        when(provisioningHandler.getMeshNode()).thenReturn(node);
+        session = new ProvisioningSession(meshManagerApi, provisioningHandler, 20);
+    }
+
+    @Test
+    public void session_awaits_key_pair_until_provisioning_starts() {
+        assertTrue(session.isAwaitingKeyPair());
+        session.startProvisioning();
+        assertFalse(session.isAwaitingKeyPair());
+        verify(provisioningHandler).startProvisioningNoOOB(node);
+        assertTrue(MeshAddress.isValidUnicastAddress(node.getUnicastAddress()));
+    }
+
+    @Test
+    public void closed_session_is_removed_and_cannot_be_started() {
+        session.close();
+        verify(meshManagerApi).onProvisioningSessionClosed(session);
+        try {
+            session.startProvisioning();
+            fail("A closed session must not be started");
+        } catch (IllegalArgumentException expected) {
+        }
+        verify(provisioningHandler, never()).startProvisioningNoOOB(any());
+
+        //Closing again has no effect
+        session.close();
+        verify(meshManagerApi).onProvisioningSessionClosed(session);
+    }
+}
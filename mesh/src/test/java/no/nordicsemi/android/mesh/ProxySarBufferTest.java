@@ -0,0 +1,80 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProxySarBufferTest {
+
+    private static List<byte[]> segment(final int mtuSize, final byte[] pdu) {
+        final List<byte[]> segments = new ArrayList<>();
+        final int payloadSize = mtuSize - 1;
+        int offset = 1;
+        while (offset < pdu.length) {
+            final int length = Math.min(payloadSize, pdu.length - offset);
+            final int sar = offset == 1 ? 0b01 : offset + length == pdu.length ? 0b11 : 0b10;
+            final byte[] segment = new byte[length + 1];
+            segment[0] = (byte) ((sar << 6) | pdu[0]);
+            System.arraycopy(pdu, offset, segment, 1, length);
+            segments.add(segment);
+            offset += length;
+        }
+        return segments;
+    }
+
+    private static byte[] pdu(final int type, final int length) {
+        final byte[] pdu = new byte[length];
+        pdu[0] = (byte) type;
+        for (int i = 1; i < length; i++) {
+            pdu[i] = (byte) i;
+        }
+        return pdu;
+    }
+
+    @Test
+    public void reassembles_segments_beyond_initial_capacity() {
+        final int mtuSize = 20;
+        final byte[] pdu = pdu(0x03, 200);
+        final ProxySarBuffer buffer = new ProxySarBuffer(mtuSize);
+        final List<byte[]> segments = segment(mtuSize, pdu);
+        for (int i = 0; i < segments.size() - 1; i++) {
+            assertNull(buffer.append(mtuSize, segments.get(i)));
+        }
+        assertTrue(Arrays.equals(pdu, buffer.append(mtuSize, segments.get(segments.size() - 1))));
+    }
+
+    @Test
+    public void buffer_is_reused_after_completion() {
+        final int mtuSize = 20;
+        final ProxySarBuffer buffer = new ProxySarBuffer(mtuSize);
+        byte[] result = null;
+        for (byte[] segment : segment(mtuSize, pdu(0x02, 50))) {
+            result = buffer.append(mtuSize, segment);
+        }
+        assertEquals(50, result.length);
+
+        final byte[] pdu = pdu(0x02, 30);
+        for (byte[] segment : segment(mtuSize, pdu)) {
+            result = buffer.append(mtuSize, segment);
+        }
+        assertTrue(Arrays.equals(pdu, result));
+    }
+
+    @Test
+    public void segments_without_start_are_dropped() {
+        final int mtuSize = 20;
+        final ProxySarBuffer buffer = new ProxySarBuffer(mtuSize);
+        final List<byte[]> segments = segment(mtuSize, pdu(0x00, 60));
+        assertNull(buffer.append(mtuSize, segments.get(0)));
+        buffer.reset();
+        for (int i = 1; i < segments.size(); i++) {
+            assertNull(buffer.append(mtuSize, segments.get(i)));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import no.nordicsemi.android.mesh.transport.ReplayProtectionList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReplayProtectionStoreTest {
+
+    private static final int RECORD_LENGTH = 10;
+    private File directory;
+    private ReplayProtectionStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rpl").toFile();
+        store = new ReplayProtectionStore(directory);
+    }
+
+    @After
+    public void tearDown() {
+        store.detach();
+        delete(directory);
+    }
+
+    private static void delete(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    private static byte[] records(final int count, final int src) {
+        final byte[] records = new byte[count * RECORD_LENGTH];
+        for (int i = 0; i < count; i++) {
+            ReplayProtectionStore.writeRecord(records, i * RECORD_LENGTH, src, 0, i);
+        }
+        return records;
+    }
+
+    private File writeFile(final MeshNetwork network, final byte[] data) throws IOException {
+        final File file = new File(new File(directory, "rpl"), network.getMeshUUID() + ".rpl");
+        assertTrue(file.getParentFile().mkdirs());
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(data);
+        }
+        return file;
+    }
+
+    private ReplayProtectionList readFile(final File file) throws IOException {
+        final ReplayProtectionList list = new ReplayProtectionList();
+        try (InputStream inputStream = new FileInputStream(file)) {
+            ReplayProtectionStore.readRecords(inputStream, list);
+        }
+        return list;
+    }
+
+    /**
+     * Attaching another network waits for the records of the previous network to be written.
+     */
+    private void awaitWrites() {
+        store.attach(new MeshNetwork("FFFFFFFF-FFFF-FFFF-FFFF-FFFFFFFFFFFF"));
+    }
+
+    @Test
+    public void truncated_record_at_the_end_is_ignored() throws IOException {
+        final byte[] data = new byte[2 * RECORD_LENGTH + 4];
+        ReplayProtectionStore.writeRecord(data, 0, 0x0002, 1, 10);
+        ReplayProtectionStore.writeRecord(data, RECORD_LENGTH, 0x0003, 1, 20);
+        data[2 * RECORD_LENGTH] = 0x00;
+        data[2 * RECORD_LENGTH + 1] = 0x04;
+
+        final ReplayProtectionList list = new ReplayProtectionList();
+        assertEquals(2, ReplayProtectionStore.readRecords(new ByteArrayInputStream(data), list));
+        assertEquals(2, list.size());
+        assertEquals(10, list.getSequenceNumber(0x0002));
+        assertEquals(20, list.getSequenceNumber(0x0003));
+        assertEquals(-1, list.getSequenceNumber(0x0004));
+    }
+
+    @Test
+    public void records_with_an_invalid_source_address_are_ignored() throws IOException {
+        final byte[] data = new byte[2 * RECORD_LENGTH];
+        ReplayProtectionStore.writeRecord(data, 0, 0x0000, 1, 10);
+        ReplayProtectionStore.writeRecord(data, RECORD_LENGTH, 0xC000, 1, 20);
+
+        final ReplayProtectionList list = new ReplayProtectionList();
+        assertEquals(2, ReplayProtectionStore.readRecords(new ByteArrayInputStream(data), list));
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    public void latest_record_of_a_source_address_wins() throws IOException {
+        final ReplayProtectionList list = new ReplayProtectionList();
+        assertEquals(3, ReplayProtectionStore.readRecords(new ByteArrayInputStream(records(3, 0x0002)), list));
+        assertEquals(1, list.size());
+        assertEquals(2, list.getSequenceNumber(0x0002));
+    }
+
+    @Test
+    public void records_are_appended_after_a_truncated_record() throws IOException {
+        final MeshNetwork network = new MeshNetwork("6D7A9C7C-A2B3-4E29-A5F0-4D3C0E5C4B11");
+        final byte[] data = new byte[RECORD_LENGTH + 3];
+        ReplayProtectionStore.writeRecord(data, 0, 0x0002, 1, 10);
+        final File file = writeFile(network, data);
+
+        store.attach(network);
+        final ReplayProtectionList list = network.getReplayProtectionList();
+        assertEquals(10, list.getSequenceNumber(0x0002));
+        assertTrue(list.accept(0x0003, 1, 5));
+        awaitWrites();
+
+        assertEquals(2 * RECORD_LENGTH, file.length());
+        final ReplayProtectionList restored = readFile(file);
+        assertEquals(10, restored.getSequenceNumber(0x0002));
+        assertEquals(5, restored.getSequenceNumber(0x0003));
+    }
+
+    @Test
+    public void file_is_compacted_when_loaded() throws IOException {
+        final MeshNetwork network = new MeshNetwork("6D7A9C7C-A2B3-4E29-A5F0-4D3C0E5C4B11");
+        //The file holds well over the compaction threshold of records for a single source address, and a truncated record
+        final byte[] records = records(2000, 0x0002);
+        final byte[] data = new byte[records.length + 5];
+        System.arraycopy(records, 0, data, 0, records.length);
+        final File file = writeFile(network, data);
+
+        store.attach(network);
+        assertEquals(1999, network.getReplayProtectionList().getSequenceNumber(0x0002));
+        assertEquals(RECORD_LENGTH, file.length());
+        assertEquals(1999, readFile(file).getSequenceNumber(0x0002));
+
+        //Pdus accepted after compaction are appended to the compacted file
+        assertTrue(network.getReplayProtectionList().accept(0x0002, 0, 2000));
+        awaitWrites();
+        assertEquals(2 * RECORD_LENGTH, file.length());
+        assertEquals(2000, readFile(file).getSequenceNumber(0x0002));
+    }
+}
@@ -0,0 +1,120 @@
+package no.nordicsemi.android.mesh;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransportExecutorTest {
+
+    private Thread transportThread;
+    private ExecutorService service;
+    private TransportExecutor executor;
+
+    @Before
+    public void setUp() {
+        service = Executors.newSingleThreadExecutor(runnable -> transportThread = new Thread(runnable, "MeshTransport"));
+        executor = new TransportExecutor() {
+            @Override
+            boolean isTransportThread() {
+                return Thread.currentThread() == transportThread;
+            }
+
+            @Override
+            void post(@NonNull final Runnable task) {
+                service.execute(task);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        service.shutdownNow();
+        service.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void tasks_are_handed_over_to_the_transport_thread_in_order() throws InterruptedException {
+        final List<Integer> order = new ArrayList<>();
+        final List<Thread> threads = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            final int task = i;
+            executor.execute(() -> {
+                order.add(task);
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(3, order.size());
+        assertEquals(0, (int) order.get(0));
+        assertEquals(1, (int) order.get(1));
+        assertEquals(2, (int) order.get(2));
+        for (Thread thread : threads) {
+            assertSame(transportThread, thread);
+        }
+    }
+
+    @Test
+    public void tasks_submitted_on_the_transport_thread_run_immediately() {
+        final boolean ranImmediately = executor.call(() -> {
+            final boolean[] ran = new boolean[1];
+            executor.execute(() -> ran[0] = true);
+            //Waiting for the transport thread on the transport thread must not block
+            final Thread thread = executor.call(Thread::currentThread);
+            return ran[0] && thread == transportThread;
+        });
+        assertTrue(ranImmediately);
+    }
+
+    @Test
+    public void call_returns_the_result_of_the_transport_thread() {
+        final Thread thread = executor.call(Thread::currentThread);
+        assertNotSame(Thread.currentThread(), thread);
+        assertSame(transportThread, thread);
+    }
+
+    @Test
+    public void runtime_exceptions_are_rethrown_to_the_caller() {
+        final IllegalArgumentException exception = new IllegalArgumentException("Opcode is already handled by the library");
+        try {
+            executor.call(() -> {
+                throw exception;
+            });
+            fail("The exception thrown on the transport thread must reach the caller");
+        } catch (IllegalArgumentException ex) {
+            assertSame(exception, ex);
+        }
+        //The transport thread keeps running
+        assertSame(transportThread, executor.call(Thread::currentThread));
+    }
+
+    @Test
+    public void checked_exceptions_are_wrapped() {
+        final IOException exception = new IOException();
+        try {
+            executor.call(() -> {
+                throw exception;
+            });
+            fail("The exception thrown on the transport thread must reach the caller");
+        } catch (IllegalStateException ex) {
+            assertSame(exception, ex.getCause());
+        }
+    }
+}
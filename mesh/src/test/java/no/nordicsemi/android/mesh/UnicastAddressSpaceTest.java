@@ -0,0 +1,83 @@
+package no.nordicsemi.android.mesh;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import no.nordicsemi.android.mesh.transport.Element;
+import no.nordicsemi.android.mesh.transport.ProvisionedMeshNode;
+
+import static org.junit.Assert.assertEquals;
+
+public class UnicastAddressSpaceTest {
+
+    private final UnicastAddressSpace addressSpace = new UnicastAddressSpace();
+
+    @Test
+    public void first_fit_skips_used_addresses() {
+        addressSpace.validate(Collections.emptyList(), Collections.emptyMap(), 0, null);
+        addressSpace.markUsed(0x0001, 3);
+        addressSpace.markUsed(0x0006, 1);
+        assertEquals(0x0004, addressSpace.firstFit(0x0001, 0x7FFF, 2));
+        assertEquals(0x0007, addressSpace.firstFit(0x0001, 0x7FFF, 3));
+        assertEquals(-1, addressSpace.firstFit(0x0001, 0x0008, 3));
+
+        addressSpace.markFree(0x0006);
+        assertEquals(0x0004, addressSpace.firstFit(0x0001, 0x0008, 3));
+    }
+
+    @Test
+    public void exclusions_of_current_and_previous_iv_index_are_in_use() {
+        final Map<Integer, ArrayList<Integer>> exclusions = new HashMap<>();
+        exclusions.put(3, new ArrayList<>(Arrays.asList(0x0001, 0x0002)));
+        exclusions.put(4, new ArrayList<>(Collections.singletonList(0x0003)));
+        addressSpace.validate(Collections.emptyList(), exclusions, 4, null);
+        assertEquals(0x0004, addressSpace.firstFit(0x0001, 0x7FFF, 1));
+
+        //Exclusions older than the previous IV Index are released once the IV Index changes
+        addressSpace.validate(Collections.emptyList(), exclusions, 5, null);
+        assertEquals(0x0001, addressSpace.firstFit(0x0001, 0x7FFF, 2));
+    }
+
+    @Test
+    public void reservations_are_in_use() {
+        final Map<Integer, Integer> reservations = new HashMap<>();
+        reservations.put(0x0001, 4);
+        addressSpace.validate(Collections.emptyList(), Collections.emptyMap(), 0, reservations);
+        assertEquals(0x0005, addressSpace.firstFit(0x0001, 0x7FFF, 1));
+    }
+
+    private static ProvisionedMeshNode node(final int unicastAddress, final int elementCount) {
+        final ProvisionedMeshNode node = new ProvisionedMeshNode();
+        node.setUnicastAddress(unicastAddress);
+        final Map<Integer, Element> elements = new LinkedHashMap<>();
+        for (int i = 0; i < elementCount; i++) {
+            elements.put(unicastAddress + i, null);
+        }
+        node.setElements(elements);
+        return node;
+    }
+
+    @Test
+    public void addresses_of_all_elements_of_a_node_are_in_use() {
+        final List<ProvisionedMeshNode> nodes = new ArrayList<>();
+        nodes.add(node(0x0001, 0));
+        nodes.add(node(0x0002, 3));
+        addressSpace.validate(nodes, Collections.emptyMap(), 0, null);
+        assertEquals(0x0005, addressSpace.firstFit(0x0001, 0x7FFF, 1));
+
+        //The bitmap is rebuilt once invalidated
+        nodes.remove(1);
+        addressSpace.validate(nodes, Collections.emptyMap(), 0, null);
+        assertEquals(0x0005, addressSpace.firstFit(0x0001, 0x7FFF, 1));
+        addressSpace.invalidate();
+        addressSpace.validate(nodes, Collections.emptyMap(), 0, null);
+        assertEquals(0x0002, addressSpace.firstFit(0x0001, 0x7FFF, 1));
+    }
+}
@@ -0,0 +1,63 @@
+package no.nordicsemi.android.mesh.provisionerstates;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.Security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+
+public class ProvisioningKeyPairPoolTest {
+
+    private final ProvisioningKeyPairPool pool = new ProvisioningKeyPairPool();
+
+    @Before
+    public void setUp() {
+        Security.addProvider(new org.spongycastle.jce.provider.BouncyCastleProvider());
+    }
+
+    private void awaitAvailable(final int count) throws InterruptedException {
+        for (int i = 0; i < 500 && pool.getAvailableCount() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, pool.getAvailableCount());
+    }
+
+    @Test
+    public void key_pairs_are_generated_in_advance_and_handed_out_once() throws Exception {
+        pool.prepare(2);
+        awaitAvailable(2);
+        //Key pairs that are available are not generated again
+        pool.prepare(2);
+        pool.prepare(1);
+
+        final KeyPair first = pool.obtain();
+        final KeyPair second = pool.obtain();
+        assertNotSame(first, second);
+        assertFalse(first.getPublic().equals(second.getPublic()));
+        assertEquals(0, pool.getAvailableCount());
+    }
+
+    @Test
+    public void key_pair_is_generated_when_none_is_available() throws GeneralSecurityException {
+        assertNotNull(pool.obtain());
+        assertEquals(0, pool.getAvailableCount());
+    }
+
+    @Test
+    public void clear_discards_the_key_pairs_generated_in_advance() throws Exception {
+        pool.prepare(2);
+        awaitAvailable(2);
+        pool.clear();
+        assertEquals(0, pool.getAvailableCount());
+
+        //Key pairs are generated again for the next sessions
+        pool.prepare(1);
+        awaitAvailable(1);
+    }
+}
@@ -0,0 +1,42 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompositionDataTemplateTest {
+
+    //Page 0 of a node with a Configuration Server and a Generic OnOff Server in the first element and a vendor model in the second
+    private static final byte[] PAGE = MeshParserUtils.toByteArray("00590001000200080300" + "0000020000000010" + "0000000159000A00");
+
+    @Test
+    public void nodes_with_the_same_firmware_share_the_template() {
+        final CompositionDataTemplate template = CompositionDataTemplate.obtain(PAGE, 0);
+        assertSame(template, CompositionDataTemplate.obtain(PAGE.clone(), 0));
+        assertSame(template, CompositionDataTemplate.find(0x5900, 0x0100, 0x0200));
+        assertEquals(2, template.getElementCount());
+        assertTrue(template.isRelayFeatureSupported());
+        assertTrue(template.isProxyFeatureSupported());
+        assertFalse(template.isLowPowerFeatureSupported());
+    }
+
+    @Test
+    public void elements_are_created_for_each_node() {
+        final CompositionDataTemplate template = CompositionDataTemplate.obtain(PAGE, 0);
+        final Map<Integer, Element> first = template.createElements(0x0002);
+        final Map<Integer, Element> second = template.createElements(0x0010);
+        assertEquals(2, first.get(0x0002).getMeshModels().size());
+        assertNotNull(first.get(0x0003).getMeshModels().get(0x0059000A));
+        assertNotNull(second.get(0x0011));
+        assertNotSame(first.get(0x0002).getMeshModels().get(0x1000), second.get(0x0010).getMeshModels().get(0x1000));
+    }
+}
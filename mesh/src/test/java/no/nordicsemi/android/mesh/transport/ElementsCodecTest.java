@@ -0,0 +1,90 @@
+package no.nordicsemi.android.mesh.transport;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import no.nordicsemi.android.mesh.Features;
+import no.nordicsemi.android.mesh.MeshTypeConverters;
+import no.nordicsemi.android.mesh.models.ConfigurationServerModel;
+import no.nordicsemi.android.mesh.models.VendorModel;
+import no.nordicsemi.android.mesh.utils.HeartbeatPublication;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ElementsCodecTest {
+
+    //Page 0 of a node with a Configuration Server and a Generic OnOff Server in the first element and a vendor model in the second
+    private static final byte[] PAGE = MeshParserUtils.toByteArray("00590001000200080300" + "0000020000000010" + "0000000159000A00");
+    private static final UUID LABEL = UUID.fromString("0073e7e4-d8b9-440f-af84-15df4c56c0e1");
+
+    private Map<Integer, Element> createElements() {
+        final Map<Integer, Element> elements = CompositionDataTemplate.obtain(PAGE, 0).createElements(0x0002);
+        final MeshModel onOffServer = elements.get(0x0002).getMeshModels().get(0x1000);
+        onOffServer.mBoundAppKeyIndexes.add(1);
+        onOffServer.subscriptionAddresses.add(0xC000);
+        onOffServer.labelUuids.add(LABEL);
+        onOffServer.mPublicationSettings = new PublicationSettings(0xC001, 1, false, 5, 2, 1, 3, 4);
+        final ConfigurationServerModel configurationServer = (ConfigurationServerModel) elements.get(0x0002).getMeshModels().get(0x0000);
+        configurationServer.setHeartbeatPublication(new HeartbeatPublication(0x0001, (byte) 2, (byte) 3, 5,
+                new Features(Features.UNSUPPORTED, Features.UNSUPPORTED, Features.ENABLED, Features.ENABLED), 0));
+        return elements;
+    }
+
+    @Test
+    public void elements_round_trip() {
+        final Map<Integer, Element> elements = ElementsCodec.decode(ElementsCodec.encode(createElements()));
+        assertNotNull(elements);
+        assertEquals(2, elements.size());
+        final MeshModel onOffServer = elements.get(0x0002).getMeshModels().get(0x1000);
+        assertEquals(1, (int) onOffServer.getBoundAppKeyIndexes().get(0));
+        assertEquals(0xC000, (int) onOffServer.getSubscribedAddresses().get(0));
+        assertEquals(LABEL, onOffServer.getLabelUUID().get(0));
+        assertEquals(0xC001, onOffServer.getPublicationSettings().getPublishAddress());
+        assertEquals(5, onOffServer.getPublicationSettings().getPublishTtl());
+        assertEquals(4, onOffServer.getPublicationSettings().getPublishRetransmitIntervalSteps());
+        final HeartbeatPublication publication = ((ConfigurationServerModel) elements.get(0x0002).getMeshModels().get(0x0000))
+                .getHeartbeatPublication();
+        assertEquals(0x0001, publication.getDst());
+        assertEquals(Features.ENABLED, publication.getFeatures().getRelay());
+        assertTrue(elements.get(0x0003).getMeshModels().get(0x0059000A) instanceof VendorModel);
+    }
+
+    @Test
+    public void elements_stored_as_json_are_decoded() {
+        //The elements were stored as json by the previous type converter
+        final String json = new Gson().toJson(createElements());
+        final Map<Integer, Element> elements = new MeshTypeConverters().fromJsonToElements(json);
+        assertEquals(2, elements.size());
+        final MeshModel onOffServer = elements.get(0x0002).getMeshModels().get(0x1000);
+        assertEquals(1, (int) onOffServer.getBoundAppKeyIndexes().get(0));
+        assertEquals(0xC000, (int) onOffServer.getSubscribedAddresses().get(0));
+        assertEquals(LABEL, onOffServer.getLabelUUID().get(0));
+        assertEquals(0xC001, onOffServer.getPublicationSettings().getPublishAddress());
+        assertEquals(5, onOffServer.getPublicationSettings().getPublishTtl());
+        assertTrue(elements.get(0x0003).getMeshModels().get(0x0059000A) instanceof VendorModel);
+
+        //The elements are written in the binary form once decoded
+        final String encoded = MeshTypeConverters.elementsToJson(elements);
+        assertFalse(encoded.startsWith("{"));
+        assertEquals(0xC000, (int) ElementsCodec.decode(encoded).get(0x0002).getMeshModels().get(0x1000).getSubscribedAddresses().get(0));
+    }
+
+    @Test
+    public void unaccessed_elements_are_not_decoded() {
+        final String encoded = ElementsCodec.encode(createElements());
+        final Map<Integer, Element> elements = ElementsCodec.decode(encoded);
+        assertEquals(2, elements.size());
+        assertSame(encoded, ElementsCodec.encode(elements));
+        elements.get(0x0002);
+        assertEquals(encoded, ElementsCodec.encode(elements));
+    }
+}
@@ -153,4 +153,65 @@ public class LowerTransportLayerTests {
         final SparseArray<byte[]> actualTransportAccessPdu = controlMessage.getLowerTransportControlPdu();
         Assert.assertArrayEquals(expectedLowerTransportPdu, actualTransportAccessPdu.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void late_duplicate_control_segment_isIgnored() {
+        final MeshTransport meshLayerTestBase = new MeshTransport(context, new ProvisionedMeshNode());
+        final int sequenceNumber = 0x000010;
+
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 0), 0));
+        Assert.assertNotNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 1), 0));
+
+        //Retransmitted segments of the message already received must not start a new reassembly
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 0), 0));
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 1), 0));
+
+        //While the next message from the same source is reassembled
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber + 2, 0), 0));
+        Assert.assertNotNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber + 2, 1), 0));
+    }
+
+    @Test
+    public void segment_outside_of_the_message_isDropped() {
+        final MeshTransport meshLayerTestBase = new MeshTransport(context, new ProvisionedMeshNode());
+        final int sequenceNumber = 0x000010;
+
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 2, 1), 0));
+        //The dropped segment must not count towards the segments received
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 0), 0));
+        Assert.assertNotNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 1), 0));
+    }
+
+    @Test
+    public void segment_with_another_segN_isDropped() {
+        final MeshTransport meshLayerTestBase = new MeshTransport(context, new ProvisionedMeshNode());
+        final int sequenceNumber = 0x000010;
+
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 0), 0));
+        Assert.assertNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 1, 2), 0));
+        Assert.assertNotNull(meshLayerTestBase.parseSegmentedControlLowerTransportPDU(new byte[0], createControlSegment(sequenceNumber, 1), 0));
+    }
+
+    /**
+     * Creates a decrypted segment of a two segment control message sent from 0x0001 to the group address 0xC000.
+     */
+    private static byte[] createControlSegment(final int sequenceNumber, final int segO) {
+        return createControlSegment(sequenceNumber, segO, 1);
+    }
+
+    /**
+     * Creates a decrypted segment of a control message sent from 0x0001 to the group address 0xC000.
+     */
+    private static byte[] createControlSegment(final int sequenceNumber, final int segO, final int segN) {
+        final int seqZero = sequenceNumber & 0x1FFF;
+        return new byte[]{
+                0x00, 0x00, 0x05,
+                (byte) (sequenceNumber >> 16), (byte) (sequenceNumber >> 8), (byte) sequenceNumber,
+                0x00, 0x01, (byte) 0xC0, 0x00,
+                (byte) 0x8A,
+                (byte) ((seqZero >> 6) & 0x7F),
+                (byte) (((seqZero & 0x3F) << 2) | (segO >> 3)),
+                (byte) (((segO & 0x07) << 5) | segN),
+                0x01, 0x02, 0x03, 0x04};
+    }
+}
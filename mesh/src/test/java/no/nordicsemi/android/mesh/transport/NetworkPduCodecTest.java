@@ -0,0 +1,37 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import no.nordicsemi.android.mesh.MeshManagerApi;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkPduCodecTest {
+
+    //Message #1 of the sample data in the mesh profile specification
+    private static final byte[] IV_INDEX = MeshParserUtils.toByteArray("12345678");
+    private static final byte[] ENCRYPTION_KEY = MeshParserUtils.toByteArray("0953FA93E7CAAC9638F58820220A398E");
+    private static final byte[] PRIVACY_KEY = MeshParserUtils.toByteArray("8B84EEDEC100067D670971DD2AA700CF");
+    private static final byte[] SEQUENCE_NUMBER = MeshParserUtils.toByteArray("000001");
+    private static final byte[] TRANSPORT_PDU = MeshParserUtils.toByteArray("034B50057E400000010000");
+    private static final byte[] NETWORK_PDU = MeshParserUtils.toByteArray("0068ECA487516765B5E5BFDACBAF6CB7FB6BFF871F035444CE83A670DF");
+
+    @Test
+    public void network_pdu_is_encoded_in_to_buffer() {
+        final byte[] out = new byte[NetworkPduCodec.getNetworkPduLength(TRANSPORT_PDU.length, 8) + 1];
+        final int length = NetworkPduCodec.get().encodeNetworkPdu(MeshManagerApi.PDU_TYPE_NETWORK, 0x68, (byte) 0x80, SEQUENCE_NUMBER,
+                0x1201, 0xFFFD, TRANSPORT_PDU, IV_INDEX, ENCRYPTION_KEY, PRIVACY_KEY, 8, out, 1);
+        assertEquals(NETWORK_PDU.length, length);
+        assertTrue(Arrays.equals(NETWORK_PDU, Arrays.copyOfRange(out, 1, out.length)));
+    }
+
+    @Test
+    public void network_header_is_deobfuscated() {
+        final byte[] header = NetworkPduCodec.get().deObfuscateNetworkHeader(NETWORK_PDU, IV_INDEX, PRIVACY_KEY);
+        assertEquals("800000011201", MeshParserUtils.bytesToHex(header, false));
+    }
+}
@@ -0,0 +1,103 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import no.nordicsemi.android.mesh.NetworkKey;
+import no.nordicsemi.android.mesh.utils.MeshParserUtils;
+import no.nordicsemi.android.mesh.utils.SecureUtils;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class NidTableTest {
+
+    private final NidTable table = new NidTable();
+    private final List<NetworkKey> keys = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        keys.add(new NetworkKey(0, MeshParserUtils.toByteArray("7dd7364cd842ad18c17c2b820c84c3d6")));
+    }
+
+    private static int nid(final SecureUtils.K2Output k2Output) {
+        return k2Output.getNid() & 0x7F;
+    }
+
+    @Test
+    public void entries_are_resolved_by_nid() {
+        table.update(keys, 0);
+        final NetworkKey key = keys.get(0);
+        final NidTable.Entry entry = table.get(nid(key.getDerivatives()));
+        assertNotNull(entry);
+        assertSame(key, entry.networkKey);
+        assertSame(key.getDerivatives(), entry.k2Output);
+        assertNull(entry.next);
+        assertNull(table.get(nid(key.getDerivatives()) ^ 0x01));
+    }
+
+    @Test
+    public void table_is_rebuilt_when_the_keys_change() {
+        table.update(keys, 0);
+        final NetworkKey first = keys.get(0);
+        final NetworkKey second = new NetworkKey(1, MeshParserUtils.toByteArray("f7a2a44f8e8a8029064f173ddc1e2b00"));
+        keys.add(second);
+        table.update(keys, 0);
+        assertSame(second, table.get(nid(second.getDerivatives())).networkKey);
+
+        //The old key is kept during a key refresh procedure
+        final byte[] oldKey = first.getKey();
+        first.setKey(MeshParserUtils.toByteArray("efb2255e6422d330088e09bb015ed707"));
+        first.setOldKey(oldKey);
+        table.update(keys, 0);
+        assertNotNull(findEntry(nid(first.getDerivatives()), first.getDerivatives()));
+        assertNotNull(findEntry(nid(first.getOldDerivatives()), first.getOldDerivatives()));
+
+        keys.remove(second);
+        table.update(keys, 0);
+        assertNull(findEntry(nid(second.getDerivatives()), second.getDerivatives()));
+    }
+
+    @Test
+    public void matching_ivi_uses_the_current_iv_index() {
+        table.update(keys, 5);
+        assertEquals(5, table.getIvIndex(1));
+        assertEquals(-1, table.getAlternativeIvIndex(1));
+        assertArrayEquals(MeshParserUtils.intToBytes(5), table.getIvIndexBytes(5));
+    }
+
+    @Test
+    public void other_ivi_uses_the_previous_then_the_next_iv_index() {
+        table.update(keys, 5);
+        assertEquals(4, table.getIvIndex(0));
+        assertEquals(6, table.getAlternativeIvIndex(0));
+        assertArrayEquals(MeshParserUtils.intToBytes(4), table.getIvIndexBytes(4));
+        assertArrayEquals(MeshParserUtils.intToBytes(6), table.getIvIndexBytes(6));
+    }
+
+    @Test
+    public void other_ivi_on_iv_index_zero_uses_the_next_iv_index() {
+        table.update(keys, 0);
+        assertEquals(0, table.getIvIndex(0));
+        assertEquals(-1, table.getAlternativeIvIndex(0));
+        assertEquals(1, table.getIvIndex(1));
+        assertEquals(-1, table.getAlternativeIvIndex(1));
+        assertArrayEquals(MeshParserUtils.intToBytes(1), table.getIvIndexBytes(1));
+    }
+
+    private NidTable.Entry findEntry(final int nid, final SecureUtils.K2Output k2Output) {
+        for (NidTable.Entry entry = table.get(nid); entry != null; entry = entry.next) {
+            if (entry.k2Output == k2Output)
+                return entry;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OpCodeTableTest {
+
+    @Test
+    public void get_returns_registered_handlers_after_resize() {
+        final OpCodeTable<String> table = new OpCodeTable<>(2);
+        for (int i = 0; i < 100; i++) {
+            table.put(0x8000 + i, "handler" + i);
+        }
+        assertEquals(100, table.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("handler" + i, table.get(0x8000 + i));
+        }
+        assertNull(table.get(0x02));
+    }
+
+    @Test
+    public void remove_keeps_colliding_entries_reachable() {
+        final OpCodeTable<String> table = new OpCodeTable<>(4);
+        for (int i = 0; i < 4; i++) {
+            table.put(0xC00059 + i, "handler" + i);
+        }
+        assertTrue(table.remove(0xC00059));
+        assertFalse(table.remove(0xC00059));
+        assertEquals(3, table.size());
+        assertNull(table.get(0xC00059));
+        for (int i = 1; i < 4; i++) {
+            assertEquals("handler" + i, table.get(0xC00059 + i));
+        }
+    }
+}
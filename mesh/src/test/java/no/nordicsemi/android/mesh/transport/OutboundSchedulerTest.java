@@ -0,0 +1,200 @@
+package no.nordicsemi.android.mesh.transport;
+
+import android.os.Handler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import no.nordicsemi.android.mesh.utils.MeshMetrics;
+import no.nordicsemi.android.mesh.utils.TimingWheel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OutboundSchedulerTest {
+
+    private static final int SRC = 0x0001;
+    private static final int REQUEST = 0x8008;
+    private static final int STATUS = 0x8009;
+
+    private final List<Integer> sent = new ArrayList<>();
+    private int unknownSrc;
+    private OutboundScheduler scheduler;
+
+    private static final class TestMessage extends MeshMessage {
+        private final int opCode;
+
+        TestMessage(final int opCode) {
+            this.opCode = opCode;
+        }
+
+        @Override
+        int getAkf() {
+            return 0;
+        }
+
+        @Override
+        int getAid() {
+            return 0;
+        }
+
+        @Override
+        public int getOpCode() {
+            return opCode;
+        }
+
+        @Override
+        byte[] getParameters() {
+            return null;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        scheduler = new OutboundScheduler(new TimingWheel(new Handler()), new OutboundScheduler.Sender() {
+            @Override
+            public void send(final int src, final int dst, final UUID label, final MeshMessage meshMessage) {
+                if (src == unknownSrc)
+                    throw new IllegalArgumentException("No node found for the source address");
+                sent.add(dst);
+            }
+        });
+    }
+
+    @Test
+    public void messages_to_the_same_destination_are_sent_in_order() {
+        scheduler.setWindow(4);
+        final MeshMessageFuture first = scheduler.enqueue(SRC, 0x0002, null, new TestMessage(REQUEST), STATUS);
+        final MeshMessageFuture second = scheduler.enqueue(SRC, 0x0002, null, new TestMessage(REQUEST), STATUS);
+        scheduler.enqueue(SRC, 0x0003, null, new TestMessage(REQUEST), STATUS);
+        assertEquals(2, scheduler.getInFlightCount());
+        assertEquals(1, scheduler.getQueuedCount());
+
+        //A status from another node must not complete the message
+        scheduler.onMeshMessageReceived(0x0004, new TestMessage(STATUS));
+        assertFalse(first.isDone());
+
+        final TestMessage status = new TestMessage(STATUS);
+        scheduler.onMeshMessageReceived(0x0002, status);
+        assertTrue(first.isDone());
+        assertSame(status, first.getStatus());
+        assertFalse(second.isDone());
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(3, sent.size());
+        assertEquals(Integer.valueOf(0x0002), sent.get(2));
+    }
+
+    @Test
+    public void global_window_limits_messages_in_flight() {
+        scheduler.setWindow(2);
+        for (int i = 0; i < 5; i++) {
+            scheduler.enqueue(SRC, 0x0002 + i, null, new TestMessage(REQUEST), STATUS);
+        }
+        assertEquals(2, scheduler.getInFlightCount());
+        assertEquals(3, scheduler.getQueuedCount());
+        scheduler.onMeshMessageReceived(0x0003, new TestMessage(STATUS));
+        assertEquals(2, scheduler.getInFlightCount());
+        assertEquals(Integer.valueOf(0x0004), sent.get(2));
+    }
+
+    @Test
+    public void message_times_out_after_retries() throws InterruptedException {
+        scheduler.setTimeout(1000, 1);
+        final MeshMessageFuture future = scheduler.enqueue(SRC, 0x0002, null, new TestMessage(REQUEST), STATUS);
+        scheduler.onTimeout(future);
+        assertEquals(2, future.getAttempts());
+        assertFalse(future.isDone());
+        scheduler.onTimeout(future);
+        assertTrue(future.isTimedOut());
+        assertEquals(0, scheduler.getInFlightCount());
+        try {
+            future.get();
+            fail("Expected a timeout");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void round_trip_time_is_measured_from_the_last_attempt() throws InterruptedException {
+        final boolean enabled = MeshMetrics.isEnabled();
+        MeshMetrics.reset();
+        MeshMetrics.setEnabled(true);
+        try {
+            scheduler.setTimeout(1000, 1);
+            final MeshMessageFuture future = scheduler.enqueue(SRC, 0x0002, null, new TestMessage(REQUEST), STATUS);
+            Thread.sleep(100);
+            scheduler.onTimeout(future);
+            scheduler.onMeshMessageReceived(0x0002, new TestMessage(STATUS));
+            assertTrue(future.isDone());
+            final MeshMetrics.HistogramSnapshot roundTripTime = MeshMetrics.snapshot().getRoundTripTime(REQUEST);
+            assertEquals(1, roundTripTime.getCount());
+            //The time waited for the status of the first attempt is not included
+            assertTrue(roundTripTime.getMax() < 100000);
+        } finally {
+            MeshMetrics.setEnabled(enabled);
+            MeshMetrics.reset();
+        }
+    }
+
+    @Test
+    public void unacknowledged_messages_complete_when_sent() throws Exception {
+        final MeshMessageFuture future = scheduler.enqueue(SRC, 0xC000, null, new TestMessage(REQUEST), MeshMessageFuture.NO_STATUS);
+        assertTrue(future.isDone());
+        assertNull(future.get());
+        assertEquals(0, scheduler.getInFlightCount());
+    }
+
+    @Test
+    public void unacknowledged_messages_to_a_node_wait_for_the_message_in_flight() {
+        final MeshMessageFuture acknowledged = scheduler.enqueue(SRC, 0x0002, null, new TestMessage(REQUEST), STATUS);
+        final MeshMessageFuture unacknowledged = scheduler.enqueue(SRC, 0x0002, null, new TestMessage(REQUEST), MeshMessageFuture.NO_STATUS);
+        assertFalse(unacknowledged.isDone());
+        assertEquals(1, scheduler.getQueuedCount());
+
+        //Messages to a group address are not held back
+        final MeshMessageFuture group = scheduler.enqueue(SRC, 0xC000, null, new TestMessage(REQUEST), MeshMessageFuture.NO_STATUS);
+        assertTrue(group.isDone());
+
+        scheduler.onMeshMessageReceived(0x0002, new TestMessage(STATUS));
+        assertTrue(acknowledged.isDone());
+        assertTrue(unacknowledged.isDone());
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(3, sent.size());
+    }
+
+    @Test
+    public void message_that_can_not_be_sent_fails() throws Exception {
+        scheduler.setWindow(1);
+        unknownSrc = 0x0005;
+        final MeshMessageFuture failed = scheduler.enqueue(unknownSrc, 0x0002, null, new TestMessage(REQUEST), STATUS);
+        assertTrue(failed.isDone());
+        assertFalse(failed.isTimedOut());
+        assertTrue(failed.getFailureCause() instanceof IllegalArgumentException);
+        try {
+            failed.get();
+            fail("Expected the message to fail");
+        } catch (ExecutionException e) {
+            assertSame(failed.getFailureCause(), e.getCause());
+        }
+
+        //The message does not keep its slot in the window
+        final MeshMessageFuture next = scheduler.enqueue(SRC, 0x0002, null, new TestMessage(REQUEST), STATUS);
+        assertEquals(1, scheduler.getInFlightCount());
+        assertFalse(next.isDone());
+        final MeshMessageFuture unacknowledged = scheduler.enqueue(unknownSrc, 0xC000, null, new TestMessage(REQUEST), MeshMessageFuture.NO_STATUS);
+        assertNotNull(unacknowledged.getFailureCause());
+        assertEquals(1, sent.size());
+    }
+}
@@ -0,0 +1,54 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReassemblyTableTest {
+
+    private final List<ReassemblyTable.Entry> evicted = new ArrayList<>();
+
+    @Test
+    public void entries_from_different_sources_are_kept_separately() {
+        final ReassemblyTable table = new ReassemblyTable(4, evicted::add);
+        final ReassemblyTable.Entry first = table.create(0x0001, 100, 100, 3);
+        final ReassemblyTable.Entry second = table.create(0x0002, 100, 100, 3);
+
+        assertEquals(2, table.size());
+        assertSame(first, table.get(0x0001, 100));
+        assertSame(second, table.get(0x0002, 100));
+        assertTrue(evicted.isEmpty());
+    }
+
+    @Test
+    public void new_seq_auth_supersedes_entry_from_same_source() {
+        final ReassemblyTable table = new ReassemblyTable(4, evicted::add);
+        final ReassemblyTable.Entry first = table.create(0x0001, 100, 100, 3);
+        table.create(0x0001, 200, 200, 3);
+
+        assertEquals(1, table.size());
+        assertNull(table.get(0x0001, 100));
+        assertEquals(1, evicted.size());
+        assertSame(first, evicted.get(0));
+    }
+
+    @Test
+    public void least_recently_used_entry_is_evicted() {
+        final ReassemblyTable table = new ReassemblyTable(2, evicted::add);
+        table.create(0x0001, 100, 100, 3);
+        final ReassemblyTable.Entry second = table.create(0x0002, 100, 100, 3);
+        //Touch the first entry so that the second one becomes the eldest
+        table.get(0x0001, 100);
+        table.create(0x0003, 100, 100, 3);
+
+        assertEquals(2, table.size());
+        assertNull(table.get(0x0002, 100));
+        assertSame(second, evicted.get(0));
+    }
+}
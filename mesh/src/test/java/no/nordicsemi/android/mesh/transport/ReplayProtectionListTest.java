@@ -0,0 +1,55 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplayProtectionListTest {
+
+    private final ReplayProtectionList replayProtectionList = new ReplayProtectionList();
+
+    @Test
+    public void replayed_and_old_pdus_are_rejected() {
+        assertTrue(replayProtectionList.accept(0x0002, 5, 10));
+        assertFalse(replayProtectionList.accept(0x0002, 5, 10));
+        assertFalse(replayProtectionList.accept(0x0002, 5, 9));
+        assertFalse(replayProtectionList.accept(0x0002, 4, 100));
+        assertTrue(replayProtectionList.accept(0x0002, 5, 11));
+        //The sequence number starts over when the IV Index is incremented
+        assertTrue(replayProtectionList.accept(0x0002, 6, 0));
+        assertEquals(6, replayProtectionList.getIvIndex(0x0002));
+        assertEquals(0, replayProtectionList.getSequenceNumber(0x0002));
+    }
+
+    @Test
+    public void sources_are_tracked_independently() {
+        assertTrue(replayProtectionList.accept(0x0002, 0, 10));
+        assertTrue(replayProtectionList.accept(0x7FFF, 0, 1));
+        assertTrue(replayProtectionList.accept(0x0003, 0, 1));
+        assertEquals(3, replayProtectionList.size());
+        assertEquals(-1, replayProtectionList.getSequenceNumber(0x0004));
+        assertFalse(replayProtectionList.accept(0x0000, 0, 1));
+        assertFalse(replayProtectionList.accept(0xC000, 0, 1));
+    }
+
+    @Test
+    public void accepted_pdus_are_reported_to_the_listener() {
+        final List<String> updates = new ArrayList<>();
+        replayProtectionList.restore(0x0002, 1, 20);
+        replayProtectionList.setListener((src, ivIndex, sequenceNumber) -> updates.add(src + "/" + ivIndex + "/" + sequenceNumber));
+        assertFalse(replayProtectionList.accept(0x0002, 1, 20));
+        assertTrue(replayProtectionList.accept(0x0002, 1, 21));
+        assertEquals(1, updates.size());
+        assertEquals("2/1/21", updates.get(0));
+
+        final List<String> entries = new ArrayList<>();
+        replayProtectionList.forEach((src, ivIndex, sequenceNumber) -> entries.add(src + "/" + ivIndex + "/" + sequenceNumber));
+        assertEquals(1, entries.size());
+        assertEquals("2/1/21", entries.get(0));
+    }
+}
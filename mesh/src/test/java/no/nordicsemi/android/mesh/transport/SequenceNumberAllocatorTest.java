@@ -0,0 +1,48 @@
+package no.nordicsemi.android.mesh.transport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SequenceNumberAllocatorTest {
+
+    private final List<Integer> reservations = new ArrayList<>();
+    private final SequenceNumberAllocator.Reservations store = (address, limit) -> reservations.add(limit);
+
+    @Test
+    public void blocks_are_reserved_once_per_block() {
+        final SequenceNumberAllocator allocator = new SequenceNumberAllocator(0x0001, 0, 0, 10, store, Runnable::run);
+        for (int i = 1; i <= 25; i++) {
+            assertEquals(i, allocator.allocate());
+        }
+        //The first block is reserved before the first sequence number is used, the following ones half way through a block
+        assertEquals(3, reservations.size());
+        assertEquals(11, (int) reservations.get(0));
+        assertEquals(21, (int) reservations.get(1));
+        assertEquals(31, (int) reservations.get(2));
+        assertEquals(25, allocator.getSequenceNumber());
+    }
+
+    @Test
+    public void allocation_skips_the_reserved_block_on_restart() {
+        final SequenceNumberAllocator allocator = new SequenceNumberAllocator(0x0001, 0, 0, 10, store, Runnable::run);
+        allocator.allocate();
+        allocator.allocate();
+        final int limit = reservations.get(reservations.size() - 1);
+
+        final SequenceNumberAllocator restarted = new SequenceNumberAllocator(0x0001, limit, 2, 10, store, Runnable::run);
+        assertEquals(limit, restarted.allocate());
+    }
+
+    @Test
+    public void reset_restarts_allocation() {
+        final SequenceNumberAllocator allocator = new SequenceNumberAllocator(0x0001, 100, 50, 10, store, Runnable::run);
+        assertEquals(100, allocator.allocate());
+        allocator.reset(0);
+        assertEquals(1, allocator.allocate());
+        assertEquals(11, (int) reservations.get(reservations.size() - 1));
+    }
+}
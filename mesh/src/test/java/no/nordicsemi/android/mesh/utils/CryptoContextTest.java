@@ -0,0 +1,122 @@
+package no.nordicsemi.android.mesh.utils;
+
+import org.junit.Test;
+
+import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.engines.AESEngine;
+import org.spongycastle.crypto.macs.CMac;
+import org.spongycastle.crypto.modes.CCMBlockCipher;
+import org.spongycastle.crypto.params.AEADParameters;
+import org.spongycastle.crypto.params.KeyParameter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CryptoContextTest {
+
+    private final Random random = new Random(0x1234);
+
+    @Test
+    public void encrypt_ccm_matches_reference_implementation() throws InvalidCipherTextException {
+        final CryptoContext context = CryptoContext.get();
+        for (int length = 0; length <= 40; length++) {
+            for (int micSize : new int[]{4, 8}) {
+                final byte[] key = randomBytes(16);
+                final byte[] nonce = randomBytes(13);
+                final byte[] additionalData = length % 2 == 0 ? null : randomBytes(16);
+                final byte[] data = randomBytes(length);
+
+                final byte[] expected = referenceCCM(true, key, nonce, additionalData, data, micSize);
+                final byte[] encrypted = new byte[length + micSize];
+                context.encryptCCM(key, nonce, additionalData, data, 0, length, encrypted, 0, micSize);
+                assertArrayEquals(expected, encrypted);
+
+                final byte[] decrypted = new byte[length];
+                context.decryptCCM(key, nonce, additionalData, encrypted, 0, encrypted.length, decrypted, 0, micSize);
+                assertArrayEquals(data, decrypted);
+            }
+        }
+    }
+
+    @Test
+    public void decrypt_ccm_rejects_modified_mic() {
+        final byte[] key = randomBytes(16);
+        final byte[] nonce = randomBytes(13);
+        final byte[] encrypted = SecureUtils.encryptCCM(randomBytes(10), key, nonce, 4);
+        encrypted[encrypted.length - 1] ^= 0x01;
+        try {
+            SecureUtils.decryptCCM(encrypted, key, nonce, 4);
+            fail("MIC check should have failed");
+        } catch (InvalidCipherTextException expected) {
+        }
+    }
+
+    @Test
+    public void cmac_matches_reference_implementation_when_keys_are_evicted() {
+        final byte[] data = randomBytes(33);
+        //Use more keys than the context caches so that slots are reinitialized
+        for (int i = 0; i < 40; i++) {
+            final byte[] key = randomBytes(16);
+            final CMac cmac = new CMac(new AESEngine());
+            cmac.init(new KeyParameter(key));
+            cmac.update(data, 0, data.length);
+            final byte[] expected = new byte[16];
+            cmac.doFinal(expected, 0);
+
+            assertArrayEquals(expected, SecureUtils.calculateCMAC(data, key));
+            assertArrayEquals(expected, SecureUtils.calculateCMAC(data, key.clone()));
+        }
+    }
+
+    @Test
+    public void key_mutated_in_place_is_not_served_from_cache() {
+        final byte[] data = randomBytes(16);
+        final byte[] key = randomBytes(16);
+        final byte[] first = SecureUtils.calculateCMAC(data, key);
+        //Reuse the same array for a different key
+        key[0] ^= 0x01;
+        final byte[] second = SecureUtils.calculateCMAC(data, key);
+        assertFalse(Arrays.equals(first, second));
+        assertArrayEquals(second, SecureUtils.calculateCMAC(data, key.clone()));
+    }
+
+    @Test
+    public void clear_all_discards_cached_keys() {
+        final CryptoContext context = CryptoContext.get();
+        final byte[] key = randomBytes(16);
+        final byte[] block = randomBytes(16);
+        final byte[] expected = new byte[16];
+        context.encryptBlock(key, block, 0, expected, 0);
+        assertTrue(context.getCachedKeyCount() > 0);
+
+        CryptoContext.clearAll();
+        assertEquals(0, context.getCachedKeyCount());
+        final byte[] actual = new byte[16];
+        context.encryptBlock(key, block, 0, actual, 0);
+        assertArrayEquals(expected, actual);
+    }
+
+    private byte[] referenceCCM(final boolean encrypt, final byte[] key, final byte[] nonce,
+                                final byte[] additionalData, final byte[] data, final int micSize) throws InvalidCipherTextException {
+        final CCMBlockCipher cipher = new CCMBlockCipher(new AESEngine());
+        cipher.init(encrypt, new AEADParameters(new KeyParameter(key), micSize * 8, nonce, additionalData));
+        final byte[] output = new byte[cipher.getOutputSize(data.length)];
+        final int length = cipher.processBytes(data, 0, data.length, output, 0);
+        cipher.doFinal(output, length);
+        return output;
+    }
+
+    private byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
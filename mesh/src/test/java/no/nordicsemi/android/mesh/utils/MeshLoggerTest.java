@@ -0,0 +1,63 @@
+package no.nordicsemi.android.mesh.utils;
+
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MeshLoggerTest {
+
+    private final List<String> messages = new ArrayList<>();
+    private int initialLogLevel;
+
+    @Before
+    public void setUp() {
+        initialLogLevel = MeshLogger.getLogLevel();
+        MeshLogger.setLogger((priority, tag, message, throwable) -> messages.add(tag + ": " + message));
+    }
+
+    @After
+    public void tearDown() {
+        MeshLogger.setLogger(null);
+        MeshLogger.setLogLevel(initialLogLevel);
+    }
+
+    @Test
+    public void info_and_above_is_logged_by_default() {
+        assertEquals(Log.INFO, initialLogLevel);
+        assertTrue(MeshLogger.isLoggable(Log.INFO));
+        assertTrue(MeshLogger.isLoggable(Log.ERROR));
+        assertFalse(MeshLogger.isLoggable(Log.DEBUG));
+        assertFalse(MeshLogger.isLoggable(Log.VERBOSE));
+    }
+
+    @Test
+    public void message_below_log_level_is_not_built() {
+        MeshLogger.setLogLevel(Log.INFO);
+        MeshLogger.v("Test", () -> {
+            fail("Message must not be built below the log level");
+            return null;
+        });
+        MeshLogger.d("Test", "Dropped");
+        assertTrue(messages.isEmpty());
+    }
+
+    @Test
+    public void message_at_log_level_is_logged() {
+        MeshLogger.setLogLevel(Log.DEBUG);
+        MeshLogger.d("Test", () -> "Built " + 1);
+        MeshLogger.w("Test", "Warning");
+        assertEquals(2, messages.size());
+        assertEquals("Test: Built 1", messages.get(0));
+        assertEquals("Test: Warning", messages.get(1));
+    }
+}
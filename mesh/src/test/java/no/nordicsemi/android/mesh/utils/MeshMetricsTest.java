@@ -0,0 +1,102 @@
+package no.nordicsemi.android.mesh.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MeshMetricsTest {
+
+    @Before
+    public void setUp() {
+        MeshMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        MeshMetrics.setEnabled(true);
+        MeshMetrics.reset();
+    }
+
+    @Test
+    public void counters_are_snapshotted() {
+        MeshMetrics.onPduReceived(0);
+        MeshMetrics.onPduReceived(0);
+        MeshMetrics.onPduSent(3);
+        MeshMetrics.onPduReceived(0x3F);
+        MeshMetrics.onNidMiss();
+        final MeshMetrics.Snapshot snapshot = MeshMetrics.snapshot();
+        MeshMetrics.onNidMiss();
+        assertEquals(2, snapshot.getPdusReceived(0));
+        assertEquals(1, snapshot.getPdusSent(3));
+        assertEquals(1, snapshot.getNidMisses());
+        assertEquals(2, MeshMetrics.snapshot().getNidMisses());
+    }
+
+    @Test
+    public void network_flushes_are_counted() {
+        MeshMetrics.onNetworkFlushed(3, System.nanoTime());
+        MeshMetrics.onNetworkFlushed(1, System.nanoTime());
+        final MeshMetrics.Snapshot snapshot = MeshMetrics.snapshot();
+        assertEquals(2, snapshot.getNetworkFlushes());
+        assertEquals(4, snapshot.getRowsWritten());
+        assertEquals(2, snapshot.getFlushTime().getCount());
+    }
+
+    @Test
+    public void nothing_is_recorded_while_disabled() {
+        MeshMetrics.setEnabled(false);
+        MeshMetrics.onDecryptionFailed();
+        MeshMetrics.recordRoundTripTime(0x8008, System.nanoTime());
+        final MeshMetrics.Snapshot snapshot = MeshMetrics.snapshot();
+        assertEquals(0, snapshot.getDecryptionFailures());
+        assertNull(snapshot.getRoundTripTime(0x8008));
+    }
+
+    @Test
+    public void histogram_buckets() {
+        assertEquals(0, MeshMetrics.Histogram.getBucket(0));
+        assertEquals(1, MeshMetrics.Histogram.getBucket(1));
+        assertEquals(10, MeshMetrics.Histogram.getBucket(1000));
+        assertEquals(MeshMetrics.Histogram.BUCKET_COUNT - 1, MeshMetrics.Histogram.getBucket(Long.MAX_VALUE));
+
+        final MeshMetrics.Histogram histogram = new MeshMetrics.Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+        final MeshMetrics.HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(50000, snapshot.getMax());
+        assertEquals(128, snapshot.getPercentile(0.5));
+        assertEquals(128, snapshot.getPercentile(0.99));
+        assertEquals(50000, snapshot.getPercentile(1));
+    }
+
+    @Test
+    public void round_trip_times_are_recorded_per_op_code() {
+        final MeshMetrics.OpCodeHistograms histograms = new MeshMetrics.OpCodeHistograms();
+        final MeshMetrics.Histogram onOff = histograms.get(0x8202);
+        assertSame(onOff, histograms.get(0x8202));
+        histograms.get(0xC00059).record(TimeUnit.MILLISECONDS.toNanos(1));
+        histograms.get(0x8008).record(TimeUnit.MILLISECONDS.toNanos(2));
+        onOff.record(TimeUnit.MILLISECONDS.toNanos(3));
+        assertSame(onOff, histograms.get(0x8202));
+
+        assertEquals(3, histograms.snapshot().size());
+        assertEquals(1000, histograms.snapshot().get(0xC00059).getMax());
+        assertEquals(2000, histograms.snapshot().get(0x8008).getMax());
+        assertEquals(3000, histograms.snapshot().get(0x8202).getMax());
+
+        histograms.clear();
+        assertTrue(histograms.snapshot().isEmpty());
+        assertNotSame(onOff, histograms.get(0x8202));
+    }
+}
@@ -0,0 +1,82 @@
+package no.nordicsemi.android.mesh.utils;
+
+import android.os.Handler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+    private final List<String> expired = new ArrayList<>();
+    private TimingWheel wheel;
+
+    @Before
+    public void setUp() {
+        wheel = new TimingWheel(new Handler(), 10, 8);
+    }
+
+    private TimingWheel.Timer timer(final String name) {
+        return new TimingWheel.Timer(() -> expired.add(name));
+    }
+
+    @Test
+    public void timers_expire_in_order_of_deadline() {
+        wheel.schedule(timer("b"), 150, 0);
+        wheel.schedule(timer("a"), 25, 0);
+        //Beyond a single revolution of the wheel
+        wheel.schedule(timer("c"), 1000, 0);
+        assertEquals(3, wheel.getPendingCount());
+
+        wheel.advance(29);
+        assertTrue(expired.isEmpty());
+        wheel.advance(30);
+        assertEquals(1, expired.size());
+        wheel.advance(999);
+        assertEquals(2, expired.size());
+        wheel.advance(1000);
+        assertEquals(3, expired.size());
+        assertEquals("a", expired.get(0));
+        assertEquals("b", expired.get(1));
+        assertEquals("c", expired.get(2));
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    public void timers_can_be_cancelled_and_rescheduled() {
+        final TimingWheel.Timer timer = timer("a");
+        wheel.schedule(timer, 50, 0);
+        wheel.cancel(timer);
+        assertFalse(timer.isScheduled());
+        wheel.advance(100);
+        assertTrue(expired.isEmpty());
+
+        wheel.schedule(timer, 50, 100);
+        wheel.schedule(timer, 80, 120);
+        assertEquals(1, wheel.getPendingCount());
+        wheel.advance(150);
+        assertTrue(expired.isEmpty());
+        wheel.advance(200);
+        assertEquals(1, expired.size());
+        assertFalse(timer.isScheduled());
+    }
+
+    @Test
+    public void expiring_timer_may_cancel_another_in_the_same_tick() {
+        final TimingWheel.Timer second = timer("second");
+        wheel.schedule(new TimingWheel.Timer(() -> {
+            expired.add("first");
+            wheel.cancel(second);
+        }), 10, 0);
+        wheel.schedule(second, 10, 0);
+        wheel.advance(10);
+        assertEquals(1, expired.size());
+        assertEquals(0, wheel.getPendingCount());
+    }
+}